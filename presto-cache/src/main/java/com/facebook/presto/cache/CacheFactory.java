@@ -43,6 +43,7 @@ public class CacheFactory
 
         switch (cacheType) {
             case FILE_MERGE:
+            case TIERED:
                 return new FileMergeCachingFileSystem(
                         factoryUri,
                         factoryConfig,
@@ -26,6 +26,9 @@ public class CacheStats
     private final AtomicLong hit = new AtomicLong();
     private final AtomicLong miss = new AtomicLong();
     private final AtomicLong quotaExceed = new AtomicLong();
+    private final AtomicLong memoryCacheRetainedBytes = new AtomicLong();
+    private final AtomicLong memoryCacheHit = new AtomicLong();
+    private final AtomicLong memoryCacheMiss = new AtomicLong();
 
     public void incrementCacheHit()
     {
@@ -47,6 +50,21 @@ public class CacheStats
         inMemoryRetainedBytes.addAndGet(bytes);
     }
 
+    public void incrementMemoryCacheHit()
+    {
+        memoryCacheHit.getAndIncrement();
+    }
+
+    public void incrementMemoryCacheMiss()
+    {
+        memoryCacheMiss.getAndIncrement();
+    }
+
+    public void addMemoryCacheRetainedBytes(long bytes)
+    {
+        memoryCacheRetainedBytes.addAndGet(bytes);
+    }
+
     @Managed
     public long getInMemoryRetainedBytes()
     {
@@ -70,4 +88,40 @@ public class CacheStats
     {
         return quotaExceed.get();
     }
+
+    @Managed
+    public double getCacheHitRate()
+    {
+        return hitRate(hit.get(), miss.get());
+    }
+
+    @Managed
+    public long getMemoryCacheRetainedBytes()
+    {
+        return memoryCacheRetainedBytes.get();
+    }
+
+    @Managed
+    public long getMemoryCacheHit()
+    {
+        return memoryCacheHit.get();
+    }
+
+    @Managed
+    public long getMemoryCacheMiss()
+    {
+        return memoryCacheMiss.get();
+    }
+
+    @Managed
+    public double getMemoryCacheHitRate()
+    {
+        return hitRate(memoryCacheHit.get(), memoryCacheMiss.get());
+    }
+
+    private static double hitRate(long hits, long misses)
+    {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
 }
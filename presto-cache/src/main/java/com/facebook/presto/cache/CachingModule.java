@@ -17,6 +17,8 @@ import com.facebook.presto.cache.alluxio.AlluxioCacheConfig;
 import com.facebook.presto.cache.alluxio.AlluxioCachingConfigurationProvider;
 import com.facebook.presto.cache.filemerge.FileMergeCacheConfig;
 import com.facebook.presto.cache.filemerge.FileMergeCacheManager;
+import com.facebook.presto.cache.tiered.TieredCacheConfig;
+import com.facebook.presto.cache.tiered.TieredCacheManager;
 import com.facebook.presto.hive.DynamicConfigurationProvider;
 import com.google.inject.Binder;
 import com.google.inject.Module;
@@ -28,6 +30,7 @@ import javax.inject.Singleton;
 import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
 import static com.facebook.airlift.configuration.ConfigBinder.configBinder;
 import static com.facebook.presto.cache.CacheType.FILE_MERGE;
+import static com.facebook.presto.cache.CacheType.TIERED;
 import static com.google.inject.multibindings.Multibinder.newSetBinder;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.weakref.jmx.guice.ExportBinder.newExporter;
@@ -43,6 +46,7 @@ public class CachingModule
         configBinder(binder).bindConfig(CacheConfig.class);
         configBinder(binder).bindConfig(FileMergeCacheConfig.class);
         configBinder(binder).bindConfig(AlluxioCacheConfig.class);
+        configBinder(binder).bindConfig(TieredCacheConfig.class);
 
         newSetBinder(binder, DynamicConfigurationProvider.class).addBinding().to(AlluxioCachingConfigurationProvider.class).in(Scopes.SINGLETON);
 
@@ -52,16 +56,23 @@ public class CachingModule
     //TODO: how to inject something with having constructor with parameter.
     @Singleton
     @Provides
-    public CacheManager createCacheManager(CacheConfig cacheConfig, FileMergeCacheConfig fileMergeCacheConfig, CacheStats cacheStats)
+    public CacheManager createCacheManager(CacheConfig cacheConfig, FileMergeCacheConfig fileMergeCacheConfig, TieredCacheConfig tieredCacheConfig, CacheStats cacheStats)
     {
-        if (cacheConfig.isCachingEnabled() && cacheConfig.getCacheType() == FILE_MERGE) {
-            return new FileMergeCacheManager(
+        if (!cacheConfig.isCachingEnabled()) {
+            return new NoOpCacheManager();
+        }
+        if (cacheConfig.getCacheType() == FILE_MERGE || cacheConfig.getCacheType() == TIERED) {
+            FileMergeCacheManager fileMergeCacheManager = new FileMergeCacheManager(
                     cacheConfig,
                     fileMergeCacheConfig,
                     cacheStats,
                     newScheduledThreadPool(5, daemonThreadsNamed("hive-cache-flusher-%s")),
                     newScheduledThreadPool(1, daemonThreadsNamed("hive-cache-remover-%s")),
                     newScheduledThreadPool(1, daemonThreadsNamed("hive-cache-size-calculator-%s")));
+            if (cacheConfig.getCacheType() == TIERED) {
+                return new TieredCacheManager(tieredCacheConfig, fileMergeCacheManager, cacheStats);
+            }
+            return fileMergeCacheManager;
         }
         return new NoOpCacheManager();
     }
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cache.tiered;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * A count-min sketch of 4-bit counters estimating how often a key was accessed
+ * recently, as used by the TinyLFU admission policy. Every counter is halved once
+ * the number of recorded accesses reaches ten times the number of tracked entries,
+ * so the estimates follow the recent access pattern rather than the total history.
+ */
+@NotThreadSafe
+class FrequencySketch
+{
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+    private static final int MAX_FREQUENCY = 15;
+    private static final int MAX_TABLE_SIZE = 1 << 24;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    public FrequencySketch(int maximumEntries)
+    {
+        checkArgument(maximumEntries > 0, "maximumEntries must be positive");
+        int tableSize = max(highestOneBit(min(maximumEntries, MAX_TABLE_SIZE) - 1) << 1, 1);
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = (int) min(Integer.MAX_VALUE, 10L * maximumEntries);
+    }
+
+    public int frequency(long hash)
+    {
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long counterHash = counterHash(hash, i);
+            int shift = counterShift(counterHash);
+            frequency = min(frequency, (int) ((table[tableIndex(counterHash)] >>> shift) & 0xF));
+        }
+        return frequency;
+    }
+
+    public void increment(long hash)
+    {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long counterHash = counterHash(hash, i);
+            int index = tableIndex(counterHash);
+            int shift = counterShift(counterHash);
+            if (((table[index] >>> shift) & 0xF) < MAX_FREQUENCY) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset()
+    {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size >>>= 1;
+    }
+
+    private int tableIndex(long counterHash)
+    {
+        return (int) (counterHash >>> 32) & tableMask;
+    }
+
+    private static int counterShift(long counterHash)
+    {
+        // one of the 16 counters of the table entry
+        return ((int) counterHash & 0xF) << 2;
+    }
+
+    private static long counterHash(long hash, int i)
+    {
+        long counterHash = (hash + SEEDS[i]) * SEEDS[i];
+        return counterHash ^ (counterHash >>> 29);
+    }
+}
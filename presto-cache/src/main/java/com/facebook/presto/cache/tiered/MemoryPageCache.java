@@ -0,0 +1,378 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cache.tiered;
+
+import com.facebook.presto.cache.CacheStats;
+import com.facebook.presto.cache.FileReadRequest;
+import com.facebook.presto.hive.CacheQuota;
+import io.airlift.slice.Slice;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.fs.Path;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.Slices.allocate;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The memory tier of {@link TieredCacheManager}. Files are divided into fixed size
+ * pages, and each cached page keeps one contiguous range of its bytes on the heap, so
+ * small reads such as footers only take the memory they need.
+ * <p>
+ * Admission follows W-TinyLFU: new pages enter a small LRU window, and a page that
+ * falls out of the window only replaces pages of the main LRU segment when it has
+ * been read more often than every page it would evict. A large scan therefore
+ * cycles through the window without flushing frequently read data.
+ */
+@ThreadSafe
+class MemoryPageCache
+{
+    private static final int WINDOW_PERCENTAGE = 1;
+    private static final int MIN_SKETCH_ENTRIES = 1024;
+
+    private final long pageSize;
+    private final long windowCapacity;
+    private final long mainCapacity;
+    private final CacheStats stats;
+
+    @GuardedBy("this")
+    private final FrequencySketch sketch;
+    @GuardedBy("this")
+    private final LinkedHashMap<PageKey, Page> window = new LinkedHashMap<>(16, 0.75f, true);
+    @GuardedBy("this")
+    private final LinkedHashMap<PageKey, Page> main = new LinkedHashMap<>(16, 0.75f, true);
+    @GuardedBy("this")
+    private final Map<Long, Long> cacheScopeSizeInBytes = new HashMap<>();
+    @GuardedBy("this")
+    private long windowBytes;
+    @GuardedBy("this")
+    private long mainBytes;
+
+    public MemoryPageCache(DataSize capacity, DataSize pageSize, CacheStats stats)
+    {
+        checkArgument(pageSize.toBytes() > 0, "pageSize must be positive");
+        checkArgument(pageSize.toBytes() <= capacity.toBytes(), "pageSize is larger than capacity");
+        this.pageSize = pageSize.toBytes();
+        this.windowCapacity = max(capacity.toBytes() * WINDOW_PERCENTAGE / 100, this.pageSize);
+        this.mainCapacity = capacity.toBytes() - windowCapacity;
+        this.stats = requireNonNull(stats, "stats is null");
+        this.sketch = new FrequencySketch((int) min(Integer.MAX_VALUE, max(MIN_SKETCH_ENTRIES, capacity.toBytes() / this.pageSize)));
+    }
+
+    /**
+     * Copies the requested range into {@code buffer} if all of it is cached.
+     */
+    public boolean get(FileReadRequest request, byte[] buffer, int offset)
+    {
+        if (request.getLength() <= 0) {
+            return false;
+        }
+
+        long start = request.getOffset();
+        long end = start + request.getLength();
+        long firstPage = start / pageSize;
+        Page[] pages = new Page[toIntExact((end - 1) / pageSize - firstPage + 1)];
+
+        boolean hit = true;
+        synchronized (this) {
+            for (int i = 0; i < pages.length; i++) {
+                long pageIndex = firstPage + i;
+                PageKey key = new PageKey(request.getPath(), pageIndex);
+                sketch.increment(key.hash());
+
+                Page page = window.get(key);
+                if (page == null) {
+                    page = main.get(key);
+                }
+                long pageStart = pageIndex * pageSize;
+                if (page == null || !page.contains(max(start, pageStart), min(end, pageStart + pageSize))) {
+                    // keep going to record the access of the remaining pages
+                    hit = false;
+                }
+                pages[i] = page;
+            }
+        }
+        if (!hit) {
+            return false;
+        }
+
+        // pages are immutable, so they can be copied without holding the lock
+        for (Page page : pages) {
+            long from = max(start, page.getPosition());
+            long to = min(end, page.getEnd());
+            page.getData().getBytes(toIntExact(from - page.getPosition()), buffer, offset + toIntExact(from - start), toIntExact(to - from));
+        }
+        return true;
+    }
+
+    public void put(FileReadRequest request, Slice data, CacheQuota cacheQuota)
+    {
+        long start = request.getOffset();
+        long end = start + data.length();
+        for (long pageIndex = start / pageSize; pageIndex * pageSize < end; pageIndex++) {
+            long from = max(start, pageIndex * pageSize);
+            long to = min(end, (pageIndex + 1) * pageSize);
+            putPage(new PageKey(request.getPath(), pageIndex), from, data, toIntExact(from - start), toIntExact(to - from), cacheQuota);
+        }
+    }
+
+    private synchronized void putPage(PageKey key, long position, Slice data, int dataOffset, int length, CacheQuota cacheQuota)
+    {
+        boolean inMain = false;
+        Page existing = window.get(key);
+        if (existing == null) {
+            existing = main.get(key);
+            inMain = existing != null;
+        }
+
+        Page page;
+        if (existing == null) {
+            page = Page.copyOf(position, data, dataOffset, length, cacheQuota.getIdentifier());
+        }
+        else if (existing.contains(position, position + length)) {
+            return;
+        }
+        else if (position <= existing.getEnd() && position + length >= existing.getPosition()) {
+            page = existing.merge(position, data, dataOffset, length, cacheQuota.getIdentifier());
+        }
+        else if (length > existing.getSize()) {
+            // only one range is kept per page, prefer the larger one
+            page = Page.copyOf(position, data, dataOffset, length, cacheQuota.getIdentifier());
+        }
+        else {
+            return;
+        }
+
+        long scopeSize = cacheScopeSizeInBytes.getOrDefault(page.getCacheScope(), 0L);
+        if (existing != null && existing.getCacheScope() == page.getCacheScope()) {
+            scopeSize -= existing.getSize();
+        }
+        long newScopeSize = scopeSize + page.getSize();
+        if (cacheQuota.getQuota().map(quota -> newScopeSize > quota.toBytes()).orElse(false)) {
+            return;
+        }
+
+        if (existing != null) {
+            if (inMain) {
+                main.remove(key);
+                mainBytes -= existing.getSize();
+            }
+            else {
+                window.remove(key);
+                windowBytes -= existing.getSize();
+            }
+            release(existing);
+        }
+
+        track(page);
+        if (inMain) {
+            main.put(key, page);
+            mainBytes += page.getSize();
+            evictMain();
+        }
+        else {
+            window.put(key, page);
+            windowBytes += page.getSize();
+            evictWindow();
+        }
+    }
+
+    @GuardedBy("this")
+    private void evictWindow()
+    {
+        while (windowBytes > windowCapacity) {
+            Iterator<Entry<PageKey, Page>> iterator = window.entrySet().iterator();
+            Entry<PageKey, Page> candidate = iterator.next();
+            iterator.remove();
+            windowBytes -= candidate.getValue().getSize();
+            if (!admitToMain(candidate.getKey(), candidate.getValue())) {
+                release(candidate.getValue());
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private boolean admitToMain(PageKey key, Page page)
+    {
+        long requiredBytes = mainBytes + page.getSize() - mainCapacity;
+        if (requiredBytes > 0) {
+            if (page.getSize() > mainCapacity) {
+                return false;
+            }
+
+            // the candidate has to be more popular than all the pages it replaces
+            int candidateFrequency = sketch.frequency(key.hash());
+            long victimBytes = 0;
+            int victimCount = 0;
+            for (Entry<PageKey, Page> victim : main.entrySet()) {
+                if (victimBytes >= requiredBytes) {
+                    break;
+                }
+                if (sketch.frequency(victim.getKey().hash()) >= candidateFrequency) {
+                    return false;
+                }
+                victimBytes += victim.getValue().getSize();
+                victimCount++;
+            }
+
+            Iterator<Page> victims = main.values().iterator();
+            for (int i = 0; i < victimCount; i++) {
+                Page victim = victims.next();
+                victims.remove();
+                mainBytes -= victim.getSize();
+                release(victim);
+            }
+        }
+
+        main.put(key, page);
+        mainBytes += page.getSize();
+        return true;
+    }
+
+    @GuardedBy("this")
+    private void evictMain()
+    {
+        Iterator<Page> victims = main.values().iterator();
+        while (mainBytes > mainCapacity) {
+            Page victim = victims.next();
+            victims.remove();
+            mainBytes -= victim.getSize();
+            release(victim);
+        }
+    }
+
+    @GuardedBy("this")
+    private void track(Page page)
+    {
+        cacheScopeSizeInBytes.merge(page.getCacheScope(), page.getSize(), Long::sum);
+        stats.addMemoryCacheRetainedBytes(page.getSize());
+    }
+
+    @GuardedBy("this")
+    private void release(Page page)
+    {
+        cacheScopeSizeInBytes.computeIfPresent(page.getCacheScope(), (scope, size) -> size == page.getSize() ? null : size - page.getSize());
+        stats.addMemoryCacheRetainedBytes(-page.getSize());
+    }
+
+    private static class PageKey
+    {
+        private final Path path;
+        private final long pageIndex;
+
+        public PageKey(Path path, long pageIndex)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.pageIndex = pageIndex;
+        }
+
+        public long hash()
+        {
+            return 31L * path.hashCode() + pageIndex;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, pageIndex);
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (this == object) {
+                return true;
+            }
+            if (object == null || getClass() != object.getClass()) {
+                return false;
+            }
+            PageKey other = (PageKey) object;
+            return pageIndex == other.pageIndex && path.equals(other.path);
+        }
+    }
+
+    private static class Page
+    {
+        // position of the first cached byte in the file
+        private final long position;
+        private final Slice data;
+        private final long cacheScope;
+
+        private Page(long position, Slice data, long cacheScope)
+        {
+            this.position = position;
+            this.data = requireNonNull(data, "data is null");
+            this.cacheScope = cacheScope;
+        }
+
+        public static Page copyOf(long position, Slice data, int dataOffset, int length, long cacheScope)
+        {
+            Slice copy = allocate(length);
+            copy.setBytes(0, data, dataOffset, length);
+            return new Page(position, copy, cacheScope);
+        }
+
+        public Page merge(long position, Slice data, int dataOffset, int length, long cacheScope)
+        {
+            long mergedPosition = min(this.position, position);
+            long mergedEnd = max(getEnd(), position + length);
+            Slice merged = allocate(toIntExact(mergedEnd - mergedPosition));
+            merged.setBytes(toIntExact(this.position - mergedPosition), this.data);
+            merged.setBytes(toIntExact(position - mergedPosition), data, dataOffset, length);
+            return new Page(mergedPosition, merged, cacheScope);
+        }
+
+        public long getPosition()
+        {
+            return position;
+        }
+
+        public long getEnd()
+        {
+            return position + data.length();
+        }
+
+        public Slice getData()
+        {
+            return data;
+        }
+
+        public long getSize()
+        {
+            return data.length();
+        }
+
+        public long getCacheScope()
+        {
+            return cacheScope;
+        }
+
+        public boolean contains(long from, long to)
+        {
+            return position <= from && to <= getEnd();
+        }
+    }
+}
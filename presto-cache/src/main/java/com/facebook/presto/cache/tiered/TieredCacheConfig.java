@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cache.tiered;
+
+import com.facebook.airlift.configuration.Config;
+import com.facebook.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+
+import javax.validation.constraints.AssertTrue;
+
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class TieredCacheConfig
+{
+    // the pages are not reserved from a memory pool, so the tier has to fit in the heap headroom
+    private static final double MAX_HEAP_FRACTION = 0.1;
+
+    private DataSize memoryCacheSize = new DataSize(64, MEGABYTE);
+    private DataSize pageSize = new DataSize(1, MEGABYTE);
+
+    @MinDataSize("1MB")
+    public DataSize getMemoryCacheSize()
+    {
+        return memoryCacheSize;
+    }
+
+    @Config("cache.tiered.memory-cache-size")
+    @ConfigDescription("Heap memory used by the memory tier of the tiered cache, at most 10% of the maximum heap size")
+    public TieredCacheConfig setMemoryCacheSize(DataSize memoryCacheSize)
+    {
+        this.memoryCacheSize = memoryCacheSize;
+        return this;
+    }
+
+    @MinDataSize("4kB")
+    @MaxDataSize("1GB")
+    public DataSize getPageSize()
+    {
+        return pageSize;
+    }
+
+    @Config("cache.tiered.page-size")
+    @ConfigDescription("Size of the file pages kept by the memory tier of the tiered cache")
+    public TieredCacheConfig setPageSize(DataSize pageSize)
+    {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    @AssertTrue(message = "cache.tiered.page-size must not be larger than cache.tiered.memory-cache-size")
+    public boolean isPageSizeValid()
+    {
+        return pageSize.toBytes() <= memoryCacheSize.toBytes();
+    }
+
+    @AssertTrue(message = "cache.tiered.memory-cache-size must not be larger than 10% of the maximum heap size")
+    public boolean isMemoryCacheSizeValid()
+    {
+        return memoryCacheSize.toBytes() <= Runtime.getRuntime().maxMemory() * MAX_HEAP_FRACTION;
+    }
+}
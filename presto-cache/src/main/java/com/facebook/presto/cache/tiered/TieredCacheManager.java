@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cache.tiered;
+
+import com.facebook.presto.cache.CacheManager;
+import com.facebook.presto.cache.CacheResult;
+import com.facebook.presto.cache.CacheStats;
+import com.facebook.presto.cache.FileReadRequest;
+import com.facebook.presto.cache.filemerge.FileMergeCacheManager;
+import com.facebook.presto.hive.CacheQuota;
+import io.airlift.slice.Slice;
+
+import javax.annotation.PreDestroy;
+
+import static com.facebook.presto.cache.CacheResult.HIT;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A two tier cache with a heap memory tier in front of the local disk cache of
+ * {@link FileMergeCacheManager}. Reads are served from memory when possible; ranges
+ * found on disk are promoted to memory, and new data is written to both tiers. Each
+ * tier enforces the cache quota on its own. The memory tier is not reserved from a
+ * memory pool, so its size is limited to a small fraction of the heap and its retained
+ * bytes are reported through {@link CacheStats}.
+ */
+public class TieredCacheManager
+        implements CacheManager
+{
+    private final MemoryPageCache memoryCache;
+    private final FileMergeCacheManager diskCache;
+    private final CacheStats stats;
+
+    public TieredCacheManager(TieredCacheConfig tieredCacheConfig, FileMergeCacheManager diskCache, CacheStats stats)
+    {
+        requireNonNull(tieredCacheConfig, "tieredCacheConfig is null");
+        this.stats = requireNonNull(stats, "stats is null");
+        this.memoryCache = new MemoryPageCache(tieredCacheConfig.getMemoryCacheSize(), tieredCacheConfig.getPageSize(), stats);
+        this.diskCache = requireNonNull(diskCache, "diskCache is null");
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        diskCache.destroy();
+    }
+
+    @Override
+    public CacheResult get(FileReadRequest request, byte[] buffer, int offset, CacheQuota cacheQuota)
+    {
+        if (memoryCache.get(request, buffer, offset)) {
+            stats.incrementMemoryCacheHit();
+            return HIT;
+        }
+        stats.incrementMemoryCacheMiss();
+
+        CacheResult result = diskCache.get(request, buffer, offset, cacheQuota);
+        if (result == HIT) {
+            memoryCache.put(request, wrappedBuffer(buffer, offset, request.getLength()), cacheQuota);
+        }
+        return result;
+    }
+
+    @Override
+    public void put(FileReadRequest request, Slice data, CacheQuota cacheQuota)
+    {
+        memoryCache.put(request, data, cacheQuota);
+        diskCache.put(request, data, cacheQuota);
+    }
+}
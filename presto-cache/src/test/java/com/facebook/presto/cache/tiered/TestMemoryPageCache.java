@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cache.tiered;
+
+import com.facebook.presto.cache.CacheStats;
+import com.facebook.presto.cache.FileReadRequest;
+import com.facebook.presto.hive.CacheQuota;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.fs.Path;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static com.facebook.presto.cache.TestingCacheUtils.validateBuffer;
+import static com.facebook.presto.hive.CacheQuota.NO_CACHE_CONSTRAINTS;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestMemoryPageCache
+{
+    private static final int PAGE_SIZE = 1024;
+    private static final Path PATH = new Path("/data");
+
+    private final byte[] data = new byte[256 * PAGE_SIZE];
+
+    public TestMemoryPageCache()
+    {
+        new Random(42).nextBytes(data);
+    }
+
+    @Test
+    public void testPartialPages()
+    {
+        CacheStats stats = new CacheStats();
+        MemoryPageCache cache = memoryPageCache(new DataSize(16, KILOBYTE), stats);
+        byte[] buffer = new byte[4 * PAGE_SIZE];
+
+        // footer sized read only keeps the bytes that were read
+        assertFalse(read(cache, NO_CACHE_CONSTRAINTS, 100, buffer, 0, 50));
+        assertEquals(stats.getMemoryCacheRetainedBytes(), 50);
+        assertTrue(read(cache, NO_CACHE_CONSTRAINTS, 110, buffer, 0, 30));
+        validateBuffer(data, 110, buffer, 0, 30);
+
+        // adjacent ranges of the same page are merged
+        assertFalse(read(cache, NO_CACHE_CONSTRAINTS, 150, buffer, 0, 100));
+        assertEquals(stats.getMemoryCacheRetainedBytes(), 150);
+        assertTrue(read(cache, NO_CACHE_CONSTRAINTS, 120, buffer, 5, 100));
+        validateBuffer(data, 120, buffer, 5, 100);
+
+        // reads spanning several pages
+        assertFalse(read(cache, NO_CACHE_CONSTRAINTS, PAGE_SIZE - 10, buffer, 0, 2 * PAGE_SIZE + 20));
+        assertTrue(read(cache, NO_CACHE_CONSTRAINTS, PAGE_SIZE, buffer, 0, 2 * PAGE_SIZE));
+        validateBuffer(data, PAGE_SIZE, buffer, 0, 2 * PAGE_SIZE);
+        assertFalse(read(cache, NO_CACHE_CONSTRAINTS, PAGE_SIZE, buffer, 0, 3 * PAGE_SIZE + 20));
+    }
+
+    @Test
+    public void testScanResistance()
+    {
+        CacheStats stats = new CacheStats();
+        MemoryPageCache cache = memoryPageCache(new DataSize(16, KILOBYTE), stats);
+        byte[] buffer = new byte[PAGE_SIZE];
+
+        for (int round = 0; round < 4; round++) {
+            for (int page = 0; page < 10; page++) {
+                read(cache, NO_CACHE_CONSTRAINTS, page * PAGE_SIZE, buffer, 0, PAGE_SIZE);
+            }
+        }
+
+        // a scan of pages that are read once does not evict the frequently read pages
+        for (int page = 10; page < 256; page++) {
+            assertFalse(read(cache, NO_CACHE_CONSTRAINTS, page * PAGE_SIZE, buffer, 0, PAGE_SIZE));
+        }
+        for (int page = 0; page < 10; page++) {
+            assertTrue(read(cache, NO_CACHE_CONSTRAINTS, page * PAGE_SIZE, buffer, 0, PAGE_SIZE));
+            validateBuffer(data, page * PAGE_SIZE, buffer, 0, PAGE_SIZE);
+        }
+        assertTrue(stats.getMemoryCacheRetainedBytes() <= 16 * PAGE_SIZE);
+    }
+
+    @Test
+    public void testQuota()
+    {
+        CacheStats stats = new CacheStats();
+        MemoryPageCache cache = memoryPageCache(new DataSize(16, KILOBYTE), stats);
+        byte[] buffer = new byte[4 * PAGE_SIZE];
+
+        CacheQuota cacheQuota = new CacheQuota("test.table", Optional.of(new DataSize(2 * PAGE_SIZE, BYTE)));
+        assertFalse(read(cache, cacheQuota, 0, buffer, 0, 4 * PAGE_SIZE));
+        assertEquals(stats.getMemoryCacheRetainedBytes(), 2 * PAGE_SIZE);
+        assertTrue(read(cache, cacheQuota, 0, buffer, 0, 2 * PAGE_SIZE));
+        validateBuffer(data, 0, buffer, 0, 2 * PAGE_SIZE);
+        assertFalse(read(cache, cacheQuota, 2 * PAGE_SIZE, buffer, 0, PAGE_SIZE));
+
+        // other cache scopes are not affected
+        assertFalse(read(cache, NO_CACHE_CONSTRAINTS, 2 * PAGE_SIZE, buffer, 0, 2 * PAGE_SIZE));
+        assertTrue(read(cache, NO_CACHE_CONSTRAINTS, 2 * PAGE_SIZE, buffer, 0, 2 * PAGE_SIZE));
+        assertEquals(stats.getMemoryCacheRetainedBytes(), 4 * PAGE_SIZE);
+    }
+
+    private MemoryPageCache memoryPageCache(DataSize capacity, CacheStats stats)
+    {
+        return new MemoryPageCache(capacity, new DataSize(PAGE_SIZE, BYTE), stats);
+    }
+
+    private boolean read(MemoryPageCache cache, CacheQuota cacheQuota, long position, byte[] buffer, int offset, int length)
+    {
+        FileReadRequest request = new FileReadRequest(PATH, position, length);
+        if (cache.get(request, buffer, offset)) {
+            return true;
+        }
+        System.arraycopy(data, (int) position, buffer, offset, length);
+        cache.put(request, wrappedBuffer(buffer, offset, length), cacheQuota);
+        return false;
+    }
+}
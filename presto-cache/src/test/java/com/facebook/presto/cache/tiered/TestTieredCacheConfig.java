@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cache.tiered;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static com.facebook.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static com.facebook.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static com.facebook.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestTieredCacheConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(TieredCacheConfig.class)
+                .setMemoryCacheSize(new DataSize(64, MEGABYTE))
+                .setPageSize(new DataSize(1, MEGABYTE)));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("cache.tiered.memory-cache-size", "42MB")
+                .put("cache.tiered.page-size", "256kB")
+                .build();
+
+        TieredCacheConfig expected = new TieredCacheConfig()
+                .setMemoryCacheSize(new DataSize(42, MEGABYTE))
+                .setPageSize(new DataSize(256, KILOBYTE));
+        assertFullMapping(properties, expected);
+    }
+
+    @Test
+    public void testMemoryCacheSizeLimitedByHeap()
+    {
+        long maxHeapBytes = Runtime.getRuntime().maxMemory();
+        assertTrue(new TieredCacheConfig().setMemoryCacheSize(new DataSize(maxHeapBytes / 20, BYTE)).isMemoryCacheSizeValid());
+        assertFalse(new TieredCacheConfig().setMemoryCacheSize(new DataSize(maxHeapBytes / 5, BYTE)).isMemoryCacheSizeValid());
+    }
+}
@@ -48,4 +48,6 @@ public class RuntimeMetricName
     public static final String STORAGE_READ_TIME_NANOS = "storageReadTimeNanos";
     // Size of the data retrieved by read call to storage
     public static final String STORAGE_READ_DATA_BYTES = "storageReadDataBytes";
+    // Time between a memory revoking request and the operator finishing the revoke
+    public static final String MEMORY_REVOKING_TIME_NANOS = "memoryRevokingTimeNanos";
 }
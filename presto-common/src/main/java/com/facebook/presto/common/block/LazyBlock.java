@@ -17,6 +17,7 @@ import io.airlift.slice.Slice;
 import io.airlift.slice.SliceOutput;
 import org.openjdk.jol.info.ClassLayout;
 
+import java.util.Arrays;
 import java.util.OptionalInt;
 import java.util.function.ObjLongConsumer;
 
@@ -32,6 +33,10 @@ public class LazyBlock
 
     private Block block;
 
+    // set when only some positions were loaded through getPositionsLazily
+    private int[] selectedPositions;
+    private Block selectedBlock;
+
     public LazyBlock(int positionCount, LazyBlockLoader<LazyBlock> loader)
     {
         this.positionCount = positionCount;
@@ -285,6 +290,63 @@ public class LazyBlock
         return block.mayHaveNull();
     }
 
+    /**
+     * Returns the given positions of this block without loading it. If this block is still not
+     * loaded when the result is loaded and its loader is a {@link SelectiveLazyBlockLoader}, only
+     * the selected positions are decoded. The positions loaded that way are remembered, so further
+     * results for the same positions share them, but this block can not be loaded in full anymore.
+     * If this block is loaded first, the result is taken from it.
+     */
+    public Block getPositionsLazily(int[] positions, int offset, int length)
+    {
+        if (block != null) {
+            return block.getPositions(positions, offset, length);
+        }
+        return new LazyBlock(length, lazyBlock -> lazyBlock.setBlock(loadPositions(positions, offset, length)));
+    }
+
+    /**
+     * Returns true if the positions of this block can still be loaded without decoding the others.
+     */
+    public boolean isSelectivelyLoadable()
+    {
+        return block == null && loader instanceof SelectiveLazyBlockLoader;
+    }
+
+    private Block loadPositions(int[] positions, int offset, int length)
+    {
+        if (block != null) {
+            return block.getPositions(positions, offset, length);
+        }
+        if (selectedBlock != null) {
+            if (!isSelected(positions, offset, length)) {
+                throw new IllegalStateException("Other positions of this block were already loaded selectively");
+            }
+            return selectedBlock;
+        }
+        if (!(loader instanceof SelectiveLazyBlockLoader)) {
+            return getPositions(positions, offset, length);
+        }
+
+        selectedBlock = ((SelectiveLazyBlockLoader) loader).loadPositions(positions, offset, length);
+        selectedPositions = Arrays.copyOfRange(positions, offset, offset + length);
+        loader = null;
+        return selectedBlock;
+    }
+
+    private boolean isSelected(int[] positions, int offset, int length)
+    {
+        if (length != selectedPositions.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (positions[offset + i] != selectedPositions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void setBlock(Block block)
     {
         if (this.block != null) {
@@ -310,6 +372,9 @@ public class LazyBlock
         if (block != null) {
             return;
         }
+        if (selectedBlock != null) {
+            throw new IllegalStateException("Only selected positions of this block were loaded");
+        }
         loader.load(this);
 
         if (block == null) {
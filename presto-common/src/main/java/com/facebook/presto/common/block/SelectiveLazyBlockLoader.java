@@ -0,0 +1,28 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.common.block;
+
+/**
+ * A loader that can decode only some of the positions of its block, so that
+ * values dropped by a filter are never materialized.
+ */
+public interface SelectiveLazyBlockLoader
+        extends LazyBlockLoader<LazyBlock>
+{
+    /**
+     * Loads the given positions of the block. Either this method or {@link #load(LazyBlock)}
+     * is called, and at most once.
+     */
+    Block loadPositions(int[] positions, int offset, int length);
+}
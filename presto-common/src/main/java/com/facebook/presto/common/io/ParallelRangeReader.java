@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.common.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads a batch of byte ranges of a file with bounded concurrency. At most
+ * {@code maxConcurrentReads} ranges are in flight for a batch, each on a reader
+ * running on the shared I/O executor. The readers pull the next unread range
+ * until the batch is done, so the future of every range completes as soon as
+ * its bytes arrive.
+ */
+public class ParallelRangeReader
+{
+    /**
+     * Reads the ranges of a batch one after another on the calling thread.
+     */
+    public static final ParallelRangeReader SEQUENTIAL_RANGE_READER = new ParallelRangeReader(Runnable::run, 1);
+
+    private final Executor executor;
+    private final int maxConcurrentReads;
+
+    public ParallelRangeReader(Executor executor, int maxConcurrentReads)
+    {
+        this.executor = requireNonNull(executor, "executor is null");
+        if (maxConcurrentReads < 1) {
+            throw new IllegalArgumentException("maxConcurrentReads must be at least 1");
+        }
+        this.maxConcurrentReads = maxConcurrentReads;
+    }
+
+    public int getMaxConcurrentReads()
+    {
+        return maxConcurrentReads;
+    }
+
+    /**
+     * Starts reading {@code buffers[i].length} bytes at {@code positions[i]} into
+     * {@code buffers[i]} and returns one future per range.
+     */
+    public List<CompletableFuture<Void>> readAsync(long[] positions, byte[][] buffers, RangeReader reader)
+    {
+        RangeBatch batch = new RangeBatch(positions, buffers, reader);
+        for (int i = 0; i < min(maxConcurrentReads, positions.length); i++) {
+            executor.execute(batch::readRanges);
+        }
+        return batch.getFutures();
+    }
+
+    /**
+     * Reads all ranges and waits for them. The calling thread acts as one of the
+     * readers, so the batch makes progress even when the executor is saturated.
+     */
+    public void readFully(long[] positions, byte[][] buffers, RangeReader reader)
+            throws IOException
+    {
+        RangeBatch batch = new RangeBatch(positions, buffers, reader);
+        for (int i = 0; i < min(maxConcurrentReads, positions.length) - 1; i++) {
+            executor.execute(batch::readRanges);
+        }
+        batch.readRanges();
+
+        for (CompletableFuture<Void> future : batch.getFutures()) {
+            getFutureValue(future);
+        }
+    }
+
+    private static void getFutureValue(CompletableFuture<Void> future)
+            throws IOException
+    {
+        try {
+            future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading ranges");
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RangeReader
+    {
+        void read(long position, byte[] buffer, int bufferOffset, int bufferLength)
+                throws IOException;
+    }
+
+    private static class RangeBatch
+    {
+        private final long[] positions;
+        private final byte[][] buffers;
+        private final RangeReader reader;
+        private final List<CompletableFuture<Void>> futures;
+        private final AtomicInteger nextRange = new AtomicInteger();
+
+        public RangeBatch(long[] positions, byte[][] buffers, RangeReader reader)
+        {
+            this.positions = requireNonNull(positions, "positions is null");
+            this.buffers = requireNonNull(buffers, "buffers is null");
+            this.reader = requireNonNull(reader, "reader is null");
+            if (positions.length != buffers.length) {
+                throw new IllegalArgumentException("positions and buffers must have the same length");
+            }
+
+            this.futures = new ArrayList<>(positions.length);
+            for (int i = 0; i < positions.length; i++) {
+                futures.add(new CompletableFuture<>());
+            }
+        }
+
+        public List<CompletableFuture<Void>> getFutures()
+        {
+            return futures;
+        }
+
+        public void readRanges()
+        {
+            for (int range = nextRange.getAndIncrement(); range < positions.length; range = nextRange.getAndIncrement()) {
+                try {
+                    reader.read(positions[range], buffers[range], 0, buffers[range].length);
+                    futures.get(range).complete(null);
+                }
+                catch (Throwable t) {
+                    futures.get(range).completeExceptionally(t);
+                }
+            }
+        }
+    }
+}
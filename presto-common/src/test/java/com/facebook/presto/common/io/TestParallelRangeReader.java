@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.common.io;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TestParallelRangeReader
+{
+    private final ExecutorService executor = newCachedThreadPool();
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReadFully()
+            throws Exception
+    {
+        for (int maxConcurrentReads = 1; maxConcurrentReads <= 4; maxConcurrentReads++) {
+            ParallelRangeReader rangeReader = new ParallelRangeReader(executor, maxConcurrentReads);
+            long[] positions = {0, 100, 1000, 5, 77};
+            byte[][] buffers = new byte[positions.length][];
+            for (int i = 0; i < positions.length; i++) {
+                buffers[i] = new byte[i + 3];
+            }
+
+            AtomicInteger concurrentReads = new AtomicInteger();
+            AtomicInteger maxObservedReads = new AtomicInteger();
+            rangeReader.readFully(positions, buffers, (position, buffer, bufferOffset, bufferLength) -> {
+                maxObservedReads.accumulateAndGet(concurrentReads.incrementAndGet(), Math::max);
+                fill(position, buffer, bufferOffset, bufferLength);
+                concurrentReads.decrementAndGet();
+            });
+
+            for (int i = 0; i < positions.length; i++) {
+                assertRange(positions[i], buffers[i]);
+            }
+            assertTrue(maxObservedReads.get() <= maxConcurrentReads);
+        }
+    }
+
+    @Test
+    public void testReadAsync()
+            throws Exception
+    {
+        ParallelRangeReader rangeReader = new ParallelRangeReader(executor, 2);
+        long[] positions = {10, 20, 30};
+        byte[][] buffers = {new byte[4], new byte[8], new byte[16]};
+
+        List<CompletableFuture<Void>> futures = rangeReader.readAsync(positions, buffers, TestParallelRangeReader::fill);
+        assertEquals(futures.size(), positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            futures.get(i).get();
+            assertRange(positions[i], buffers[i]);
+        }
+    }
+
+    @Test
+    public void testReadFailure()
+    {
+        ParallelRangeReader rangeReader = new ParallelRangeReader(executor, 3);
+        long[] positions = {0, 1, 2, 3};
+        byte[][] buffers = {new byte[1], new byte[1], new byte[1], new byte[1]};
+
+        try {
+            rangeReader.readFully(positions, buffers, (position, buffer, bufferOffset, bufferLength) -> {
+                if (position == 2) {
+                    throw new IOException("read failed");
+                }
+                fill(position, buffer, bufferOffset, bufferLength);
+            });
+            fail("expected IOException");
+        }
+        catch (IOException e) {
+            assertEquals(e.getMessage(), "read failed");
+        }
+    }
+
+    private static void fill(long position, byte[] buffer, int bufferOffset, int bufferLength)
+    {
+        for (int i = 0; i < bufferLength; i++) {
+            buffer[bufferOffset + i] = (byte) (position + i);
+        }
+    }
+
+    private static void assertRange(long position, byte[] buffer)
+    {
+        for (int i = 0; i < buffer.length; i++) {
+            assertEquals(buffer[i], (byte) (position + i));
+        }
+    }
+}
@@ -50,4 +50,16 @@ public class CacheStatsMBean
     {
         return cache.stats().hitRate();
     }
+
+    @Managed
+    public long getLoadCount()
+    {
+        return cache.stats().loadCount();
+    }
+
+    @Managed
+    public double getAverageLoadPenaltyMillis()
+    {
+        return cache.stats().averageLoadPenalty() / 1_000_000.0;
+    }
 }
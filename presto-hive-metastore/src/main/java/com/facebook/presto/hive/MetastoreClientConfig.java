@@ -49,6 +49,8 @@ public class MetastoreClientConfig
     private MetastoreCacheScope metastoreCacheScope = MetastoreCacheScope.ALL;
     private boolean metastoreImpersonationEnabled;
     private double partitionCacheValidationPercentage;
+    private int metastoreCacheBulkLoadBatchSize;
+    private int partitionFilterMaxValueCombinations = 16;
 
     public HostAndPort getMetastoreSocksProxy()
     {
@@ -254,4 +256,32 @@ public class MetastoreClientConfig
         this.partitionCacheValidationPercentage = partitionCacheValidationPercentage;
         return this;
     }
+
+    @Min(0)
+    public int getMetastoreCacheBulkLoadBatchSize()
+    {
+        return metastoreCacheBulkLoadBatchSize;
+    }
+
+    @Config("hive.metastore-cache-bulk-load-batch-size")
+    @ConfigDescription("Maximum number of partitions loaded by a single metastore call when filling the partition caches, 0 loads all missing partitions in one call")
+    public MetastoreClientConfig setMetastoreCacheBulkLoadBatchSize(int metastoreCacheBulkLoadBatchSize)
+    {
+        this.metastoreCacheBulkLoadBatchSize = metastoreCacheBulkLoadBatchSize;
+        return this;
+    }
+
+    @Min(1)
+    public int getPartitionFilterMaxValueCombinations()
+    {
+        return partitionFilterMaxValueCombinations;
+    }
+
+    @Config("hive.metastore-partition-filter-max-value-combinations")
+    @ConfigDescription("Maximum number of partition value combinations of IN predicates fetched with separate metastore calls, instead of listing all partition names")
+    public MetastoreClientConfig setPartitionFilterMaxValueCombinations(int partitionFilterMaxValueCombinations)
+    {
+        this.partitionFilterMaxValueCombinations = partitionFilterMaxValueCombinations;
+        return this;
+    }
 }
@@ -15,6 +15,7 @@ package com.facebook.presto.hive.metastore;
 
 import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.common.type.Type;
+import com.facebook.presto.hive.CacheStatsMBean;
 import com.facebook.presto.hive.ForCachingHiveMetastore;
 import com.facebook.presto.hive.HiveType;
 import com.facebook.presto.hive.MetastoreClientConfig;
@@ -32,6 +33,7 @@ import com.google.common.collect.SetMultimap;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.airlift.units.Duration;
 import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
@@ -44,7 +46,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
@@ -58,7 +59,6 @@ import static com.facebook.presto.hive.metastore.PartitionFilter.partitionFilter
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
-import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.cache.CacheLoader.asyncReloading;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
@@ -100,6 +100,14 @@ public class CachingHiveMetastore
     private final LoadingCache<KeyAndContext<String>, Set<String>> rolesCache;
     private final LoadingCache<KeyAndContext<PrestoPrincipal>, Set<RoleGrant>> roleGrantsCache;
 
+    private final CoalescingBulkLoader<KeyAndContext<HivePartitionName>, Optional<Partition>> partitionBulkLoader;
+    private final CoalescingBulkLoader<KeyAndContext<HivePartitionName>, PartitionStatistics> partitionStatisticsBulkLoader;
+
+    private final CacheStatsMBean tableCacheStats;
+    private final CacheStatsMBean partitionNamesCacheStats;
+    private final CacheStatsMBean partitionCacheStats;
+    private final CacheStatsMBean partitionStatisticsCacheStats;
+
     private final boolean metastoreImpersonationEnabled;
     private final boolean partitionVersioningEnabled;
     private final double partitionCacheValidationPercentage;
@@ -119,7 +127,8 @@ public class CachingHiveMetastore
                 metastoreClientConfig.getMetastoreCacheMaximumSize(),
                 metastoreClientConfig.isPartitionVersioningEnabled(),
                 metastoreClientConfig.getMetastoreCacheScope(),
-                metastoreClientConfig.getPartitionCacheValidationPercentage());
+                metastoreClientConfig.getPartitionCacheValidationPercentage(),
+                metastoreClientConfig.getMetastoreCacheBulkLoadBatchSize());
     }
 
     public CachingHiveMetastore(
@@ -132,6 +141,31 @@ public class CachingHiveMetastore
             boolean partitionVersioningEnabled,
             MetastoreCacheScope metastoreCacheScope,
             double partitionCacheValidationPercentage)
+    {
+        this(
+                delegate,
+                executor,
+                metastoreImpersonationEnabled,
+                cacheTtl,
+                refreshInterval,
+                maximumSize,
+                partitionVersioningEnabled,
+                metastoreCacheScope,
+                partitionCacheValidationPercentage,
+                0);
+    }
+
+    public CachingHiveMetastore(
+            ExtendedHiveMetastore delegate,
+            ExecutorService executor,
+            boolean metastoreImpersonationEnabled,
+            Duration cacheTtl,
+            Duration refreshInterval,
+            long maximumSize,
+            boolean partitionVersioningEnabled,
+            MetastoreCacheScope metastoreCacheScope,
+            double partitionCacheValidationPercentage,
+            int bulkLoadBatchSize)
     {
         this(
                 delegate,
@@ -142,7 +176,8 @@ public class CachingHiveMetastore
                 maximumSize,
                 partitionVersioningEnabled,
                 metastoreCacheScope,
-                partitionCacheValidationPercentage);
+                partitionCacheValidationPercentage,
+                bulkLoadBatchSize);
     }
 
     public static CachingHiveMetastore memoizeMetastore(ExtendedHiveMetastore delegate, boolean isMetastoreImpersonationEnabled, long maximumSize)
@@ -156,7 +191,8 @@ public class CachingHiveMetastore
                 maximumSize,
                 false,
                 ALL,
-                0.0);
+                0.0,
+                0);
     }
 
     private CachingHiveMetastore(
@@ -168,7 +204,8 @@ public class CachingHiveMetastore
             long maximumSize,
             boolean partitionVersioningEnabled,
             MetastoreCacheScope metastoreCacheScope,
-            double partitionCacheValidationPercentage)
+            double partitionCacheValidationPercentage,
+            int bulkLoadBatchSize)
     {
         this.delegate = requireNonNull(delegate, "delegate is null");
         requireNonNull(executor, "executor is null");
@@ -278,6 +315,14 @@ public class CachingHiveMetastore
 
         roleGrantsCache = newCacheBuilder(cacheExpiresAfterWriteMillis, cacheRefreshMills, cacheMaxSize)
                 .build(asyncReloading(CacheLoader.from(this::loadRoleGrants), executor));
+
+        partitionBulkLoader = new CoalescingBulkLoader<>(partitionCache, this::loadPartitionsByNames, executor, bulkLoadBatchSize);
+        partitionStatisticsBulkLoader = new CoalescingBulkLoader<>(partitionStatisticsCache, this::loadPartitionColumnStatistics, executor, bulkLoadBatchSize);
+
+        tableCacheStats = new CacheStatsMBean(tableCache);
+        partitionNamesCacheStats = new CacheStatsMBean(partitionNamesCache);
+        partitionCacheStats = new CacheStatsMBean(partitionCache);
+        partitionStatisticsCacheStats = new CacheStatsMBean(partitionStatisticsCache);
     }
 
     @Managed
@@ -297,6 +342,48 @@ public class CachingHiveMetastore
         rolesCache.invalidateAll();
     }
 
+    @Managed
+    @Nested
+    public CacheStatsMBean getTableCacheStats()
+    {
+        return tableCacheStats;
+    }
+
+    @Managed
+    @Nested
+    public CacheStatsMBean getPartitionNamesCacheStats()
+    {
+        return partitionNamesCacheStats;
+    }
+
+    @Managed
+    @Nested
+    public CacheStatsMBean getPartitionCacheStats()
+    {
+        return partitionCacheStats;
+    }
+
+    @Managed
+    @Nested
+    public CacheStatsMBean getPartitionStatisticsCacheStats()
+    {
+        return partitionStatisticsCacheStats;
+    }
+
+    @Managed
+    @Nested
+    public CoalescingBulkLoader<?, ?> getPartitionBulkLoader()
+    {
+        return partitionBulkLoader;
+    }
+
+    @Managed
+    @Nested
+    public CoalescingBulkLoader<?, ?> getPartitionStatisticsBulkLoader()
+    {
+        return partitionStatisticsBulkLoader;
+    }
+
     private static <K, V> V get(LoadingCache<K, V> cache, K key)
     {
         try {
@@ -308,15 +395,14 @@ public class CachingHiveMetastore
         }
     }
 
-    private static <K, V> Map<K, V> getAll(LoadingCache<K, V> cache, Iterable<K> keys)
+    private static <K, V> Map<K, V> getAll(CoalescingBulkLoader<K, V> bulkLoader, Iterable<K> keys)
     {
         try {
-            return cache.getAll(keys);
+            return bulkLoader.getAll(keys);
         }
-        catch (ExecutionException | UncheckedExecutionException e) {
+        catch (UncheckedExecutionException e) {
             throwIfInstanceOf(e.getCause(), PrestoException.class);
-            throwIfUnchecked(e);
-            throw new UncheckedExecutionException(e);
+            throw e;
         }
     }
 
@@ -376,7 +462,7 @@ public class CachingHiveMetastore
         List<KeyAndContext<HivePartitionName>> partitions = partitionNames.stream()
                 .map(partitionName -> getCachingKey(metastoreContext, HivePartitionName.hivePartitionName(databaseName, tableName, partitionName)))
                 .collect(toImmutableList());
-        Map<KeyAndContext<HivePartitionName>, PartitionStatistics> statistics = getAll(partitionStatisticsCache, partitions);
+        Map<KeyAndContext<HivePartitionName>, PartitionStatistics> statistics = getAll(partitionStatisticsBulkLoader, partitions);
         return statistics.entrySet()
                 .stream()
                 .collect(toImmutableMap(entry -> entry.getKey().getKey().getPartitionName().get(), Entry::getValue));
@@ -735,7 +821,7 @@ public class CachingHiveMetastore
     {
         Iterable<KeyAndContext<HivePartitionName>> names = transform(partitionNames, name -> getCachingKey(metastoreContext, HivePartitionName.hivePartitionName(databaseName, tableName, name)));
 
-        Map<KeyAndContext<HivePartitionName>, Optional<Partition>> all = getAll(partitionCache, names);
+        Map<KeyAndContext<HivePartitionName>, Optional<Partition>> all = getAll(partitionBulkLoader, names);
         if (isPartitionCacheValidationEnabled()) {
             validatePartitionCache(all);
         }
@@ -1034,7 +1120,7 @@ public class CachingHiveMetastore
         if (refreshMillis.isPresent() && (!expiresAfterWriteMillis.isPresent() || expiresAfterWriteMillis.getAsLong() > refreshMillis.getAsLong())) {
             cacheBuilder = cacheBuilder.refreshAfterWrite(refreshMillis.getAsLong(), MILLISECONDS);
         }
-        cacheBuilder = cacheBuilder.maximumSize(maximumSize);
+        cacheBuilder = cacheBuilder.maximumSize(maximumSize).recordStats();
         return cacheBuilder;
     }
 }
@@ -0,0 +1,187 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.metastore;
+
+import com.facebook.airlift.stats.CounterStat;
+import com.facebook.airlift.stats.TimeStat;
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Lists.partition;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Loads the missing entries of a {@link LoadingCache} in bulk. Unlike
+ * {@link LoadingCache#getAll(Iterable)}, a key that is already being loaded by another
+ * caller is not loaded again, the caller waits for the running load instead. The keys
+ * to load are split into batches, which are loaded in parallel on the executor while
+ * the calling thread loads the first batch itself.
+ */
+@ThreadSafe
+public class CoalescingBulkLoader<K, V>
+{
+    private final LoadingCache<K, V> cache;
+    private final Function<List<K>, Map<K, V>> bulkLoader;
+    private final Executor executor;
+    private final int batchSize;
+
+    private final ConcurrentMap<K, SettableFuture<V>> loadingValues = new ConcurrentHashMap<>();
+
+    private final TimeStat batchLoadTime = new TimeStat(MILLISECONDS);
+    private final CounterStat loadedKeys = new CounterStat();
+    private final CounterStat coalescedKeys = new CounterStat();
+
+    /**
+     * @param batchSize maximum number of keys loaded by a single call to the bulk loader, or 0 for no limit
+     */
+    public CoalescingBulkLoader(LoadingCache<K, V> cache, Function<List<K>, Map<K, V>> bulkLoader, Executor executor, int batchSize)
+    {
+        this.cache = requireNonNull(cache, "cache is null");
+        this.bulkLoader = requireNonNull(bulkLoader, "bulkLoader is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        checkArgument(batchSize >= 0, "batchSize is negative");
+        this.batchSize = batchSize;
+    }
+
+    public Map<K, V> getAll(Iterable<K> keys)
+    {
+        Map<K, V> present = cache.getAllPresent(keys);
+
+        List<K> keysToLoad = new ArrayList<>();
+        Map<K, SettableFuture<V>> pendingValues = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (present.containsKey(key) || pendingValues.containsKey(key)) {
+                continue;
+            }
+            SettableFuture<V> future = SettableFuture.create();
+            SettableFuture<V> existing = loadingValues.putIfAbsent(key, future);
+            if (existing == null) {
+                keysToLoad.add(key);
+                pendingValues.put(key, future);
+            }
+            else {
+                coalescedKeys.update(1);
+                pendingValues.put(key, existing);
+            }
+        }
+
+        if (!keysToLoad.isEmpty()) {
+            List<List<K>> batches = batchSize == 0 ? ImmutableList.of(keysToLoad) : partition(keysToLoad, batchSize);
+            for (List<K> batch : batches.subList(1, batches.size())) {
+                try {
+                    executor.execute(() -> load(batch));
+                }
+                catch (RejectedExecutionException e) {
+                    load(batch);
+                }
+            }
+            load(batches.get(0));
+        }
+
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = present.get(key);
+            result.put(key, value != null ? value : getValue(pendingValues.get(key)));
+        }
+        return ImmutableMap.copyOf(result);
+    }
+
+    private void load(List<K> keys)
+    {
+        Map<K, V> values;
+        try (TimeStat.BlockTimer ignored = batchLoadTime.time()) {
+            values = bulkLoader.apply(keys);
+        }
+        catch (Throwable t) {
+            for (K key : keys) {
+                fail(key, t);
+            }
+            return;
+        }
+
+        loadedKeys.update(keys.size());
+        for (K key : keys) {
+            V value = values.get(key);
+            if (value == null) {
+                fail(key, new InvalidCacheLoadException("bulk loader failed to return a value for " + key));
+                continue;
+            }
+            cache.put(key, value);
+            SettableFuture<V> future = loadingValues.remove(key);
+            future.set(value);
+        }
+    }
+
+    private void fail(K key, Throwable throwable)
+    {
+        SettableFuture<V> future = loadingValues.remove(key);
+        future.setException(throwable);
+    }
+
+    private static <V> V getValue(SettableFuture<V> future)
+    {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e) {
+            throw new UncheckedExecutionException(e.getCause());
+        }
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getBatchLoadTime()
+    {
+        return batchLoadTime;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getLoadedKeys()
+    {
+        return loadedKeys;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getCoalescedKeys()
+    {
+        return coalescedKeys;
+    }
+}
@@ -16,6 +16,7 @@ package com.facebook.presto.hive.metastore;
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
 import com.facebook.presto.common.type.ArrayType;
 import com.facebook.presto.common.type.BigintType;
 import com.facebook.presto.common.type.BooleanType;
@@ -57,6 +58,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.primitives.Longs;
 import io.airlift.slice.Slice;
 import org.apache.hadoop.fs.FileSystem;
@@ -783,6 +785,69 @@ public class MetastoreUtil
         return filter;
     }
 
+    /**
+     * Expands the discrete values of the partition predicates into partial partition
+     * specifications, so that a metastore which only matches exact partition values
+     * can serve {@code IN} predicates with one call per combination of values. Falls
+     * back to the single specification of {@link #convertPredicateToParts(Map)} when
+     * the number of combinations exceeds {@code maxCombinations}.
+     */
+    public static List<List<String>> convertPredicateToPartsCombinations(Map<Column, Domain> partitionPredicates, int maxCombinations)
+    {
+        List<List<String>> valuesPerColumn = new ArrayList<>();
+        long combinations = 1;
+        for (Domain domain : partitionPredicates.values()) {
+            List<String> values = getPartitionValues(domain).orElse(ImmutableList.of(PARTITION_VALUE_WILDCARD));
+            valuesPerColumn.add(values);
+            combinations *= values.size();
+            if (combinations > maxCombinations) {
+                break;
+            }
+        }
+
+        if (combinations == 0 || combinations > maxCombinations) {
+            return ImmutableList.of(convertPredicateToParts(partitionPredicates));
+        }
+        return Lists.cartesianProduct(valuesPerColumn);
+    }
+
+    private static Optional<List<String>> getPartitionValues(Domain domain)
+    {
+        if (domain.isAll()) {
+            return Optional.empty();
+        }
+        Type type = domain.getType();
+        Optional<List<Object>> discreteValues = domain.getValues().getValuesProcessor().<Optional<List<Object>>>transform(
+                ranges -> {
+                    List<Object> values = new ArrayList<>();
+                    for (Range range : ranges.getOrderedRanges()) {
+                        if (!range.isSingleValue()) {
+                            return Optional.empty();
+                        }
+                        values.add(range.getSingleValue());
+                    }
+                    return Optional.of(values);
+                },
+                discrete -> discrete.isWhiteList() ? Optional.of(new ArrayList<>(discrete.getValues())) : Optional.empty(),
+                allOrNone -> Optional.empty());
+        if (!discreteValues.isPresent()) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<String> partitionValues = ImmutableList.builder();
+        for (Object value : discreteValues.get()) {
+            String partitionValue = convertRawValueToString(value, type);
+            if (partitionValue.equals(PARTITION_VALUE_WILDCARD)) {
+                return Optional.empty();
+            }
+            partitionValues.add(partitionValue);
+        }
+        if (domain.isNullAllowed()) {
+            partitionValues.add(convertRawValueToString(null, type));
+        }
+        return Optional.of(partitionValues.build());
+    }
+
     public static String convertRawValueToString(Object value, Type type)
     {
         String val;
@@ -14,24 +14,43 @@
 package com.facebook.presto.hive.metastore.glue;
 
 import com.amazonaws.services.glue.model.GetPartitionsRequest;
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
+import com.facebook.presto.common.type.BigintType;
+import com.facebook.presto.common.type.DateType;
+import com.facebook.presto.common.type.IntegerType;
+import com.facebook.presto.common.type.SmallintType;
+import com.facebook.presto.common.type.TinyintType;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.VarcharType;
 import com.facebook.presto.hive.HiveType;
 import com.facebook.presto.hive.metastore.Column;
 import com.facebook.presto.spi.PrestoException;
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_METASTORE_ERROR;
+import static com.facebook.presto.hive.metastore.MetastoreUtil.convertRawValueToString;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
 
 public final class GlueExpressionUtil
 {
     private static final Joiner JOINER = Joiner.on(" AND ");
     private static final Set<String> QUOTED_TYPES = ImmutableSet.of("string", "char", "varchar", "date", "timestamp", "binary", "varbinary");
 
+    // maximum length of the expression accepted by GetPartitions
+    public static final int GLUE_EXPRESSION_CHAR_LIMIT = 2048;
+
     private GlueExpressionUtil() {}
 
     /**
@@ -69,6 +88,157 @@ public final class GlueExpressionUtil
         return JOINER.join(predicates);
     }
 
+    /**
+     * Build an expression string used for partition filtering in {@link GetPartitionsRequest}
+     * from the partition predicates. Besides single values, lists of values are translated to
+     * {@code IN} predicates and ranges to comparisons, for the partition key types Glue compares
+     * by value. A predicate that cannot be expressed is left out, and when the expression exceeds
+     * {@code expressionLengthLimit} the lists of values are replaced by their span and then
+     * the longest predicates are left out, so the expression may match more partitions than the
+     * predicates and the caller has to filter the returned partitions.
+     * <pre>
+     * Ex: partition predicates: {ds: ['2020-01-01', '2020-01-31'], hour: [0, 1, 2]}
+     *     expression: (ds BETWEEN '2020-01-01' AND '2020-01-31') AND (hour IN (0,1,2))
+     * </pre>
+     */
+    public static String buildGlueExpression(Map<Column, Domain> partitionPredicates, int expressionLengthLimit)
+    {
+        List<String> predicates = new ArrayList<>();
+        List<Optional<String>> spanPredicates = new ArrayList<>();
+        for (Map.Entry<Column, Domain> entry : partitionPredicates.entrySet()) {
+            Optional<String> predicate = buildPredicate(entry.getKey(), entry.getValue());
+            if (predicate.isPresent()) {
+                predicates.add(predicate.get());
+                spanPredicates.add(buildSpanPredicate(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        while (JOINER.join(predicates).length() > expressionLengthLimit) {
+            int longest = 0;
+            for (int i = 1; i < predicates.size(); i++) {
+                if (predicates.get(i).length() > predicates.get(longest).length()) {
+                    longest = i;
+                }
+            }
+            Optional<String> span = spanPredicates.get(longest);
+            if (span.isPresent() && span.get().length() < predicates.get(longest).length()) {
+                predicates.set(longest, span.get());
+                spanPredicates.set(longest, Optional.empty());
+            }
+            else {
+                predicates.remove(longest);
+                spanPredicates.remove(longest);
+            }
+        }
+
+        return JOINER.join(predicates);
+    }
+
+    private static Optional<String> buildPredicate(Column partitionKey, Domain domain)
+    {
+        if (domain.isAll()) {
+            return Optional.empty();
+        }
+        if (domain.isNullableSingleValue()) {
+            String value = convertRawValueToString(domain.getNullableSingleValue(), domain.getType());
+            if (value.isEmpty() || value.contains("'")) {
+                return Optional.empty();
+            }
+            return Optional.of(buildPredicate(partitionKey, value));
+        }
+        if (domain.isNullAllowed() || !isComparableType(domain.getType())) {
+            return Optional.empty();
+        }
+
+        List<Range> ranges = domain.getValues().getRanges().getOrderedRanges();
+        if (ranges.isEmpty()) {
+            return Optional.empty();
+        }
+        if (ranges.stream().allMatch(Range::isSingleValue)) {
+            List<String> values = new ArrayList<>();
+            for (Range range : ranges) {
+                Optional<String> value = toGlueLiteral(domain.getType(), range.getSingleValue());
+                if (!value.isPresent()) {
+                    return Optional.empty();
+                }
+                values.add(value.get());
+            }
+            return Optional.of(format("(%s IN (%s))", partitionKey.getName(), String.join(",", values)));
+        }
+
+        List<String> disjuncts = new ArrayList<>();
+        for (Range range : ranges) {
+            Optional<String> disjunct = buildRangePredicate(partitionKey, domain.getType(), range);
+            if (!disjunct.isPresent()) {
+                return Optional.empty();
+            }
+            disjuncts.add(disjunct.get());
+        }
+        if (disjuncts.size() == 1) {
+            return Optional.of(disjuncts.get(0));
+        }
+        return Optional.of(disjuncts.stream().collect(joining(" OR ", "(", ")")));
+    }
+
+    private static Optional<String> buildSpanPredicate(Column partitionKey, Domain domain)
+    {
+        if (domain.isNullAllowed() || !isComparableType(domain.getType()) || domain.getValues().getRanges().getRangeCount() <= 1) {
+            return Optional.empty();
+        }
+        return buildRangePredicate(partitionKey, domain.getType(), domain.getValues().getRanges().getSpan());
+    }
+
+    private static Optional<String> buildRangePredicate(Column partitionKey, Type type, Range range)
+    {
+        if (range.isSingleValue()) {
+            return toGlueLiteral(type, range.getSingleValue())
+                    .map(value -> format("(%s=%s)", partitionKey.getName(), value));
+        }
+        Optional<String> low = range.isLowUnbounded() ? Optional.empty() : toGlueLiteral(type, range.getLowBoundedValue());
+        Optional<String> high = range.isHighUnbounded() ? Optional.empty() : toGlueLiteral(type, range.getHighBoundedValue());
+        if ((!range.isLowUnbounded() && !low.isPresent()) || (!range.isHighUnbounded() && !high.isPresent())) {
+            return Optional.empty();
+        }
+        // varchar values are compared lexicographically by Glue, which only matches the ordering of Presto for ASCII strings
+        if (type instanceof VarcharType && !(low.map(CharMatcher.ascii()::matchesAllOf).orElse(true) && high.map(CharMatcher.ascii()::matchesAllOf).orElse(true))) {
+            return Optional.empty();
+        }
+
+        String name = partitionKey.getName();
+        if (low.isPresent() && high.isPresent() && range.isLowInclusive() && range.isHighInclusive()) {
+            return Optional.of(format("(%s BETWEEN %s AND %s)", name, low.get(), high.get()));
+        }
+        List<String> comparisons = new ArrayList<>();
+        low.ifPresent(value -> comparisons.add(format("%s %s %s", name, range.isLowInclusive() ? ">=" : ">", value)));
+        high.ifPresent(value -> comparisons.add(format("%s %s %s", name, range.isHighInclusive() ? "<=" : "<", value)));
+        if (comparisons.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(comparisons.stream().collect(joining(" AND ", "(", ")")));
+    }
+
+    private static Optional<String> toGlueLiteral(Type type, Object value)
+    {
+        String literal = convertRawValueToString(value, type);
+        if (type instanceof VarcharType || type instanceof DateType) {
+            if (literal.contains("'")) {
+                return Optional.empty();
+            }
+            return Optional.of("'" + literal + "'");
+        }
+        return Optional.of(literal);
+    }
+
+    private static boolean isComparableType(Type type)
+    {
+        return type instanceof VarcharType
+                || type instanceof DateType
+                || type instanceof BigintType
+                || type instanceof IntegerType
+                || type instanceof SmallintType
+                || type instanceof TinyintType;
+    }
+
     private static String buildPredicate(Column partitionKey, String value)
     {
         if (isQuotedType(partitionKey.getType())) {
@@ -119,7 +119,6 @@ import java.util.function.Function;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_METASTORE_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_PARTITION_DROPPED_DURING_QUERY;
-import static com.facebook.presto.hive.metastore.MetastoreUtil.convertPredicateToParts;
 import static com.facebook.presto.hive.metastore.MetastoreUtil.createDirectory;
 import static com.facebook.presto.hive.metastore.MetastoreUtil.getHiveBasicStatistics;
 import static com.facebook.presto.hive.metastore.MetastoreUtil.makePartName;
@@ -128,6 +127,7 @@ import static com.facebook.presto.hive.metastore.MetastoreUtil.updateStatisticsP
 import static com.facebook.presto.hive.metastore.MetastoreUtil.verifyCanDropColumn;
 import static com.facebook.presto.hive.metastore.PrestoTableType.MANAGED_TABLE;
 import static com.facebook.presto.hive.metastore.PrestoTableType.VIRTUAL_VIEW;
+import static com.facebook.presto.hive.metastore.glue.GlueExpressionUtil.GLUE_EXPRESSION_CHAR_LIMIT;
 import static com.facebook.presto.hive.metastore.glue.GlueExpressionUtil.buildGlueExpression;
 import static com.facebook.presto.hive.metastore.glue.converter.GlueInputConverter.convertColumn;
 import static com.facebook.presto.hive.metastore.glue.converter.GlueInputConverter.toTableInput;
@@ -684,14 +684,11 @@ public class GlueHiveMetastore
     }
 
     /**
-     * <pre>
-     * Ex: Partition keys = ['a', 'b', 'c']
-     *     Valid partition values:
-     *     ['1','2','3'] or
-     *     ['', '2', '']
-     * </pre>
+     * The partition predicates are translated to a Glue expression, see
+     * {@link GlueExpressionUtil#buildGlueExpression(Map, int)}. The expression may match
+     * more partitions than the predicates, so the returned names still have to be filtered.
      *
-     * @param partitionPredicates Full or partial list of partition values to filter on. Keys without filter will be empty strings.
+     * @param partitionPredicates Predicates on the partition keys to filter on. Keys without filter have a domain that allows all values.
      * @return a list of partition names.
      */
     @Override
@@ -702,8 +699,7 @@ public class GlueHiveMetastore
             Map<Column, Domain> partitionPredicates)
     {
         Table table = getTableOrElseThrow(metastoreContext, databaseName, tableName);
-        List<String> parts = convertPredicateToParts(partitionPredicates);
-        String expression = buildGlueExpression(table.getPartitionColumns(), parts);
+        String expression = buildGlueExpression(partitionPredicates, GLUE_EXPRESSION_CHAR_LIMIT);
         List<Partition> partitions = getPartitions(databaseName, tableName, expression);
         return buildPartitionNames(table.getPartitionColumns(), partitions);
     }
@@ -80,6 +80,7 @@ import javax.inject.Inject;
 import java.net.InetAddress;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -102,7 +103,7 @@ import static com.facebook.presto.hive.HiveErrorCode.HIVE_METASTORE_ERROR;
 import static com.facebook.presto.hive.metastore.HivePrivilegeInfo.HivePrivilege;
 import static com.facebook.presto.hive.metastore.HivePrivilegeInfo.HivePrivilege.OWNERSHIP;
 import static com.facebook.presto.hive.metastore.MetastoreUtil.PRESTO_VIEW_FLAG;
-import static com.facebook.presto.hive.metastore.MetastoreUtil.convertPredicateToParts;
+import static com.facebook.presto.hive.metastore.MetastoreUtil.convertPredicateToPartsCombinations;
 import static com.facebook.presto.hive.metastore.MetastoreUtil.getHiveBasicStatistics;
 import static com.facebook.presto.hive.metastore.MetastoreUtil.updateStatisticsParameters;
 import static com.facebook.presto.hive.metastore.thrift.ThriftMetastoreUtil.createMetastoreColumnStatistics;
@@ -147,6 +148,7 @@ public class ThriftHiveMetastore
     private final HiveCluster clientProvider;
     private final Function<Exception, Exception> exceptionMapper;
     private final boolean impersonationEnabled;
+    private final int partitionFilterMaxValueCombinations;
 
     @Inject
     public ThriftHiveMetastore(HiveCluster hiveCluster, MetastoreClientConfig config)
@@ -155,7 +157,8 @@ public class ThriftHiveMetastore
                 hiveCluster,
                 new ThriftHiveMetastoreStats(),
                 identity(),
-                requireNonNull(config, "config is null").isMetastoreImpersonationEnabled());
+                requireNonNull(config, "config is null").isMetastoreImpersonationEnabled(),
+                config.getPartitionFilterMaxValueCombinations());
     }
 
     public ThriftHiveMetastore(
@@ -163,11 +166,23 @@ public class ThriftHiveMetastore
             ThriftHiveMetastoreStats stats,
             Function<Exception, Exception> exceptionMapper,
             boolean impersonationEnabled)
+    {
+        this(hiveCluster, stats, exceptionMapper, impersonationEnabled, 1);
+    }
+
+    public ThriftHiveMetastore(
+            HiveCluster hiveCluster,
+            ThriftHiveMetastoreStats stats,
+            Function<Exception, Exception> exceptionMapper,
+            boolean impersonationEnabled,
+            int partitionFilterMaxValueCombinations)
     {
         this.clientProvider = requireNonNull(hiveCluster, "hiveCluster is null");
         this.stats = requireNonNull(stats, "stats is null");
         this.exceptionMapper = requireNonNull(exceptionMapper, "exceptionMapper is null");
         this.impersonationEnabled = impersonationEnabled;
+        checkArgument(partitionFilterMaxValueCombinations >= 1, "partitionFilterMaxValueCombinations must be at least 1");
+        this.partitionFilterMaxValueCombinations = partitionFilterMaxValueCombinations;
     }
 
     private static boolean isPrestoView(Table table)
@@ -966,8 +981,21 @@ public class ThriftHiveMetastore
     @Override
     public List<String> getPartitionNamesByFilter(MetastoreContext metastoreContext, String databaseName, String tableName, Map<Column, Domain> partitionPredicates)
     {
-        List<String> parts = convertPredicateToParts(partitionPredicates);
-        return getPartitionNamesByParts(metastoreContext, databaseName, tableName, parts).orElse(ImmutableList.of());
+        List<List<String>> partsCombinations = convertPredicateToPartsCombinations(partitionPredicates, partitionFilterMaxValueCombinations);
+        if (partsCombinations.size() == 1) {
+            return getPartitionNamesByParts(metastoreContext, databaseName, tableName, partsCombinations.get(0)).orElse(ImmutableList.of());
+        }
+
+        // get_partition_names_ps only matches exact values, so IN predicates are served by one call per combination of values
+        Set<String> partitionNames = new LinkedHashSet<>();
+        for (List<String> parts : partsCombinations) {
+            Optional<List<String>> names = getPartitionNamesByParts(metastoreContext, databaseName, tableName, parts);
+            if (!names.isPresent()) {
+                return ImmutableList.of();
+            }
+            partitionNames.addAll(names.get());
+        }
+        return ImmutableList.copyOf(partitionNames);
     }
 
     @Override
@@ -346,6 +346,37 @@ public class TestCachingHiveMetastore
         assertEquals(mockClient.getAccessCount(), 4);
     }
 
+    @Test
+    public void testGetPartitionsByNamesInBatches()
+    {
+        MockHiveCluster mockHiveCluster = new MockHiveCluster(mockClient);
+        ListeningExecutorService executor = listeningDecorator(newCachedThreadPool(daemonThreadsNamed("test-%s")));
+        ThriftHiveMetastore thriftHiveMetastore = new ThriftHiveMetastore(mockHiveCluster, new MetastoreClientConfig());
+        CachingHiveMetastore batchingMetastore = new CachingHiveMetastore(
+                new BridgingHiveMetastore(thriftHiveMetastore, new HivePartitionMutator()),
+                executor,
+                false,
+                new Duration(5, TimeUnit.MINUTES),
+                new Duration(1, TimeUnit.MINUTES),
+                1000,
+                false,
+                MetastoreCacheScope.ALL,
+                0.0,
+                1);
+
+        assertEquals(mockClient.getAccessCount(), 0);
+        batchingMetastore.getTable(TEST_METASTORE_CONTEXT, TEST_DATABASE, TEST_TABLE);
+        assertEquals(mockClient.getAccessCount(), 1);
+
+        // Every partition is loaded by a separate metastore call
+        assertEquals(batchingMetastore.getPartitionsByNames(TEST_METASTORE_CONTEXT, TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2)).size(), 2);
+        assertEquals(mockClient.getAccessCount(), 3);
+
+        assertEquals(batchingMetastore.getPartitionsByNames(TEST_METASTORE_CONTEXT, TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2)).size(), 2);
+        assertEquals(mockClient.getAccessCount(), 3);
+        assertEquals(batchingMetastore.getPartitionCacheStats().getHitCount(), 2);
+    }
+
     @Test
     public void testListRoles()
             throws Exception
@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.metastore;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.function.Function.identity;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TestCoalescingBulkLoader
+{
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-coalescing-bulk-loader-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLoadsOnlyMissingKeys()
+    {
+        List<List<Integer>> loads = new CopyOnWriteArrayList<>();
+        LoadingCache<Integer, String> cache = newCache();
+        CoalescingBulkLoader<Integer, String> loader = new CoalescingBulkLoader<>(cache, recordingLoader(loads, keys -> {}), executor, 0);
+
+        assertEquals(loader.getAll(ImmutableList.of(1, 2)), ImmutableMap.of(1, "1", 2, "2"));
+        assertEquals(loader.getAll(ImmutableList.of(2, 3, 1, 3)), ImmutableMap.of(2, "2", 3, "3", 1, "1"));
+        assertEquals(loads, ImmutableList.of(ImmutableList.of(1, 2), ImmutableList.of(3)));
+        assertEquals(cache.getIfPresent(3), "3");
+        assertEquals(loader.getLoadedKeys().getTotalCount(), 3);
+    }
+
+    @Test
+    public void testBatches()
+    {
+        List<List<Integer>> loads = new CopyOnWriteArrayList<>();
+        CoalescingBulkLoader<Integer, String> loader = new CoalescingBulkLoader<>(newCache(), recordingLoader(loads, keys -> {}), executor, 2);
+
+        Map<Integer, String> values = loader.getAll(ImmutableList.of(1, 2, 3, 4, 5));
+        assertEquals(values, ImmutableList.of(1, 2, 3, 4, 5).stream().collect(toImmutableMap(identity(), String::valueOf)));
+        assertEquals(loads.size(), 3);
+        assertTrue(loads.contains(ImmutableList.of(1, 2)));
+        assertTrue(loads.contains(ImmutableList.of(3, 4)));
+        assertTrue(loads.contains(ImmutableList.of(5)));
+    }
+
+    @Test(timeOut = 10_000)
+    public void testConcurrentMissesAreCoalesced()
+            throws Exception
+    {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        List<List<Integer>> loads = new CopyOnWriteArrayList<>();
+        CoalescingBulkLoader<Integer, String> loader = new CoalescingBulkLoader<>(
+                newCache(),
+                recordingLoader(loads, keys -> {
+                    if (keys.contains(1)) {
+                        loadStarted.countDown();
+                        await(releaseLoad);
+                    }
+                }),
+                executor,
+                0);
+
+        Future<Map<Integer, String>> first = executor.submit(() -> loader.getAll(ImmutableList.of(1, 2)));
+        loadStarted.await();
+        Future<Map<Integer, String>> second = executor.submit(() -> loader.getAll(ImmutableList.of(2, 3)));
+        // the second caller loads only the key that is not in flight
+        while (loads.size() < 2) {
+            Thread.sleep(10);
+        }
+        releaseLoad.countDown();
+
+        assertEquals(first.get(), ImmutableMap.of(1, "1", 2, "2"));
+        assertEquals(second.get(), ImmutableMap.of(2, "2", 3, "3"));
+        assertEquals(loads, ImmutableList.of(ImmutableList.of(1, 2), ImmutableList.of(3)));
+        assertEquals(loader.getCoalescedKeys().getTotalCount(), 1);
+    }
+
+    @Test
+    public void testFailedLoadIsRetried()
+    {
+        List<List<Integer>> loads = new CopyOnWriteArrayList<>();
+        boolean[] failing = {true};
+        CoalescingBulkLoader<Integer, String> loader = new CoalescingBulkLoader<>(
+                newCache(),
+                recordingLoader(loads, keys -> {
+                    if (failing[0]) {
+                        throw new IllegalStateException("metastore unavailable");
+                    }
+                }),
+                executor,
+                0);
+
+        try {
+            loader.getAll(ImmutableList.of(1));
+            fail("expected exception");
+        }
+        catch (UncheckedExecutionException e) {
+            assertEquals(e.getCause().getMessage(), "metastore unavailable");
+        }
+
+        failing[0] = false;
+        assertEquals(loader.getAll(ImmutableList.of(1)), ImmutableMap.of(1, "1"));
+        assertEquals(loads.size(), 2);
+    }
+
+    private static LoadingCache<Integer, String> newCache()
+    {
+        return CacheBuilder.newBuilder().build(new CacheLoader<Integer, String>()
+        {
+            @Override
+            public String load(Integer key)
+            {
+                throw new UnsupportedOperationException();
+            }
+        });
+    }
+
+    private static Function<List<Integer>, Map<Integer, String>> recordingLoader(List<List<Integer>> loads, Consumer<List<Integer>> beforeLoad)
+    {
+        return keys -> {
+            loads.add(ImmutableList.copyOf(keys));
+            beforeLoad.accept(keys);
+            return keys.stream().collect(toImmutableMap(identity(), String::valueOf));
+        };
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -45,7 +45,9 @@ public class TestMetastoreClientConfig
                 .setPartitionVersioningEnabled(false)
                 .setMetastoreCacheScope(MetastoreCacheScope.ALL)
                 .setMetastoreImpersonationEnabled(false)
-                .setPartitionCacheValidationPercentage(0));
+                .setPartitionCacheValidationPercentage(0)
+                .setMetastoreCacheBulkLoadBatchSize(0)
+                .setPartitionFilterMaxValueCombinations(16));
     }
 
     @Test
@@ -68,6 +70,8 @@ public class TestMetastoreClientConfig
                 .put("hive.metastore-cache-scope", "PARTITION")
                 .put("hive.metastore-impersonation-enabled", "true")
                 .put("hive.partition-cache-validation-percentage", "60.0")
+                .put("hive.metastore-cache-bulk-load-batch-size", "100")
+                .put("hive.metastore-partition-filter-max-value-combinations", "4")
                 .build();
 
         MetastoreClientConfig expected = new MetastoreClientConfig()
@@ -86,7 +90,9 @@ public class TestMetastoreClientConfig
                 .setPartitionVersioningEnabled(true)
                 .setMetastoreCacheScope(MetastoreCacheScope.PARTITION)
                 .setMetastoreImpersonationEnabled(true)
-                .setPartitionCacheValidationPercentage(60.0);
+                .setPartitionCacheValidationPercentage(60.0)
+                .setMetastoreCacheBulkLoadBatchSize(100)
+                .setPartitionFilterMaxValueCombinations(4);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.metastore;
+
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
+import com.facebook.presto.common.predicate.ValueSet;
+import com.facebook.presto.hive.HiveType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.hive.metastore.MetastoreUtil.convertPredicateToPartsCombinations;
+import static io.airlift.slice.Slices.utf8Slice;
+import static org.testng.Assert.assertEquals;
+
+public class TestMetastoreUtil
+{
+    private static final Column DS = new Column("ds", HiveType.HIVE_STRING, Optional.empty(), Optional.empty());
+    private static final Column HOUR = new Column("hour", HiveType.HIVE_LONG, Optional.empty(), Optional.empty());
+
+    @Test
+    public void testConvertPredicateToPartsCombinations()
+    {
+        Map<Column, Domain> predicates = ImmutableMap.of(
+                DS, Domain.multipleValues(VARCHAR, ImmutableList.of(utf8Slice("2020-01-01"), utf8Slice("2020-01-02"))),
+                HOUR, Domain.all(BIGINT));
+        assertEquals(
+                convertPredicateToPartsCombinations(predicates, 16),
+                ImmutableList.of(ImmutableList.of("2020-01-01", ""), ImmutableList.of("2020-01-02", "")));
+
+        predicates = ImmutableMap.of(
+                DS, Domain.singleValue(VARCHAR, utf8Slice("2020-01-01")),
+                HOUR, Domain.create(ValueSet.of(BIGINT, 1L, 2L), true));
+        assertEquals(
+                convertPredicateToPartsCombinations(predicates, 16),
+                ImmutableList.of(
+                        ImmutableList.of("2020-01-01", "1"),
+                        ImmutableList.of("2020-01-01", "2"),
+                        ImmutableList.of("2020-01-01", "__HIVE_DEFAULT_PARTITION__")));
+    }
+
+    @Test
+    public void testConvertPredicateToPartsCombinationsFallback()
+    {
+        Map<Column, Domain> predicates = ImmutableMap.of(
+                DS, Domain.multipleValues(VARCHAR, ImmutableList.of(utf8Slice("2020-01-01"), utf8Slice("2020-01-02"))),
+                HOUR, Domain.multipleValues(BIGINT, ImmutableList.of(1L, 2L, 3L)));
+        // too many combinations
+        assertEquals(convertPredicateToPartsCombinations(predicates, 4), ImmutableList.of(ImmutableList.of("", "")));
+
+        // ranges are not expanded
+        predicates = ImmutableMap.of(
+                DS, Domain.singleValue(VARCHAR, utf8Slice("2020-01-01")),
+                HOUR, Domain.create(ValueSet.ofRanges(Range.greaterThan(BIGINT, 10L)), false));
+        assertEquals(convertPredicateToPartsCombinations(predicates, 16), ImmutableList.of(ImmutableList.of("2020-01-01", "")));
+    }
+}
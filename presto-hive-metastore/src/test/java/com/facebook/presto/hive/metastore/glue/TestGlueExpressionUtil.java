@@ -13,16 +13,26 @@
  */
 package com.facebook.presto.hive.metastore.glue;
 
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
+import com.facebook.presto.common.predicate.ValueSet;
 import com.facebook.presto.hive.HiveType;
 import com.facebook.presto.hive.metastore.Column;
 import com.facebook.presto.spi.PrestoException;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DateType.DATE;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.hive.metastore.glue.GlueExpressionUtil.GLUE_EXPRESSION_CHAR_LIMIT;
 import static com.facebook.presto.hive.metastore.glue.GlueExpressionUtil.buildGlueExpression;
+import static io.airlift.slice.Slices.utf8Slice;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNull;
 
@@ -82,4 +92,53 @@ public class TestGlueExpressionUtil
         List<String> partitionValues = ImmutableList.of("foo", "2018-01-02", "99");
         buildGlueExpression(null, partitionValues);
     }
+
+    @Test
+    public void testBuildExpressionFromDomains()
+    {
+        Column name = getColumn("name", "string");
+        Column birthday = getColumn("birthday", "date");
+        Column age = getColumn("age", "bigint");
+
+        assertEquals(buildGlueExpression(ImmutableMap.of(name, Domain.singleValue(VARCHAR, utf8Slice("foo")), birthday, Domain.all(DATE)), GLUE_EXPRESSION_CHAR_LIMIT), "(name='foo')");
+        assertEquals(
+                buildGlueExpression(ImmutableMap.of(name, Domain.multipleValues(VARCHAR, ImmutableList.of(utf8Slice("a"), utf8Slice("b"))), age, Domain.multipleValues(BIGINT, ImmutableList.of(1L, 2L))), GLUE_EXPRESSION_CHAR_LIMIT),
+                "(name IN ('a','b')) AND (age IN (1,2))");
+        assertEquals(
+                buildGlueExpression(ImmutableMap.of(birthday, Domain.create(ValueSet.ofRanges(Range.range(DATE, 17532L, true, 17562L, true)), false)), GLUE_EXPRESSION_CHAR_LIMIT),
+                "(birthday BETWEEN '2018-01-01' AND '2018-01-31')");
+        assertEquals(
+                buildGlueExpression(ImmutableMap.of(age, Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 10L), Range.greaterThanOrEqual(BIGINT, 20L)), false)), GLUE_EXPRESSION_CHAR_LIMIT),
+                "((age < 10) OR (age >= 20))");
+        assertEquals(
+                buildGlueExpression(ImmutableMap.of(name, Domain.create(ValueSet.ofRanges(Range.greaterThan(VARCHAR, utf8Slice("2020-01"))), false)), GLUE_EXPRESSION_CHAR_LIMIT),
+                "(name > '2020-01')");
+    }
+
+    @Test
+    public void testBuildExpressionFromUnsupportedDomains()
+    {
+        Column name = getColumn("name", "string");
+
+        // null partitions and non ASCII string ranges are filtered by the caller
+        assertEquals(buildGlueExpression(ImmutableMap.of(name, Domain.create(ValueSet.of(VARCHAR, utf8Slice("a"), utf8Slice("b")), true)), GLUE_EXPRESSION_CHAR_LIMIT), "");
+        assertEquals(buildGlueExpression(ImmutableMap.of(name, Domain.create(ValueSet.ofRanges(Range.greaterThan(VARCHAR, utf8Slice("\u00e9"))), false)), GLUE_EXPRESSION_CHAR_LIMIT), "");
+        assertEquals(buildGlueExpression(ImmutableMap.of(name, Domain.multipleValues(VARCHAR, ImmutableList.of(utf8Slice("a'b"), utf8Slice("c")))), GLUE_EXPRESSION_CHAR_LIMIT), "");
+    }
+
+    @Test
+    public void testBuildExpressionOverLengthLimit()
+    {
+        Column name = getColumn("name", "string");
+        Column age = getColumn("age", "bigint");
+        Map<Column, Domain> predicates = ImmutableMap.of(
+                name, Domain.multipleValues(VARCHAR, ImmutableList.of(utf8Slice("aaaa"), utf8Slice("bbbb"), utf8Slice("cccc"), utf8Slice("dddd"))),
+                age, Domain.singleValue(BIGINT, 1L));
+
+        assertEquals(buildGlueExpression(predicates, 60), "(name IN ('aaaa','bbbb','cccc','dddd')) AND (age=1)");
+        // the list of values is replaced by its span
+        assertEquals(buildGlueExpression(predicates, 50), "(name BETWEEN 'aaaa' AND 'dddd') AND (age=1)");
+        // and the predicate is left out when it is still too long
+        assertEquals(buildGlueExpression(predicates, 40), "(age=1)");
+    }
 }
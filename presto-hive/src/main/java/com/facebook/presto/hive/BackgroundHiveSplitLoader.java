@@ -16,11 +16,13 @@ package com.facebook.presto.hive;
 import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.hive.StoragePartitionLoader.BucketSplitInfo;
 import com.facebook.presto.hive.metastore.Table;
+import com.facebook.presto.hive.util.PrefetchingIterator;
 import com.facebook.presto.hive.util.ResumableTask;
 import com.facebook.presto.hive.util.ResumableTasks;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.PrestoException;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 
 import java.io.IOException;
 import java.util.Deque;
@@ -28,10 +30,13 @@ import java.util.Iterator;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_UNKNOWN_ERROR;
+import static com.facebook.presto.hive.util.PrefetchingIterator.prefetch;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
@@ -41,8 +46,10 @@ public class BackgroundHiveSplitLoader
         implements HiveSplitLoader
 {
     private static final ListenableFuture<?> COMPLETED_FUTURE = immediateFuture(null);
+    private static final int LISTING_BUFFER_SIZE = 1024;
 
     private final int loaderConcurrency;
+    private final int maxConcurrentListings;
     private final Executor executor;
     private final ConcurrentLazyQueue<HivePartitionMetadata> partitions;
     private final Deque<Iterator<InternalHiveSplit>> fileIterators = new ConcurrentLinkedDeque<>();
@@ -65,6 +72,11 @@ public class BackgroundHiveSplitLoader
     //   see a series of operations involving two or more of the operations carried out half way.
     private final ReentrantReadWriteLock taskExecutionLock = new ReentrantReadWriteLock();
 
+    // Listings of partitions that are prefetched in the background, and a future that is completed
+    // (and replaced) whenever one of them has splits available or finishes
+    private final AtomicInteger runningListings = new AtomicInteger();
+    private final AtomicReference<SettableFuture<?>> listingProgress = new AtomicReference<>(SettableFuture.create());
+
     private HiveSplitSource hiveSplitSource;
     private volatile boolean stopped;
 
@@ -82,9 +94,44 @@ public class BackgroundHiveSplitLoader
             boolean recursiveDirWalkerEnabled,
             boolean schedulerUsesHostAddresses,
             boolean partialAggregationsPushedDown)
+    {
+        this(
+                table,
+                partitions,
+                pathDomain,
+                tableBucketInfo,
+                session,
+                hdfsEnvironment,
+                namenodeStats,
+                directoryLister,
+                executor,
+                loaderConcurrency,
+                0,
+                recursiveDirWalkerEnabled,
+                schedulerUsesHostAddresses,
+                partialAggregationsPushedDown);
+    }
+
+    public BackgroundHiveSplitLoader(
+            Table table,
+            Iterable<HivePartitionMetadata> partitions,
+            Optional<Domain> pathDomain,
+            Optional<BucketSplitInfo> tableBucketInfo,
+            ConnectorSession session,
+            HdfsEnvironment hdfsEnvironment,
+            NamenodeStats namenodeStats,
+            DirectoryLister directoryLister,
+            Executor executor,
+            int loaderConcurrency,
+            int maxConcurrentListings,
+            boolean recursiveDirWalkerEnabled,
+            boolean schedulerUsesHostAddresses,
+            boolean partialAggregationsPushedDown)
     {
         this.loaderConcurrency = loaderConcurrency;
         checkArgument(loaderConcurrency > 0, "loaderConcurrency must be > 0, found: %s", loaderConcurrency);
+        checkArgument(maxConcurrentListings >= 0, "maxConcurrentListings must be >= 0, found: %s", maxConcurrentListings);
+        this.maxConcurrentListings = maxConcurrentListings;
         this.executor = requireNonNull(executor, "executor is null");
         this.partitions = new ConcurrentLazyQueue<>(requireNonNull(partitions, "partitions is null"));
         this.delegatingPartitionLoader = new DelegatingPartitionLoader(table, pathDomain, tableBucketInfo, session, hdfsEnvironment, namenodeStats, directoryLister, fileIterators, recursiveDirWalkerEnabled, schedulerUsesHostAddresses, partialAggregationsPushedDown);
@@ -192,7 +239,35 @@ public class BackgroundHiveSplitLoader
             return delegatingPartitionLoader.loadPartition(partition, hiveSplitSource, stopped);
         }
 
-        while (splits.hasNext() && !stopped) {
+        if (maxConcurrentListings > 0) {
+            // grab the progress future before checking readiness, so that no progress notification is missed
+            ListenableFuture<?> progress = listingProgress.get();
+            splits = startListingIfPossible(splits);
+            if (!isReady(splits)) {
+                fileIterators.addLast(splits);
+                // instead of waiting for the listing, start listing the next partition
+                if (runningListings.get() < maxConcurrentListings) {
+                    HivePartitionMetadata partition = partitions.poll();
+                    if (partition != null) {
+                        return delegatingPartitionLoader.loadPartition(partition, hiveSplitSource, stopped);
+                    }
+                }
+                return progress;
+            }
+        }
+
+        while (!stopped) {
+            if (!isReady(splits)) {
+                // do not block the loader on a listing that is still in progress
+                fileIterators.addLast(splits);
+                return COMPLETED_FUTURE;
+            }
+            if (!splits.hasNext()) {
+                if (splits instanceof PrefetchingIterator) {
+                    runningListings.decrementAndGet();
+                }
+                break;
+            }
             ListenableFuture<?> future = hiveSplitSource.addToQueue(splits.next());
             if (!future.isDone()) {
                 fileIterators.addFirst(splits);
@@ -203,4 +278,25 @@ public class BackgroundHiveSplitLoader
         // No need to put the iterator back, since it's either empty or we've stopped
         return COMPLETED_FUTURE;
     }
+
+    private Iterator<InternalHiveSplit> startListingIfPossible(Iterator<InternalHiveSplit> splits)
+    {
+        if (splits instanceof PrefetchingIterator) {
+            return splits;
+        }
+        if (runningListings.getAndUpdate(count -> count < maxConcurrentListings ? count + 1 : count) >= maxConcurrentListings) {
+            return splits;
+        }
+        return prefetch(splits, executor, LISTING_BUFFER_SIZE, this::notifyListingProgress);
+    }
+
+    private void notifyListingProgress()
+    {
+        listingProgress.getAndSet(SettableFuture.create()).set(null);
+    }
+
+    private static boolean isReady(Iterator<InternalHiveSplit> splits)
+    {
+        return !(splits instanceof PrefetchingIterator) || ((PrefetchingIterator<?>) splits).isReady();
+    }
 }
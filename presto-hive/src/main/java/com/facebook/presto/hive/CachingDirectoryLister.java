@@ -22,17 +22,23 @@ import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.units.Duration;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 import org.weakref.jmx.Managed;
 
 import javax.inject.Inject;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import static com.facebook.presto.hive.NestedDirectoryPolicy.RECURSE;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.util.Objects.requireNonNull;
@@ -42,6 +48,9 @@ public class CachingDirectoryLister
 {
     private final Cache<Path, List<HiveFileInfo>> cache;
     private final CachedTableChecker cachedTableChecker;
+    private final Optional<PersistentFileStatusCache> persistentCache;
+    // file systems that do not track a modification time for directories, so their listings cannot be validated
+    private final Set<URI> untrackedModificationTimeFileSystems = ConcurrentHashMap.newKeySet();
 
     protected final DirectoryLister delegate;
 
@@ -52,10 +61,17 @@ public class CachingDirectoryLister
                 delegate,
                 hiveClientConfig.getFileStatusCacheExpireAfterWrite(),
                 hiveClientConfig.getFileStatusCacheMaxSize(),
-                hiveClientConfig.getFileStatusCacheTables());
+                hiveClientConfig.getFileStatusCacheTables(),
+                Optional.ofNullable(hiveClientConfig.getFileStatusCachePersistentDirectory())
+                        .map(directory -> new PersistentFileStatusCache(directory, hiveClientConfig.getFileStatusCacheExpireAfterWrite(), hiveClientConfig.getFileStatusCacheMaxSize())));
     }
 
     public CachingDirectoryLister(DirectoryLister delegate, Duration expireAfterWrite, long maxSize, List<String> tables)
+    {
+        this(delegate, expireAfterWrite, maxSize, tables, Optional.empty());
+    }
+
+    public CachingDirectoryLister(DirectoryLister delegate, Duration expireAfterWrite, long maxSize, List<String> tables, Optional<PersistentFileStatusCache> persistentCache)
     {
         this.delegate = requireNonNull(delegate, "delegate is null");
         cache = CacheBuilder.newBuilder()
@@ -65,6 +81,7 @@ public class CachingDirectoryLister
                 .recordStats()
                 .build();
         this.cachedTableChecker = new CachedTableChecker(requireNonNull(tables, "tables is null"));
+        this.persistentCache = requireNonNull(persistentCache, "persistentCache is null");
     }
 
     @Override
@@ -80,25 +97,67 @@ public class CachingDirectoryLister
             return files.iterator();
         }
 
+        if (!hiveDirectoryContext.isCacheable() || !cachedTableChecker.isCachedTable(table.getSchemaTableName())) {
+            return delegate.list(fileSystem, table, path, namenodeStats, hiveDirectoryContext);
+        }
+
+        // The modification time of a directory only changes with its direct children,
+        // so recursive listings cannot be validated against it
+        Optional<FileStatus> directoryStatus = Optional.empty();
+        if (persistentCache.isPresent() && hiveDirectoryContext.getNestedDirectoryPolicy() != RECURSE && !untrackedModificationTimeFileSystems.contains(fileSystem.getUri())) {
+            // get the status before listing, so that concurrent changes invalidate the stored listing
+            directoryStatus = getDirectoryStatus(fileSystem, path);
+            if (directoryStatus.isPresent()) {
+                Optional<List<HiveFileInfo>> persistedFiles = persistentCache.get().get(path, directoryStatus.get().getModificationTime(), directoryStatus.get().getLen());
+                if (persistedFiles.isPresent()) {
+                    cache.put(path, persistedFiles.get());
+                    return persistedFiles.get().iterator();
+                }
+            }
+        }
+
         Iterator<HiveFileInfo> iterator = delegate.list(fileSystem, table, path, namenodeStats, hiveDirectoryContext);
-        if (hiveDirectoryContext.isCacheable() && cachedTableChecker.isCachedTable(table.getSchemaTableName())) {
-            return cachingIterator(iterator, path);
+        return cachingIterator(iterator, path, directoryStatus);
+    }
+
+    private Optional<FileStatus> getDirectoryStatus(ExtendedFileSystem fileSystem, Path path)
+    {
+        try {
+            FileStatus status = fileSystem.getFileStatus(path);
+            if (!status.isDirectory()) {
+                return Optional.empty();
+            }
+            if (status.getModificationTime() <= 0) {
+                // object stores do not track a modification time for directories, so stop asking them
+                untrackedModificationTimeFileSystems.add(fileSystem.getUri());
+                return Optional.empty();
+            }
+            return Optional.of(status);
+        }
+        catch (IOException e) {
+            // the listing reports the failure
+            return Optional.empty();
         }
-        return iterator;
     }
 
-    private Iterator<HiveFileInfo> cachingIterator(Iterator<HiveFileInfo> iterator, Path path)
+    private Iterator<HiveFileInfo> cachingIterator(Iterator<HiveFileInfo> iterator, Path path, Optional<FileStatus> directoryStatus)
     {
         return new Iterator<HiveFileInfo>()
         {
             private final List<HiveFileInfo> files = new ArrayList<>();
+            private boolean persisted;
 
             @Override
             public boolean hasNext()
             {
                 boolean hasNext = iterator.hasNext();
                 if (!hasNext) {
-                    cache.put(path, ImmutableList.copyOf(files));
+                    List<HiveFileInfo> listedFiles = ImmutableList.copyOf(files);
+                    cache.put(path, listedFiles);
+                    if (directoryStatus.isPresent() && !persisted) {
+                        persistentCache.get().put(path, directoryStatus.get().getModificationTime(), directoryStatus.get().getLen(), listedFiles);
+                        persisted = true;
+                    }
                 }
                 return hasNext;
             }
@@ -117,6 +176,7 @@ public class CachingDirectoryLister
     public void flushCache()
     {
         cache.invalidateAll();
+        persistentCache.ifPresent(PersistentFileStatusCache::invalidateAll);
     }
 
     @Managed
@@ -149,6 +209,24 @@ public class CachingDirectoryLister
         return cache.stats().requestCount();
     }
 
+    @Managed
+    public long getPersistentHitCount()
+    {
+        return persistentCache.map(PersistentFileStatusCache::getHitCount).orElse(0L);
+    }
+
+    @Managed
+    public long getPersistentMissCount()
+    {
+        return persistentCache.map(PersistentFileStatusCache::getMissCount).orElse(0L);
+    }
+
+    @Managed
+    public long getPersistentInvalidatedCount()
+    {
+        return persistentCache.map(PersistentFileStatusCache::getInvalidatedCount).orElse(0L);
+    }
+
     private static class CachedTableChecker
     {
         private final Set<SchemaTableName> cachedTableNames;
@@ -35,6 +35,7 @@ import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
+import java.io.File;
 import java.util.List;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
@@ -66,6 +67,7 @@ public class HiveClientConfig
     private int maxPartitionBatchSize = 100;
     private int maxInitialSplits = 200;
     private int splitLoaderConcurrency = 4;
+    private int splitLoaderMaxConcurrentListings;
     private DataSize maxInitialSplitSize;
     private int domainCompactionThreshold = 100;
     private DataSize writerSortBufferSize = new DataSize(64, MEGABYTE);
@@ -74,6 +76,8 @@ public class HiveClientConfig
 
     private int maxConcurrentFileRenames = 20;
     private int maxConcurrentZeroRowFileCreations = 20;
+    private int maxConcurrentRangeReads = 1;
+    private int maxRangeReadThreads = 64;
 
     private boolean allowCorruptWritesForTesting;
 
@@ -175,6 +179,7 @@ public class HiveClientConfig
     private Duration fileStatusCacheExpireAfterWrite = new Duration(0, TimeUnit.SECONDS);
     private long fileStatusCacheMaxSize;
     private List<String> fileStatusCacheTables = ImmutableList.of();
+    private File fileStatusCachePersistentDirectory;
 
     private DataSize pageFileStripeMaxSize = new DataSize(24, MEGABYTE);
     private boolean parquetBatchReadOptimizationEnabled;
@@ -185,6 +190,7 @@ public class HiveClientConfig
 
     private boolean isPartialAggregationPushdownEnabled;
     private boolean isPartialAggregationPushdownForVariableLengthDatatypesEnabled;
+    private boolean isPartialAggregationPushdownExtendedEnabled;
 
     private boolean fileRenamingEnabled;
     private boolean preferManifestToListFiles;
@@ -208,6 +214,7 @@ public class HiveClientConfig
     private boolean userDefinedTypeEncodingEnabled;
 
     private boolean columnIndexFilterEnabled;
+    private boolean parquetBloomFilterEnabled;
     private boolean fileSplittable = true;
 
     @Min(0)
@@ -251,6 +258,20 @@ public class HiveClientConfig
         return this;
     }
 
+    @Min(0)
+    public int getSplitLoaderMaxConcurrentListings()
+    {
+        return splitLoaderMaxConcurrentListings;
+    }
+
+    @Config("hive.split-loader-max-concurrent-listings")
+    @ConfigDescription("Maximum number of partition directories listed in the background for a single table scan, 0 lists them on the split loader threads")
+    public HiveClientConfig setSplitLoaderMaxConcurrentListings(int splitLoaderMaxConcurrentListings)
+    {
+        this.splitLoaderMaxConcurrentListings = splitLoaderMaxConcurrentListings;
+        return this;
+    }
+
     @Min(1)
     public int getDomainCompactionThreshold()
     {
@@ -317,6 +338,34 @@ public class HiveClientConfig
         return this;
     }
 
+    @Min(1)
+    public int getMaxConcurrentRangeReads()
+    {
+        return maxConcurrentRangeReads;
+    }
+
+    @Config("hive.max-concurrent-range-reads")
+    @ConfigDescription("Maximum number of merged ORC ranges of a file that are read in parallel when hive.orc.lazy-read-small-ranges is disabled")
+    public HiveClientConfig setMaxConcurrentRangeReads(int maxConcurrentRangeReads)
+    {
+        this.maxConcurrentRangeReads = maxConcurrentRangeReads;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxRangeReadThreads()
+    {
+        return maxRangeReadThreads;
+    }
+
+    @Config("hive.max-range-read-threads")
+    @ConfigDescription("Maximum number of threads shared by all parallel range reads")
+    public HiveClientConfig setMaxRangeReadThreads(int maxRangeReadThreads)
+    {
+        this.maxRangeReadThreads = maxRangeReadThreads;
+        return this;
+    }
+
     public boolean getRecursiveDirWalkerEnabled()
     {
         return recursiveDirWalkerEnabled;
@@ -1017,6 +1066,19 @@ public class HiveClientConfig
         return this;
     }
 
+    public File getFileStatusCachePersistentDirectory()
+    {
+        return fileStatusCachePersistentDirectory;
+    }
+
+    @Config("hive.file-status-cache-persistent-directory")
+    @ConfigDescription("Local directory to persist the listings of the file status cache tables, validated by directory modification time and length, with the same expiration and size limit as the in-memory cache")
+    public HiveClientConfig setFileStatusCachePersistentDirectory(File fileStatusCachePersistentDirectory)
+    {
+        this.fileStatusCachePersistentDirectory = fileStatusCachePersistentDirectory;
+        return this;
+    }
+
     public enum HiveMetastoreAuthenticationType
     {
         NONE,
@@ -1605,6 +1667,19 @@ public class HiveClientConfig
         return this.isPartialAggregationPushdownForVariableLengthDatatypesEnabled;
     }
 
+    @Config("hive.partial_aggregation_pushdown_extended_enabled")
+    @ConfigDescription("enable partial aggregation pushdown for grouping on partition keys, predicates decided by stripe statistics and sum")
+    public HiveClientConfig setPartialAggregationPushdownExtendedEnabled(boolean partialAggregationPushdownExtendedEnabled)
+    {
+        this.isPartialAggregationPushdownExtendedEnabled = partialAggregationPushdownExtendedEnabled;
+        return this;
+    }
+
+    public boolean isPartialAggregationPushdownExtendedEnabled()
+    {
+        return this.isPartialAggregationPushdownExtendedEnabled;
+    }
+
     @Config("hive.file_renaming_enabled")
     @ConfigDescription("enable file renaming")
     public HiveClientConfig setFileRenamingEnabled(boolean fileRenamingEnabled)
@@ -1735,6 +1810,19 @@ public class HiveClientConfig
         return this.columnIndexFilterEnabled;
     }
 
+    @Config("hive.parquet-bloom-filter-enabled")
+    @ConfigDescription("enable using parquet bloom filters to skip row groups")
+    public HiveClientConfig setParquetBloomFilterEnabled(boolean parquetBloomFilterEnabled)
+    {
+        this.parquetBloomFilterEnabled = parquetBloomFilterEnabled;
+        return this;
+    }
+
+    public boolean isParquetBloomFilterEnabled()
+    {
+        return this.parquetBloomFilterEnabled;
+    }
+
     @Config("hive.size-based-split-weights-enabled")
     public HiveClientConfig setSizeBasedSplitWeightsEnabled(boolean sizeBasedSplitWeightsEnabled)
     {
@@ -17,6 +17,7 @@ import com.facebook.airlift.concurrent.BoundedExecutor;
 import com.facebook.airlift.concurrent.ExecutorServiceAdapter;
 import com.facebook.airlift.event.client.EventClient;
 import com.facebook.presto.cache.ForCachingFileSystem;
+import com.facebook.presto.common.io.ParallelRangeReader;
 import com.facebook.presto.hive.HiveDwrfEncryptionProvider.ForCryptoService;
 import com.facebook.presto.hive.HiveDwrfEncryptionProvider.ForUnknown;
 import com.facebook.presto.hive.cache.HiveCachingHdfsConfiguration;
@@ -53,6 +54,7 @@ import com.facebook.presto.orc.cache.StorageOrcFileTailSource;
 import com.facebook.presto.orc.metadata.OrcFileTail;
 import com.facebook.presto.orc.metadata.RowGroupIndex;
 import com.facebook.presto.parquet.ParquetDataSourceId;
+import com.facebook.presto.parquet.cache.BloomFilterCacheKey;
 import com.facebook.presto.parquet.cache.CachingParquetMetadataSource;
 import com.facebook.presto.parquet.cache.MetadataReader;
 import com.facebook.presto.parquet.cache.ParquetCacheConfig;
@@ -74,12 +76,14 @@ import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.Multibinder;
 import io.airlift.slice.Slice;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
 import org.weakref.jmx.MBeanExporter;
 
 import javax.inject.Singleton;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 
@@ -252,6 +256,28 @@ public class HiveClientModule
                                 hiveClientConfig.getMaxConcurrentFileRenames())));
     }
 
+    @ForRangeReads
+    @Singleton
+    @Provides
+    public ParallelRangeReader createParallelRangeReader(HiveConnectorId hiveClientId, HiveClientConfig hiveClientConfig)
+    {
+        return new ParallelRangeReader(
+                new BoundedExecutor(
+                        newCachedThreadPool(daemonThreadsNamed("hive-range-read-" + hiveClientId + "-%s")),
+                        hiveClientConfig.getMaxRangeReadThreads()),
+                hiveClientConfig.getMaxConcurrentRangeReads());
+    }
+
+    @ForOrcColumnEncoding
+    @Singleton
+    @Provides
+    public Executor createOrcColumnEncodingExecutor(HiveConnectorId hiveClientId, OrcFileWriterConfig orcFileWriterConfig)
+    {
+        return new BoundedExecutor(
+                newCachedThreadPool(daemonThreadsNamed("hive-orc-column-encoding-" + hiveClientId + "-%s")),
+                orcFileWriterConfig.getColumnEncodingThreads());
+    }
+
     @ForZeroRowFileCreator
     @Singleton
     @Provides
@@ -341,7 +367,18 @@ public class HiveClientModule
                     .recordStats()
                     .build();
             CacheStatsMBean cacheStatsMBean = new CacheStatsMBean(cache);
-            parquetMetadataSource = new CachingParquetMetadataSource(cache, parquetMetadataSource);
+            Optional<Cache<BloomFilterCacheKey, Optional<BloomFilter>>> bloomFilterCache = Optional.empty();
+            if (parquetCacheConfig.isBloomFilterCacheEnabled()) {
+                Cache<BloomFilterCacheKey, Optional<BloomFilter>> cachedBloomFilters = CacheBuilder.newBuilder()
+                        .maximumWeight(parquetCacheConfig.getBloomFilterCacheSize().toBytes())
+                        .weigher((key, bloomFilter) -> ((Optional<BloomFilter>) bloomFilter).map(BloomFilter::getBitsetSize).orElse(0))
+                        .expireAfterAccess(parquetCacheConfig.getMetadataCacheTtlSinceLastAccess().toMillis(), MILLISECONDS)
+                        .recordStats()
+                        .build();
+                bloomFilterCache = Optional.of(cachedBloomFilters);
+                exporter.export(generatedNameOf(CacheStatsMBean.class, connectorId + "_ParquetBloomFilter"), new CacheStatsMBean(cachedBloomFilters));
+            }
+            parquetMetadataSource = new CachingParquetMetadataSource(cache, bloomFilterCache, parquetMetadataSource);
             exporter.export(generatedNameOf(CacheStatsMBean.class, connectorId + "_ParquetMetadata"), cacheStatsMBean);
         }
         return parquetMetadataSource;
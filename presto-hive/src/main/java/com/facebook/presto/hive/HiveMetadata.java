@@ -60,6 +60,7 @@ import com.facebook.presto.spi.ConnectorTableLayoutResult;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.ConnectorTablePartitioning;
 import com.facebook.presto.spi.ConnectorViewDefinition;
+import com.facebook.presto.spi.ConstantProperty;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.DiscretePredicates;
 import com.facebook.presto.spi.InMemoryRecordSet;
@@ -115,6 +116,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import io.airlift.slice.Slice;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.serde2.OpenCSVSerde;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
@@ -141,6 +143,7 @@ import java.util.OptionalLong;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -184,6 +187,7 @@ import static com.facebook.presto.hive.HiveColumnHandle.PATH_COLUMN_NAME;
 import static com.facebook.presto.hive.HiveColumnHandle.updateRowIdHandle;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_COLUMN_ORDER_MISMATCH;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_CONCURRENT_MODIFICATION_DETECTED;
+import static com.facebook.presto.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_INVALID_METADATA;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_PARTITION_READ_ONLY;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_TIMEZONE_MISMATCH;
@@ -246,6 +250,7 @@ import static com.facebook.presto.hive.HiveTableProperties.ENCRYPT_TABLE;
 import static com.facebook.presto.hive.HiveTableProperties.EXTERNAL_LOCATION_PROPERTY;
 import static com.facebook.presto.hive.HiveTableProperties.ORC_BLOOM_FILTER_COLUMNS;
 import static com.facebook.presto.hive.HiveTableProperties.ORC_BLOOM_FILTER_FPP;
+import static com.facebook.presto.hive.HiveTableProperties.PARQUET_BLOOM_FILTER_COLUMNS;
 import static com.facebook.presto.hive.HiveTableProperties.PARTITIONED_BY_PROPERTY;
 import static com.facebook.presto.hive.HiveTableProperties.PREFERRED_ORDERING_COLUMNS;
 import static com.facebook.presto.hive.HiveTableProperties.SORTED_BY_PROPERTY;
@@ -261,6 +266,7 @@ import static com.facebook.presto.hive.HiveTableProperties.getExternalLocation;
 import static com.facebook.presto.hive.HiveTableProperties.getHiveStorageFormat;
 import static com.facebook.presto.hive.HiveTableProperties.getOrcBloomFilterColumns;
 import static com.facebook.presto.hive.HiveTableProperties.getOrcBloomFilterFpp;
+import static com.facebook.presto.hive.HiveTableProperties.getParquetBloomFilterColumns;
 import static com.facebook.presto.hive.HiveTableProperties.getPartitionedBy;
 import static com.facebook.presto.hive.HiveTableProperties.getPreferredOrderingColumns;
 import static com.facebook.presto.hive.HiveTableProperties.isExternalTable;
@@ -281,6 +287,7 @@ import static com.facebook.presto.hive.HiveUtil.verifyPartitionTypeSupported;
 import static com.facebook.presto.hive.HiveWriteUtils.checkTableIsWritable;
 import static com.facebook.presto.hive.HiveWriteUtils.isWritableType;
 import static com.facebook.presto.hive.HiveWriterFactory.computeBucketedFileName;
+import static com.facebook.presto.hive.HiveWriterFactory.getBucketNumber;
 import static com.facebook.presto.hive.HiveWriterFactory.getFileExtension;
 import static com.facebook.presto.hive.PartitionUpdate.UpdateMode.APPEND;
 import static com.facebook.presto.hive.PartitionUpdate.UpdateMode.NEW;
@@ -356,6 +363,7 @@ import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
+import static org.apache.hadoop.hive.common.FileUtils.HIDDEN_FILES_PATH_FILTER;
 
 public class HiveMetadata
         implements TransactionalMetadata
@@ -364,9 +372,9 @@ public class HiveMetadata
     public static final String TABLE_COMMENT = "comment";
     public static final Set<String> RESERVED_ROLES = ImmutableSet.of("all", "default", "none");
     public static final String REFERENCED_MATERIALIZED_VIEWS = "referenced_materialized_views";
-
-    private static final String ORC_BLOOM_FILTER_COLUMNS_KEY = "orc.bloom.filter.columns";
-    private static final String ORC_BLOOM_FILTER_FPP_KEY = "orc.bloom.filter.fpp";
+    public static final String ORC_BLOOM_FILTER_COLUMNS_KEY = "orc.bloom.filter.columns";
+    public static final String ORC_BLOOM_FILTER_FPP_KEY = "orc.bloom.filter.fpp";
+    public static final String PARQUET_BLOOM_FILTER_COLUMNS_KEY = "parquet.bloom.filter.columns";
 
     private static final String PRESTO_TEMPORARY_TABLE_NAME_PREFIX = "__presto_temporary_table_";
 
@@ -410,6 +418,7 @@ public class HiveMetadata
     private final HiveEncryptionInformationProvider encryptionInformationProvider;
     private final HivePartitionStats hivePartitionStats;
     private final HiveFileRenamer hiveFileRenamer;
+    private final Map<String, Boolean> singleFileBucketLocations = new ConcurrentHashMap<>();
 
     public HiveMetadata(
             SemiTransactionalHiveMetastore metastore,
@@ -675,6 +684,12 @@ public class HiveMetadata
             properties.put(ORC_BLOOM_FILTER_FPP, Double.parseDouble(orcBloomFilterFfp));
         }
 
+        // Parquet format specific properties
+        String parquetBloomFilterColumns = table.get().getParameters().get(PARQUET_BLOOM_FILTER_COLUMNS_KEY);
+        if (parquetBloomFilterColumns != null) {
+            properties.put(PARQUET_BLOOM_FILTER_COLUMNS, Splitter.on(COMMA).trimResults().omitEmptyStrings().splitToList(parquetBloomFilterColumns));
+        }
+
         // Avro specific property
         String avroSchemaUrl = table.get().getParameters().get(AVRO_SCHEMA_URL_KEY);
         if (avroSchemaUrl != null) {
@@ -1202,6 +1217,15 @@ public class HiveMetadata
             tableProperties.put(ORC_BLOOM_FILTER_FPP_KEY, String.valueOf(getOrcBloomFilterFpp(tableMetadata.getProperties())));
         }
 
+        // Parquet format specific properties
+        List<String> parquetBloomFilterColumns = getParquetBloomFilterColumns(tableMetadata.getProperties());
+        if (parquetBloomFilterColumns != null && !parquetBloomFilterColumns.isEmpty()) {
+            if (hiveStorageFormat != PARQUET) {
+                throw new PrestoException(INVALID_TABLE_PROPERTY, format("Cannot specify %s table property for storage format: %s", PARQUET_BLOOM_FILTER_COLUMNS, hiveStorageFormat));
+            }
+            tableProperties.put(PARQUET_BLOOM_FILTER_COLUMNS_KEY, Joiner.on(COMMA).join(parquetBloomFilterColumns));
+        }
+
         // Avro specific properties
         String avroSchemaUrl = getAvroSchemaUrl(tableMetadata.getProperties());
         if (avroSchemaUrl != null) {
@@ -2769,26 +2793,31 @@ public class HiveMetadata
 
             // streamPartitioningColumns is how we partition the data across splits.
             // localProperty is how we partition the data within a split.
-            // 1. add partition columns to streamPartitionColumns
+            // 1. add partition columns to streamPartitionColumns. A split never spans partitions, so they are also constant within a split
             partitionColumns.forEach(streamPartitionColumnsBuilder::add);
+            partitionColumns.forEach(column -> localProperties.add(new ConstantProperty<>(column)));
 
-            // 2. add sorted columns to streamPartitionColumns and localProperties
+            // 2. add bucket columns to streamPartitionColumns, all rows with the same bucket column values are in the same file
             HiveBucketProperty bucketProperty = table.getStorage().getBucketProperty().get();
             Map<String, ColumnHandle> columnHandles = hiveColumnHandles(table).stream()
                     .collect(toImmutableMap(HiveColumnHandle::getName, identity()));
+            bucketProperty.getBucketedBy().forEach(bucketColumn -> streamPartitionColumnsBuilder.add(columnHandles.get(bucketColumn)));
+
+            // 3. add sorted columns to localProperties
             bucketProperty.getSortedBy().forEach(sortingColumn -> {
                 ColumnHandle columnHandle = columnHandles.get(sortingColumn.getColumnName());
                 localProperties.add(new SortingProperty<>(columnHandle, sortingColumn.getOrder().getSortOrder()));
-                streamPartitionColumnsBuilder.add(columnHandle);
             });
 
             // We currently only set streamPartitionColumns when it enables streaming aggregation and also it's eligible to enable streaming aggregation
-            // 1. When the bucket columns are the same as the prefix of the sort columns
-            // 2. When all rows of the same value group are guaranteed to be in the same split. We disable splitting a file when isStreamingAggregationEnabled is true to make sure the property is guaranteed.
+            // 1. When the bucket columns are the same as the prefix of the sort columns, so grouping on any sort prefix covering the bucket columns is streamable
+            // 2. When all rows of the same value group are guaranteed to be in the same split. We disable splitting a file when isStreamingAggregationEnabled is true,
+            //    and every bucket of the partitions read must be a single file, which is checked against the files in storage.
             List<String> sortColumns = bucketProperty.getSortedBy().stream().map(SortingColumn::getColumnName).collect(toImmutableList());
             if (bucketProperty.getBucketedBy().size() <= sortColumns.size()
                     && bucketProperty.getBucketedBy().containsAll(sortColumns.subList(0, bucketProperty.getBucketedBy().size()))
-                    && isStreamingAggregationEnabled(session)) {
+                    && isStreamingAggregationEnabled(session)
+                    && hasSingleFileBuckets(session, table, partitions)) {
                 streamPartitionColumns = Optional.of(streamPartitionColumnsBuilder.build());
             }
         }
@@ -2804,6 +2833,67 @@ public class HiveMetadata
                 Optional.of(hiveLayoutHandle.getRemainingPredicate()));
     }
 
+    /**
+     * Each bucket is read by a single split only if every partition has the bucket count of the table
+     * and a single file for each bucket. Buckets with more files are common after appends to a partition.
+     */
+    private boolean hasSingleFileBuckets(ConnectorSession session, Table table, List<HivePartition> partitions)
+    {
+        int tableBucketCount = table.getStorage().getBucketProperty().get().getBucketCount();
+        if (partitions.size() == 1 && partitions.get(0).getPartitionId().equals(UNPARTITIONED_ID)) {
+            return hasSingleFileBuckets(session, table, table.getStorage().getLocation(), tableBucketCount);
+        }
+
+        MetastoreContext metastoreContext = getMetastoreContext(session);
+        for (List<HivePartition> partitionBatch : Lists.partition(partitions, maxPartitionBatchSize)) {
+            List<String> partitionNames = partitionBatch.stream()
+                    .map(HivePartition::getPartitionId)
+                    .collect(toImmutableList());
+            Map<String, Optional<Partition>> partitionsByName = metastore.getPartitionsByNames(metastoreContext, table.getDatabaseName(), table.getTableName(), partitionNames);
+            for (String partitionName : partitionNames) {
+                Optional<Partition> partition = partitionsByName.getOrDefault(partitionName, Optional.empty());
+                if (!partition.isPresent()) {
+                    return false;
+                }
+                Optional<HiveBucketProperty> partitionBucketProperty = partition.get().getStorage().getBucketProperty();
+                if (!partitionBucketProperty.isPresent()
+                        || partitionBucketProperty.get().getBucketCount() != tableBucketCount
+                        || !hasSingleFileBuckets(session, table, partition.get().getStorage().getLocation(), tableBucketCount)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean hasSingleFileBuckets(ConnectorSession session, Table table, String location, int bucketCount)
+    {
+        return singleFileBucketLocations.computeIfAbsent(location, ignored -> {
+            Path path = new Path(location);
+            HdfsContext context = new HdfsContext(session, table.getDatabaseName(), table.getTableName(), table.getStorage().getLocation(), false);
+            FileStatus[] files;
+            try {
+                files = hdfsEnvironment.getFileSystem(context, path).listStatus(path, HIDDEN_FILES_PATH_FILTER);
+            }
+            catch (IOException e) {
+                throw new PrestoException(HIVE_FILESYSTEM_ERROR, "Failed to list files of " + location, e);
+            }
+
+            Set<Integer> buckets = new HashSet<>();
+            for (FileStatus file : files) {
+                OptionalInt bucket = getBucketNumber(file.getPath().getName());
+                if (!bucket.isPresent()) {
+                    // files without a bucket number are mapped to buckets by their position, which needs exactly one file per bucket
+                    return files.length == bucketCount;
+                }
+                if (!buckets.add(bucket.getAsInt())) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
     @Override
     public Optional<ConnectorPartitioningHandle> getCommonPartitioningHandle(ConnectorSession session, ConnectorPartitioningHandle left, ConnectorPartitioningHandle right)
     {
@@ -251,32 +251,6 @@ public class HivePageSource
         }
     }
 
-    private static final class RowFilterLazyBlockLoader
-            implements LazyBlockLoader<LazyBlock>
-    {
-        private Block block;
-        private final IntArrayList rowsToKeep;
-
-        public RowFilterLazyBlockLoader(Block block, IntArrayList rowsToKeep)
-        {
-            this.block = requireNonNull(block, "block is null");
-            this.rowsToKeep = requireNonNull(rowsToKeep, "rowsToKeep is null");
-        }
-
-        @Override
-        public void load(LazyBlock lazyBlock)
-        {
-            if (block == null) {
-                return;
-            }
-
-            lazyBlock.setBlock(block.getPositions(rowsToKeep.elements(), 0, rowsToKeep.size()));
-
-            // clear reference to loader to free resources, since load was successful
-            block = null;
-        }
-    }
-
     private static class BucketAdapter
     {
         public final int[] bucketColumns;
@@ -323,7 +297,7 @@ public class HivePageSource
             for (int i = 0; i < adaptedBlocks.length; i++) {
                 Block block = page.getBlock(i);
                 if (block instanceof LazyBlock && !((LazyBlock) block).isLoaded()) {
-                    adaptedBlocks[i] = new LazyBlock(retainedRowCount, new RowFilterLazyBlockLoader(block, ids));
+                    adaptedBlocks[i] = ((LazyBlock) block).getPositionsLazily(ids.elements(), 0, retainedRowCount);
                 }
                 else {
                     adaptedBlocks[i] = block.getPositions(ids.elements(), 0, retainedRowCount);
@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.hive;
 
+import com.facebook.presto.common.Subfield;
+import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorPlanOptimizer;
@@ -44,12 +46,17 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 
+import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.common.type.TimestampType.TIMESTAMP;
 import static com.facebook.presto.common.type.TinyintType.TINYINT;
 import static com.facebook.presto.common.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.expressions.LogicalRowExpressions.TRUE_CONSTANT;
+import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.PARTITION_KEY;
+import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static com.facebook.presto.hive.HiveSessionProperties.isPartialAggregationPushdownEnabled;
+import static com.facebook.presto.hive.HiveSessionProperties.isPartialAggregationPushdownExtendedEnabled;
 import static com.facebook.presto.hive.HiveSessionProperties.isPartialAggregationPushdownForVariableLengthDatatypesEnabled;
 import static com.facebook.presto.hive.HiveStorageFormat.ORC;
 import static com.facebook.presto.hive.HiveStorageFormat.PARQUET;
@@ -126,11 +133,9 @@ public class HivePartialAggregationPushdown
 
         private boolean isAggregationPushdownSupported(AggregationNode partialAggregationNode)
         {
-            if (partialAggregationNode.hasNonEmptyGroupingSet()) {
-                return false;
-            }
-
             TableScanNode tableScanNode = (TableScanNode) partialAggregationNode.getSource();
+            boolean extendedPushdownEnabled = isPartialAggregationPushdownExtendedEnabled(session);
+
             ConnectorTableMetadata connectorTableMetadata = metadataFactory.get().getTableMetadata(session, tableScanNode.getTable().getConnectorHandle());
             Optional<Object> rawFormat = Optional.ofNullable(connectorTableMetadata.getProperties().get(HiveTableProperties.STORAGE_FORMAT_PROPERTY));
             if (!rawFormat.isPresent()) {
@@ -142,22 +147,32 @@ public class HivePartialAggregationPushdown
                 return false;
             }
 
-            if (tableScanNode.getTable().getLayout().isPresent()) {
-                HiveTableLayoutHandle hiveTableLayoutHandle = (HiveTableLayoutHandle) tableScanNode.getTable().getLayout().get();
-                if (!hiveTableLayoutHandle.getPredicateColumns().isEmpty()) {
-                    return false;
-                }
+            Optional<HiveTableLayoutHandle> hiveTableLayoutHandle = tableScanNode.getTable().getLayout().map(HiveTableLayoutHandle.class::cast);
+            // Parquet selective readers cannot produce partition keys next to the pushed down aggregations
+            boolean extendedPushdownSupported = extendedPushdownEnabled &&
+                    (hiveStorageFormat == ORC || !hiveTableLayoutHandle.map(HiveTableLayoutHandle::isPushdownFilterEnabled).orElse(false));
+
+            if (partialAggregationNode.hasNonEmptyGroupingSet() &&
+                    !(extendedPushdownSupported && isGroupedByPartitionKeys(partialAggregationNode, tableScanNode))) {
+                return false;
+            }
+
+            if (hiveTableLayoutHandle.isPresent() && !hiveTableLayoutHandle.get().getPredicateColumns().isEmpty() &&
+                    !(extendedPushdownSupported && isPredicateDecidableByStatistics(hiveTableLayoutHandle.get(), hiveStorageFormat))) {
+                return false;
             }
 
             /**
              * Aggregation push downs are supported only on primitive types and supported aggregation functions are:
-             * count(*), count(columnName), min(columnName), max(columnName)
+             * count(*), count(columnName), min(columnName), max(columnName) and, for ORC with extended pushdown, sum(bigintColumnName)
              */
             for (AggregationNode.Aggregation aggregation : partialAggregationNode.getAggregations().values()) {
                 FunctionHandle functionHandle = aggregation.getFunctionHandle();
+                boolean isSum = extendedPushdownSupported && hiveStorageFormat == ORC && standardFunctionResolution.isSumFunction(functionHandle);
                 if (!(standardFunctionResolution.isCountFunction(functionHandle) ||
                         standardFunctionResolution.isMaxFunction(functionHandle) ||
-                        standardFunctionResolution.isMinFunction(functionHandle))) {
+                        standardFunctionResolution.isMinFunction(functionHandle) ||
+                        isSum)) {
                     return false;
                 }
 
@@ -165,11 +180,19 @@ public class HivePartialAggregationPushdown
                     return false;
                 }
 
+                if (aggregation.getFilter().isPresent() || aggregation.getMask().isPresent() || aggregation.isDistinct() || aggregation.getOrderBy().isPresent()) {
+                    return false;
+                }
+
                 List<RowExpression> arguments = aggregation.getArguments();
                 if (arguments.size() > 1) {
                     return false;
                 }
 
+                if (isSum && !BIGINT.equals(arguments.get(0).getType())) {
+                    return false;
+                }
+
                 if (standardFunctionResolution.isMinFunction(functionHandle) || standardFunctionResolution.isMaxFunction(functionHandle)) {
                     // Only allow supported datatypes for min/max
                     Type type = arguments.get(0).getType();
@@ -198,6 +221,70 @@ public class HivePartialAggregationPushdown
             return true;
         }
 
+        /**
+         * Partition keys are constant within a file, so a single pushed down row per file
+         * is still a valid partial aggregation when every grouping key is a partition key.
+         */
+        private boolean isGroupedByPartitionKeys(AggregationNode partialAggregationNode, TableScanNode tableScanNode)
+        {
+            if (partialAggregationNode.getGroupingSetCount() != 1 ||
+                    !partialAggregationNode.getGlobalGroupingSets().isEmpty() ||
+                    partialAggregationNode.getHashVariable().isPresent() ||
+                    partialAggregationNode.getGroupIdVariable().isPresent()) {
+                return false;
+            }
+
+            for (VariableReferenceExpression groupingKey : partialAggregationNode.getGroupingKeys()) {
+                ColumnHandle columnHandle = tableScanNode.getAssignments().get(groupingKey);
+                if (!(columnHandle instanceof HiveColumnHandle) || ((HiveColumnHandle) columnHandle).getColumnType() != PARTITION_KEY) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Predicates on partition keys are decided per file. Range predicates on top level ORC columns are decided
+         * by the stripe and row group statistics, and only the sections that the statistics cannot decide are read.
+         */
+        private boolean isPredicateDecidableByStatistics(HiveTableLayoutHandle hiveTableLayoutHandle, HiveStorageFormat hiveStorageFormat)
+        {
+            if (!TRUE_CONSTANT.equals(hiveTableLayoutHandle.getRemainingPredicate())) {
+                return false;
+            }
+
+            Optional<Map<Subfield, Domain>> domains = hiveTableLayoutHandle.getDomainPredicate().getDomains();
+            if (!domains.isPresent()) {
+                return true;
+            }
+
+            for (Subfield subfield : domains.get().keySet()) {
+                if (!subfield.getPath().isEmpty()) {
+                    return false;
+                }
+
+                HiveColumnHandle columnHandle = hiveTableLayoutHandle.getPredicateColumns().get(subfield.getRootName());
+                if (columnHandle == null) {
+                    return false;
+                }
+                if (columnHandle.getColumnType() == PARTITION_KEY) {
+                    continue;
+                }
+
+                if (columnHandle.getColumnType() != REGULAR ||
+                        hiveStorageFormat != ORC ||
+                        !hiveTableLayoutHandle.isPushdownFilterEnabled()) {
+                    return false;
+                }
+
+                Type type = domains.get().get(subfield).getType();
+                if (isRowType(type) || isArrayType(type) || isMapType(type)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         private Optional<PlanNode> tryPartialAggregationPushdown(PlanNode plan)
         {
             if (!(plan instanceof AggregationNode
@@ -218,6 +305,9 @@ public class HivePartialAggregationPushdown
 
             HiveTypeTranslator hiveTypeTranslator = new HiveTypeTranslator();
             Map<VariableReferenceExpression, ColumnHandle> assignments = new HashMap<>();
+            for (VariableReferenceExpression groupingKey : partialAggregationNode.getGroupingKeys()) {
+                assignments.put(groupingKey, oldTableScanNode.getAssignments().get(groupingKey));
+            }
             for (Map.Entry<VariableReferenceExpression, AggregationNode.Aggregation> aggregationEntry : partialAggregationNode.getAggregations().entrySet()) {
                 CallExpression callExpression = aggregationEntry.getValue().getCall();
                 String columnName;
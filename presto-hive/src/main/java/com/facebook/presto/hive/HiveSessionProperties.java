@@ -122,6 +122,7 @@ public final class HiveSessionProperties
     public static final String IGNORE_UNREADABLE_PARTITION = "ignore_unreadable_partition";
     public static final String PARTIAL_AGGREGATION_PUSHDOWN_ENABLED = "partial_aggregation_pushdown_enabled";
     public static final String PARTIAL_AGGREGATION_PUSHDOWN_FOR_VARIABLE_LENGTH_DATATYPES_ENABLED = "partial_aggregation_pushdown_for_variable_length_datatypes_enabled";
+    public static final String PARTIAL_AGGREGATION_PUSHDOWN_EXTENDED_ENABLED = "partial_aggregation_pushdown_extended_enabled";
     public static final String FILE_RENAMING_ENABLED = "file_renaming_enabled";
     public static final String PREFER_MANIFESTS_TO_LIST_FILES = "prefer_manifests_to_list_files";
     public static final String MANIFEST_VERIFICATION_ENABLED = "manifest_verification_enabled";
@@ -135,6 +136,7 @@ public final class HiveSessionProperties
     private static final String DWRF_WRITER_STRIPE_CACHE_ENABLED = "dwrf_writer_stripe_cache_enabled";
     private static final String DWRF_WRITER_STRIPE_CACHE_SIZE = "dwrf_writer_stripe_cache_size";
     public static final String USE_COLUMN_INDEX_FILTER = "use_column_index_filter";
+    public static final String PARQUET_BLOOM_FILTER_ENABLED = "parquet_bloom_filter_enabled";
     public static final String SIZE_BASED_SPLIT_WEIGHTS_ENABLED = "size_based_split_weights_enabled";
     public static final String MINIMUM_ASSIGNED_SPLIT_WEIGHT = "minimum_assigned_split_weight";
     private static final String USE_RECORD_PAGE_SOURCE_FOR_CUSTOM_SPLIT = "use_record_page_source_for_custom_split";
@@ -571,6 +573,11 @@ public final class HiveSessionProperties
                         "Is partial aggregation pushdown enabled for variable length datatypes",
                         hiveClientConfig.isPartialAggregationPushdownForVariableLengthDatatypesEnabled(),
                         false),
+                booleanProperty(
+                        PARTIAL_AGGREGATION_PUSHDOWN_EXTENDED_ENABLED,
+                        "Is partial aggregation pushdown enabled for grouping on partition keys, predicates decided by ORC stripe statistics and sum",
+                        hiveClientConfig.isPartialAggregationPushdownExtendedEnabled(),
+                        false),
                 booleanProperty(
                         FILE_RENAMING_ENABLED,
                         "Enable renaming the files written by writers",
@@ -650,6 +657,11 @@ public final class HiveSessionProperties
                         "should use column index statistics filtering",
                         hiveClientConfig.getReadColumnIndexFilter(),
                         false),
+                booleanProperty(
+                        PARQUET_BLOOM_FILTER_ENABLED,
+                        "Parquet: Enable bloom filters for predicate pushdown",
+                        hiveClientConfig.isParquetBloomFilterEnabled(),
+                        false),
                 booleanProperty(
                         SIZE_BASED_SPLIT_WEIGHTS_ENABLED,
                         "Enable estimating split weights based on size in bytes",
@@ -1104,6 +1116,11 @@ public final class HiveSessionProperties
         return session.getProperty(PARTIAL_AGGREGATION_PUSHDOWN_FOR_VARIABLE_LENGTH_DATATYPES_ENABLED, Boolean.class);
     }
 
+    public static boolean isPartialAggregationPushdownExtendedEnabled(ConnectorSession session)
+    {
+        return session.getProperty(PARTIAL_AGGREGATION_PUSHDOWN_EXTENDED_ENABLED, Boolean.class);
+    }
+
     public static boolean isFileRenamingEnabled(ConnectorSession session)
     {
         return session.getProperty(FILE_RENAMING_ENABLED, Boolean.class);
@@ -1169,6 +1186,11 @@ public final class HiveSessionProperties
         return session.getProperty(USE_COLUMN_INDEX_FILTER, Boolean.class);
     }
 
+    public static boolean isParquetBloomFilterEnabled(ConnectorSession session)
+    {
+        return session.getProperty(PARQUET_BLOOM_FILTER_ENABLED, Boolean.class);
+    }
+
     public static boolean isSizeBasedSplitWeightsEnabled(ConnectorSession session)
     {
         return session.getProperty(SIZE_BASED_SPLIT_WEIGHTS_ENABLED, Boolean.class);
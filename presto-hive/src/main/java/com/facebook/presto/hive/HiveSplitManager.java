@@ -140,6 +140,7 @@ public class HiveSplitManager
     private final int minPartitionBatchSize;
     private final int maxPartitionBatchSize;
     private final int splitLoaderConcurrency;
+    private final int splitLoaderMaxConcurrentListings;
     private final boolean recursiveDfsWalkerEnabled;
     private final CounterStat highMemorySplitSourceCounter;
     private final CacheQuotaRequirementProvider cacheQuotaRequirementProvider;
@@ -170,6 +171,7 @@ public class HiveSplitManager
                 hiveClientConfig.getMinPartitionBatchSize(),
                 hiveClientConfig.getMaxPartitionBatchSize(),
                 hiveClientConfig.getSplitLoaderConcurrency(),
+                hiveClientConfig.getSplitLoaderMaxConcurrentListings(),
                 hiveClientConfig.getRecursiveDirWalkerEnabled(),
                 cacheQuotaRequirementProvider,
                 encryptionInformationProvider);
@@ -188,6 +190,7 @@ public class HiveSplitManager
             int minPartitionBatchSize,
             int maxPartitionBatchSize,
             int splitLoaderConcurrency,
+            int splitLoaderMaxConcurrentListings,
             boolean recursiveDfsWalkerEnabled,
             CacheQuotaRequirementProvider cacheQuotaRequirementProvider,
             HiveEncryptionInformationProvider encryptionInformationProvider)
@@ -205,6 +208,8 @@ public class HiveSplitManager
         this.minPartitionBatchSize = minPartitionBatchSize;
         this.maxPartitionBatchSize = maxPartitionBatchSize;
         this.splitLoaderConcurrency = splitLoaderConcurrency;
+        checkArgument(splitLoaderMaxConcurrentListings >= 0, "splitLoaderMaxConcurrentListings must be at least 0");
+        this.splitLoaderMaxConcurrentListings = splitLoaderMaxConcurrentListings;
         this.recursiveDfsWalkerEnabled = recursiveDfsWalkerEnabled;
         this.cacheQuotaRequirementProvider = requireNonNull(cacheQuotaRequirementProvider, "cacheQuotaRequirementProvider is null");
         this.encryptionInformationProvider = requireNonNull(encryptionInformationProvider, "encryptionInformationProvider is null");
@@ -289,6 +294,7 @@ public class HiveSplitManager
                 directoryLister,
                 executor,
                 min(splitLoaderConcurrency, partitions.size()), // Avoid over-committing split loader concurrency
+                splitLoaderMaxConcurrentListings,
                 recursiveDfsWalkerEnabled,
                 splitSchedulingContext.schedulerUsesHostAddresses(),
                 layout.isPartialAggregationsPushedDown());
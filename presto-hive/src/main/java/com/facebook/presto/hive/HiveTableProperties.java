@@ -49,6 +49,7 @@ public class HiveTableProperties
     public static final String SORTED_BY_PROPERTY = "sorted_by";
     public static final String ORC_BLOOM_FILTER_COLUMNS = "orc_bloom_filter_columns";
     public static final String ORC_BLOOM_FILTER_FPP = "orc_bloom_filter_fpp";
+    public static final String PARQUET_BLOOM_FILTER_COLUMNS = "parquet_bloom_filter_columns";
     public static final String AVRO_SCHEMA_URL = "avro_schema_url";
     public static final String PREFERRED_ORDERING_COLUMNS = "preferred_ordering_columns";
     public static final String ENCRYPT_COLUMNS = "encrypt_columns";
@@ -133,6 +134,18 @@ public class HiveTableProperties
                         "ORC Bloom filter false positive probability",
                         config.getOrcDefaultBloomFilterFpp(),
                         false),
+                new PropertyMetadata<>(
+                        PARQUET_BLOOM_FILTER_COLUMNS,
+                        "Parquet Bloom filter columns",
+                        typeManager.getType(parseTypeSignature("array(varchar)")),
+                        List.class,
+                        ImmutableList.of(),
+                        false,
+                        value -> ((Collection<?>) value).stream()
+                                .map(String.class::cast)
+                                .map(name -> name.toLowerCase(ENGLISH))
+                                .collect(toImmutableList()),
+                        value -> value),
                 integerProperty(BUCKET_COUNT_PROPERTY, "Number of buckets", 0, false),
                 stringProperty(AVRO_SCHEMA_URL, "URI pointing to Avro schema for the table", null, false),
                 new PropertyMetadata<>(
@@ -245,6 +258,12 @@ public class HiveTableProperties
         return (Double) tableProperties.get(ORC_BLOOM_FILTER_FPP);
     }
 
+    @SuppressWarnings("unchecked")
+    public static List<String> getParquetBloomFilterColumns(Map<String, Object> tableProperties)
+    {
+        return (List<String>) tableProperties.get(PARQUET_BLOOM_FILTER_COLUMNS);
+    }
+
     public static Optional<Character> getCsvProperty(Map<String, Object> tableProperties, String key)
     {
         Object value = tableProperties.get(key);
@@ -14,12 +14,14 @@
 package com.facebook.presto.hive;
 
 import com.facebook.airlift.configuration.Config;
+import com.facebook.airlift.configuration.ConfigDescription;
 import com.facebook.presto.orc.DefaultOrcWriterFlushPolicy;
 import com.facebook.presto.orc.OrcWriterOptions;
 import com.facebook.presto.orc.metadata.DwrfStripeCacheMode;
 import com.facebook.presto.orc.writer.StreamLayoutFactory;
 import io.airlift.units.DataSize;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import java.util.OptionalInt;
@@ -49,6 +51,8 @@ public class OrcFileWriterConfig
     private DataSize dwrfStripeCacheMaxSize = OrcWriterOptions.DEFAULT_DWRF_STRIPE_CACHE_MAX_SIZE;
     private DwrfStripeCacheMode dwrfStripeCacheMode = OrcWriterOptions.DEFAULT_DWRF_STRIPE_CACHE_MODE;
     private int compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+    private int columnEncodingParallelism = 1;
+    private int columnEncodingThreads = 32;
 
     public OrcWriterOptions.Builder toOrcWriterOptionsBuilder()
     {
@@ -152,6 +156,34 @@ public class OrcFileWriterConfig
         return this;
     }
 
+    @Min(1)
+    public int getColumnEncodingParallelism()
+    {
+        return columnEncodingParallelism;
+    }
+
+    @Config("hive.orc.writer.column-encoding-parallelism")
+    @ConfigDescription("Maximum number of threads that encode the columns of a single ORC file concurrently")
+    public OrcFileWriterConfig setColumnEncodingParallelism(int columnEncodingParallelism)
+    {
+        this.columnEncodingParallelism = columnEncodingParallelism;
+        return this;
+    }
+
+    @Min(1)
+    public int getColumnEncodingThreads()
+    {
+        return columnEncodingThreads;
+    }
+
+    @Config("hive.orc.writer.column-encoding-threads")
+    @ConfigDescription("Maximum number of threads shared by all ORC writers for encoding columns")
+    public OrcFileWriterConfig setColumnEncodingThreads(int columnEncodingThreads)
+    {
+        this.columnEncodingThreads = columnEncodingThreads;
+        return this;
+    }
+
     @NotNull
     public DataSize getStringStatisticsLimit()
     {
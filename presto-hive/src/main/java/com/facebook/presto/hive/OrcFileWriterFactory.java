@@ -36,6 +36,7 @@ import com.facebook.presto.spi.PrestoException;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.slice.Slice;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -53,13 +54,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_UNSUPPORTED_FORMAT;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_WRITER_OPEN_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_WRITE_VALIDATION_FAILED;
+import static com.facebook.presto.hive.HiveMetadata.ORC_BLOOM_FILTER_COLUMNS_KEY;
+import static com.facebook.presto.hive.HiveMetadata.ORC_BLOOM_FILTER_FPP_KEY;
 import static com.facebook.presto.hive.HiveSessionProperties.getCompressionLevel;
 import static com.facebook.presto.hive.HiveSessionProperties.getDwrfWriterStripeCacheMaxSize;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxBufferSize;
@@ -76,10 +81,12 @@ import static com.facebook.presto.hive.HiveSessionProperties.isExecutionBasedMem
 import static com.facebook.presto.hive.HiveType.toHiveTypes;
 import static com.facebook.presto.orc.OrcEncoding.DWRF;
 import static com.facebook.presto.orc.OrcEncoding.ORC;
+import static com.facebook.presto.orc.OrcWriterOptions.DEFAULT_BLOOM_FILTER_FPP;
 import static com.facebook.presto.orc.metadata.KeyProvider.CRYPTO_SERVICE;
 import static com.facebook.presto.orc.metadata.KeyProvider.UNKNOWN;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -98,8 +105,32 @@ public class OrcFileWriterFactory
     private final OrcWriterStats stats = new OrcWriterStats();
     private final OrcFileWriterConfig orcFileWriterConfig;
     private final DwrfEncryptionProvider dwrfEncryptionProvider;
+    private final Optional<Executor> columnEncodingExecutor;
 
     @Inject
+    public OrcFileWriterFactory(
+            HdfsEnvironment hdfsEnvironment,
+            DataSinkFactory dataSinkFactory,
+            TypeManager typeManager,
+            NodeVersion nodeVersion,
+            HiveClientConfig hiveClientConfig,
+            FileFormatDataSourceStats readStats,
+            OrcFileWriterConfig orcFileWriterConfig,
+            HiveDwrfEncryptionProvider dwrfEncryptionProvider,
+            @ForOrcColumnEncoding Executor columnEncodingExecutor)
+    {
+        this(
+                hdfsEnvironment,
+                dataSinkFactory,
+                typeManager,
+                nodeVersion,
+                requireNonNull(hiveClientConfig, "hiveClientConfig is null").getDateTimeZone(),
+                readStats,
+                orcFileWriterConfig,
+                dwrfEncryptionProvider,
+                Optional.of(columnEncodingExecutor));
+    }
+
     public OrcFileWriterFactory(
             HdfsEnvironment hdfsEnvironment,
             DataSinkFactory dataSinkFactory,
@@ -118,7 +149,8 @@ public class OrcFileWriterFactory
                 requireNonNull(hiveClientConfig, "hiveClientConfig is null").getDateTimeZone(),
                 readStats,
                 orcFileWriterConfig,
-                dwrfEncryptionProvider);
+                dwrfEncryptionProvider,
+                Optional.empty());
     }
 
     public OrcFileWriterFactory(
@@ -130,6 +162,20 @@ public class OrcFileWriterFactory
             FileFormatDataSourceStats readStats,
             OrcFileWriterConfig orcFileWriterConfig,
             HiveDwrfEncryptionProvider dwrfEncryptionProvider)
+    {
+        this(hdfsEnvironment, dataSinkFactory, typeManager, nodeVersion, hiveStorageTimeZone, readStats, orcFileWriterConfig, dwrfEncryptionProvider, Optional.empty());
+    }
+
+    public OrcFileWriterFactory(
+            HdfsEnvironment hdfsEnvironment,
+            DataSinkFactory dataSinkFactory,
+            TypeManager typeManager,
+            NodeVersion nodeVersion,
+            DateTimeZone hiveStorageTimeZone,
+            FileFormatDataSourceStats readStats,
+            OrcFileWriterConfig orcFileWriterConfig,
+            HiveDwrfEncryptionProvider dwrfEncryptionProvider,
+            Optional<Executor> columnEncodingExecutor)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.dataSinkFactory = requireNonNull(dataSinkFactory, "dataSinkFactory is null");
@@ -139,6 +185,7 @@ public class OrcFileWriterFactory
         this.readStats = requireNonNull(readStats, "stats is null");
         this.orcFileWriterConfig = requireNonNull(orcFileWriterConfig, "orcFileWriterConfig is null");
         this.dwrfEncryptionProvider = requireNonNull(dwrfEncryptionProvider, "DwrfEncryptionProvider is null").toDwrfEncryptionProvider();
+        this.columnEncodingExecutor = requireNonNull(columnEncodingExecutor, "columnEncodingExecutor is null");
     }
 
     @Managed
@@ -174,6 +221,8 @@ public class OrcFileWriterFactory
         }
 
         CompressionKind compression = getCompression(schema, configuration, orcEncoding);
+        Set<String> bloomFilterColumns = getBloomFilterColumns(schema, orcEncoding);
+        double bloomFilterFpp = getBloomFilterFpp(schema);
 
         // existing tables and partitions may have columns in a different order than the writer is providing, so build
         // an index to rearrange columns in the proper order
@@ -237,6 +286,10 @@ public class OrcFileWriterFactory
                             .withDwrfStripeCacheEnabled(isDwrfWriterStripeCacheEnabled(session))
                             .withDwrfStripeCacheMaxSize(getDwrfWriterStripeCacheMaxSize(session))
                             .withCompressionLevel(getCompressionLevel(session))
+                            .withBloomFilterColumns(bloomFilterColumns)
+                            .withBloomFilterFpp(bloomFilterFpp)
+                            .withColumnEncodingParallelism(columnEncodingExecutor.isPresent() ? orcFileWriterConfig.getColumnEncodingParallelism() : 1)
+                            .withColumnEncodingExecutor(columnEncodingExecutor)
                             .build(),
                     fileInputColumnIndexes,
                     ImmutableMap.<String, String>builder()
@@ -302,6 +355,31 @@ public class OrcFileWriterFactory
         return dataSinkFactory.createDataSink(session, fileSystem, path);
     }
 
+    private static Set<String> getBloomFilterColumns(Properties schema, OrcEncoding orcEncoding)
+    {
+        // DWRF has no bloom filter streams
+        if (orcEncoding == DWRF) {
+            return ImmutableSet.of();
+        }
+        return Splitter.on(',').trimResults().omitEmptyStrings().splitToList(schema.getProperty(ORC_BLOOM_FILTER_COLUMNS_KEY, "")).stream()
+                .map(column -> column.toLowerCase(ENGLISH))
+                .collect(toImmutableSet());
+    }
+
+    private static double getBloomFilterFpp(Properties schema)
+    {
+        String bloomFilterFpp = schema.getProperty(ORC_BLOOM_FILTER_FPP_KEY);
+        if (bloomFilterFpp == null) {
+            return DEFAULT_BLOOM_FILTER_FPP;
+        }
+        try {
+            return Double.parseDouble(bloomFilterFpp);
+        }
+        catch (NumberFormatException e) {
+            throw new PrestoException(HIVE_UNSUPPORTED_FORMAT, "Invalid ORC bloom filter fpp " + bloomFilterFpp);
+        }
+    }
+
     private static CompressionKind getCompression(Properties schema, JobConf configuration, OrcEncoding orcEncoding)
     {
         String compressionName = OrcConf.COMPRESS.getString(schema, configuration);
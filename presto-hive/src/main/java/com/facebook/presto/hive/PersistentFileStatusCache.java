@@ -0,0 +1,429 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.airlift.log.Logger;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.Duration;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.facebook.presto.hive.HiveFileInfo.createHiveFileInfo;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.hash.Hashing.sha256;
+import static java.lang.Math.max;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Comparator.comparingLong;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Stores directory listings in a local directory, one file per listed path. Every
+ * listing is stored together with the modification time and length of the listed
+ * directory, and is only returned when the directory still has the same status,
+ * so a listing survives restarts and is validated with a single file status call
+ * instead of being listed again.
+ * <p>
+ * Like the in-memory file status cache, listings expire after {@code expireAfterWrite},
+ * and the stored listings hold at most about {@code maxSize} files. When a new listing
+ * goes over that size, the oldest listings are removed.
+ * <p>
+ * Entries are written to a temporary file and atomically renamed into place, so
+ * several coordinators can share the cache directory through a shared mount.
+ */
+public class PersistentFileStatusCache
+{
+    private static final Logger log = Logger.get(PersistentFileStatusCache.class);
+
+    private static final int FORMAT_VERSION = 2;
+    private static final String ENTRY_SUFFIX = ".listing";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final java.nio.file.Path directory;
+    private final long expireAfterWriteMillis;
+    private final long maxSize;
+    // approximate, other coordinators sharing the directory are only accounted for by evict()
+    private final AtomicLong storedSize = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong invalidatedCount = new AtomicLong();
+
+    public PersistentFileStatusCache(File directory, Duration expireAfterWrite, long maxSize)
+    {
+        this.directory = requireNonNull(directory, "directory is null").toPath();
+        this.expireAfterWriteMillis = requireNonNull(expireAfterWrite, "expireAfterWrite is null").toMillis();
+        checkArgument(maxSize >= 0, "maxSize is negative");
+        this.maxSize = maxSize;
+        try {
+            Files.createDirectories(this.directory);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("Cannot create file status cache directory: " + directory, e);
+        }
+        // drops expired listings left by a previous run and computes the stored size
+        evict();
+    }
+
+    /**
+     * Returns the stored listing of the path, if it was stored for the given
+     * modification time and length of the directory and has not expired.
+     */
+    public Optional<List<HiveFileInfo>> get(Path path, long modificationTime, long length)
+    {
+        java.nio.file.Path entry = getEntry(path);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            EntryHeader header = readHeader(input);
+            if (header.getFormatVersion() != FORMAT_VERSION || !header.getPath().equals(path.toString())) {
+                missCount.incrementAndGet();
+                return Optional.empty();
+            }
+            if (header.getModificationTime() != modificationTime || header.getLength() != length || isExpired(header)) {
+                invalidatedCount.incrementAndGet();
+                missCount.incrementAndGet();
+                delete(entry, header);
+                return Optional.empty();
+            }
+            List<HiveFileInfo> files = readFiles(input, header.getFileCount());
+            hitCount.incrementAndGet();
+            return Optional.of(files);
+        }
+        catch (NoSuchFileException e) {
+            missCount.incrementAndGet();
+            return Optional.empty();
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn(e, "Failed to read cached listing of %s", path);
+            missCount.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    public void put(Path path, long modificationTime, long length, List<HiveFileInfo> files)
+    {
+        if (getWeight(files.size()) > maxSize) {
+            return;
+        }
+        java.nio.file.Path temporary = directory.resolve(UUID.randomUUID() + TEMPORARY_SUFFIX);
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temporary);
+                    DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(path.toString());
+                output.writeLong(modificationTime);
+                output.writeLong(length);
+                output.writeLong(System.currentTimeMillis());
+                output.writeInt(files.size());
+                writeFiles(output, files);
+            }
+            Files.move(temporary, getEntry(path), ATOMIC_MOVE, REPLACE_EXISTING);
+            if (storedSize.addAndGet(getWeight(files.size())) > maxSize) {
+                evict();
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn(e, "Failed to store listing of %s", path);
+            try {
+                Files.deleteIfExists(temporary);
+            }
+            catch (IOException ignored) {
+            }
+        }
+    }
+
+    public void invalidateAll()
+    {
+        try (DirectoryStream<java.nio.file.Path> entries = Files.newDirectoryStream(directory)) {
+            for (java.nio.file.Path entry : entries) {
+                if (entry.getFileName().toString().endsWith(ENTRY_SUFFIX)) {
+                    Files.deleteIfExists(entry);
+                }
+            }
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to invalidate file status cache in %s", directory);
+        }
+        storedSize.set(0);
+    }
+
+    /**
+     * Removes expired listings, and then the oldest listings until the stored listings
+     * take at most three quarters of {@code maxSize}, so that the cache directory is not
+     * scanned again for every new listing.
+     */
+    private synchronized void evict()
+    {
+        List<StoredEntry> entries = new ArrayList<>();
+        long size = 0;
+        try (DirectoryStream<java.nio.file.Path> paths = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+            for (java.nio.file.Path path : paths) {
+                try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                    EntryHeader header = readHeader(input);
+                    if (header.getFormatVersion() != FORMAT_VERSION || isExpired(header)) {
+                        Files.deleteIfExists(path);
+                        continue;
+                    }
+                    entries.add(new StoredEntry(path, header));
+                    size += getWeight(header.getFileCount());
+                }
+                catch (NoSuchFileException ignored) {
+                    // removed concurrently
+                }
+                catch (IOException | RuntimeException e) {
+                    // unreadable entries are dropped
+                    Files.deleteIfExists(path);
+                }
+            }
+
+            if (size > maxSize) {
+                entries.sort(comparingLong(entry -> entry.getHeader().getWriteTime()));
+                long targetSize = maxSize / 4 * 3;
+                for (StoredEntry entry : entries) {
+                    if (size <= targetSize) {
+                        break;
+                    }
+                    Files.deleteIfExists(entry.getPath());
+                    size -= getWeight(entry.getHeader().getFileCount());
+                }
+            }
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to evict listings from file status cache in %s", directory);
+        }
+        storedSize.set(size);
+    }
+
+    private boolean isExpired(EntryHeader header)
+    {
+        return System.currentTimeMillis() - header.getWriteTime() > expireAfterWriteMillis;
+    }
+
+    private void delete(java.nio.file.Path entry, EntryHeader header)
+            throws IOException
+    {
+        if (Files.deleteIfExists(entry)) {
+            storedSize.addAndGet(-getWeight(header.getFileCount()));
+        }
+    }
+
+    // like the in-memory cache, a listing weighs as much as its files, and empty listings count as one
+    private static long getWeight(int fileCount)
+    {
+        return max(fileCount, 1);
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    public long getInvalidatedCount()
+    {
+        return invalidatedCount.get();
+    }
+
+    private java.nio.file.Path getEntry(Path path)
+    {
+        return directory.resolve(sha256().hashString(path.toString(), UTF_8) + ENTRY_SUFFIX);
+    }
+
+    private static EntryHeader readHeader(DataInputStream input)
+            throws IOException
+    {
+        int formatVersion = input.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            return new EntryHeader(formatVersion, "", 0, 0, 0, 0);
+        }
+        return new EntryHeader(formatVersion, input.readUTF(), input.readLong(), input.readLong(), input.readLong(), input.readInt());
+    }
+
+    private static void writeFiles(DataOutputStream output, List<HiveFileInfo> files)
+            throws IOException
+    {
+        for (HiveFileInfo file : files) {
+            output.writeUTF(file.getPath().toString());
+            output.writeBoolean(file.isDirectory());
+            output.writeLong(file.getLength());
+            output.writeLong(file.getFileModifiedTime());
+
+            Optional<byte[]> extraFileInfo = file.getExtraFileInfo();
+            output.writeBoolean(extraFileInfo.isPresent());
+            if (extraFileInfo.isPresent()) {
+                output.writeInt(extraFileInfo.get().length);
+                output.write(extraFileInfo.get());
+            }
+
+            BlockLocation[] blockLocations = file.getBlockLocations();
+            output.writeInt(blockLocations == null ? -1 : blockLocations.length);
+            if (blockLocations != null) {
+                for (BlockLocation blockLocation : blockLocations) {
+                    writeStrings(output, blockLocation.getNames());
+                    writeStrings(output, blockLocation.getHosts());
+                    output.writeLong(blockLocation.getOffset());
+                    output.writeLong(blockLocation.getLength());
+                }
+            }
+        }
+    }
+
+    private static List<HiveFileInfo> readFiles(DataInputStream input, int fileCount)
+            throws IOException
+    {
+        ImmutableList.Builder<HiveFileInfo> files = ImmutableList.builder();
+        for (int i = 0; i < fileCount; i++) {
+            Path path = new Path(input.readUTF());
+            boolean isDirectory = input.readBoolean();
+            long length = input.readLong();
+            long fileModifiedTime = input.readLong();
+
+            Optional<byte[]> extraFileInfo = Optional.empty();
+            if (input.readBoolean()) {
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                extraFileInfo = Optional.of(bytes);
+            }
+
+            BlockLocation[] blockLocations = null;
+            int blockCount = input.readInt();
+            if (blockCount >= 0) {
+                blockLocations = new BlockLocation[blockCount];
+                for (int block = 0; block < blockCount; block++) {
+                    String[] names = readStrings(input);
+                    String[] hosts = readStrings(input);
+                    long offset = input.readLong();
+                    long blockLength = input.readLong();
+                    blockLocations[block] = new BlockLocation(names, hosts, offset, blockLength);
+                }
+            }
+
+            LocatedFileStatus status = new LocatedFileStatus(length, isDirectory, 0, 0, fileModifiedTime, 0, null, null, null, null, path, blockLocations);
+            files.add(createHiveFileInfo(status, extraFileInfo));
+        }
+        return files.build();
+    }
+
+    private static void writeStrings(DataOutputStream output, String[] values)
+            throws IOException
+    {
+        output.writeInt(values.length);
+        for (String value : values) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String[] readStrings(DataInputStream input)
+            throws IOException
+    {
+        String[] values = new String[input.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = input.readUTF();
+        }
+        return values;
+    }
+
+    private static class EntryHeader
+    {
+        private final int formatVersion;
+        private final String path;
+        private final long modificationTime;
+        private final long length;
+        private final long writeTime;
+        private final int fileCount;
+
+        public EntryHeader(int formatVersion, String path, long modificationTime, long length, long writeTime, int fileCount)
+        {
+            this.formatVersion = formatVersion;
+            this.path = requireNonNull(path, "path is null");
+            this.modificationTime = modificationTime;
+            this.length = length;
+            this.writeTime = writeTime;
+            this.fileCount = fileCount;
+        }
+
+        public int getFormatVersion()
+        {
+            return formatVersion;
+        }
+
+        public String getPath()
+        {
+            return path;
+        }
+
+        public long getModificationTime()
+        {
+            return modificationTime;
+        }
+
+        public long getLength()
+        {
+            return length;
+        }
+
+        public long getWriteTime()
+        {
+            return writeTime;
+        }
+
+        public int getFileCount()
+        {
+            return fileCount;
+        }
+    }
+
+    private static class StoredEntry
+    {
+        private final java.nio.file.Path path;
+        private final EntryHeader header;
+
+        public StoredEntry(java.nio.file.Path path, EntryHeader header)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.header = requireNonNull(header, "header is null");
+        }
+
+        public java.nio.file.Path getPath()
+        {
+            return path;
+        }
+
+        public EntryHeader getHeader()
+        {
+            return header;
+        }
+    }
+}
@@ -16,62 +16,154 @@ package com.facebook.presto.hive.orc;
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.BlockBuilder;
-import com.facebook.presto.common.type.Decimals;
-import com.facebook.presto.common.type.FixedWidthType;
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.common.type.TypeManager;
 import com.facebook.presto.hive.HiveColumnHandle;
-import com.facebook.presto.hive.HiveType;
-import com.facebook.presto.orc.metadata.Footer;
+import com.facebook.presto.orc.OrcAggregatedMemoryContext;
+import com.facebook.presto.orc.OrcBatchRecordReader;
+import com.facebook.presto.orc.OrcPredicate;
+import com.facebook.presto.orc.OrcReader;
 import com.facebook.presto.orc.metadata.OrcType;
+import com.facebook.presto.orc.metadata.StripeInformation;
 import com.facebook.presto.orc.metadata.statistics.ColumnStatistics;
+import com.facebook.presto.orc.metadata.statistics.IntegerStatistics;
+import com.facebook.presto.orc.metadata.statistics.StripeStatistics;
 import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.function.FunctionHandle;
 import com.facebook.presto.spi.function.StandardFunctionResolution;
-import io.airlift.slice.Slice;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.Utils.nativeValueToBlock;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.TypeUtils.readNativeValue;
+import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.AGGREGATED;
+import static com.facebook.presto.orc.OrcReader.INITIAL_BATCH_SIZE;
+import static com.facebook.presto.orc.TupleDomainOrcPredicate.getDomain;
+import static com.facebook.presto.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
 import static com.facebook.presto.spi.plan.AggregationNode.Aggregation;
-import static java.lang.Float.floatToRawIntBits;
+import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.Sets.newIdentityHashSet;
+import static java.util.Comparator.comparingLong;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Produces the partial aggregations of an ORC file from its statistics. The file and its stripes
+ * are answered from the statistics of the footer when the statistics prove that all rows match
+ * the column domains, or are skipped when they prove that no row matches. The remaining stripes
+ * are read and the domains are evaluated row by row, the reader only skips the row groups in
+ * which no row matches.
+ * <p>
+ * Row groups are never answered from their statistics, because the reader reads a stripe with
+ * invalid checkpoints as a single row group, including the row groups it did not select.
+ * <p>
+ * Files with pushed down aggregations are never split, so the file statistics describe exactly
+ * the rows of the split.
+ */
 public class AggregatedOrcPageSource
         implements ConnectorPageSource
 {
     private final List<HiveColumnHandle> columnHandles;
-    private final Footer footer;
+    private final Map<Integer, Object> prefilledValues;
+    private final Map<Integer, Domain> columnDomains;
+    private final OrcReader reader;
+    private final DateTimeZone hiveStorageTimeZone;
+    private final OrcAggregatedMemoryContext systemMemoryUsage;
     private final TypeManager typeManager;
-    private final StandardFunctionResolution functionResolution;
 
-    // Prepare the one required record by looking at the aggregations and stats in footer
+    private final List<Accumulator> accumulators;
+    private final Map<Integer, Type> readColumns;
+    private final int fileColumnCount;
+
+    // Prepare the one required record by looking at the aggregations and the statistics
     private static final int batchSize = 1;
 
+    // the column statistics of the file and stripe sections answered from the footer, which the reader must skip
+    private final Set<ColumnStatistics> answeredStatistics = newIdentityHashSet();
+    // the file row ranges of the answered stripes, as start and end position
+    private final List<long[]> answeredRowRanges = new ArrayList<>();
+
+    private OrcBatchRecordReader recordReader;
+    private long matchedRows;
     private boolean completed;
     private long readTimeNanos;
-    private long completedBytes;
+    private long completedPositions;
 
-    public AggregatedOrcPageSource(List<HiveColumnHandle> columnHandles, Footer footer, TypeManager typeManager, StandardFunctionResolution functionResolution)
+    public AggregatedOrcPageSource(
+            List<HiveColumnHandle> columnHandles,
+            Map<Integer, Object> prefilledValues,
+            Map<Integer, Domain> columnDomains,
+            OrcReader reader,
+            DateTimeZone hiveStorageTimeZone,
+            OrcAggregatedMemoryContext systemMemoryUsage,
+            TypeManager typeManager,
+            StandardFunctionResolution functionResolution)
     {
-        this.columnHandles = requireNonNull(columnHandles, "columnHandles is null");
-        this.footer = requireNonNull(footer, "footer is null");
+        this.columnHandles = ImmutableList.copyOf(requireNonNull(columnHandles, "columnHandles is null"));
+        this.prefilledValues = requireNonNull(prefilledValues, "prefilledValues is null");
+        this.reader = requireNonNull(reader, "reader is null");
+        this.hiveStorageTimeZone = requireNonNull(hiveStorageTimeZone, "hiveStorageTimeZone is null");
+        this.systemMemoryUsage = requireNonNull(systemMemoryUsage, "systemMemoryUsage is null");
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
-        this.functionResolution = requireNonNull(functionResolution, "functionResolution is null");
+        requireNonNull(functionResolution, "functionResolution is null");
+        this.fileColumnCount = reader.getTypes().get(0).getFieldCount();
+
+        ImmutableMap.Builder<Integer, Domain> dataColumnDomains = ImmutableMap.builder();
+        Map<Integer, Type> readColumns = new HashMap<>();
+        for (Map.Entry<Integer, Domain> entry : requireNonNull(columnDomains, "columnDomains is null").entrySet()) {
+            int columnIndex = entry.getKey();
+            Domain domain = entry.getValue();
+            if (prefilledValues.containsKey(columnIndex)) {
+                // partition keys are constant within the file
+                if (!domain.includesNullableValue(prefilledValues.get(columnIndex))) {
+                    completed = true;
+                }
+                continue;
+            }
+            dataColumnDomains.put(columnIndex, domain);
+            if (isPresentInFile(columnIndex)) {
+                readColumns.put(columnIndex, domain.getType());
+            }
+        }
+        this.columnDomains = dataColumnDomains.build();
+
+        ImmutableList.Builder<Accumulator> accumulators = ImmutableList.builder();
+        for (HiveColumnHandle columnHandle : this.columnHandles) {
+            if (columnHandle.getColumnType() != AGGREGATED) {
+                continue;
+            }
+            Accumulator accumulator = new Accumulator(columnHandle, functionResolution);
+            accumulators.add(accumulator);
+            if (accumulator.hasInput() && isPresentInFile(accumulator.getColumnIndex())) {
+                readColumns.putIfAbsent(accumulator.getColumnIndex(), accumulator.getInputType());
+            }
+        }
+        this.accumulators = accumulators.build();
+        this.readColumns = ImmutableMap.copyOf(readColumns);
     }
 
     @Override
     public long getCompletedBytes()
     {
-        return completedBytes;
+        return reader.getOrcDataSource().getReadBytes();
     }
 
     @Override
     public long getCompletedPositions()
     {
-        return 0;
+        return completedPositions;
     }
 
     @Override
@@ -94,160 +186,456 @@ public class AggregatedOrcPageSource
         }
 
         long start = System.nanoTime();
+        try {
+            if (recordReader == null && answerFromFooter()) {
+                recordReader = reader.createBatchRecordReader(readColumns, new StatisticsPredicate(), hiveStorageTimeZone, systemMemoryUsage, INITIAL_BATCH_SIZE);
+            }
+
+            if (recordReader != null) {
+                int positionCount = recordReader.nextBatch();
+                if (positionCount >= 0) {
+                    addBatch(positionCount);
+                    return null;
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            readTimeNanos += System.nanoTime() - start;
+        }
+
+        completed = true;
+        if (matchedRows == 0) {
+            // no row of the file matches, so the file contributes no group
+            return null;
+        }
+
         Block[] blocks = new Block[columnHandles.size()];
+        int accumulatorIndex = 0;
         for (int fieldId = 0; fieldId < blocks.length; fieldId++) {
             HiveColumnHandle columnHandle = columnHandles.get(fieldId);
-            Aggregation aggregation = columnHandle.getPartialAggregation().get();
-            int columnIndex = columnHandle.getHiveColumnIndex();
             Type type = typeManager.getType(columnHandle.getTypeSignature());
-            BlockBuilder blockBuilder = type.createBlockBuilder(null, batchSize, 0);
-            FunctionHandle functionHandle = aggregation.getFunctionHandle();
-
-            if (functionResolution.isCountFunction(functionHandle)) {
-                if (aggregation.getArguments().isEmpty()) {
-                    blockBuilder = blockBuilder.writeLong(footer.getNumberOfRows());
-                }
-                else {
-                    writeNonNullCount(columnIndex, blockBuilder);
-                }
-                completedBytes += INTEGER.getFixedSize();
-            }
-            else if (functionResolution.isMaxFunction(functionHandle)) {
-                writeMinMax(columnIndex, type, columnHandle.getHiveType(), blockBuilder, false);
-            }
-            else if (functionResolution.isMinFunction(functionHandle)) {
-                writeMinMax(columnIndex, type, columnHandle.getHiveType(), blockBuilder, true);
+            if (columnHandle.getColumnType() == AGGREGATED) {
+                BlockBuilder blockBuilder = type.createBlockBuilder(null, batchSize);
+                accumulators.get(accumulatorIndex++).writeTo(type, blockBuilder);
+                blocks[fieldId] = blockBuilder.build();
             }
             else {
-                throw new UnsupportedOperationException(aggregation.getFunctionHandle().toString() + " is not supported");
+                blocks[fieldId] = nativeValueToBlock(type, prefilledValues.get(columnHandle.getHiveColumnIndex()));
             }
-            blocks[fieldId] = blockBuilder.build();
         }
-
-        completed = true;
-        readTimeNanos += System.nanoTime() - start;
         return new Page(batchSize, blocks);
     }
 
-    private void writeMinMax(int columnIndex, Type type, HiveType hiveType, BlockBuilder blockBuilder, boolean isMin)
+    /**
+     * Answers the file or its stripes from the statistics of the footer.
+     *
+     * @return whether any stripe has to be read
+     */
+    private boolean answerFromFooter()
     {
-        ColumnStatistics columnStatistics = footer.getFileStats().get(columnIndex + 1);
-        OrcType orcType = footer.getTypes().get(columnIndex + 1);
+        long numberOfRows = reader.getFooter().getNumberOfRows();
+        List<ColumnStatistics> fileStatistics = reader.getFooter().getFileStats();
+        Map<Integer, ColumnStatistics> fileStatisticsByColumnIndex = getStatisticsByColumnIndex(fileStatistics);
+        SectionMatch fileMatch = getSectionMatch(numberOfRows, fileStatisticsByColumnIndex);
+        if (fileMatch == SectionMatch.NONE) {
+            completedPositions += numberOfRows;
+            return false;
+        }
+        if (fileMatch == SectionMatch.ALL && canAnswer(numberOfRows, fileStatisticsByColumnIndex)) {
+            answer(numberOfRows, fileStatisticsByColumnIndex);
+            return false;
+        }
 
-        if (type instanceof FixedWidthType) {
-            completedBytes += ((FixedWidthType) type).getFixedSize();
+        // the reader ignores the stripe statistics unless there are statistics for every stripe
+        List<StripeInformation> stripes = reader.getFooter().getStripes();
+        List<StripeStatistics> stripeStatistics = reader.getMetadata().getStripeStatsList();
+        if (stripeStatistics.size() != stripes.size()) {
+            return true;
         }
 
-        String orcNoMinMaxMessage = "No min/max found for orc file. Set session property hive.pushdown_partial_aggregations_into_scan=false and execute query again";
-        switch (orcType.getOrcTypeKind()) {
-            case SHORT:
-            case INT:
-            case LONG: {
-                Long value = isMin ? columnStatistics.getIntegerStatistics().getMin() : columnStatistics.getIntegerStatistics().getMax();
-                if (value == null) {
-                    throw new UnsupportedOperationException(orcNoMinMaxMessage);
-                }
-                else {
-                    blockBuilder.writeLong(value);
-                }
-                break;
-            }
+        // the reader numbers the rows of the file in the order of the stripe offsets
+        List<Integer> stripeIndexes = new ArrayList<>();
+        for (int i = 0; i < stripes.size(); i++) {
+            stripeIndexes.add(i);
+        }
+        stripeIndexes.sort(comparingLong(index -> stripes.get(index).getOffset()));
 
-            case TIMESTAMP:
-            case DATE: {
-                Integer value = isMin ? columnStatistics.getDateStatistics().getMin() : columnStatistics.getDateStatistics().getMax();
-                if (value == null) {
-                    throw new UnsupportedOperationException(orcNoMinMaxMessage);
-                }
-                else {
-                    blockBuilder.writeLong(Long.valueOf(value));
-                }
-                break;
+        boolean readStripes = false;
+        long stripeStart = 0;
+        for (int index : stripeIndexes) {
+            long stripeRows = stripes.get(index).getNumberOfRows();
+            List<ColumnStatistics> statistics = stripeStatistics.get(index).getColumnStatistics();
+            Map<Integer, ColumnStatistics> statisticsByColumnIndex = getStatisticsByColumnIndex(statistics);
+            SectionMatch stripeMatch = getSectionMatch(stripeRows, statisticsByColumnIndex);
+            if (stripeMatch == SectionMatch.NONE) {
+                // the reader skips the stripe as well
+                completedPositions += stripeRows;
+            }
+            else if (stripeMatch == SectionMatch.ALL && canAnswer(stripeRows, statisticsByColumnIndex)) {
+                answer(stripeRows, statisticsByColumnIndex);
+                answeredStatistics.addAll(statistics);
+                answeredRowRanges.add(new long[] {stripeStart, stripeStart + stripeRows});
+            }
+            else {
+                readStripes = true;
             }
+            stripeStart += stripeRows;
+        }
+        return readStripes;
+    }
 
-            case VARCHAR:
-            case CHAR:
-            case STRING: {
-                Slice value = isMin ? columnStatistics.getStringStatistics().getMin() : columnStatistics.getStringStatistics().getMax();
-                if (value == null) {
-                    throw new UnsupportedOperationException(orcNoMinMaxMessage);
-                }
-                else {
-                    blockBuilder.writeBytes(value, 0, value.length()).closeEntry();
-                    completedBytes += value.length();
-                }
-                break;
+    private boolean canAnswer(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex)
+    {
+        if (statisticsByColumnIndex.isEmpty()) {
+            // the predicate cannot recognize the section
+            return false;
+        }
+        for (Accumulator accumulator : accumulators) {
+            if (!accumulator.canUseStatistics(numberOfRows, getStatistics(accumulator.getColumnIndex(), statisticsByColumnIndex))) {
+                return false;
             }
+        }
+        return true;
+    }
 
-            case FLOAT: {
-                Double value = isMin ? columnStatistics.getDoubleStatistics().getMin() : columnStatistics.getDoubleStatistics().getMax();
-                if (value == null) {
-                    throw new UnsupportedOperationException(orcNoMinMaxMessage);
-                }
-                else {
-                    blockBuilder.writeLong(floatToRawIntBits(value.floatValue()));
-                }
-                break;
+    private void answer(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex)
+    {
+        for (Accumulator accumulator : accumulators) {
+            accumulator.addStatistics(numberOfRows, getStatistics(accumulator.getColumnIndex(), statisticsByColumnIndex));
+        }
+        matchedRows += numberOfRows;
+        completedPositions += numberOfRows;
+    }
+
+    private SectionMatch getSectionMatch(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex)
+    {
+        SectionMatch sectionMatch = SectionMatch.ALL;
+        for (Map.Entry<Integer, Domain> entry : columnDomains.entrySet()) {
+            Domain domain = entry.getValue();
+            Domain statisticsDomain = isPresentInFile(entry.getKey())
+                    ? getDomain(domain.getType(), numberOfRows, statisticsByColumnIndex.get(entry.getKey()))
+                    : Domain.onlyNull(domain.getType());
+            if (!domain.overlaps(statisticsDomain)) {
+                return SectionMatch.NONE;
             }
+            if (!domain.contains(statisticsDomain)) {
+                sectionMatch = SectionMatch.SOME;
+            }
+        }
+        return sectionMatch;
+    }
 
-            case DOUBLE: {
-                Double value = isMin ? columnStatistics.getDoubleStatistics().getMin() : columnStatistics.getDoubleStatistics().getMax();
-                if (value == null) {
-                    throw new UnsupportedOperationException(orcNoMinMaxMessage);
-                }
-                else {
-                    type.writeDouble(blockBuilder, value);
-                }
-                break;
+    private ColumnStatistics getStatistics(int columnIndex, Map<Integer, ColumnStatistics> statisticsByColumnIndex)
+    {
+        return isPresentInFile(columnIndex) ? statisticsByColumnIndex.get(columnIndex) : null;
+    }
+
+    private Map<Integer, ColumnStatistics> getStatisticsByColumnIndex(List<ColumnStatistics> statistics)
+    {
+        OrcType rootType = reader.getTypes().get(0);
+        ImmutableMap.Builder<Integer, ColumnStatistics> statisticsByColumnIndex = ImmutableMap.builder();
+        for (int columnIndex = 0; columnIndex < rootType.getFieldCount(); columnIndex++) {
+            int typeIndex = rootType.getFieldTypeIndex(columnIndex);
+            if (typeIndex < statistics.size() && statistics.get(typeIndex) != null) {
+                statisticsByColumnIndex.put(columnIndex, statistics.get(typeIndex));
             }
+        }
+        return statisticsByColumnIndex.build();
+    }
 
-            case DECIMAL:
-                BigDecimal value = isMin ? columnStatistics.getDecimalStatistics().getMin() : columnStatistics.getDecimalStatistics().getMax();
-                if (value == null) {
-                    throw new UnsupportedOperationException(orcNoMinMaxMessage);
-                }
-                else {
-                    Type definedType = hiveType.getType(typeManager);
-                    if (Decimals.isShortDecimal(definedType)) {
-                        blockBuilder.writeLong(value.unscaledValue().longValue());
-                    }
-                    else {
-                        type.writeSlice(blockBuilder, Decimals.encodeUnscaledValue(value.unscaledValue()));
-                    }
-                }
-                break;
+    private void addBatch(int positionCount)
+            throws IOException
+    {
+        long filePosition = recordReader.getFilePosition();
+        for (long[] range : answeredRowRanges) {
+            verify(filePosition + positionCount <= range[0] || filePosition >= range[1], "Reader returned rows of a stripe answered from statistics");
+        }
+
+        Map<Integer, Block> blocks = new HashMap<>();
+        for (int columnIndex : readColumns.keySet()) {
+            blocks.put(columnIndex, recordReader.readBlock(columnIndex));
+        }
+
+        int[] positions = new int[positionCount];
+        int matchedPositionCount = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (matches(blocks, position)) {
+                positions[matchedPositionCount] = position;
+                matchedPositionCount++;
+            }
+        }
 
-            case BYTE:
-            case BOOLEAN:
-            case BINARY:
-            case UNION:
-            case LIST:
-            case STRUCT:
-            case MAP:
-            default:
-                throw new IllegalArgumentException("Unsupported type: " + orcType.getOrcTypeKind());
+        for (Accumulator accumulator : accumulators) {
+            if (accumulator.hasInput()) {
+                accumulator.addPositions(blocks.get(accumulator.getColumnIndex()), positions, matchedPositionCount);
+            }
+            else {
+                accumulator.addRows(matchedPositionCount);
+            }
         }
+        matchedRows += matchedPositionCount;
+        completedPositions += positionCount;
     }
 
-    private void writeNonNullCount(int columnIndex, BlockBuilder blockBuilder)
+    private boolean matches(Map<Integer, Block> blocks, int position)
     {
-        ColumnStatistics columnStatistics = footer.getFileStats().get(columnIndex + 1);
-        if (!columnStatistics.hasNumberOfValues()) {
-            throw new UnsupportedOperationException("Number of values not set for orc file. Set session property hive.pushdown_partial_aggregations_into_scan=false and execute query again");
+        for (Map.Entry<Integer, Domain> entry : columnDomains.entrySet()) {
+            Domain domain = entry.getValue();
+            Block block = blocks.get(entry.getKey());
+            Object value = block == null ? null : readNativeValue(domain.getType(), block, position);
+            if (!domain.includesNullableValue(value)) {
+                return false;
+            }
         }
-        blockBuilder.writeLong(columnStatistics.getNumberOfValues());
+        return true;
+    }
+
+    private boolean isPresentInFile(int columnIndex)
+    {
+        return columnIndex >= 0 && columnIndex < fileColumnCount;
     }
 
     @Override
     public long getSystemMemoryUsage()
     {
-        return 0;
+        return systemMemoryUsage.getBytes();
     }
 
     @Override
     public void close()
             throws IOException
     {
-        // no-op
+        completed = true;
+        if (recordReader != null) {
+            recordReader.close();
+        }
+        else {
+            reader.getOrcDataSource().close();
+        }
+    }
+
+    private enum SectionMatch
+    {
+        NONE, ALL, SOME
+    }
+
+    /**
+     * Selects the sections to read. The file and the stripes answered from the footer are recognized
+     * by their statistics instances, any other section is read unless no row of it can match. The
+     * predicate has no side effects, so it does not matter whether the reader honors its decisions
+     * for row groups.
+     */
+    private class StatisticsPredicate
+            implements OrcPredicate
+    {
+        @Override
+        public boolean matches(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex)
+        {
+            if (getSectionMatch(numberOfRows, statisticsByColumnIndex) == SectionMatch.NONE) {
+                return false;
+            }
+            return statisticsByColumnIndex.values().stream().noneMatch(answeredStatistics::contains);
+        }
+    }
+
+    private class Accumulator
+    {
+        private final Kind kind;
+        private final int columnIndex;
+        private final Type inputType;
+
+        private long count;
+        private long sum;
+        private Block value;
+
+        public Accumulator(HiveColumnHandle columnHandle, StandardFunctionResolution functionResolution)
+        {
+            Aggregation aggregation = columnHandle.getPartialAggregation().get();
+            FunctionHandle functionHandle = aggregation.getFunctionHandle();
+            if (functionResolution.isCountFunction(functionHandle)) {
+                kind = aggregation.getArguments().isEmpty() ? Kind.COUNT_ALL : Kind.COUNT;
+            }
+            else if (functionResolution.isMinFunction(functionHandle)) {
+                kind = Kind.MIN;
+            }
+            else if (functionResolution.isMaxFunction(functionHandle)) {
+                kind = Kind.MAX;
+            }
+            else if (functionResolution.isSumFunction(functionHandle)) {
+                kind = Kind.SUM;
+            }
+            else {
+                throw new UnsupportedOperationException(functionHandle.toString() + " is not supported");
+            }
+            this.columnIndex = columnHandle.getHiveColumnIndex();
+            this.inputType = kind == Kind.COUNT_ALL ? BIGINT : columnHandle.getHiveType().getType(typeManager);
+        }
+
+        public boolean hasInput()
+        {
+            return kind != Kind.COUNT_ALL;
+        }
+
+        public int getColumnIndex()
+        {
+            return columnIndex;
+        }
+
+        public Type getInputType()
+        {
+            return inputType;
+        }
+
+        public boolean canUseStatistics(long numberOfRows, ColumnStatistics statistics)
+        {
+            if (kind == Kind.COUNT_ALL || !isPresentInFile(columnIndex)) {
+                // a column missing from the file has only nulls
+                return true;
+            }
+            if (statistics == null || !statistics.hasNumberOfValues()) {
+                return false;
+            }
+            if (statistics.getNumberOfValues() == 0 || kind == Kind.COUNT) {
+                return true;
+            }
+            if (kind == Kind.SUM) {
+                IntegerStatistics integerStatistics = statistics.getIntegerStatistics();
+                return integerStatistics != null && integerStatistics.getSum() != null;
+            }
+            return getValueRange(numberOfRows, statistics) != null;
+        }
+
+        public void addStatistics(long numberOfRows, ColumnStatistics statistics)
+        {
+            if (kind == Kind.COUNT_ALL) {
+                count += numberOfRows;
+                return;
+            }
+            if (!isPresentInFile(columnIndex) || statistics.getNumberOfValues() == 0) {
+                return;
+            }
+            switch (kind) {
+                case COUNT:
+                    count += statistics.getNumberOfValues();
+                    break;
+                case SUM:
+                    addSum(statistics.getIntegerStatistics().getSum());
+                    break;
+                case MIN:
+                    addValue(nativeValueToBlock(inputType, getValueRange(numberOfRows, statistics).getLowBoundedValue()), 0);
+                    break;
+                case MAX:
+                    addValue(nativeValueToBlock(inputType, getValueRange(numberOfRows, statistics).getHighBoundedValue()), 0);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected aggregation: " + kind);
+            }
+        }
+
+        public void addRows(int rows)
+        {
+            count += rows;
+        }
+
+        public void addPositions(Block block, int[] positions, int positionCount)
+        {
+            if (block == null) {
+                return;
+            }
+            for (int i = 0; i < positionCount; i++) {
+                int position = positions[i];
+                if (block.isNull(position)) {
+                    continue;
+                }
+                switch (kind) {
+                    case COUNT:
+                        count++;
+                        break;
+                    case SUM:
+                        addSum(inputType.getLong(block, position));
+                        break;
+                    case MIN:
+                    case MAX:
+                        addValue(block, position);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected aggregation: " + kind);
+                }
+            }
+        }
+
+        public void writeTo(Type type, BlockBuilder blockBuilder)
+        {
+            switch (kind) {
+                case COUNT_ALL:
+                case COUNT:
+                    type.writeLong(blockBuilder, count);
+                    break;
+                case SUM:
+                    if (count == 0) {
+                        blockBuilder.appendNull();
+                    }
+                    else {
+                        type.writeLong(blockBuilder, sum);
+                    }
+                    break;
+                case MIN:
+                case MAX:
+                    if (value == null) {
+                        blockBuilder.appendNull();
+                    }
+                    else {
+                        type.appendTo(value, 0, blockBuilder);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected aggregation: " + kind);
+            }
+        }
+
+        private Range getValueRange(long numberOfRows, ColumnStatistics statistics)
+        {
+            Domain domain = getDomain(inputType, numberOfRows, statistics);
+            if (domain.getValues().isAll() || domain.getValues().isNone()) {
+                return null;
+            }
+            Range span = domain.getValues().getRanges().getSpan();
+            if (span.isLowUnbounded() || span.isHighUnbounded() || !span.isLowInclusive() || !span.isHighInclusive()) {
+                return null;
+            }
+            return span;
+        }
+
+        private void addSum(long value)
+        {
+            try {
+                sum = Math.addExact(sum, value);
+            }
+            catch (ArithmeticException e) {
+                throw new PrestoException(NUMERIC_VALUE_OUT_OF_RANGE, "bigint addition overflow: " + sum + " + " + value);
+            }
+            // the number of summed values decides whether the sum is null
+            count++;
+        }
+
+        private void addValue(Block block, int position)
+        {
+            if (value == null) {
+                value = block.getSingleValueBlock(position);
+                return;
+            }
+            int comparison = inputType.compareTo(block, position, value, 0);
+            if ((kind == Kind.MIN && comparison < 0) || (kind == Kind.MAX && comparison > 0)) {
+                value = block.getSingleValueBlock(position);
+            }
+        }
+    }
+
+    private enum Kind
+    {
+        COUNT_ALL, COUNT, MIN, MAX, SUM
     }
 }
@@ -14,10 +14,12 @@
 package com.facebook.presto.hive.orc;
 
 import com.facebook.hive.orc.OrcSerde;
+import com.facebook.presto.common.io.ParallelRangeReader;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.common.type.TypeManager;
 import com.facebook.presto.hive.EncryptionInformation;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.ForRangeReads;
 import com.facebook.presto.hive.HdfsEnvironment;
 import com.facebook.presto.hive.HiveBatchPageSourceFactory;
 import com.facebook.presto.hive.HiveClientConfig;
@@ -67,6 +69,7 @@ public class DwrfBatchPageSourceFactory
     private final OrcFileTailSource orcFileTailSource;
     private final StripeMetadataSourceFactory stripeMetadataSourceFactory;
     private final DwrfEncryptionProvider dwrfEncryptionProvider;
+    private final ParallelRangeReader parallelRangeReader;
 
     @Inject
     public DwrfBatchPageSourceFactory(
@@ -77,7 +80,8 @@ public class DwrfBatchPageSourceFactory
             FileFormatDataSourceStats stats,
             OrcFileTailSource orcFileTailSource,
             StripeMetadataSourceFactory stripeMetadataSourceFactory,
-            HiveDwrfEncryptionProvider dwrfEncryptionProvider)
+            HiveDwrfEncryptionProvider dwrfEncryptionProvider,
+            @ForRangeReads ParallelRangeReader parallelRangeReader)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.functionResolution = requireNonNull(functionResolution, "functionResolution is null");
@@ -87,6 +91,7 @@ public class DwrfBatchPageSourceFactory
         this.orcFileTailSource = requireNonNull(orcFileTailSource, "orcFileTailSource is null");
         this.stripeMetadataSourceFactory = requireNonNull(stripeMetadataSourceFactory, "stripeMetadataSourceFactory is null");
         this.dwrfEncryptionProvider = requireNonNull(dwrfEncryptionProvider, "dwrfEncryptionProvider is null").toDwrfEncryptionProvider();
+        this.parallelRangeReader = requireNonNull(parallelRangeReader, "parallelRangeReader is null");
     }
 
     @Override
@@ -144,6 +149,7 @@ public class DwrfBatchPageSourceFactory
                         getOrcMaxReadBlockSize(session),
                         isOrcZstdJniDecompressionEnabled(session)),
                 encryptionInformation,
-                dwrfEncryptionProvider));
+                dwrfEncryptionProvider,
+                parallelRangeReader));
     }
 }
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive.orc;
 
+import com.facebook.presto.common.io.ParallelRangeReader;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
 import com.facebook.presto.orc.AbstractOrcDataSource;
 import com.facebook.presto.orc.OrcDataSourceId;
@@ -22,6 +23,7 @@ import org.apache.hadoop.fs.FSDataInputStream;
 
 import java.io.IOException;
 
+import static com.facebook.presto.common.io.ParallelRangeReader.SEQUENTIAL_RANGE_READER;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_MISSING_DATA;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_UNKNOWN_ERROR;
@@ -44,7 +46,22 @@ public class HdfsOrcDataSource
             FSDataInputStream inputStream,
             FileFormatDataSourceStats stats)
     {
-        super(id, size, maxMergeDistance, maxReadSize, streamBufferSize, lazyReadSmallRanges);
+        this(id, size, maxMergeDistance, maxReadSize, streamBufferSize, lazyReadSmallRanges, inputStream, stats, SEQUENTIAL_RANGE_READER);
+    }
+
+    public HdfsOrcDataSource(
+            OrcDataSourceId id,
+            long size,
+            DataSize maxMergeDistance,
+            DataSize maxReadSize,
+            DataSize streamBufferSize,
+            boolean lazyReadSmallRanges,
+            FSDataInputStream inputStream,
+            FileFormatDataSourceStats stats,
+            ParallelRangeReader parallelRangeReader)
+    {
+        // positioned reads on the input stream do not move its offset, so they may run concurrently
+        super(id, size, maxMergeDistance, maxReadSize, streamBufferSize, lazyReadSmallRanges, parallelRangeReader);
         this.inputStream = requireNonNull(inputStream, "inputStream is null");
         this.stats = requireNonNull(stats, "stats is null");
     }
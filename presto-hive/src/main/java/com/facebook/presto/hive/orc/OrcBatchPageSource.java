@@ -17,8 +17,8 @@ import com.facebook.presto.common.Page;
 import com.facebook.presto.common.RuntimeStats;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.LazyBlock;
-import com.facebook.presto.common.block.LazyBlockLoader;
 import com.facebook.presto.common.block.RunLengthEncodedBlock;
+import com.facebook.presto.common.block.SelectiveLazyBlockLoader;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.common.type.TypeManager;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
@@ -226,7 +226,7 @@ public class OrcBatchPageSource
     }
 
     private final class OrcBlockLoader
-            implements LazyBlockLoader<LazyBlock>
+            implements SelectiveLazyBlockLoader
     {
         private final int expectedBatchId = batchId;
         private final int columnIndex;
@@ -259,5 +259,26 @@ public class OrcBatchPageSource
 
             loaded = true;
         }
+
+        @Override
+        public Block loadPositions(int[] positions, int offset, int length)
+        {
+            checkState(!loaded, "block is already loaded");
+            checkState(batchId == expectedBatchId);
+
+            Block block;
+            try {
+                block = recordReader.readBlock(columnIndex, positions, offset, length);
+            }
+            catch (OrcCorruptionException e) {
+                throw new PrestoException(HIVE_BAD_DATA, e);
+            }
+            catch (IOException | RuntimeException e) {
+                throw new PrestoException(HIVE_CURSOR_ERROR, format("Failed to read ORC file: %s", orcDataSource.getId()), e);
+            }
+
+            loaded = true;
+            return block;
+        }
     }
 }
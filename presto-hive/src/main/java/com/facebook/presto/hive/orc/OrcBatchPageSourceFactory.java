@@ -13,11 +13,13 @@
  */
 package com.facebook.presto.hive.orc;
 
+import com.facebook.presto.common.io.ParallelRangeReader;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.common.type.TypeManager;
 import com.facebook.presto.hive.EncryptionInformation;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.ForRangeReads;
 import com.facebook.presto.hive.HdfsEnvironment;
 import com.facebook.presto.hive.HiveBatchPageSourceFactory;
 import com.facebook.presto.hive.HiveClientConfig;
@@ -94,6 +96,7 @@ public class OrcBatchPageSourceFactory
     private final int domainCompactionThreshold;
     private final OrcFileTailSource orcFileTailSource;
     private final StripeMetadataSourceFactory stripeMetadataSourceFactory;
+    private final ParallelRangeReader parallelRangeReader;
 
     @Inject
     public OrcBatchPageSourceFactory(
@@ -103,7 +106,8 @@ public class OrcBatchPageSourceFactory
             HdfsEnvironment hdfsEnvironment,
             FileFormatDataSourceStats stats,
             OrcFileTailSource orcFileTailSource,
-            StripeMetadataSourceFactory stripeMetadataSourceFactory)
+            StripeMetadataSourceFactory stripeMetadataSourceFactory,
+            @ForRangeReads ParallelRangeReader parallelRangeReader)
     {
         this(
                 typeManager,
@@ -113,7 +117,8 @@ public class OrcBatchPageSourceFactory
                 stats,
                 config.getDomainCompactionThreshold(),
                 orcFileTailSource,
-                stripeMetadataSourceFactory);
+                stripeMetadataSourceFactory,
+                parallelRangeReader);
     }
 
     public OrcBatchPageSourceFactory(
@@ -124,7 +129,8 @@ public class OrcBatchPageSourceFactory
             FileFormatDataSourceStats stats,
             int domainCompactionThreshold,
             OrcFileTailSource orcFileTailSource,
-            StripeMetadataSourceFactory stripeMetadataSourceFactory)
+            StripeMetadataSourceFactory stripeMetadataSourceFactory,
+            ParallelRangeReader parallelRangeReader)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.functionResolution = requireNonNull(functionResolution, "functionResolution is null");
@@ -134,6 +140,7 @@ public class OrcBatchPageSourceFactory
         this.domainCompactionThreshold = domainCompactionThreshold;
         this.orcFileTailSource = requireNonNull(orcFileTailSource, "orcFileTailSource is null");
         this.stripeMetadataSourceFactory = requireNonNull(stripeMetadataSourceFactory, "stripeMetadataSourceFactory is null");
+        this.parallelRangeReader = requireNonNull(parallelRangeReader, "parallelRangeReader is null");
     }
 
     @Override
@@ -192,7 +199,8 @@ public class OrcBatchPageSourceFactory
                         getOrcMaxReadBlockSize(session),
                         isOrcZstdJniDecompressionEnabled(session)),
                 encryptionInformation,
-                NO_ENCRYPTION));
+                NO_ENCRYPTION,
+                parallelRangeReader));
     }
 
     public static ConnectorPageSource createOrcPageSource(
@@ -221,7 +229,8 @@ public class OrcBatchPageSourceFactory
             HiveFileContext hiveFileContext,
             OrcReaderOptions orcReaderOptions,
             Optional<EncryptionInformation> encryptionInformation,
-            DwrfEncryptionProvider dwrfEncryptionProvider)
+            DwrfEncryptionProvider dwrfEncryptionProvider,
+            ParallelRangeReader parallelRangeReader)
     {
         checkArgument(domainCompactionThreshold >= 1, "domainCompactionThreshold must be at least 1");
 
@@ -237,7 +246,8 @@ public class OrcBatchPageSourceFactory
                     streamBufferSize,
                     lazyReadSmallRanges,
                     inputStream,
-                    stats);
+                    stats,
+                    parallelRangeReader);
         }
         catch (Exception e) {
             if (nullToEmpty(e.getMessage()).trim().equals("Filesystem closed") ||
@@ -274,7 +284,7 @@ public class OrcBatchPageSourceFactory
             }
 
             if (!physicalColumns.isEmpty() && physicalColumns.stream().allMatch(hiveColumnHandle -> hiveColumnHandle.getColumnType() == AGGREGATED)) {
-                return new AggregatedOrcPageSource(physicalColumns, reader.getFooter(), typeManager, functionResolution);
+                return new AggregatedOrcPageSource(physicalColumns, ImmutableMap.of(), ImmutableMap.of(), reader, hiveStorageTimeZone, systemMemoryUsage, typeManager, functionResolution);
             }
 
             OrcPredicate predicate = new TupleDomainOrcPredicate<>(effectivePredicate, columnReferences.build(), orcBloomFiltersEnabled, Optional.of(domainCompactionThreshold));
@@ -16,6 +16,8 @@ package com.facebook.presto.hive.orc;
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.Subfield;
 import com.facebook.presto.common.function.SqlFunctionProperties;
+import com.facebook.presto.common.io.ParallelRangeReader;
+import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.common.predicate.FilterFunction;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.common.predicate.TupleDomainFilter;
@@ -27,6 +29,7 @@ import com.facebook.presto.expressions.DynamicFilters.DynamicFilterExtractResult
 import com.facebook.presto.hive.BucketAdaptation;
 import com.facebook.presto.hive.EncryptionInformation;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.ForRangeReads;
 import com.facebook.presto.hive.HdfsEnvironment;
 import com.facebook.presto.hive.HiveClientConfig;
 import com.facebook.presto.hive.HiveCoercer;
@@ -146,6 +149,7 @@ public class OrcSelectivePageSourceFactory
     private final OrcFileTailSource orcFileTailSource;
     private final StripeMetadataSourceFactory stripeMetadataSourceFactory;
     private final TupleDomainFilterCache tupleDomainFilterCache;
+    private final ParallelRangeReader parallelRangeReader;
 
     @Inject
     public OrcSelectivePageSourceFactory(
@@ -157,7 +161,8 @@ public class OrcSelectivePageSourceFactory
             FileFormatDataSourceStats stats,
             OrcFileTailSource orcFileTailSource,
             StripeMetadataSourceFactory stripeMetadataSourceFactory,
-            TupleDomainFilterCache tupleDomainFilterCache)
+            TupleDomainFilterCache tupleDomainFilterCache,
+            @ForRangeReads ParallelRangeReader parallelRangeReader)
     {
         this(
                 typeManager,
@@ -169,7 +174,8 @@ public class OrcSelectivePageSourceFactory
                 config.getDomainCompactionThreshold(),
                 orcFileTailSource,
                 stripeMetadataSourceFactory,
-                tupleDomainFilterCache);
+                tupleDomainFilterCache,
+                parallelRangeReader);
     }
 
     public OrcSelectivePageSourceFactory(
@@ -182,7 +188,8 @@ public class OrcSelectivePageSourceFactory
             int domainCompactionThreshold,
             OrcFileTailSource orcFileTailSource,
             StripeMetadataSourceFactory stripeMetadataSourceFactory,
-            TupleDomainFilterCache tupleDomainFilterCache)
+            TupleDomainFilterCache tupleDomainFilterCache,
+            ParallelRangeReader parallelRangeReader)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.functionResolution = requireNonNull(functionResolution, "functionResolution is null");
@@ -194,6 +201,7 @@ public class OrcSelectivePageSourceFactory
         this.orcFileTailSource = requireNonNull(orcFileTailSource, "orcFileTailCache is null");
         this.stripeMetadataSourceFactory = requireNonNull(stripeMetadataSourceFactory, "stripeMetadataSourceFactory is null");
         this.tupleDomainFilterCache = requireNonNull(tupleDomainFilterCache, "tupleDomainFilterCache is null");
+        this.parallelRangeReader = requireNonNull(parallelRangeReader, "parallelRangeReader is null");
     }
 
     @Override
@@ -254,7 +262,8 @@ public class OrcSelectivePageSourceFactory
                 hiveFileContext,
                 tupleDomainFilterCache,
                 encryptionInformation,
-                NO_ENCRYPTION));
+                NO_ENCRYPTION,
+                parallelRangeReader));
     }
 
     public static ConnectorPageSource createOrcPageSource(
@@ -286,7 +295,8 @@ public class OrcSelectivePageSourceFactory
             HiveFileContext hiveFileContext,
             TupleDomainFilterCache tupleDomainFilterCache,
             Optional<EncryptionInformation> encryptionInformation,
-            DwrfEncryptionProvider dwrfEncryptionProvider)
+            DwrfEncryptionProvider dwrfEncryptionProvider,
+            ParallelRangeReader parallelRangeReader)
     {
         checkArgument(domainCompactionThreshold >= 1, "domainCompactionThreshold must be at least 1");
 
@@ -309,7 +319,8 @@ public class OrcSelectivePageSourceFactory
                     streamBufferSize,
                     lazyReadSmallRanges,
                     inputStream,
-                    stats);
+                    stats,
+                    parallelRangeReader);
         }
         catch (Exception e) {
             if (nullToEmpty(e.getMessage()).trim().equals("Filesystem closed") ||
@@ -338,8 +349,19 @@ public class OrcSelectivePageSourceFactory
 
             List<HiveColumnHandle> physicalColumns = getPhysicalHiveColumnHandles(columns, useOrcColumnNames, reader.getTypes(), path);
 
-            if (!physicalColumns.isEmpty() && physicalColumns.stream().allMatch(hiveColumnHandle -> hiveColumnHandle.getColumnType() == AGGREGATED)) {
-                return new AggregatedOrcPageSource(physicalColumns, reader.getFooter(), typeManager, functionResolution);
+            if (isAggregatedOutput(columns.subList(0, outputColumns.size()), prefilledValues)) {
+                return createAggregatedOrcPageSource(
+                        columns,
+                        physicalColumns,
+                        outputColumns.size(),
+                        prefilledValues,
+                        coercers,
+                        domainPredicate,
+                        reader,
+                        hiveStorageTimeZone,
+                        systemMemoryUsage,
+                        typeManager,
+                        functionResolution);
             }
 
             Map<Integer, Integer> indexMapping = IntStream.range(0, columns.size())
@@ -435,6 +457,65 @@ public class OrcSelectivePageSourceFactory
         }
     }
 
+    private static boolean isAggregatedOutput(List<HiveColumnHandle> outputColumns, Map<Integer, String> prefilledValues)
+    {
+        return outputColumns.stream().anyMatch(column -> column.getColumnType() == AGGREGATED) &&
+                outputColumns.stream().allMatch(column -> column.getColumnType() == AGGREGATED || prefilledValues.containsKey(column.getHiveColumnIndex()));
+    }
+
+    private static ConnectorPageSource createAggregatedOrcPageSource(
+            List<HiveColumnHandle> columns,
+            List<HiveColumnHandle> physicalColumns,
+            int outputColumnCount,
+            Map<Integer, String> prefilledValues,
+            Map<Integer, HiveCoercer> coercers,
+            TupleDomain<Subfield> domainPredicate,
+            OrcReader reader,
+            DateTimeZone hiveStorageTimeZone,
+            OrcAggregatedMemoryContext systemMemoryUsage,
+            TypeManager typeManager,
+            StandardFunctionResolution functionResolution)
+    {
+        Map<Integer, Object> typedPrefilledValues = new HashMap<>();
+        Map<String, HiveColumnHandle> physicalColumnsByName = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            HiveColumnHandle column = columns.get(i);
+            HiveColumnHandle physicalColumn = physicalColumns.get(i);
+            if (prefilledValues.containsKey(column.getHiveColumnIndex())) {
+                Type type = typeManager.getType(column.getTypeSignature());
+                typedPrefilledValues.put(physicalColumn.getHiveColumnIndex(), typedPartitionKey(prefilledValues.get(column.getHiveColumnIndex()), type, column.getName(), hiveStorageTimeZone));
+            }
+            // domains refer to the data columns, which are named like the arguments of the pushed down aggregations
+            if (column.getColumnType() == AGGREGATED) {
+                physicalColumnsByName.putIfAbsent(physicalColumn.getName(), physicalColumn);
+            }
+            else {
+                physicalColumnsByName.put(physicalColumn.getName(), physicalColumn);
+            }
+            if (coercers.containsKey(column.getHiveColumnIndex()) && (column.getColumnType() == AGGREGATED || domainPredicate.getDomains().get().containsKey(new Subfield(column.getName())))) {
+                throw new UnsupportedOperationException("Partial aggregation pushdown is not supported for partitions with a different column type. " +
+                        "Set session property hive.pushdown_partial_aggregations_into_scan=false and execute query again");
+            }
+        }
+
+        ImmutableMap.Builder<Integer, Domain> columnDomains = ImmutableMap.builder();
+        for (Map.Entry<Subfield, Domain> entry : domainPredicate.getDomains().get().entrySet()) {
+            HiveColumnHandle physicalColumn = physicalColumnsByName.get(entry.getKey().getRootName());
+            verify(physicalColumn != null && entry.getKey().getPath().isEmpty(), "Unexpected domain for partial aggregation pushdown: %s", entry.getKey());
+            columnDomains.put(physicalColumn.getHiveColumnIndex(), entry.getValue());
+        }
+
+        return new AggregatedOrcPageSource(
+                physicalColumns.subList(0, outputColumnCount),
+                typedPrefilledValues,
+                columnDomains.build(),
+                reader,
+                hiveStorageTimeZone,
+                systemMemoryUsage,
+                typeManager,
+                functionResolution);
+    }
+
     private static Type getColumnTypeFromTableSchema(Map<Integer, HiveCoercer> coercers, Map<Integer, Type> columnTypes, int hiveColumnIndex)
     {
         return coercers.containsKey(hiveColumnIndex) ? coercers.get(hiveColumnIndex).getToType() : columnTypes.get(hiveColumnIndex);
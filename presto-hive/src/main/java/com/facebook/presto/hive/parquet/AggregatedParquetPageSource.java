@@ -100,6 +100,12 @@ public class AggregatedParquetPageSource
             return null;
         }
 
+        if (getRowCountFromParquetMetadata(parquetMetadata) == 0) {
+            // an empty file contributes no group when grouping on partition keys
+            completed = true;
+            return null;
+        }
+
         long start = System.nanoTime();
         Block[] blocks = new Block[columnHandles.size()];
         for (int fieldId = 0; fieldId < blocks.length; fieldId++) {
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive.parquet;
 
+import com.facebook.presto.common.io.ParallelRangeReader;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
 import com.facebook.presto.parquet.AbstractParquetDataSource;
 import com.facebook.presto.parquet.ParquetDataSourceId;
@@ -20,6 +21,9 @@ import com.facebook.presto.spi.PrestoException;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.format.BloomFilterHeader;
 import org.apache.parquet.format.Util;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
@@ -31,6 +35,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Optional;
 
+import static com.facebook.presto.common.io.ParallelRangeReader.SEQUENTIAL_RANGE_READER;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_CANNOT_OPEN_SPLIT;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static com.google.common.base.Strings.nullToEmpty;
@@ -45,7 +50,12 @@ public class HdfsParquetDataSource
 
     public HdfsParquetDataSource(ParquetDataSourceId id, FSDataInputStream inputStream, FileFormatDataSourceStats stats)
     {
-        super(id);
+        this(id, inputStream, stats, SEQUENTIAL_RANGE_READER);
+    }
+
+    public HdfsParquetDataSource(ParquetDataSourceId id, FSDataInputStream inputStream, FileFormatDataSourceStats stats, ParallelRangeReader parallelRangeReader)
+    {
+        super(id, parallelRangeReader);
         this.stats = requireNonNull(stats, "stats is null");
         this.inputStream = requireNonNull(inputStream, "inputStream is null");
     }
@@ -98,6 +108,29 @@ public class HdfsParquetDataSource
         return Optional.of(ParquetMetadataConverter.fromParquetOffsetIndex(Util.readOffsetIndex(inputStream)));
     }
 
+    @Override
+    public Optional<BloomFilter> readBloomFilter(ColumnChunkMetaData column)
+            throws IOException
+    {
+        long offset = column.getBloomFilterOffset();
+        if (offset < 0) {
+            return Optional.empty();
+        }
+        inputStream.seek(offset);
+        BloomFilterHeader header = Util.readBloomFilterHeader(inputStream);
+        // only the split block algorithm with xxHash and no compression is defined by the format so far
+        if (!header.getAlgorithm().isSetBLOCK() || !header.getHash().isSetXXHASH() || !header.getCompression().isSetUNCOMPRESSED()) {
+            return Optional.empty();
+        }
+        int numBytes = header.getNumBytes();
+        if (numBytes <= 0 || numBytes > BlockSplitBloomFilter.UPPER_BOUND_BYTES) {
+            return Optional.empty();
+        }
+        byte[] bitset = new byte[numBytes];
+        inputStream.readFully(bitset);
+        return Optional.of(new BlockSplitBloomFilter(bitset));
+    }
+
     public static HdfsParquetDataSource buildHdfsParquetDataSource(FileSystem fileSystem, Path path, long start, long length, FileFormatDataSourceStats stats)
     {
         try {
@@ -115,6 +148,12 @@ public class HdfsParquetDataSource
 
     public static HdfsParquetDataSource buildHdfsParquetDataSource(FSDataInputStream inputStream, Path path, FileFormatDataSourceStats stats)
     {
-        return new HdfsParquetDataSource(new ParquetDataSourceId(path.toString()), inputStream, stats);
+        return buildHdfsParquetDataSource(inputStream, path, stats, SEQUENTIAL_RANGE_READER);
+    }
+
+    public static HdfsParquetDataSource buildHdfsParquetDataSource(FSDataInputStream inputStream, Path path, FileFormatDataSourceStats stats, ParallelRangeReader parallelRangeReader)
+    {
+        // positioned reads on the input stream do not move its offset, so they may run concurrently
+        return new HdfsParquetDataSource(new ParquetDataSourceId(path.toString()), inputStream, stats, parallelRangeReader);
     }
 }
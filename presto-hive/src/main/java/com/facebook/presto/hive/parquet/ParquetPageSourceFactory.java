@@ -14,6 +14,7 @@
 package com.facebook.presto.hive.parquet;
 
 import com.facebook.presto.common.Subfield;
+import com.facebook.presto.common.io.ParallelRangeReader;
 import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.common.type.RowType;
@@ -22,6 +23,7 @@ import com.facebook.presto.common.type.Type;
 import com.facebook.presto.common.type.TypeManager;
 import com.facebook.presto.hive.EncryptionInformation;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.ForRangeReads;
 import com.facebook.presto.hive.HdfsEnvironment;
 import com.facebook.presto.hive.HiveBatchPageSourceFactory;
 import com.facebook.presto.hive.HiveColumnHandle;
@@ -101,6 +103,7 @@ import static com.facebook.presto.hive.HiveSessionProperties.columnIndexFilterEn
 import static com.facebook.presto.hive.HiveSessionProperties.getParquetMaxReadBlockSize;
 import static com.facebook.presto.hive.HiveSessionProperties.isParquetBatchReaderVerificationEnabled;
 import static com.facebook.presto.hive.HiveSessionProperties.isParquetBatchReadsEnabled;
+import static com.facebook.presto.hive.HiveSessionProperties.isParquetBloomFilterEnabled;
 import static com.facebook.presto.hive.HiveSessionProperties.isUseParquetColumnNames;
 import static com.facebook.presto.hive.parquet.HdfsParquetDataSource.buildHdfsParquetDataSource;
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
@@ -135,19 +138,22 @@ public class ParquetPageSourceFactory
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
     private final ParquetMetadataSource parquetMetadataSource;
+    private final ParallelRangeReader parallelRangeReader;
 
     @Inject
     public ParquetPageSourceFactory(TypeManager typeManager,
             StandardFunctionResolution functionResolution,
             HdfsEnvironment hdfsEnvironment,
             FileFormatDataSourceStats stats,
-            ParquetMetadataSource parquetMetadataSource)
+            ParquetMetadataSource parquetMetadataSource,
+            @ForRangeReads ParallelRangeReader parallelRangeReader)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.functionResolution = requireNonNull(functionResolution, "functionResolution is null");
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
         this.parquetMetadataSource = requireNonNull(parquetMetadataSource, "parquetMetadataSource is null");
+        this.parallelRangeReader = requireNonNull(parallelRangeReader, "parallelRangeReader is null");
     }
 
     @Override
@@ -191,7 +197,9 @@ public class ParquetPageSourceFactory
                 stats,
                 hiveFileContext,
                 parquetMetadataSource,
-                columnIndexFilterEnabled(session)));
+                columnIndexFilterEnabled(session),
+                isParquetBloomFilterEnabled(session),
+                parallelRangeReader));
     }
 
     public static ConnectorPageSource createParquetPageSource(
@@ -214,14 +222,16 @@ public class ParquetPageSourceFactory
             FileFormatDataSourceStats stats,
             HiveFileContext hiveFileContext,
             ParquetMetadataSource parquetMetadataSource,
-            boolean columnIndexFilterEnabled)
+            boolean columnIndexFilterEnabled,
+            boolean bloomFilterEnabled,
+            ParallelRangeReader parallelRangeReader)
     {
         AggregatedMemoryContext systemMemoryContext = newSimpleAggregatedMemoryContext();
 
         ParquetDataSource dataSource = null;
         try {
             FSDataInputStream inputStream = hdfsEnvironment.getFileSystem(user, path, configuration).openFile(path, hiveFileContext);
-            dataSource = buildHdfsParquetDataSource(inputStream, path, stats);
+            dataSource = buildHdfsParquetDataSource(inputStream, path, stats, parallelRangeReader);
             ParquetMetadata parquetMetadata = parquetMetadataSource.getParquetMetadata(dataSource, fileSize, hiveFileContext.isCacheable()).getParquetMetadata();
 
             if (!columns.isEmpty() && columns.stream().allMatch(hiveColumnHandle -> hiveColumnHandle.getColumnType() == AGGREGATED)) {
@@ -257,7 +267,16 @@ public class ParquetPageSourceFactory
             List<ColumnIndexStore> blockIndexStores = new ArrayList<>();
             for (BlockMetaData block : footerBlocks.build()) {
                 Optional<ColumnIndexStore> columnIndexStore = ColumnIndexFilterUtils.getColumnIndexStore(parquetPredicate, finalDataSource, block, descriptorsByPath, columnIndexFilterEnabled);
-                if (predicateMatches(parquetPredicate, block, finalDataSource, descriptorsByPath, parquetTupleDomain, columnIndexStore, columnIndexFilterEnabled)) {
+                if (predicateMatches(
+                        parquetPredicate,
+                        block,
+                        finalDataSource,
+                        descriptorsByPath,
+                        parquetTupleDomain,
+                        columnIndexStore,
+                        columnIndexFilterEnabled,
+                        bloomFilterEnabled ? Optional.of(parquetMetadataSource) : Optional.empty(),
+                        hiveFileContext.isCacheable())) {
                     blocks.add(block);
                     blockIndexStores.add(columnIndexStore.orElse(null));
                     hiveFileContext.incrementCounter("parquet.blocksRead", 1);
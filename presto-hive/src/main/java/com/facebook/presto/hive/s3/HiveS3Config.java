@@ -61,6 +61,10 @@ public class HiveS3Config
     private String s3UserAgentPrefix = "";
     private PrestoS3AclType s3AclType = PrestoS3AclType.PRIVATE;
     private boolean skipGlacierObjects;
+    private boolean s3StreamingUploadEnabled;
+    private DataSize s3StreamingPartSize = new DataSize(16, MEGABYTE);
+    private int s3StreamingMaxConcurrentPartUploads = 4;
+    private DataSize s3StreamingMaxInFlightSize = new DataSize(256, MEGABYTE);
 
     public String getS3AwsAccessKey()
     {
@@ -445,4 +449,60 @@ public class HiveS3Config
         this.skipGlacierObjects = skipGlacierObjects;
         return this;
     }
+
+    public boolean isS3StreamingUploadEnabled()
+    {
+        return s3StreamingUploadEnabled;
+    }
+
+    @Config("hive.s3.streaming.enabled")
+    @ConfigDescription("Upload files to S3 in parts while they are written instead of staging them on local disk")
+    public HiveS3Config setS3StreamingUploadEnabled(boolean s3StreamingUploadEnabled)
+    {
+        this.s3StreamingUploadEnabled = s3StreamingUploadEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("5MB")
+    public DataSize getS3StreamingPartSize()
+    {
+        return s3StreamingPartSize;
+    }
+
+    @Config("hive.s3.streaming.part-size")
+    @ConfigDescription("Part size for streaming uploads, each stream buffers this much in memory per part")
+    public HiveS3Config setS3StreamingPartSize(DataSize s3StreamingPartSize)
+    {
+        this.s3StreamingPartSize = s3StreamingPartSize;
+        return this;
+    }
+
+    @Min(1)
+    public int getS3StreamingMaxConcurrentPartUploads()
+    {
+        return s3StreamingMaxConcurrentPartUploads;
+    }
+
+    @Config("hive.s3.streaming.max-concurrent-part-uploads")
+    @ConfigDescription("Maximum number of parts of a single file uploaded concurrently while the file is being written")
+    public HiveS3Config setS3StreamingMaxConcurrentPartUploads(int s3StreamingMaxConcurrentPartUploads)
+    {
+        this.s3StreamingMaxConcurrentPartUploads = s3StreamingMaxConcurrentPartUploads;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getS3StreamingMaxInFlightSize()
+    {
+        return s3StreamingMaxInFlightSize;
+    }
+
+    @Config("hive.s3.streaming.max-in-flight-size")
+    @ConfigDescription("Maximum memory of the part buffers of all streaming uploads, including the parts being written; parts over the limit are staged on local disk")
+    public HiveS3Config setS3StreamingMaxInFlightSize(DataSize s3StreamingMaxInFlightSize)
+    {
+        this.s3StreamingMaxInFlightSize = s3StreamingMaxInFlightSize;
+        return this;
+    }
 }
@@ -52,6 +52,10 @@ public class PrestoS3ConfigurationUpdater
     private final String userAgentPrefix;
     private final PrestoS3AclType aclType;
     private boolean skipGlacierObjects;
+    private final boolean streamingUploadEnabled;
+    private final DataSize streamingUploadPartSize;
+    private final int streamingUploadMaxConcurrentParts;
+    private final DataSize streamingUploadMaxInFlightSize;
 
     @Inject
     public PrestoS3ConfigurationUpdater(HiveS3Config config)
@@ -84,6 +88,10 @@ public class PrestoS3ConfigurationUpdater
         this.userAgentPrefix = config.getS3UserAgentPrefix();
         this.aclType = config.getS3AclType();
         this.skipGlacierObjects = config.isSkipGlacierObjects();
+        this.streamingUploadEnabled = config.isS3StreamingUploadEnabled();
+        this.streamingUploadPartSize = config.getS3StreamingPartSize();
+        this.streamingUploadMaxConcurrentParts = config.getS3StreamingMaxConcurrentPartUploads();
+        this.streamingUploadMaxInFlightSize = config.getS3StreamingMaxInFlightSize();
     }
 
     @Override
@@ -138,5 +146,9 @@ public class PrestoS3ConfigurationUpdater
         config.set(S3_USER_AGENT_PREFIX, userAgentPrefix);
         config.set(S3_ACL_TYPE, aclType.name());
         config.setBoolean(S3_SKIP_GLACIER_OBJECTS, skipGlacierObjects);
+        config.setBoolean(S3_STREAMING_UPLOAD_ENABLED, streamingUploadEnabled);
+        config.setLong(S3_STREAMING_UPLOAD_PART_SIZE, streamingUploadPartSize.toBytes());
+        config.setInt(S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS, streamingUploadMaxConcurrentParts);
+        config.setLong(S3_STREAMING_UPLOAD_MAX_IN_FLIGHT_SIZE, streamingUploadMaxInFlightSize.toBytes());
     }
 }
@@ -33,26 +33,33 @@ import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Builder;
 import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.AmazonS3Encryption;
 import com.amazonaws.services.s3.AmazonS3EncryptionClient;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.EncryptionMaterialsProvider;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.KMSEncryptionMaterialsProvider;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.SSEAwsKeyManagementParams;
 import com.amazonaws.services.s3.model.StorageClass;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.amazonaws.services.s3.transfer.Transfer;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import com.amazonaws.services.s3.transfer.Upload;
 import com.facebook.airlift.log.Logger;
 import com.facebook.presto.hive.filesystem.ExtendedFileSystem;
+import com.facebook.presto.hive.s3.PrestoS3StreamingUploadPool.PartUpload;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.AbstractSequentialIterator;
 import com.google.common.collect.Iterators;
@@ -84,16 +91,21 @@ import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.amazonaws.regions.Regions.US_EAST_1;
@@ -101,6 +113,7 @@ import static com.amazonaws.services.s3.Headers.SERVER_SIDE_ENCRYPTION;
 import static com.amazonaws.services.s3.Headers.UNENCRYPTED_CONTENT_LENGTH;
 import static com.amazonaws.services.s3.model.StorageClass.Glacier;
 import static com.facebook.presto.hive.RetryDriver.retry;
+import static com.facebook.presto.hive.s3.PrestoS3StreamingUploadPool.getUploadPool;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_ACCESS_KEY;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_ACL_TYPE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_CONNECT_TIMEOUT;
@@ -129,6 +142,10 @@ import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SSE_TYPE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SSL_ENABLED;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STAGING_DIRECTORY;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STORAGE_CLASS;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_ENABLED;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_MAX_IN_FLIGHT_SIZE;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_PART_SIZE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USER_AGENT_PREFIX;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USER_AGENT_SUFFIX;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USE_INSTANCE_CREDENTIALS;
@@ -142,6 +159,7 @@ import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.Iterables.toArray;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
@@ -149,6 +167,7 @@ import static java.net.HttpURLConnection.HTTP_FORBIDDEN;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.createTempFile;
+import static java.util.Comparator.comparingInt;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.hadoop.fs.FSExceptionMessages.CANNOT_SEEK_PAST_EOF;
@@ -190,6 +209,9 @@ public class PrestoS3FileSystem
     private PrestoS3AclType s3AclType;
     private boolean skipGlacierObjects;
     private PrestoS3StorageClass s3StorageClass;
+    private boolean streamingUploadEnabled;
+    private int streamingUploadMaxConcurrentParts;
+    private PrestoS3StreamingUploadPool streamingUploadPool;
 
     @Override
     public void initialize(URI uri, Configuration conf)
@@ -231,6 +253,12 @@ public class PrestoS3FileSystem
         String userAgentPrefix = conf.get(S3_USER_AGENT_PREFIX, defaults.getS3UserAgentPrefix());
         this.skipGlacierObjects = conf.getBoolean(S3_SKIP_GLACIER_OBJECTS, defaults.isSkipGlacierObjects());
         this.s3StorageClass = conf.getEnum(S3_STORAGE_CLASS, defaults.getS3StorageClass());
+        this.streamingUploadEnabled = conf.getBoolean(S3_STREAMING_UPLOAD_ENABLED, defaults.isS3StreamingUploadEnabled());
+        int streamingUploadPartSize = toIntExact(conf.getLong(S3_STREAMING_UPLOAD_PART_SIZE, defaults.getS3StreamingPartSize().toBytes()));
+        long streamingUploadMaxInFlightSize = conf.getLong(S3_STREAMING_UPLOAD_MAX_IN_FLIGHT_SIZE, defaults.getS3StreamingMaxInFlightSize().toBytes());
+        this.streamingUploadMaxConcurrentParts = conf.getInt(S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS, defaults.getS3StreamingMaxConcurrentPartUploads());
+        // buffers and upload threads are shared by all file systems, so the limit holds across catalogs and users
+        this.streamingUploadPool = getUploadPool(streamingUploadPartSize, streamingUploadMaxInFlightSize);
 
         ClientConfiguration configuration = new ClientConfiguration()
                 .withMaxErrorRetry(maxErrorRetries)
@@ -399,6 +427,25 @@ public class PrestoS3FileSystem
             throw new IOException("File already exists:" + path);
         }
 
+        String key = keyFromPath(qualifiedPath(path));
+
+        // the encryption client requires the parts of a multipart upload to be uploaded in order
+        if (streamingUploadEnabled && !(s3 instanceof AmazonS3Encryption)) {
+            return new FSDataOutputStream(
+                    new PrestoS3StreamingOutputStream(s3,
+                            getBucketName(uri),
+                            key,
+                            sseEnabled,
+                            sseType,
+                            sseKmsKeyId,
+                            streamingUploadPool,
+                            streamingUploadMaxConcurrentParts,
+                            stagingDirectory,
+                            s3AclType,
+                            s3StorageClass),
+                    statistics);
+        }
+
         if (!stagingDirectory.exists()) {
             createDirectories(stagingDirectory.toPath());
         }
@@ -407,7 +454,6 @@ public class PrestoS3FileSystem
         }
         File tempFile = createTempFile(stagingDirectory.toPath(), "presto-s3-", ".tmp").toFile();
 
-        String key = keyFromPath(qualifiedPath(path));
         return new FSDataOutputStream(
                 new PrestoS3OutputStream(s3,
                         getBucketName(uri),
@@ -1246,6 +1292,7 @@ public class PrestoS3FileSystem
             try {
                 log.debug("Starting upload for host: %s, key: %s, file: %s, size: %s", host, key, tempFile, tempFile.length());
                 STATS.uploadStarted();
+                long start = System.nanoTime();
 
                 PutObjectRequest request = new PutObjectRequest(host, key, tempFile);
                 if (sseEnabled) {
@@ -1277,6 +1324,8 @@ public class PrestoS3FileSystem
 
                 upload.waitForCompletion();
                 STATS.uploadSuccessful();
+                STATS.newUploadedBytes(tempFile.length());
+                STATS.addUploadTime(Duration.nanosSince(start));
                 log.debug("Completed upload for host: %s, key: %s", host, key);
             }
             catch (AmazonClientException e) {
@@ -1316,6 +1365,433 @@ public class PrestoS3FileSystem
         }
     }
 
+    /**
+     * Uploads the written data as a multipart upload while it is being written. Each part is
+     * buffered in memory and uploaded in the background as soon as it is full, if the shared
+     * {@link PrestoS3StreamingUploadPool} has room for another in-flight part. Otherwise the part
+     * is uploaded before writing continues. A stream has at most {@code maxConcurrentPartUploads}
+     * parts in flight. The buffer grows only as far as the memory limit of the pool allows; past
+     * that, the rest of the part is staged in a local file and uploaded from there. Data smaller
+     * than a single part is uploaded with a single request when the stream is closed.
+     */
+    private static class PrestoS3StreamingOutputStream
+            extends OutputStream
+    {
+        private final AmazonS3 s3;
+        private final String host;
+        private final String key;
+        private final boolean sseEnabled;
+        private final PrestoS3SseType sseType;
+        private final String sseKmsKeyId;
+        private final PrestoS3StreamingUploadPool uploadPool;
+        private final int partSize;
+        private final int maxConcurrentPartUploads;
+        private final File stagingDirectory;
+        private final CannedAccessControlList aclType;
+        private final StorageClass s3StorageClass;
+
+        // parts that are being uploaded, in the order of their part numbers
+        private final Deque<PartUpload> pendingParts = new ArrayDeque<>();
+        private final List<PartETag> partETags = new ArrayList<>();
+
+        private byte[] buffer = new byte[0];
+        // size of the current part, in the buffer or in the staging file
+        private int bufferSize;
+        private File stagingFile;
+        private OutputStream stagingOutput;
+        private Optional<String> uploadId = Optional.empty();
+        private int nextPartNumber = 1;
+        private long uploadStart;
+        private boolean failed;
+        private boolean closed;
+
+        public PrestoS3StreamingOutputStream(
+                AmazonS3 s3,
+                String host,
+                String key,
+                boolean sseEnabled,
+                PrestoS3SseType sseType,
+                String sseKmsKeyId,
+                PrestoS3StreamingUploadPool uploadPool,
+                int maxConcurrentPartUploads,
+                File stagingDirectory,
+                PrestoS3AclType aclType,
+                PrestoS3StorageClass s3StorageClass)
+        {
+            checkArgument(maxConcurrentPartUploads > 0, "maxConcurrentPartUploads must be positive");
+            requireNonNull(aclType, "aclType is null");
+            requireNonNull(s3StorageClass, "s3StorageClass is null");
+            this.s3 = requireNonNull(s3, "s3 is null");
+            this.host = requireNonNull(host, "host is null");
+            this.key = requireNonNull(key, "key is null");
+            this.sseEnabled = sseEnabled;
+            this.sseType = requireNonNull(sseType, "sseType is null");
+            this.sseKmsKeyId = sseKmsKeyId;
+            this.uploadPool = requireNonNull(uploadPool, "uploadPool is null");
+            this.partSize = uploadPool.getPartSize();
+            this.maxConcurrentPartUploads = maxConcurrentPartUploads;
+            this.stagingDirectory = requireNonNull(stagingDirectory, "stagingDirectory is null");
+            this.aclType = aclType.getCannedACL();
+            this.s3StorageClass = s3StorageClass.getS3StorageClass();
+
+            log.debug("Streaming OutputStream for key '%s' using part size: %s", key, partSize);
+        }
+
+        @Override
+        public void write(int b)
+                throws IOException
+        {
+            ensureOpen();
+            if (stagingOutput == null && !ensureCapacity(1)) {
+                startStaging();
+            }
+            if (stagingOutput != null) {
+                writeToStagingFile(new byte[] {(byte) b}, 0, 1);
+            }
+            else {
+                buffer[bufferSize] = (byte) b;
+            }
+            bufferSize++;
+            flushFullPart();
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length)
+                throws IOException
+        {
+            checkPositionIndexes(offset, offset + length, bytes.length);
+            ensureOpen();
+            while (length > 0) {
+                int chunk = min(length, partSize - bufferSize);
+                if (stagingOutput == null && !ensureCapacity(chunk)) {
+                    startStaging();
+                }
+                if (stagingOutput != null) {
+                    writeToStagingFile(bytes, offset, chunk);
+                }
+                else {
+                    System.arraycopy(bytes, offset, buffer, bufferSize, chunk);
+                }
+                bufferSize += chunk;
+                offset += chunk;
+                length -= chunk;
+                flushFullPart();
+            }
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            if (failed) {
+                releaseBuffers();
+                throw new IOException(format("Upload for host: %s, key: %s failed", host, key));
+            }
+
+            try {
+                if (!uploadId.isPresent()) {
+                    putObject();
+                }
+                else {
+                    // the last part may be smaller than the part size, so it is always uploaded here
+                    if (bufferSize > 0) {
+                        partETags.add(stagingOutput != null ? uploadStagedPart(nextPartNumber) : uploadPart(nextPartNumber, buffer, bufferSize));
+                        nextPartNumber++;
+                    }
+                    while (!pendingParts.isEmpty()) {
+                        waitForPart(pendingParts.removeFirst());
+                    }
+                    // parts uploaded by this thread are interleaved with the background uploads
+                    partETags.sort(comparingInt(PartETag::getPartNumber));
+                    s3.completeMultipartUpload(new CompleteMultipartUploadRequest(host, key, uploadId.get(), partETags));
+                }
+                STATS.uploadSuccessful();
+                STATS.addUploadTime(Duration.nanosSince(uploadStart));
+                log.debug("Completed upload for host: %s, key: %s", host, key);
+            }
+            catch (IOException | RuntimeException e) {
+                throw failUpload(e);
+            }
+            finally {
+                releaseBuffers();
+            }
+        }
+
+        private void ensureOpen()
+                throws IOException
+        {
+            if (closed) {
+                throw new IOException(STREAM_IS_CLOSED);
+            }
+            if (failed) {
+                throw new IOException(format("Upload for host: %s, key: %s failed", host, key));
+            }
+        }
+
+        // returns false if the memory limit of the pool does not allow the buffer to grow
+        private boolean ensureCapacity(int length)
+        {
+            int required = bufferSize + length;
+            if (required <= buffer.length) {
+                return true;
+            }
+            int newLength = min(partSize, max(required, buffer.length * 2));
+            if (!uploadPool.tryReserveMemory(newLength - buffer.length)) {
+                return false;
+            }
+            buffer = Arrays.copyOf(buffer, newLength);
+            return true;
+        }
+
+        private void writeToStagingFile(byte[] bytes, int offset, int length)
+                throws IOException
+        {
+            try {
+                stagingOutput.write(bytes, offset, length);
+            }
+            catch (IOException e) {
+                throw failUpload(e);
+            }
+        }
+
+        private void startStaging()
+                throws IOException
+        {
+            try {
+                if (!stagingDirectory.exists()) {
+                    createDirectories(stagingDirectory.toPath());
+                }
+                stagingFile = createTempFile(stagingDirectory.toPath(), "presto-s3-", ".tmp").toFile();
+                log.debug("Staging part of key '%s' in file: %s", key, stagingFile);
+                stagingOutput = new BufferedOutputStream(Files.newOutputStream(stagingFile.toPath()));
+                stagingOutput.write(buffer, 0, bufferSize);
+            }
+            catch (IOException | RuntimeException e) {
+                throw failUpload(e);
+            }
+            uploadPool.returnBuffer(buffer);
+            buffer = new byte[0];
+        }
+
+        private void flushFullPart()
+                throws IOException
+        {
+            if (bufferSize < partSize) {
+                return;
+            }
+            try {
+                if (!uploadId.isPresent()) {
+                    uploadId = Optional.of(initiateUpload());
+                }
+
+                // collect the finished parts and wait for the oldest one if too many are in flight
+                while (!pendingParts.isEmpty() && pendingParts.peekFirst().isDone()) {
+                    waitForPart(pendingParts.removeFirst());
+                }
+                if (pendingParts.size() >= maxConcurrentPartUploads) {
+                    waitForPart(pendingParts.removeFirst());
+                }
+
+                int partNumber = nextPartNumber;
+                nextPartNumber++;
+                if (stagingOutput != null) {
+                    // a staged part holds no memory, it is uploaded before writing continues
+                    partETags.add(uploadStagedPart(partNumber));
+                    bufferSize = 0;
+                    return;
+                }
+                if (!uploadPool.tryReserve()) {
+                    // the shared in-flight limit is reached, upload the part before buffering more data
+                    partETags.add(uploadPart(partNumber, buffer, bufferSize));
+                    bufferSize = 0;
+                    return;
+                }
+                byte[] data = buffer;
+                int length = bufferSize;
+                pendingParts.addLast(uploadPool.submit(data, () -> uploadPart(partNumber, data, length)));
+            }
+            catch (IOException | RuntimeException e) {
+                throw failUpload(e);
+            }
+            // all parts but the last one are full, so the following buffers are allocated at the part size
+            byte[] nextBuffer = uploadPool.tryTakeBuffer();
+            buffer = nextBuffer == null ? new byte[0] : nextBuffer;
+            bufferSize = 0;
+        }
+
+        private PartETag uploadPart(int partNumber, byte[] data, int length)
+        {
+            return uploadPart(createUploadPartRequest(partNumber, length)
+                    .withInputStream(new ByteArrayInputStream(data, 0, length)));
+        }
+
+        private PartETag uploadStagedPart(int partNumber)
+                throws IOException
+        {
+            stagingOutput.close();
+            stagingOutput = null;
+            try {
+                return uploadPart(createUploadPartRequest(partNumber, bufferSize)
+                        .withFile(stagingFile));
+            }
+            finally {
+                deleteStagingFile();
+            }
+        }
+
+        private UploadPartRequest createUploadPartRequest(int partNumber, int length)
+        {
+            return new UploadPartRequest()
+                    .withBucketName(host)
+                    .withKey(key)
+                    .withUploadId(uploadId.get())
+                    .withPartNumber(partNumber)
+                    .withPartSize(length);
+        }
+
+        private PartETag uploadPart(UploadPartRequest request)
+        {
+            long start = System.nanoTime();
+            PartETag partETag = s3.uploadPart(request).getPartETag();
+            STATS.newUploadedPart(Duration.nanosSince(start));
+            STATS.newUploadedBytes(request.getPartSize());
+            return partETag;
+        }
+
+        private void waitForPart(PartUpload part)
+                throws IOException
+        {
+            try {
+                partETags.add(part.get());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            catch (ExecutionException e) {
+                throwIfInstanceOf(e.getCause(), IOException.class);
+                throw new IOException(e.getCause());
+            }
+        }
+
+        private String initiateUpload()
+        {
+            log.debug("Starting multipart upload for host: %s, key: %s", host, key);
+            STATS.uploadStarted();
+            uploadStart = System.nanoTime();
+
+            InitiateMultipartUploadRequest request = new InitiateMultipartUploadRequest(host, key, createObjectMetadata())
+                    .withStorageClass(s3StorageClass)
+                    .withCannedACL(aclType);
+            if (sseEnabled && sseType == PrestoS3SseType.KMS) {
+                request.withSSEAwsKeyManagementParams(createKmsParams());
+            }
+            return s3.initiateMultipartUpload(request).getUploadId();
+        }
+
+        private void putObject()
+                throws IOException
+        {
+            log.debug("Starting upload for host: %s, key: %s, size: %s", host, key, bufferSize);
+            STATS.uploadStarted();
+            uploadStart = System.nanoTime();
+
+            ObjectMetadata metadata = createObjectMetadata();
+            metadata.setContentLength(bufferSize);
+            PutObjectRequest request;
+            if (stagingOutput != null) {
+                stagingOutput.close();
+                stagingOutput = null;
+                request = new PutObjectRequest(host, key, stagingFile).withMetadata(metadata);
+            }
+            else {
+                request = new PutObjectRequest(host, key, new ByteArrayInputStream(buffer, 0, bufferSize), metadata);
+            }
+            request.withStorageClass(s3StorageClass)
+                    .withCannedAcl(aclType);
+            if (sseEnabled && sseType == PrestoS3SseType.KMS) {
+                request.withSSEAwsKeyManagementParams(createKmsParams());
+            }
+            s3.putObject(request);
+            STATS.newUploadedBytes(bufferSize);
+        }
+
+        private ObjectMetadata createObjectMetadata()
+        {
+            ObjectMetadata metadata = new ObjectMetadata();
+            if (sseEnabled && sseType == PrestoS3SseType.S3) {
+                metadata.setSSEAlgorithm(ObjectMetadata.AES_256_SERVER_SIDE_ENCRYPTION);
+            }
+            return metadata;
+        }
+
+        private SSEAwsKeyManagementParams createKmsParams()
+        {
+            if (sseKmsKeyId != null) {
+                return new SSEAwsKeyManagementParams(sseKmsKeyId);
+            }
+            return new SSEAwsKeyManagementParams();
+        }
+
+        private void releaseBuffers()
+        {
+            if (buffer != null) {
+                uploadPool.returnBuffer(buffer);
+                buffer = null;
+            }
+            deleteStagingFile();
+        }
+
+        private void deleteStagingFile()
+        {
+            if (stagingOutput != null) {
+                try {
+                    stagingOutput.close();
+                }
+                catch (IOException e) {
+                    log.warn(e, "Failed to close temporary file: %s", stagingFile);
+                }
+                stagingOutput = null;
+            }
+            if (stagingFile != null) {
+                if (!stagingFile.delete()) {
+                    log.warn("Could not delete temporary file: %s", stagingFile);
+                }
+                stagingFile = null;
+            }
+        }
+
+        private IOException failUpload(Exception e)
+        {
+            failed = true;
+            STATS.uploadFailed();
+
+            for (PartUpload part : pendingParts) {
+                part.cancel();
+            }
+            pendingParts.clear();
+            releaseBuffers();
+            uploadId.ifPresent(id -> {
+                try {
+                    s3.abortMultipartUpload(new AbortMultipartUploadRequest(host, key, id));
+                }
+                catch (RuntimeException abortException) {
+                    log.warn(abortException, "Failed to abort multipart upload %s for host: %s, key: %s", id, host, key);
+                }
+            });
+
+            if (e instanceof IOException) {
+                return (IOException) e;
+            }
+            return new IOException(e);
+        }
+    }
+
     @VisibleForTesting
     AmazonS3 getS3Client()
     {
@@ -31,6 +31,10 @@ public class PrestoS3FileSystemStats
     private final CounterStat startedUploads = new CounterStat();
     private final CounterStat failedUploads = new CounterStat();
     private final CounterStat successfulUploads = new CounterStat();
+    private final CounterStat uploadedBytes = new CounterStat();
+    private final CounterStat uploadedParts = new CounterStat();
+    private final TimeStat uploadTime = new TimeStat(MILLISECONDS);
+    private final TimeStat partUploadTime = new TimeStat(MILLISECONDS);
     private final CounterStat metadataCalls = new CounterStat();
     private final CounterStat listStatusCalls = new CounterStat();
     private final CounterStat listLocatedStatusCalls = new CounterStat();
@@ -81,6 +85,34 @@ public class PrestoS3FileSystemStats
         return successfulUploads;
     }
 
+    @Managed
+    @Nested
+    public CounterStat getUploadedBytes()
+    {
+        return uploadedBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getUploadedParts()
+    {
+        return uploadedParts;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getUploadTime()
+    {
+        return uploadTime;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getPartUploadTime()
+    {
+        return partUploadTime;
+    }
+
     @Managed
     @Nested
     public CounterStat getMetadataCalls()
@@ -239,6 +271,22 @@ public class PrestoS3FileSystemStats
         successfulUploads.update(1);
     }
 
+    public void newUploadedBytes(long bytes)
+    {
+        uploadedBytes.update(bytes);
+    }
+
+    public void addUploadTime(Duration duration)
+    {
+        uploadTime.add(duration);
+    }
+
+    public void newUploadedPart(Duration duration)
+    {
+        uploadedParts.update(1);
+        partUploadTime.add(duration);
+    }
+
     public void newMetadataCall()
     {
         metadataCalls.update(1);
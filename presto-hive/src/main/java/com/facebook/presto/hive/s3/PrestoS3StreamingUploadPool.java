@@ -0,0 +1,273 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.s3;
+
+import com.amazonaws.services.s3.model.PartETag;
+import com.google.common.annotations.VisibleForTesting;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * Part buffers and upload threads shared by the streaming uploads of all file systems with the
+ * same part size and in-flight limit. All the buffers holding part data count against the
+ * {@code maxInFlightParts} parts worth of memory: the parts that streams are filling, the parts
+ * being uploaded in the background and the free buffers kept for reuse. A stream that can not
+ * grow its buffer within the limit stages the rest of its part on local disk, so the memory of
+ * streaming uploads is bounded however many files are written at once. A part is uploaded in the
+ * background only while fewer than {@code maxInFlightParts} parts are being uploaded.
+ */
+final class PrestoS3StreamingUploadPool
+{
+    private static final ConcurrentMap<PoolKey, PrestoS3StreamingUploadPool> POOLS = new ConcurrentHashMap<>();
+
+    private final int partSize;
+    private final int maxInFlightParts;
+    private final long maxBufferedBytes;
+    private final ExecutorService uploadExecutor;
+
+    @GuardedBy("this")
+    private final Deque<byte[]> freeBuffers = new ArrayDeque<>();
+    @GuardedBy("this")
+    private int inFlightParts;
+    @GuardedBy("this")
+    private long bufferedBytes;
+
+    public static PrestoS3StreamingUploadPool getUploadPool(int partSize, long maxInFlightSize)
+    {
+        checkArgument(partSize > 0, "partSize must be positive");
+        int maxInFlightParts = toIntExact(max(1, maxInFlightSize / partSize));
+        return POOLS.computeIfAbsent(new PoolKey(partSize, maxInFlightParts), key -> new PrestoS3StreamingUploadPool(key.getPartSize(), key.getMaxInFlightParts()));
+    }
+
+    @VisibleForTesting
+    PrestoS3StreamingUploadPool(int partSize, int maxInFlightParts)
+    {
+        checkArgument(partSize > 0, "partSize must be positive");
+        checkArgument(maxInFlightParts > 0, "maxInFlightParts must be positive");
+        this.partSize = partSize;
+        this.maxInFlightParts = maxInFlightParts;
+        this.maxBufferedBytes = (long) partSize * maxInFlightParts;
+        // a part is only submitted after reserving one of the maxInFlightParts slots, so no upload waits in the queue
+        this.uploadExecutor = newFixedThreadPool(maxInFlightParts, daemonThreadsNamed("s3-streaming-upload-%s"));
+    }
+
+    public int getPartSize()
+    {
+        return partSize;
+    }
+
+    /**
+     * Reserves a slot for a background part upload. Returns false if {@code maxInFlightParts}
+     * parts are already being uploaded, in which case the caller uploads the part itself.
+     */
+    public synchronized boolean tryReserve()
+    {
+        if (inFlightParts >= maxInFlightParts) {
+            return false;
+        }
+        inFlightParts++;
+        return true;
+    }
+
+    /**
+     * Reserves memory for growing a buffer that a stream is filling. Free buffers are dropped to
+     * make room if needed. Returns false if the buffers of all streams would exceed the limit.
+     */
+    public synchronized boolean tryReserveMemory(long bytes)
+    {
+        while (bufferedBytes + bytes > maxBufferedBytes && !freeBuffers.isEmpty()) {
+            freeBuffers.removeFirst();
+            bufferedBytes -= partSize;
+        }
+        if (bufferedBytes + bytes > maxBufferedBytes) {
+            return false;
+        }
+        bufferedBytes += bytes;
+        return true;
+    }
+
+    /**
+     * Returns a buffer of the part size, or null if the limit does not allow another one.
+     */
+    public synchronized byte[] tryTakeBuffer()
+    {
+        if (!freeBuffers.isEmpty()) {
+            return freeBuffers.removeFirst();
+        }
+        if (!tryReserveMemory(partSize)) {
+            return null;
+        }
+        return new byte[partSize];
+    }
+
+    /**
+     * Returns a buffer that is no longer used by a stream. Its memory is released unless the
+     * buffer is kept for reuse.
+     */
+    public synchronized void returnBuffer(byte[] buffer)
+    {
+        if (buffer.length == partSize && freeBuffers.size() + inFlightParts < maxInFlightParts) {
+            freeBuffers.addLast(buffer);
+            return;
+        }
+        bufferedBytes -= buffer.length;
+    }
+
+    /**
+     * Uploads the part held by the buffer in the background. The slot must have been
+     * reserved with {@link #tryReserve()}, and is released with the buffer once the upload
+     * finishes or is cancelled.
+     */
+    public PartUpload submit(byte[] buffer, Callable<PartETag> upload)
+    {
+        requireNonNull(buffer, "buffer is null");
+        requireNonNull(upload, "upload is null");
+        synchronized (this) {
+            checkState(inFlightParts > 0, "upload slot not reserved");
+        }
+
+        AtomicBoolean started = new AtomicBoolean();
+        Future<PartETag> future = uploadExecutor.submit(() -> {
+            if (!started.compareAndSet(false, true)) {
+                // cancelled before it started, the slot is already released
+                return null;
+            }
+            try {
+                return upload.call();
+            }
+            finally {
+                release(buffer);
+            }
+        });
+        return new PartUpload(future, () -> {
+            // a running upload still reads the buffer, it releases the slot when it finishes
+            if (started.compareAndSet(false, true)) {
+                release(buffer);
+            }
+        });
+    }
+
+    @VisibleForTesting
+    synchronized int getInFlightParts()
+    {
+        return inFlightParts;
+    }
+
+    @VisibleForTesting
+    synchronized int getFreeBufferCount()
+    {
+        return freeBuffers.size();
+    }
+
+    @VisibleForTesting
+    synchronized long getBufferedBytes()
+    {
+        return bufferedBytes;
+    }
+
+    private synchronized void release(byte[] buffer)
+    {
+        inFlightParts--;
+        returnBuffer(buffer);
+    }
+
+    public static class PartUpload
+    {
+        private final Future<PartETag> future;
+        private final Runnable releaseIfNotStarted;
+
+        private PartUpload(Future<PartETag> future, Runnable releaseIfNotStarted)
+        {
+            this.future = requireNonNull(future, "future is null");
+            this.releaseIfNotStarted = requireNonNull(releaseIfNotStarted, "releaseIfNotStarted is null");
+        }
+
+        public boolean isDone()
+        {
+            return future.isDone();
+        }
+
+        public PartETag get()
+                throws InterruptedException, ExecutionException
+        {
+            return future.get();
+        }
+
+        public void cancel()
+        {
+            releaseIfNotStarted.run();
+            future.cancel(true);
+        }
+    }
+
+    private static class PoolKey
+    {
+        private final int partSize;
+        private final int maxInFlightParts;
+
+        public PoolKey(int partSize, int maxInFlightParts)
+        {
+            this.partSize = partSize;
+            this.maxInFlightParts = maxInFlightParts;
+        }
+
+        public int getPartSize()
+        {
+            return partSize;
+        }
+
+        public int getMaxInFlightParts()
+        {
+            return maxInFlightParts;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PoolKey other = (PoolKey) o;
+            return partSize == other.partSize && maxInFlightParts == other.maxInFlightParts;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(partSize, maxInFlightParts);
+        }
+    }
+}
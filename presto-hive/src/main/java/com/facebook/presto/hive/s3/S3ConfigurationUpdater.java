@@ -48,6 +48,10 @@ public interface S3ConfigurationUpdater
     String S3_ACL_TYPE = "presto.s3.upload-acl-type";
     String S3_SKIP_GLACIER_OBJECTS = "presto.s3.skip-glacier-objects";
     String S3_STORAGE_CLASS = "presto.s3.storage-class";
+    String S3_STREAMING_UPLOAD_ENABLED = "presto.s3.streaming.enabled";
+    String S3_STREAMING_UPLOAD_PART_SIZE = "presto.s3.streaming.part-size";
+    String S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS = "presto.s3.streaming.max-concurrent-part-uploads";
+    String S3_STREAMING_UPLOAD_MAX_IN_FLIGHT_SIZE = "presto.s3.streaming.max-in-flight-size";
 
     void updateConfiguration(Configuration config);
 }
@@ -0,0 +1,169 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.util;
+
+import com.google.common.collect.AbstractIterator;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Drains a slow iterator (e.g. a lazy directory listing) on an executor into a
+ * bounded buffer, so that the consumer can take the elements that are already
+ * available without waiting for the rest of the source. Fetching pauses while the
+ * buffer is full and resumes once the consumer has taken half of it.
+ * <p>
+ * The consumer should check {@link #isReady()} before calling {@link #hasNext()},
+ * which blocks while the buffer is empty and the source is not exhausted yet.
+ * The progress listener is invoked whenever the iterator becomes ready.
+ */
+@ThreadSafe
+public class PrefetchingIterator<T>
+        extends AbstractIterator<T>
+{
+    private final Iterator<T> source;
+    private final Executor executor;
+    private final int bufferSize;
+    private final Runnable progressListener;
+
+    @GuardedBy("this")
+    private final Queue<T> buffer = new ArrayDeque<>();
+    @GuardedBy("this")
+    private boolean fetching;
+    @GuardedBy("this")
+    private boolean sourceFinished;
+    @GuardedBy("this")
+    private Throwable failure;
+
+    private PrefetchingIterator(Iterator<T> source, Executor executor, int bufferSize, Runnable progressListener)
+    {
+        this.source = requireNonNull(source, "source is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        checkArgument(bufferSize > 0, "bufferSize must be positive");
+        this.bufferSize = bufferSize;
+        this.progressListener = requireNonNull(progressListener, "progressListener is null");
+    }
+
+    public static <T> PrefetchingIterator<T> prefetch(Iterator<T> source, Executor executor, int bufferSize, Runnable progressListener)
+    {
+        PrefetchingIterator<T> iterator = new PrefetchingIterator<>(source, executor, bufferSize, progressListener);
+        synchronized (iterator) {
+            iterator.fetching = true;
+        }
+        executor.execute(iterator::fetch);
+        return iterator;
+    }
+
+    public synchronized boolean isReady()
+    {
+        return !buffer.isEmpty() || sourceFinished;
+    }
+
+    @Override
+    protected T computeNext()
+    {
+        boolean resume = false;
+        T next;
+        synchronized (this) {
+            while (buffer.isEmpty() && !sourceFinished) {
+                try {
+                    wait();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+
+            next = buffer.poll();
+            if (next == null) {
+                if (failure != null) {
+                    throwIfUnchecked(failure);
+                    throw new RuntimeException(failure);
+                }
+                return endOfData();
+            }
+
+            if (!fetching && !sourceFinished && buffer.size() <= bufferSize / 2) {
+                fetching = true;
+                resume = true;
+            }
+        }
+
+        // schedule outside of the lock, the executor may run the fetch in the calling thread
+        if (resume) {
+            executor.execute(this::fetch);
+        }
+        return next;
+    }
+
+    private void fetch()
+    {
+        while (true) {
+            T next;
+            try {
+                if (!source.hasNext()) {
+                    finish(null);
+                    return;
+                }
+                next = source.next();
+            }
+            catch (Throwable t) {
+                finish(t);
+                return;
+            }
+
+            boolean becameReady;
+            boolean paused;
+            synchronized (this) {
+                becameReady = buffer.isEmpty();
+                buffer.add(next);
+                if (becameReady) {
+                    notifyAll();
+                }
+                paused = buffer.size() >= bufferSize;
+                if (paused) {
+                    fetching = false;
+                }
+            }
+
+            if (becameReady) {
+                progressListener.run();
+            }
+            if (paused) {
+                return;
+            }
+        }
+    }
+
+    private void finish(Throwable throwable)
+    {
+        synchronized (this) {
+            sourceFinished = true;
+            fetching = false;
+            failure = throwable;
+            notifyAll();
+        }
+        progressListener.run();
+    }
+}
@@ -228,6 +228,7 @@ public abstract class AbstractTestHiveFileSystem
                 config.getMinPartitionBatchSize(),
                 config.getMaxPartitionBatchSize(),
                 config.getSplitLoaderConcurrency(),
+                config.getSplitLoaderMaxConcurrentListings(),
                 config.getRecursiveDirWalkerEnabled(),
                 new ConfigBasedCacheQuotaRequirementProvider(cacheConfig),
                 new HiveEncryptionInformationProvider(ImmutableSet.of()));
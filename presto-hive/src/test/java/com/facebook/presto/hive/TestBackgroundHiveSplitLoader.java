@@ -204,6 +204,20 @@ public class TestBackgroundHiveSplitLoader
         assertEquals(splits.get(0).getLength(), 0);
     }
 
+    @Test
+    public void testConcurrentListings()
+            throws Exception
+    {
+        for (int maxConcurrentListings : new int[] {1, 3, 100}) {
+            BackgroundHiveSplitLoader backgroundHiveSplitLoader = backgroundHiveSplitLoaderWithConcurrentListings(10, maxConcurrentListings);
+
+            HiveSplitSource hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader);
+            backgroundHiveSplitLoader.start(hiveSplitSource);
+
+            assertEquals(drain(hiveSplitSource).size(), 20);
+        }
+    }
+
     @Test
     public void testNoHangIfPartitionIsOffline()
     {
@@ -519,6 +533,42 @@ public class TestBackgroundHiveSplitLoader
                 false);
     }
 
+    private static BackgroundHiveSplitLoader backgroundHiveSplitLoaderWithConcurrentListings(int partitionCount, int maxConcurrentListings)
+    {
+        ConnectorSession connectorSession = new TestingConnectorSession(
+                new HiveSessionProperties(
+                        new HiveClientConfig().setMaxSplitSize(new DataSize(1.0, GIGABYTE)),
+                        new OrcFileWriterConfig(),
+                        new ParquetFileWriterConfig(),
+                        new CacheConfig()).getSessionProperties());
+
+        ImmutableList.Builder<HivePartitionMetadata> hivePartitionMetadatas = ImmutableList.builder();
+        for (int i = 0; i < partitionCount; i++) {
+            hivePartitionMetadatas.add(new HivePartitionMetadata(
+                    new HivePartition(new SchemaTableName("testSchema", "table_name")),
+                    Optional.empty(),
+                    TableToPartitionMapping.empty(),
+                    Optional.empty(),
+                    ImmutableSet.of()));
+        }
+
+        return new BackgroundHiveSplitLoader(
+                SIMPLE_TABLE,
+                hivePartitionMetadatas.build(),
+                Optional.empty(),
+                createBucketSplitInfo(Optional.empty(), Optional.empty()),
+                connectorSession,
+                new TestingHdfsEnvironment(TEST_FILES),
+                new NamenodeStats(),
+                new CachingDirectoryLister(new HadoopDirectoryLister(), new HiveClientConfig()),
+                EXECUTOR,
+                2,
+                maxConcurrentListings,
+                false,
+                false,
+                false);
+    }
+
     private static BackgroundHiveSplitLoader backgroundHiveSplitLoaderOfflinePartitions()
     {
         ConnectorSession connectorSession = new TestingConnectorSession(
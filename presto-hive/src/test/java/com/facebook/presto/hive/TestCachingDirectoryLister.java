@@ -0,0 +1,232 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.filesystem.ExtendedFileSystem;
+import com.facebook.presto.hive.metastore.Column;
+import com.facebook.presto.hive.metastore.StorageFormat;
+import com.facebook.presto.hive.metastore.Table;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.Duration;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.HadoopExtendedFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.facebook.presto.hive.HiveType.HIVE_STRING;
+import static com.facebook.presto.hive.NestedDirectoryPolicy.IGNORED;
+import static com.facebook.presto.hive.metastore.PrestoTableType.MANAGED_TABLE;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestCachingDirectoryLister
+{
+    private static final Table TABLE = table();
+    private static final HiveDirectoryContext CACHEABLE_CONTEXT = new HiveDirectoryContext(IGNORED, true);
+
+    private File tempDir;
+
+    @BeforeClass
+    public void setUp()
+    {
+        tempDir = createTempDir();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        deleteRecursively(tempDir.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testPersistentListing()
+            throws Exception
+    {
+        File partition = new File(tempDir, "partition");
+        assertTrue(partition.mkdir());
+        Files.write(new File(partition, "000000_0").toPath(), new byte[10]);
+        Files.write(new File(partition, "000000_1").toPath(), new byte[20]);
+        Path path = new Path(partition.toURI());
+        File cacheDirectory = new File(tempDir, "persistent-listing-cache");
+
+        CountingLocalFileSystem localFileSystem = new CountingLocalFileSystem(path, false);
+        ExtendedFileSystem fileSystem = new HadoopExtendedFileSystem(localFileSystem);
+        CountingDirectoryLister delegate = new CountingDirectoryLister();
+
+        CachingDirectoryLister lister = createDirectoryLister(delegate, cacheDirectory);
+        assertEquals(list(lister, fileSystem, path).size(), 2);
+        assertEquals(delegate.getListCount(), 1);
+        assertEquals(localFileSystem.getDirectoryStatusCount(), 1);
+
+        // an in-memory hit needs no file system call
+        assertEquals(list(lister, fileSystem, path).size(), 2);
+        assertEquals(delegate.getListCount(), 1);
+        assertEquals(localFileSystem.getDirectoryStatusCount(), 1);
+
+        // after a restart, the stored listing is validated with the status of the directory instead of being listed again
+        CachingDirectoryLister restarted = createDirectoryLister(delegate, cacheDirectory);
+        assertEquals(list(restarted, fileSystem, path).size(), 2);
+        assertEquals(delegate.getListCount(), 1);
+        assertEquals(localFileSystem.getDirectoryStatusCount(), 2);
+        assertEquals(restarted.getPersistentHitCount(), 1);
+
+        // a new file changes the directory, so the stored listing is dropped
+        Files.write(new File(partition, "000000_2").toPath(), new byte[30]);
+        assertTrue(partition.setLastModified(partition.lastModified() + 60_000));
+        CachingDirectoryLister modified = createDirectoryLister(delegate, cacheDirectory);
+        assertEquals(list(modified, fileSystem, path).size(), 3);
+        assertEquals(delegate.getListCount(), 2);
+        assertEquals(modified.getPersistentInvalidatedCount(), 1);
+    }
+
+    @Test
+    public void testDirectoryWithoutModificationTime()
+            throws Exception
+    {
+        File partition = new File(tempDir, "object-store-partition");
+        assertTrue(partition.mkdir());
+        Files.write(new File(partition, "000000_0").toPath(), new byte[10]);
+        Path path = new Path(partition.toURI());
+
+        CountingLocalFileSystem localFileSystem = new CountingLocalFileSystem(path, true);
+        ExtendedFileSystem fileSystem = new HadoopExtendedFileSystem(localFileSystem);
+        CountingDirectoryLister delegate = new CountingDirectoryLister();
+        CachingDirectoryLister lister = createDirectoryLister(delegate, new File(tempDir, "object-store-listing-cache"));
+
+        assertEquals(list(lister, fileSystem, path).size(), 1);
+        assertEquals(localFileSystem.getDirectoryStatusCount(), 1);
+
+        // the listing cannot be validated, so it is not stored, and the file system is not asked again
+        lister.flushCache();
+        assertEquals(list(lister, fileSystem, path).size(), 1);
+        assertEquals(delegate.getListCount(), 2);
+        assertEquals(localFileSystem.getDirectoryStatusCount(), 1);
+        assertEquals(lister.getPersistentMissCount(), 0);
+    }
+
+    private static CachingDirectoryLister createDirectoryLister(DirectoryLister delegate, File cacheDirectory)
+    {
+        Duration expireAfterWrite = new Duration(5, MINUTES);
+        return new CachingDirectoryLister(
+                delegate,
+                expireAfterWrite,
+                1000,
+                ImmutableList.of("*"),
+                Optional.of(new PersistentFileStatusCache(cacheDirectory, expireAfterWrite, 1000)));
+    }
+
+    private static List<HiveFileInfo> list(CachingDirectoryLister lister, ExtendedFileSystem fileSystem, Path path)
+    {
+        return ImmutableList.copyOf(lister.list(fileSystem, TABLE, path, new NamenodeStats(), CACHEABLE_CONTEXT));
+    }
+
+    private static Table table()
+    {
+        Table.Builder tableBuilder = Table.builder();
+        tableBuilder.getStorageBuilder()
+                .setStorageFormat(
+                        StorageFormat.create(
+                                "com.facebook.hive.orc.OrcSerde",
+                                "org.apache.hadoop.hive.ql.io.RCFileInputFormat",
+                                "org.apache.hadoop.hive.ql.io.RCFileInputFormat"))
+                .setLocation("file:///db_name/table_name")
+                .setSkewed(false);
+
+        return tableBuilder
+                .setDatabaseName("test_dbname")
+                .setOwner("testOwner")
+                .setTableName("test_table")
+                .setTableType(MANAGED_TABLE)
+                .setDataColumns(ImmutableList.of(new Column("col1", HIVE_STRING, Optional.empty(), Optional.empty())))
+                .setParameters(ImmutableMap.of())
+                .setPartitionColumns(ImmutableList.of())
+                .build();
+    }
+
+    private static class CountingDirectoryLister
+            implements DirectoryLister
+    {
+        private final DirectoryLister delegate = new HadoopDirectoryLister();
+        private final AtomicInteger listCount = new AtomicInteger();
+
+        @Override
+        public Iterator<HiveFileInfo> list(ExtendedFileSystem fileSystem, Table table, Path path, NamenodeStats namenodeStats, HiveDirectoryContext hiveDirectoryContext)
+        {
+            listCount.incrementAndGet();
+            return delegate.list(fileSystem, table, path, namenodeStats, hiveDirectoryContext);
+        }
+
+        public int getListCount()
+        {
+            return listCount.get();
+        }
+    }
+
+    private static class CountingLocalFileSystem
+            extends RawLocalFileSystem
+    {
+        private final Path directory;
+        private final boolean hideDirectoryModificationTime;
+        private final AtomicInteger directoryStatusCount = new AtomicInteger();
+
+        public CountingLocalFileSystem(Path directory, boolean hideDirectoryModificationTime)
+                throws IOException
+        {
+            this.directory = directory;
+            this.hideDirectoryModificationTime = hideDirectoryModificationTime;
+            initialize(URI.create("file:///"), new Configuration());
+        }
+
+        public int getDirectoryStatusCount()
+        {
+            return directoryStatusCount.get();
+        }
+
+        @Override
+        public FileStatus getFileStatus(Path path)
+                throws IOException
+        {
+            FileStatus status = super.getFileStatus(path);
+            // listing the directory gets the status of every file in it
+            if (!path.toUri().getPath().equals(directory.toUri().getPath())) {
+                return status;
+            }
+            directoryStatusCount.incrementAndGet();
+            if (hideDirectoryModificationTime) {
+                // like object stores, which do not track a modification time for directories
+                return new FileStatus(status.getLen(), true, 0, 0, 0, status.getPath());
+            }
+            return status;
+        }
+    }
+}
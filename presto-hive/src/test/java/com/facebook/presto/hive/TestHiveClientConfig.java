@@ -26,6 +26,7 @@ import io.airlift.units.DataSize.Unit;
 import io.airlift.units.Duration;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.time.ZoneId;
 import java.util.Map;
 import java.util.TimeZone;
@@ -58,11 +59,14 @@ public class TestHiveClientConfig
                 .setMaxInitialSplits(200)
                 .setMaxInitialSplitSize(new DataSize(32, Unit.MEGABYTE))
                 .setSplitLoaderConcurrency(4)
+                .setSplitLoaderMaxConcurrentListings(0)
                 .setDomainCompactionThreshold(100)
                 .setWriterSortBufferSize(new DataSize(64, Unit.MEGABYTE))
                 .setNodeSelectionStrategy(NodeSelectionStrategy.valueOf("NO_PREFERENCE"))
                 .setMaxConcurrentFileRenames(20)
                 .setMaxConcurrentZeroRowFileCreations(20)
+                .setMaxConcurrentRangeReads(1)
+                .setMaxRangeReadThreads(64)
                 .setRecursiveDirWalkerEnabled(false)
                 .setDfsTimeout(new Duration(60, TimeUnit.SECONDS))
                 .setIpcPingInterval(new Duration(10, TimeUnit.SECONDS))
@@ -140,6 +144,7 @@ public class TestHiveClientConfig
                 .setFileStatusCacheExpireAfterWrite(new Duration(0, TimeUnit.SECONDS))
                 .setFileStatusCacheMaxSize(0)
                 .setFileStatusCacheTables("")
+                .setFileStatusCachePersistentDirectory(null)
                 .setPageFileStripeMaxSize(new DataSize(24, Unit.MEGABYTE))
                 .setParquetBatchReaderVerificationEnabled(false)
                 .setParquetBatchReadOptimizationEnabled(false)
@@ -149,6 +154,7 @@ public class TestHiveClientConfig
                 .setMaxMetadataUpdaterThreads(100)
                 .setPartialAggregationPushdownEnabled(false)
                 .setPartialAggregationPushdownForVariableLengthDatatypesEnabled(false)
+                .setPartialAggregationPushdownExtendedEnabled(false)
                 .setFileRenamingEnabled(false)
                 .setPreferManifestsToListFiles(false)
                 .setManifestVerificationEnabled(false)
@@ -159,6 +165,7 @@ public class TestHiveClientConfig
                 .setMaterializedViewMissingPartitionsThreshold(100)
                 .setLooseMemoryAccountingEnabled(false)
                 .setReadColumnIndexFilter(false)
+                .setParquetBloomFilterEnabled(false)
                 .setSizeBasedSplitWeightsEnabled(true)
                 .setMinimumAssignedSplitWeight(0.05)
                 .setUserDefinedTypeEncodingEnabled(false)
@@ -190,6 +197,7 @@ public class TestHiveClientConfig
                 .put("hive.max-initial-splits", "10")
                 .put("hive.max-initial-split-size", "16MB")
                 .put("hive.split-loader-concurrency", "1")
+                .put("hive.split-loader-max-concurrent-listings", "16")
                 .put("hive.domain-compaction-threshold", "42")
                 .put("hive.writer-sort-buffer-size", "13MB")
                 .put("hive.recursive-directories", "true")
@@ -207,6 +215,8 @@ public class TestHiveClientConfig
                 .put("hive.node-selection-strategy", "HARD_AFFINITY")
                 .put("hive.max-concurrent-file-renames", "100")
                 .put("hive.max-concurrent-zero-row-file-creations", "100")
+                .put("hive.max-concurrent-range-reads", "4")
+                .put("hive.max-range-read-threads", "32")
                 .put("hive.assume-canonical-partition-keys", "true")
                 .put("hive.text.max-line-length", "13MB")
                 .put("hive.parquet.use-column-names", "true")
@@ -265,6 +275,7 @@ public class TestHiveClientConfig
                 .put("hive.file-status-cache-tables", "foo.bar1, foo.bar2")
                 .put("hive.file-status-cache-size", "1000")
                 .put("hive.file-status-cache-expire-time", "30m")
+                .put("hive.file-status-cache-persistent-directory", "/tmp/file-status-cache")
                 .put("hive.pagefile.writer.stripe-max-size", "1kB")
                 .put("hive.parquet-batch-read-optimization-enabled", "true")
                 .put("hive.enable-parquet-batch-reader-verification", "true")
@@ -274,6 +285,7 @@ public class TestHiveClientConfig
                 .put("hive.max-metadata-updater-threads", "1000")
                 .put("hive.partial_aggregation_pushdown_enabled", "true")
                 .put("hive.partial_aggregation_pushdown_for_variable_length_datatypes_enabled", "true")
+                .put("hive.partial_aggregation_pushdown_extended_enabled", "true")
                 .put("hive.file_renaming_enabled", "true")
                 .put("hive.prefer-manifests-to-list-files", "true")
                 .put("hive.manifest-verification-enabled", "true")
@@ -284,6 +296,7 @@ public class TestHiveClientConfig
                 .put("hive.verbose-runtime-stats-enabled", "true")
                 .put("hive.materialized-view-missing-partitions-threshold", "50")
                 .put("hive.parquet-column-index-filter-enabled", "true")
+                .put("hive.parquet-bloom-filter-enabled", "true")
                 .put("hive.size-based-split-weights-enabled", "false")
                 .put("hive.user-defined-type-encoding-enabled", "true")
                 .put("hive.minimum-assigned-split-weight", "1.0")
@@ -305,11 +318,14 @@ public class TestHiveClientConfig
                 .setMaxInitialSplits(10)
                 .setMaxInitialSplitSize(new DataSize(16, Unit.MEGABYTE))
                 .setSplitLoaderConcurrency(1)
+                .setSplitLoaderMaxConcurrentListings(16)
                 .setDomainCompactionThreshold(42)
                 .setWriterSortBufferSize(new DataSize(13, Unit.MEGABYTE))
                 .setNodeSelectionStrategy(HARD_AFFINITY)
                 .setMaxConcurrentFileRenames(100)
                 .setMaxConcurrentZeroRowFileCreations(100)
+                .setMaxConcurrentRangeReads(4)
+                .setMaxRangeReadThreads(32)
                 .setRecursiveDirWalkerEnabled(true)
                 .setIpcPingInterval(new Duration(34, TimeUnit.SECONDS))
                 .setDfsTimeout(new Duration(33, TimeUnit.SECONDS))
@@ -387,6 +403,7 @@ public class TestHiveClientConfig
                 .setFileStatusCacheTables("foo.bar1,foo.bar2")
                 .setFileStatusCacheMaxSize(1000)
                 .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES))
+                .setFileStatusCachePersistentDirectory(new File("/tmp/file-status-cache"))
                 .setPageFileStripeMaxSize(new DataSize(1, Unit.KILOBYTE))
                 .setParquetBatchReaderVerificationEnabled(true)
                 .setParquetBatchReadOptimizationEnabled(true)
@@ -396,6 +413,7 @@ public class TestHiveClientConfig
                 .setMaxMetadataUpdaterThreads(1000)
                 .setPartialAggregationPushdownEnabled(true)
                 .setPartialAggregationPushdownForVariableLengthDatatypesEnabled(true)
+                .setPartialAggregationPushdownExtendedEnabled(true)
                 .setFileRenamingEnabled(true)
                 .setPreferManifestsToListFiles(true)
                 .setManifestVerificationEnabled(true)
@@ -406,6 +424,7 @@ public class TestHiveClientConfig
                 .setMaterializedViewMissingPartitionsThreshold(50)
                 .setLooseMemoryAccountingEnabled(true)
                 .setReadColumnIndexFilter(true)
+                .setParquetBloomFilterEnabled(true)
                 .setSizeBasedSplitWeightsEnabled(false)
                 .setMinimumAssignedSplitWeight(1.0)
                 .setUserDefinedTypeEncodingEnabled(true)
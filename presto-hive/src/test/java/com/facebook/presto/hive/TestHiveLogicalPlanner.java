@@ -101,6 +101,7 @@ import static com.facebook.presto.hive.HiveQueryRunner.HIVE_CATALOG;
 import static com.facebook.presto.hive.HiveSessionProperties.COLLECT_COLUMN_STATISTICS_ON_WRITE;
 import static com.facebook.presto.hive.HiveSessionProperties.PARQUET_DEREFERENCE_PUSHDOWN_ENABLED;
 import static com.facebook.presto.hive.HiveSessionProperties.PARTIAL_AGGREGATION_PUSHDOWN_ENABLED;
+import static com.facebook.presto.hive.HiveSessionProperties.PARTIAL_AGGREGATION_PUSHDOWN_EXTENDED_ENABLED;
 import static com.facebook.presto.hive.HiveSessionProperties.PARTIAL_AGGREGATION_PUSHDOWN_FOR_VARIABLE_LENGTH_DATATYPES_ENABLED;
 import static com.facebook.presto.hive.HiveSessionProperties.PUSHDOWN_FILTER_ENABLED;
 import static com.facebook.presto.hive.HiveSessionProperties.RANGE_FILTERS_ON_SUBSCRIPTS_ENABLED;
@@ -1814,6 +1815,55 @@ public class TestHiveLogicalPlanner
         }
     }
 
+    @Test
+    public void testExtendedPartialAggregatePushdown()
+    {
+        QueryRunner queryRunner = getQueryRunner();
+        try {
+            queryRunner.execute("CREATE TABLE orders_partitioned_orc WITH (partitioned_by = ARRAY['ds'], format='ORC') AS " +
+                    "SELECT orderkey, orderpriority, '2019-11-01' as ds FROM orders WHERE orderkey < 1000 " +
+                    "UNION ALL " +
+                    "SELECT orderkey, orderpriority, '2019-11-02' as ds FROM orders WHERE orderkey < 1000");
+
+            Session session = partialAggregatePushdownExtendedEnabled();
+
+            // grouping on partition keys
+            String query = "SELECT ds, count(*), max(orderkey), sum(orderkey) FROM orders_partitioned_orc WHERE ds > '2019-10-01' GROUP BY ds";
+            assertPlan(session, query, anyTree(PlanMatchPattern.tableScan("orders_partitioned_orc")), plan -> assertAggregatedColumns(plan, "orders_partitioned_orc"));
+            assertQuery(session, query, "SELECT '2019-11-01', count(*), max(orderkey), sum(orderkey) FROM orders WHERE orderkey < 1000 " +
+                    "UNION ALL SELECT '2019-11-02', count(*), max(orderkey), sum(orderkey) FROM orders WHERE orderkey < 1000");
+
+            // range predicates decided by the statistics, or evaluated on the sections they cannot decide
+            query = "SELECT ds, count(*), min(orderkey), sum(orderkey) FROM orders_partitioned_orc WHERE orderkey < 1000 GROUP BY ds";
+            assertPlan(session, query, anyTree(PlanMatchPattern.tableScan("orders_partitioned_orc")), plan -> assertAggregatedColumns(plan, "orders_partitioned_orc"));
+            assertQuery(session, query, "SELECT '2019-11-01', count(*), min(orderkey), sum(orderkey) FROM orders WHERE orderkey < 1000 " +
+                    "UNION ALL SELECT '2019-11-02', count(*), min(orderkey), sum(orderkey) FROM orders WHERE orderkey < 1000");
+
+            query = "SELECT count(*), count(orderpriority), max(orderkey) FROM orders_partitioned_orc WHERE orderkey BETWEEN 100 AND 500";
+            assertPlan(session, query, anyTree(PlanMatchPattern.tableScan("orders_partitioned_orc")), plan -> assertAggregatedColumns(plan, "orders_partitioned_orc"));
+            assertQuery(session, query, "SELECT 2 * count(*), 2 * count(orderpriority), max(orderkey) FROM orders WHERE orderkey BETWEEN 100 AND 500");
+
+            assertQueryReturnsEmptyResult(session, "SELECT ds, count(*) FROM orders_partitioned_orc WHERE orderkey > 10000 GROUP BY ds");
+
+            // Negative tests
+            assertPlan(session,
+                    "SELECT orderpriority, count(*) FROM orders_partitioned_orc GROUP BY orderpriority",
+                    anyTree(PlanMatchPattern.tableScan("orders_partitioned_orc")),
+                    plan -> assertNoAggregatedColumns(plan, "orders_partitioned_orc"));
+            assertPlan(session,
+                    "SELECT count(*) FROM orders_partitioned_orc WHERE orderkey % 2 = 0",
+                    anyTree(PlanMatchPattern.tableScan("orders_partitioned_orc")),
+                    plan -> assertNoAggregatedColumns(plan, "orders_partitioned_orc"));
+            assertPlan(partialAggregatePushdownEnabled(),
+                    "SELECT ds, count(*) FROM orders_partitioned_orc GROUP BY ds",
+                    anyTree(PlanMatchPattern.tableScan("orders_partitioned_orc")),
+                    plan -> assertNoAggregatedColumns(plan, "orders_partitioned_orc"));
+        }
+        finally {
+            queryRunner.execute("DROP TABLE IF EXISTS orders_partitioned_orc");
+        }
+    }
+
     private static Set<Subfield> toSubfields(String... subfieldPaths)
     {
         return Arrays.stream(subfieldPaths)
@@ -1913,6 +1963,15 @@ public class TestHiveLogicalPlanner
                 .build();
     }
 
+    private Session partialAggregatePushdownExtendedEnabled()
+    {
+        return Session.builder(getQueryRunner().getDefaultSession())
+                .setCatalogSessionProperty(HIVE_CATALOG, PARTIAL_AGGREGATION_PUSHDOWN_ENABLED, "true")
+                .setCatalogSessionProperty(HIVE_CATALOG, PARTIAL_AGGREGATION_PUSHDOWN_EXTENDED_ENABLED, "true")
+                .setCatalogSessionProperty(HIVE_CATALOG, PUSHDOWN_FILTER_ENABLED, "true")
+                .build();
+    }
+
     private RowExpression constant(long value)
     {
         return new ConstantExpression(value, BIGINT);
@@ -1980,6 +2039,17 @@ public class TestHiveLogicalPlanner
         }
     }
 
+    private void assertAggregatedColumns(Plan plan, String tableName)
+    {
+        TableScanNode tableScan = searchFrom(plan.getRoot())
+                .where(node -> isTableScanNode(node, tableName))
+                .findOnlyElement();
+
+        assertTrue(tableScan.getAssignments().values().stream()
+                .map(HiveColumnHandle.class::cast)
+                .anyMatch(hiveColumnHandle -> hiveColumnHandle.getColumnType() == HiveColumnHandle.ColumnType.AGGREGATED));
+    }
+
     private void assertRequestedColumnsInLayout(Plan plan, String tableName, Set<String> expectedRequestedColumns)
     {
         TableScanNode tableScan = searchFrom(plan.getRoot())
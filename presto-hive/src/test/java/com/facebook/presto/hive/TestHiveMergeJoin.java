@@ -0,0 +1,267 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.hive.metastore.ExtendedHiveMetastore;
+import com.facebook.presto.hive.metastore.Partition;
+import com.facebook.presto.hive.metastore.PartitionStatistics;
+import com.facebook.presto.hive.metastore.PartitionWithStatistics;
+import com.facebook.presto.hive.metastore.Table;
+import com.facebook.presto.spi.plan.PlanNode;
+import com.facebook.presto.sql.planner.assertions.PlanMatchPattern;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.MergeJoinNode;
+import com.facebook.presto.testing.MaterializedResult;
+import com.facebook.presto.testing.QueryRunner;
+import com.facebook.presto.tests.AbstractTestQueryFramework;
+import com.facebook.presto.tests.DistributedQueryRunner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.hadoop.fs.Path;
+import org.intellij.lang.annotations.Language;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+
+import static com.facebook.presto.SystemSessionProperties.GROUPED_EXECUTION;
+import static com.facebook.presto.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static com.facebook.presto.SystemSessionProperties.JOIN_REORDERING_STRATEGY;
+import static com.facebook.presto.SystemSessionProperties.PREFER_MERGE_JOIN;
+import static com.facebook.presto.hive.HiveQueryRunner.HIVE_CATALOG;
+import static com.facebook.presto.hive.HiveQueryRunner.METASTORE_CONTEXT;
+import static com.facebook.presto.hive.HiveSessionProperties.STREAMING_AGGREGATION_ENABLED;
+import static com.facebook.presto.hive.TestHiveLogicalPlanner.replicateHiveMetastore;
+import static com.facebook.presto.hive.metastore.MetastoreUtil.toPartitionValues;
+import static com.facebook.presto.sql.analyzer.FeaturesConfig.JoinDistributionType.PARTITIONED;
+import static com.facebook.presto.sql.analyzer.FeaturesConfig.JoinReorderingStrategy.NONE;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.anyTree;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.node;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.tableScan;
+import static com.facebook.presto.tests.QueryAssertions.assertEqualsIgnoreOrder;
+import static io.airlift.tpch.TpchTable.CUSTOMER;
+import static io.airlift.tpch.TpchTable.ORDERS;
+import static org.testng.Assert.assertTrue;
+
+public class TestHiveMergeJoin
+        extends AbstractTestQueryFramework
+{
+    private static final String PARTITION_NAME = "ds=2021-07-11";
+
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        return HiveQueryRunner.createQueryRunner(
+                ImmutableList.of(ORDERS, CUSTOMER),
+                ImmutableMap.of(),
+                Optional.empty());
+    }
+
+    @Test
+    public void testMergeJoinPlan()
+    {
+        QueryRunner queryRunner = getQueryRunner();
+
+        try {
+            createSortedTable("test_merge_join_orders", "SELECT orderkey, custkey FROM orders");
+            createSortedTable("test_merge_join_customer", "SELECT custkey, name FROM customer");
+            queryRunner.execute("CREATE TABLE test_merge_join_orders_unsorted WITH ( \n" +
+                    "  bucket_count = 4, bucketed_by = ARRAY['custkey'] ) AS \n" +
+                    "SELECT orderkey, custkey FROM orders");
+
+            @Language("SQL") String sortedJoin = "SELECT o.orderkey, c.name FROM test_merge_join_orders o \n" +
+                    "JOIN test_merge_join_customer c ON o.custkey = c.custkey";
+            assertPlan(mergeJoinEnabled(), sortedJoin, joinPlan(MergeJoinNode.class, "test_merge_join_orders", "test_merge_join_customer"));
+
+            // merge join is off by default
+            assertPlan(hashJoin(), sortedJoin, joinPlan(JoinNode.class, "test_merge_join_orders", "test_merge_join_customer"));
+
+            // without streaming aggregation a bucket may be read by several splits, so the table layout does not promise a single sorted stream
+            Session noStreaming = Session.builder(mergeJoinEnabled())
+                    .setCatalogSessionProperty(HIVE_CATALOG, STREAMING_AGGREGATION_ENABLED, "false")
+                    .build();
+            assertPlan(noStreaming, sortedJoin, joinPlan(JoinNode.class, "test_merge_join_orders", "test_merge_join_customer"));
+
+            // both sides have to be sorted on the join keys
+            assertPlan(
+                    mergeJoinEnabled(),
+                    "SELECT o.orderkey, c.name FROM test_merge_join_orders_unsorted o \n" +
+                            "JOIN test_merge_join_customer c ON o.custkey = c.custkey",
+                    joinPlan(JoinNode.class, "test_merge_join_orders_unsorted", "test_merge_join_customer"));
+        }
+        finally {
+            queryRunner.execute("DROP TABLE IF EXISTS test_merge_join_orders");
+            queryRunner.execute("DROP TABLE IF EXISTS test_merge_join_customer");
+            queryRunner.execute("DROP TABLE IF EXISTS test_merge_join_orders_unsorted");
+        }
+    }
+
+    @Test
+    public void testMergeJoinMatchesHashJoin()
+    {
+        QueryRunner queryRunner = getQueryRunner();
+
+        try {
+            createSortedTable("test_merge_join_results_orders", "SELECT orderkey, custkey, totalprice FROM orders");
+            createSortedTable("test_merge_join_results_customer", "SELECT custkey, name FROM customer");
+
+            // unique keys on the right side
+            assertSameResults(
+                    "SELECT o.orderkey, o.totalprice, c.name FROM test_merge_join_results_orders o \n" +
+                            "JOIN test_merge_join_results_customer c ON o.custkey = c.custkey",
+                    "test_merge_join_results_customer");
+
+            // groups of equal keys on both sides
+            assertSameResults(
+                    "SELECT a.custkey, count(*), sum(b.orderkey) FROM test_merge_join_results_orders a \n" +
+                            "JOIN test_merge_join_results_orders b ON a.custkey = b.custkey \n" +
+                            "GROUP BY a.custkey",
+                    "test_merge_join_results_orders");
+        }
+        finally {
+            queryRunner.execute("DROP TABLE IF EXISTS test_merge_join_results_orders");
+            queryRunner.execute("DROP TABLE IF EXISTS test_merge_join_results_customer");
+        }
+    }
+
+    @Test
+    public void testPartitionWithDifferentBucketCount()
+            throws Exception
+    {
+        QueryRunner queryRunner = getQueryRunner();
+
+        try {
+            createSortedTable("test_merge_join_customer_single_split", "SELECT custkey, name FROM customer");
+            queryRunner.execute("CREATE TABLE test_merge_join_orders_8_buckets WITH ( \n" +
+                    "  bucket_count = 8, bucketed_by = ARRAY['custkey'], \n" +
+                    "  sorted_by = ARRAY['custkey'], partitioned_by = ARRAY['ds'] ) AS \n" +
+                    "SELECT orderkey, custkey, CAST('2021-07-11' AS VARCHAR) AS ds FROM orders");
+            queryRunner.execute("CREATE TABLE test_merge_join_orders_4_buckets (orderkey BIGINT, custkey BIGINT, ds VARCHAR) WITH ( \n" +
+                    "  bucket_count = 4, bucketed_by = ARRAY['custkey'], \n" +
+                    "  sorted_by = ARRAY['custkey'], partitioned_by = ARRAY['ds'] )");
+            // the partition keeps its 8 buckets, so each bucket of the table would be read from two files
+            copyPartition("test_merge_join_orders_8_buckets", "test_merge_join_orders_4_buckets");
+
+            // the planner falls back to the hash join
+            @Language("SQL") String query = "SELECT o.orderkey, c.name FROM test_merge_join_orders_4_buckets o \n" +
+                    "JOIN test_merge_join_customer_single_split c ON o.custkey = c.custkey \n" +
+                    "WHERE o.ds = '2021-07-11'";
+            assertPlan(mergeJoinEnabled(), query, joinPlan(JoinNode.class, "test_merge_join_orders_4_buckets", "test_merge_join_customer_single_split"));
+            assertQuery(mergeJoinEnabled(), query, "SELECT o.orderkey, c.name FROM orders o JOIN customer c ON o.custkey = c.custkey");
+        }
+        finally {
+            queryRunner.execute("DROP TABLE IF EXISTS test_merge_join_customer_single_split");
+            queryRunner.execute("DROP TABLE IF EXISTS test_merge_join_orders_8_buckets");
+            queryRunner.execute("DROP TABLE IF EXISTS test_merge_join_orders_4_buckets");
+        }
+    }
+
+    @Test
+    public void testMultipleFilesPerBucket()
+            throws Exception
+    {
+        QueryRunner queryRunner = getQueryRunner();
+
+        try {
+            createSortedTable("test_merge_join_appended_orders", "SELECT orderkey, custkey FROM orders");
+            createSortedTable("test_merge_join_appended_customer", "SELECT custkey, name FROM customer");
+
+            // an append adds a second file to one of the buckets
+            String path = (String) computeActual("SELECT \"$path\" FROM test_merge_join_appended_orders LIMIT 1").getOnlyValue();
+            File file = new File(new Path(path).toUri().getPath());
+            Files.copy(file.toPath(), new File(file.getParentFile(), file.getName() + "_copy_1").toPath());
+
+            @Language("SQL") String query = "SELECT o.orderkey, c.name FROM test_merge_join_appended_orders o \n" +
+                    "JOIN test_merge_join_appended_customer c ON o.custkey = c.custkey";
+            assertPlan(mergeJoinEnabled(), query, joinPlan(JoinNode.class, "test_merge_join_appended_orders", "test_merge_join_appended_customer"));
+            assertEqualsIgnoreOrder(
+                    computeActual(mergeJoinEnabled(), query).getMaterializedRows(),
+                    computeActual(hashJoin(), query).getMaterializedRows());
+        }
+        finally {
+            queryRunner.execute("DROP TABLE IF EXISTS test_merge_join_appended_orders");
+            queryRunner.execute("DROP TABLE IF EXISTS test_merge_join_appended_customer");
+        }
+    }
+
+    private void createSortedTable(String tableName, @Language("SQL") String query)
+    {
+        getQueryRunner().execute("CREATE TABLE " + tableName + " WITH ( \n" +
+                "  bucket_count = 4, bucketed_by = ARRAY['custkey'], \n" +
+                "  sorted_by = ARRAY['custkey'] ) AS \n" +
+                query);
+    }
+
+    private void assertSameResults(@Language("SQL") String query, String rightTable)
+    {
+        assertPlan(mergeJoinEnabled(), query, joinPlan(MergeJoinNode.class, "test_merge_join_results_orders", rightTable));
+        MaterializedResult expected = computeActual(hashJoin(), query);
+        MaterializedResult actual = computeActual(mergeJoinEnabled(), query);
+        assertTrue(expected.getRowCount() > 0);
+        assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+    }
+
+    /**
+     * Copies the only partition of {@code sourceTable}, including its files and bucketing, into {@code targetTable}.
+     */
+    private void copyPartition(String sourceTable, String targetTable)
+            throws IOException
+    {
+        ExtendedHiveMetastore metastore = replicateHiveMetastore((DistributedQueryRunner) getQueryRunner());
+        String schema = getSession().getSchema().get();
+        Partition sourcePartition = metastore.getPartition(METASTORE_CONTEXT, schema, sourceTable, toPartitionValues(PARTITION_NAME)).get();
+        Table table = metastore.getTable(METASTORE_CONTEXT, schema, targetTable).get();
+        Path location = new Path(table.getStorage().getLocation(), PARTITION_NAME);
+
+        File sourceDirectory = new File(new Path(sourcePartition.getStorage().getLocation()).toUri());
+        File targetDirectory = new File(location.toUri());
+        assertTrue(targetDirectory.mkdirs());
+        // skip the metastore and checksum files
+        for (File file : sourceDirectory.listFiles(file -> !file.getName().startsWith("."))) {
+            Files.copy(file.toPath(), new File(targetDirectory, file.getName()).toPath());
+        }
+
+        Partition partition = Partition.builder(sourcePartition)
+                .setTableName(targetTable)
+                .withStorage(storage -> storage.setLocation(location.toString()))
+                .build();
+        metastore.addPartitions(METASTORE_CONTEXT, schema, targetTable, ImmutableList.of(new PartitionWithStatistics(partition, PARTITION_NAME, PartitionStatistics.empty())));
+    }
+
+    private Session mergeJoinEnabled()
+    {
+        return Session.builder(hashJoin())
+                .setSystemProperty(PREFER_MERGE_JOIN, "true")
+                .build();
+    }
+
+    private Session hashJoin()
+    {
+        return Session.builder(getSession())
+                .setSystemProperty(GROUPED_EXECUTION, "true")
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, PARTITIONED.name())
+                .setSystemProperty(JOIN_REORDERING_STRATEGY, NONE.name())
+                .setCatalogSessionProperty(HIVE_CATALOG, STREAMING_AGGREGATION_ENABLED, "true")
+                .build();
+    }
+
+    private static PlanMatchPattern joinPlan(Class<? extends PlanNode> joinClass, String leftTable, String rightTable)
+    {
+        return anyTree(node(joinClass, anyTree(tableScan(leftTable)), anyTree(tableScan(rightTable))));
+    }
+}
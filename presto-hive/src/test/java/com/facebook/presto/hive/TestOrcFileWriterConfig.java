@@ -60,7 +60,9 @@ public class TestOrcFileWriterConfig
                 .setDwrfStripeCacheEnabled(false)
                 .setDwrfStripeCacheMaxSize(new DataSize(8, MEGABYTE))
                 .setDwrfStripeCacheMode(INDEX_AND_FOOTER)
-                .setCompressionLevel(Integer.MIN_VALUE));
+                .setCompressionLevel(Integer.MIN_VALUE)
+                .setColumnEncodingParallelism(1)
+                .setColumnEncodingThreads(32));
     }
 
     @Test
@@ -79,6 +81,8 @@ public class TestOrcFileWriterConfig
                 .put("hive.orc.writer.dwrf-stripe-cache-max-size", "10MB")
                 .put("hive.orc.writer.dwrf-stripe-cache-mode", "FOOTER")
                 .put("hive.orc.writer.compression-level", "5")
+                .put("hive.orc.writer.column-encoding-parallelism", "4")
+                .put("hive.orc.writer.column-encoding-threads", "16")
                 .build();
 
         OrcFileWriterConfig expected = new OrcFileWriterConfig()
@@ -93,7 +97,9 @@ public class TestOrcFileWriterConfig
                 .setDwrfStripeCacheEnabled(true)
                 .setDwrfStripeCacheMaxSize(new DataSize(10, MEGABYTE))
                 .setDwrfStripeCacheMode(FOOTER)
-                .setCompressionLevel(5);
+                .setCompressionLevel(5)
+                .setColumnEncodingParallelism(4)
+                .setColumnEncodingThreads(16);
 
         assertFullMapping(properties, expected);
     }
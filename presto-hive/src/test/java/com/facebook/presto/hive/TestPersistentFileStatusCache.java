@@ -0,0 +1,171 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.Duration;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.hive.HiveFileInfo.createHiveFileInfo;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestPersistentFileStatusCache
+{
+    private static final Path DIRECTORY = new Path("hdfs://VOL1:9000/db_name/table_name/ds=2020-01-01");
+
+    private File tempDir;
+
+    @BeforeClass
+    public void setUp()
+    {
+        tempDir = createTempDir();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        deleteRecursively(tempDir.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testRoundTrip()
+            throws Exception
+    {
+        File directory = new File(tempDir, "round-trip");
+        List<HiveFileInfo> files = ImmutableList.of(
+                hiveFileInfo("000000_0", 10, new BlockLocation[] {new BlockLocation(new String[] {"host1:50010"}, new String[] {"host1"}, 0, 10)}, Optional.empty()),
+                hiveFileInfo("000000_1", 20, new BlockLocation[0], Optional.of("extra".getBytes(UTF_8))));
+
+        PersistentFileStatusCache cache = new PersistentFileStatusCache(directory, new Duration(5, MINUTES), 1000);
+        assertFalse(cache.get(DIRECTORY, 1000, 0).isPresent());
+        cache.put(DIRECTORY, 1000, 0, files);
+
+        // the listing survives a restart
+        PersistentFileStatusCache restarted = new PersistentFileStatusCache(directory, new Duration(5, MINUTES), 1000);
+        Optional<List<HiveFileInfo>> cached = restarted.get(DIRECTORY, 1000, 0);
+        assertTrue(cached.isPresent());
+        assertEquals(restarted.getHitCount(), 1);
+        assertEquals(cached.get().size(), files.size());
+        for (int i = 0; i < files.size(); i++) {
+            HiveFileInfo expected = files.get(i);
+            HiveFileInfo actual = cached.get().get(i);
+            assertEquals(actual.getPath(), expected.getPath());
+            assertEquals(actual.isDirectory(), expected.isDirectory());
+            assertEquals(actual.getLength(), expected.getLength());
+            assertEquals(actual.getFileModifiedTime(), expected.getFileModifiedTime());
+            assertEquals(actual.getExtraFileInfo().map(bytes -> new String(bytes, UTF_8)), expected.getExtraFileInfo().map(bytes -> new String(bytes, UTF_8)));
+            assertEquals(actual.getBlockLocations().length, expected.getBlockLocations().length);
+            for (int block = 0; block < expected.getBlockLocations().length; block++) {
+                BlockLocation expectedBlock = expected.getBlockLocations()[block];
+                BlockLocation actualBlock = actual.getBlockLocations()[block];
+                assertEquals(actualBlock.getNames(), expectedBlock.getNames());
+                assertEquals(actualBlock.getHosts(), expectedBlock.getHosts());
+                assertEquals(actualBlock.getOffset(), expectedBlock.getOffset());
+                assertEquals(actualBlock.getLength(), expectedBlock.getLength());
+            }
+        }
+    }
+
+    @Test
+    public void testModifiedDirectoryIsInvalidated()
+    {
+        PersistentFileStatusCache cache = new PersistentFileStatusCache(new File(tempDir, "modified"), new Duration(5, MINUTES), 1000);
+        cache.put(DIRECTORY, 1000, 0, ImmutableList.of(hiveFileInfo("000000_0", 10, new BlockLocation[0], Optional.empty())));
+
+        assertFalse(cache.get(DIRECTORY, 2000, 0).isPresent());
+        assertEquals(cache.getInvalidatedCount(), 1);
+        // the stale listing is dropped
+        assertFalse(cache.get(DIRECTORY, 1000, 0).isPresent());
+        assertEquals(cache.getMissCount(), 2);
+
+        // a directory with the same modification time but a different length was changed too
+        cache.put(DIRECTORY, 1000, 0, ImmutableList.of(hiveFileInfo("000000_0", 10, new BlockLocation[0], Optional.empty())));
+        assertFalse(cache.get(DIRECTORY, 1000, 4096).isPresent());
+        assertEquals(cache.getInvalidatedCount(), 2);
+    }
+
+    @Test
+    public void testExpiredListingIsInvalidated()
+            throws Exception
+    {
+        File directory = new File(tempDir, "expired");
+        PersistentFileStatusCache cache = new PersistentFileStatusCache(directory, new Duration(1, MILLISECONDS), 1000);
+        cache.put(DIRECTORY, 1000, 0, ImmutableList.of());
+        Thread.sleep(10);
+
+        assertFalse(cache.get(DIRECTORY, 1000, 0).isPresent());
+        assertEquals(cache.getInvalidatedCount(), 1);
+    }
+
+    @Test
+    public void testOldestListingsAreEvicted()
+            throws Exception
+    {
+        PersistentFileStatusCache cache = new PersistentFileStatusCache(new File(tempDir, "evicted"), new Duration(5, MINUTES), 4);
+        List<Path> directories = ImmutableList.of(new Path(DIRECTORY, "a"), new Path(DIRECTORY, "b"), new Path(DIRECTORY, "c"));
+        List<HiveFileInfo> files = ImmutableList.of(
+                hiveFileInfo("000000_0", 10, new BlockLocation[0], Optional.empty()),
+                hiveFileInfo("000000_1", 10, new BlockLocation[0], Optional.empty()));
+        for (Path directory : directories) {
+            cache.put(directory, 1000, 0, files);
+            // the listings are evicted in the order they were written
+            Thread.sleep(10);
+        }
+
+        // the third listing goes over the size, so the oldest ones are removed until it fits
+        assertFalse(cache.get(directories.get(0), 1000, 0).isPresent());
+        assertFalse(cache.get(directories.get(1), 1000, 0).isPresent());
+        assertTrue(cache.get(directories.get(2), 1000, 0).isPresent());
+
+        // a listing larger than the cache is not stored
+        cache.put(DIRECTORY, 1000, 0, ImmutableList.<HiveFileInfo>builder().addAll(files).addAll(files).addAll(files).build());
+        assertFalse(cache.get(DIRECTORY, 1000, 0).isPresent());
+    }
+
+    @Test
+    public void testInvalidateAll()
+    {
+        PersistentFileStatusCache cache = new PersistentFileStatusCache(new File(tempDir, "invalidate-all"), new Duration(5, MINUTES), 1000);
+        cache.put(DIRECTORY, 1000, 0, ImmutableList.of());
+        assertTrue(cache.get(DIRECTORY, 1000, 0).isPresent());
+
+        cache.invalidateAll();
+        assertFalse(cache.get(DIRECTORY, 1000, 0).isPresent());
+    }
+
+    private static HiveFileInfo hiveFileInfo(String name, long length, BlockLocation[] blockLocations, Optional<byte[]> extraFileInfo)
+    {
+        return createHiveFileInfo(
+                new LocatedFileStatus(length, false, 0, 0, 123, 0, null, null, null, null, new Path(DIRECTORY, name), blockLocations),
+                extraFileInfo);
+    }
+}
@@ -22,8 +22,11 @@ import com.facebook.presto.testing.QueryRunner;
 import com.facebook.presto.tests.AbstractTestQueryFramework;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import org.apache.hadoop.fs.Path;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.Optional;
 
 import static com.facebook.presto.hive.HiveQueryRunner.HIVE_CATALOG;
@@ -302,7 +305,40 @@ public class TestStreamingAggregationPlan
         }
     }
 
-    //todo: add streaming aggregation support when grouping keys are prefix Of sorted keys
+    @Test
+    public void testGroupbyKeysPrefixOfSortedKeys()
+    {
+        QueryRunner queryRunner = getQueryRunner();
+
+        try {
+            queryRunner.execute("CREATE TABLE test_customer10 WITH ( \n" +
+                    "  bucket_count = 4, bucketed_by = ARRAY['custkey'], \n" +
+                    "  sorted_by = ARRAY['custkey', 'name'], partitioned_by=array['ds'], \n" +
+                    "  format = 'DWRF' ) AS \n" +
+                    "SELECT *, '2021-07-11' as ds FROM customer LIMIT 1000\n");
+
+            // can enable streaming aggregation, the grouping keys are a prefix of the sorted keys and contain the bucket keys
+            assertPlan(
+                    streamingAggregationEnabled(),
+                    "SELECT custkey, COUNT(*) FROM test_customer10 \n" +
+                            "WHERE ds = '2021-07-11' GROUP BY 1",
+                    node(
+                            OutputNode.class,
+                            node(
+                                    ExchangeNode.class,
+                                    aggregation(
+                                            singleGroupingSet("custkey"),
+                                            ImmutableMap.of(Optional.empty(), functionCall("count", ImmutableList.of())),
+                                            ImmutableList.of("custkey"), // streaming
+                                            ImmutableMap.of(),
+                                            Optional.empty(),
+                                            SINGLE,
+                                            tableScan("test_customer10", ImmutableMap.of("custkey", "custkey"))))));
+        }
+        finally {
+            queryRunner.execute("DROP TABLE IF EXISTS test_customer10");
+        }
+    }
 
     // Partition keys
     @Test
@@ -326,13 +362,68 @@ public class TestStreamingAggregationPlan
                             "WHERE ds = '2021-07-11' or ds = '2021-07-12' GROUP BY 1",
                     aggregationPlanWithNoStreaming("test_customer9", false, "custkey"));
 
-            //todo: add streaming aggregation support when grouping keys contain all of the partition keys
+            // can enable streaming aggregation when the grouping keys contain all of the partition keys, they are constant within a split
+            assertPlan(
+                    streamingAggregationEnabled(),
+                    "SELECT ds, custkey, COUNT(*) FROM test_customer9 \n" +
+                            "WHERE ds = '2021-07-11' or ds = '2021-07-12' GROUP BY 1, 2",
+                    node(
+                            OutputNode.class,
+                            node(
+                                    ExchangeNode.class,
+                                    aggregation(
+                                            singleGroupingSet("ds", "custkey"),
+                                            ImmutableMap.of(Optional.empty(), functionCall("count", ImmutableList.of())),
+                                            ImmutableList.of("ds", "custkey"), // streaming
+                                            ImmutableMap.of(),
+                                            Optional.empty(),
+                                            SINGLE,
+                                            tableScan("test_customer9", ImmutableMap.of("ds", "ds", "custkey", "custkey"))))));
         }
         finally {
             queryRunner.execute("DROP TABLE IF EXISTS test_customer9");
         }
     }
 
+    @Test
+    public void testMultipleFilesPerBucket()
+            throws Exception
+    {
+        QueryRunner queryRunner = getQueryRunner();
+
+        try {
+            queryRunner.execute("CREATE TABLE test_customer10 WITH ( \n" +
+                    "  bucket_count = 4, bucketed_by = ARRAY['custkey'], \n" +
+                    "  sorted_by = ARRAY['custkey'], partitioned_by=array['ds'], \n" +
+                    "  format = 'DWRF' ) AS \n" +
+                    "SELECT *, '2021-07-11' as ds FROM customer LIMIT 1000\n");
+
+            // an append to the partition adds a second file to one of its buckets
+            String path = (String) computeActual("SELECT \"$path\" FROM test_customer10 LIMIT 1").getOnlyValue();
+            long appendedRows = (long) computeActual("SELECT COUNT(*) FROM test_customer10 WHERE \"$path\" = '" + path + "'").getOnlyValue();
+            File file = new File(new Path(path).toUri().getPath());
+            Files.copy(file.toPath(), new File(file.getParentFile(), file.getName() + "_copy_1").toPath());
+
+            // rows with the same custkey can be in two splits, so the aggregation can't be streamed
+            assertPlan(
+                    streamingAggregationEnabled(),
+                    "SELECT custkey, COUNT(*) FROM test_customer10 \n" +
+                            "WHERE ds = '2021-07-11' GROUP BY 1",
+                    aggregationPlanWithNoStreaming("test_customer10", false, "custkey"));
+
+            // the table can still be read, and every appended row is counted in the group of its key
+            assertQuery(streamingAggregationEnabled(), "SELECT COUNT(*) FROM test_customer10", "SELECT " + (1000 + appendedRows));
+            assertQuery(
+                    streamingAggregationEnabled(),
+                    "SELECT COUNT(*) FROM (SELECT custkey, COUNT(*) AS row_count FROM test_customer10 \n" +
+                            "WHERE ds = '2021-07-11' GROUP BY 1) WHERE row_count = 2",
+                    "SELECT " + appendedRows);
+        }
+        finally {
+            queryRunner.execute("DROP TABLE IF EXISTS test_customer10");
+        }
+    }
+
     private Session streamingAggregationEnabled()
     {
         return Session.builder(getQueryRunner().getDefaultSession())
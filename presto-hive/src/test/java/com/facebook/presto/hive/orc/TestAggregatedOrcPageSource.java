@@ -0,0 +1,304 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.orc;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.RuntimeStats;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.io.OutputStreamDataSink;
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
+import com.facebook.presto.common.predicate.ValueSet;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.hive.HiveColumnHandle;
+import com.facebook.presto.hive.HiveOrcAggregatedMemoryContext;
+import com.facebook.presto.orc.DefaultOrcWriterFlushPolicy;
+import com.facebook.presto.orc.DiskRange;
+import com.facebook.presto.orc.DwrfKeyProvider;
+import com.facebook.presto.orc.FileOrcDataSource;
+import com.facebook.presto.orc.OrcDataSource;
+import com.facebook.presto.orc.OrcDataSourceInput;
+import com.facebook.presto.orc.OrcReader;
+import com.facebook.presto.orc.OrcReaderOptions;
+import com.facebook.presto.orc.OrcWriter;
+import com.facebook.presto.orc.OrcWriterOptions;
+import com.facebook.presto.orc.OrcWriterStats;
+import com.facebook.presto.orc.StorageStripeMetadataSource;
+import com.facebook.presto.orc.StreamId;
+import com.facebook.presto.orc.StripeMetadataSource;
+import com.facebook.presto.orc.StripeReader.StripeId;
+import com.facebook.presto.orc.cache.StorageOrcFileTailSource;
+import com.facebook.presto.orc.metadata.MetadataReader;
+import com.facebook.presto.orc.metadata.PostScript.HiveWriterVersion;
+import com.facebook.presto.orc.metadata.RowGroupIndex;
+import com.facebook.presto.orc.metadata.statistics.HiveBloomFilter;
+import com.facebook.presto.orc.stream.OrcInputStream;
+import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.function.FunctionHandle;
+import com.facebook.presto.spi.plan.AggregationNode.Aggregation;
+import com.facebook.presto.spi.relation.CallExpression;
+import com.facebook.presto.spi.relation.RowExpression;
+import com.facebook.presto.spi.relation.VariableReferenceExpression;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
+import io.airlift.units.DataSize;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.AGGREGATED;
+import static com.facebook.presto.hive.HiveTestUtils.FUNCTION_AND_TYPE_MANAGER;
+import static com.facebook.presto.hive.HiveTestUtils.FUNCTION_RESOLUTION;
+import static com.facebook.presto.hive.HiveType.HIVE_LONG;
+import static com.facebook.presto.orc.DwrfEncryptionProvider.NO_ENCRYPTION;
+import static com.facebook.presto.orc.NoopOrcAggregatedMemoryContext.NOOP_ORC_AGGREGATED_MEMORY_CONTEXT;
+import static com.facebook.presto.orc.OrcEncoding.ORC;
+import static com.facebook.presto.orc.OrcWriteValidation.OrcWriteValidationMode.BOTH;
+import static com.facebook.presto.orc.metadata.CompressionKind.NONE;
+import static com.facebook.presto.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.nio.file.Files.createTempDirectory;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestAggregatedOrcPageSource
+{
+    private static final int ROWS_PER_PAGE = 10_000;
+    private static final int STRIPE_ROWS = 30_000;
+    private static final int STRIPE_COUNT = 2;
+    private static final DataSize ONE_MEGABYTE = new DataSize(1, MEGABYTE);
+
+    private File tempDirectory;
+    private File file;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        tempDirectory = createTempDirectory("test-aggregated-orc-page-source").toFile();
+        file = new File(tempDirectory, "data.orc");
+
+        // two stripes of three row groups each, holding the values 0 to 59999 in order
+        OrcWriter writer = new OrcWriter(
+                new OutputStreamDataSink(new FileOutputStream(file)),
+                ImmutableList.of("c"),
+                ImmutableList.of(BIGINT),
+                ORC,
+                NONE,
+                Optional.empty(),
+                NO_ENCRYPTION,
+                OrcWriterOptions.builder()
+                        .withFlushPolicy(DefaultOrcWriterFlushPolicy.builder().withStripeMaxRowCount(STRIPE_ROWS).build())
+                        .withRowGroupMaxRowCount(ROWS_PER_PAGE)
+                        .build(),
+                ImmutableMap.of(),
+                UTC,
+                false,
+                BOTH,
+                new OrcWriterStats());
+        for (int page = 0; page < STRIPE_ROWS * STRIPE_COUNT / ROWS_PER_PAGE; page++) {
+            BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, ROWS_PER_PAGE);
+            for (int i = 0; i < ROWS_PER_PAGE; i++) {
+                BIGINT.writeLong(blockBuilder, (long) page * ROWS_PER_PAGE + i);
+            }
+            writer.write(new Page(blockBuilder.build()));
+        }
+        writer.close();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        file.delete();
+        tempDirectory.delete();
+    }
+
+    @Test
+    public void testAggregation()
+            throws Exception
+    {
+        // the first stripe has a row group without matches, one with some matches and one with all rows matching,
+        // the second stripe is answered from its statistics
+        OrcReader reader = createReader(new StorageStripeMetadataSource());
+        assertEquals(reader.getFooter().getStripes().size(), STRIPE_COUNT);
+
+        ConnectorPageSource pageSource = createPageSource(reader, Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, 15_000L)), false));
+        assertResult(pageSource, 45_000, 15_000, 59_999);
+        // the first row group of the first stripe is skipped
+        assertEquals(pageSource.getCompletedPositions(), 50_000);
+    }
+
+    @Test
+    public void testInvalidCheckpoints()
+            throws Exception
+    {
+        // the reader reads the stripes with invalid checkpoints as a single row group, including the row groups it did not select
+        OrcReader reader = createReader(new InvalidCheckpointsStripeMetadataSource());
+
+        ConnectorPageSource pageSource = createPageSource(reader, Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, 15_000L)), false));
+        assertResult(pageSource, 45_000, 15_000, 59_999);
+        // the whole first stripe is read
+        assertEquals(pageSource.getCompletedPositions(), 60_000);
+    }
+
+    @Test
+    public void testNoMatchingRows()
+            throws Exception
+    {
+        OrcReader reader = createReader(new StorageStripeMetadataSource());
+        ConnectorPageSource pageSource = createPageSource(reader, Domain.create(ValueSet.ofRanges(Range.greaterThan(BIGINT, 100_000L)), false));
+        assertNull(readPage(pageSource));
+        assertTrue(pageSource.isFinished());
+    }
+
+    private static void assertResult(ConnectorPageSource pageSource, long count, long min, long max)
+            throws IOException
+    {
+        Page page = readPage(pageSource);
+        assertEquals(page.getPositionCount(), 1);
+        assertEquals(BIGINT.getLong(page.getBlock(0), 0), count);
+        assertEquals(BIGINT.getLong(page.getBlock(1), 0), count);
+        assertEquals(BIGINT.getLong(page.getBlock(2), 0), min);
+        assertEquals(BIGINT.getLong(page.getBlock(3), 0), max);
+        assertEquals(BIGINT.getLong(page.getBlock(4), 0), (min + max) * count / 2);
+    }
+
+    private static Page readPage(ConnectorPageSource pageSource)
+            throws IOException
+    {
+        try {
+            Page result = null;
+            while (!pageSource.isFinished()) {
+                Page page = pageSource.getNextPage();
+                if (page != null) {
+                    assertNull(result);
+                    result = page;
+                }
+            }
+            return result;
+        }
+        finally {
+            pageSource.close();
+        }
+    }
+
+    private OrcReader createReader(StripeMetadataSource stripeMetadataSource)
+            throws IOException
+    {
+        OrcDataSource dataSource = new FileOrcDataSource(file, ONE_MEGABYTE, ONE_MEGABYTE, ONE_MEGABYTE, true);
+        return new OrcReader(
+                dataSource,
+                ORC,
+                new StorageOrcFileTailSource(),
+                stripeMetadataSource,
+                NOOP_ORC_AGGREGATED_MEMORY_CONTEXT,
+                OrcReaderOptions.builder()
+                        .withMaxMergeDistance(ONE_MEGABYTE)
+                        .withTinyStripeThreshold(ONE_MEGABYTE)
+                        .withMaxBlockSize(ONE_MEGABYTE)
+                        .build(),
+                false,
+                NO_ENCRYPTION,
+                DwrfKeyProvider.EMPTY,
+                new RuntimeStats());
+    }
+
+    private static ConnectorPageSource createPageSource(OrcReader reader, Domain domain)
+    {
+        VariableReferenceExpression column = new VariableReferenceExpression(Optional.empty(), "c", BIGINT);
+        List<HiveColumnHandle> columnHandles = ImmutableList.of(
+                aggregatedColumn("count", ImmutableList.of(), -20),
+                aggregatedColumn("count", ImmutableList.of(column), 0),
+                aggregatedColumn("min", ImmutableList.of(column), 0),
+                aggregatedColumn("max", ImmutableList.of(column), 0),
+                aggregatedColumn("sum", ImmutableList.of(column), 0));
+        return new AggregatedOrcPageSource(
+                columnHandles,
+                ImmutableMap.of(),
+                ImmutableMap.of(0, domain),
+                reader,
+                UTC,
+                new HiveOrcAggregatedMemoryContext(),
+                FUNCTION_AND_TYPE_MANAGER,
+                FUNCTION_RESOLUTION);
+    }
+
+    private static HiveColumnHandle aggregatedColumn(String name, List<RowExpression> arguments, int columnIndex)
+    {
+        FunctionHandle functionHandle = FUNCTION_AND_TYPE_MANAGER.lookupFunction(name, fromTypes(arguments.stream().map(RowExpression::getType).collect(toImmutableList())));
+        Type returnType = FUNCTION_AND_TYPE_MANAGER.getType(FUNCTION_AND_TYPE_MANAGER.getFunctionMetadata(functionHandle).getReturnType());
+        CallExpression call = new CallExpression(name, functionHandle, returnType, arguments);
+        return new HiveColumnHandle(
+                name,
+                HIVE_LONG,
+                returnType.getTypeSignature(),
+                columnIndex,
+                AGGREGATED,
+                Optional.empty(),
+                Optional.of(new Aggregation(call, Optional.empty(), Optional.empty(), false, Optional.empty())));
+    }
+
+    /**
+     * Appends a position to every checkpoint, which the reader detects as an invalid checkpoint.
+     */
+    private static class InvalidCheckpointsStripeMetadataSource
+            implements StripeMetadataSource
+    {
+        private final StripeMetadataSource delegate = new StorageStripeMetadataSource();
+
+        @Override
+        public Slice getStripeFooterSlice(OrcDataSource orcDataSource, StripeId stripeId, long footerOffset, int footerLength, boolean cacheable)
+                throws IOException
+        {
+            return delegate.getStripeFooterSlice(orcDataSource, stripeId, footerOffset, footerLength, cacheable);
+        }
+
+        @Override
+        public Map<StreamId, OrcDataSourceInput> getInputs(OrcDataSource orcDataSource, StripeId stripeId, Map<StreamId, DiskRange> diskRanges, boolean cacheable)
+                throws IOException
+        {
+            return delegate.getInputs(orcDataSource, stripeId, diskRanges, cacheable);
+        }
+
+        @Override
+        public List<RowGroupIndex> getRowIndexes(
+                MetadataReader metadataReader,
+                HiveWriterVersion hiveWriterVersion,
+                StripeId stripeId,
+                StreamId streamId,
+                OrcInputStream inputStream,
+                List<HiveBloomFilter> bloomFilters,
+                RuntimeStats runtimeStats)
+                throws IOException
+        {
+            return delegate.getRowIndexes(metadataReader, hiveWriterVersion, stripeId, streamId, inputStream, bloomFilters, runtimeStats).stream()
+                    .map(rowGroupIndex -> new RowGroupIndex(
+                            ImmutableList.<Integer>builder().addAll(rowGroupIndex.getPositions()).add(1).build(),
+                            rowGroupIndex.getColumnStatistics()))
+                    .collect(toImmutableList());
+        }
+    }
+}
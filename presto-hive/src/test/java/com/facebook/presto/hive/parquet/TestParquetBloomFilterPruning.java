@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.parquet.ParquetTester.TempFile;
+import com.facebook.presto.parquet.ParquetCorruptionException;
+import com.facebook.presto.parquet.ParquetDataSource;
+import com.facebook.presto.parquet.RichColumnDescriptor;
+import com.facebook.presto.parquet.cache.MetadataReader;
+import com.facebook.presto.parquet.predicate.Predicate;
+import com.facebook.presto.parquet.writer.ParquetWriter;
+import com.facebook.presto.parquet.writer.ParquetWriterOptions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.hive.parquet.HdfsParquetDataSource.buildHdfsParquetDataSource;
+import static com.facebook.presto.parquet.ParquetTypeUtils.getDescriptors;
+import static com.facebook.presto.parquet.cache.MetadataReader.readFooter;
+import static com.facebook.presto.parquet.predicate.PredicateUtils.buildPredicate;
+import static com.facebook.presto.parquet.predicate.PredicateUtils.predicateMatches;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.GZIP;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestParquetBloomFilterPruning
+{
+    private static final String COLUMN_NAME = "value";
+    private static final int ROW_COUNT = 1_000;
+
+    @Test
+    public void testPruneRowGroupWithBloomFilter()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile("bloom-filter", "parquet")) {
+            writeEvenValues(tempFile.getFile());
+
+            Path path = new Path(tempFile.getFile().toURI());
+            FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+            try (ParquetDataSource dataSource = buildHdfsParquetDataSource(fileSystem.open(path), path, new FileFormatDataSourceStats())) {
+                ParquetMetadata parquetMetadata = readFooter(dataSource, tempFile.getFile().length()).getParquetMetadata();
+                MessageType fileSchema = parquetMetadata.getFileMetaData().getSchema();
+                Map<List<String>, RichColumnDescriptor> descriptorsByPath = getDescriptors(fileSchema, fileSchema);
+                BlockMetaData block = getOnlyElement(parquetMetadata.getBlocks());
+                assertTrue(getOnlyElement(block.getColumns()).getBloomFilterOffset() >= 0);
+
+                // odd values are within the min/max statistics of the row group, so only the bloom filter can prune them
+                assertFalse(rowGroupMatches(dataSource, fileSchema, descriptorsByPath, block, 501, true));
+                assertTrue(rowGroupMatches(dataSource, fileSchema, descriptorsByPath, block, 501, false));
+
+                // bloom filters have no false negatives
+                for (long value = 0; value < ROW_COUNT * 2; value += 2) {
+                    assertTrue(rowGroupMatches(dataSource, fileSchema, descriptorsByPath, block, value, true));
+                }
+            }
+        }
+    }
+
+    private static void writeEvenValues(File file)
+            throws Exception
+    {
+        ParquetWriter writer = new ParquetWriter(
+                new FileOutputStream(file),
+                ImmutableList.of(COLUMN_NAME),
+                ImmutableList.of(BIGINT),
+                ParquetWriterOptions.builder()
+                        .setBloomFilterColumns(ImmutableSet.of(COLUMN_NAME))
+                        .setBloomFilterFpp(0.0001)
+                        .build(),
+                GZIP.getHadoopCompressionCodecClassName());
+
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            BIGINT.writeLong(blockBuilder, i * 2L);
+        }
+        writer.write(new Page(blockBuilder.build()));
+        writer.close();
+    }
+
+    private static boolean rowGroupMatches(
+            ParquetDataSource dataSource,
+            MessageType fileSchema,
+            Map<List<String>, RichColumnDescriptor> descriptorsByPath,
+            BlockMetaData block,
+            long value,
+            boolean bloomFilterEnabled)
+            throws ParquetCorruptionException
+    {
+        ColumnDescriptor column = descriptorsByPath.get(ImmutableList.of(COLUMN_NAME));
+        TupleDomain<ColumnDescriptor> parquetTupleDomain = TupleDomain.withColumnDomains(ImmutableMap.of(column, Domain.singleValue(BIGINT, value)));
+        Predicate parquetPredicate = buildPredicate(fileSchema, parquetTupleDomain, descriptorsByPath);
+        return predicateMatches(
+                parquetPredicate,
+                block,
+                dataSource,
+                descriptorsByPath,
+                parquetTupleDomain,
+                Optional.empty(),
+                false,
+                bloomFilterEnabled ? Optional.of(new MetadataReader()) : Optional.empty(),
+                false);
+    }
+}
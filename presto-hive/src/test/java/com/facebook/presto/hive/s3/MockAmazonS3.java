@@ -14,21 +14,39 @@
 package com.facebook.presto.hive.s3;
 
 import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.StorageClass;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.google.common.io.ByteStreams;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.net.HttpURLConnection.HTTP_OK;
 
 public class MockAmazonS3
@@ -36,6 +54,7 @@ public class MockAmazonS3
 {
     private static final String STANDARD_OBJECT_KEY = "test/standard";
     private static final String GLACIER_OBJECT_KEY = "test/glacier";
+    private static final String MULTIPART_UPLOAD_ID = "test-upload";
 
     private int getObjectHttpCode = HTTP_OK;
     private int getObjectMetadataHttpCode = HTTP_OK;
@@ -43,6 +62,11 @@ public class MockAmazonS3
     private CannedAccessControlList acl;
     private boolean hasGlacierObjects;
     private boolean hasHadoopFolderMarkerObjects;
+    private int uploadPartHttpCode = HTTP_OK;
+    private final Map<Integer, byte[]> uploadedParts = new ConcurrentHashMap<>();
+    private byte[] putObjectData;
+    private List<Integer> completedPartNumbers;
+    private boolean multipartUploadAborted;
 
     public void setGetObjectHttpErrorCode(int getObjectHttpErrorCode)
     {
@@ -69,6 +93,31 @@ public class MockAmazonS3
         this.hasHadoopFolderMarkerObjects = hasHadoopFolderMarkerObjects;
     }
 
+    public void setUploadPartHttpErrorCode(int uploadPartHttpErrorCode)
+    {
+        this.uploadPartHttpCode = uploadPartHttpErrorCode;
+    }
+
+    public Map<Integer, byte[]> getUploadedParts()
+    {
+        return uploadedParts;
+    }
+
+    public byte[] getPutObjectData()
+    {
+        return putObjectData;
+    }
+
+    public List<Integer> getCompletedPartNumbers()
+    {
+        return completedPartNumbers;
+    }
+
+    public boolean isMultipartUploadAborted()
+    {
+        return multipartUploadAborted;
+    }
+
     public GetObjectMetadataRequest getGetObjectMetadataRequest()
     {
         return getObjectMetadataRequest;
@@ -101,6 +150,12 @@ public class MockAmazonS3
     public PutObjectResult putObject(PutObjectRequest putObjectRequest)
     {
         this.acl = putObjectRequest.getCannedAcl();
+        if (putObjectRequest.getInputStream() != null) {
+            this.putObjectData = readFully(putObjectRequest.getInputStream());
+        }
+        else if (putObjectRequest.getFile() != null) {
+            this.putObjectData = readFully(putObjectRequest.getFile());
+        }
         return new PutObjectResult();
     }
 
@@ -110,6 +165,49 @@ public class MockAmazonS3
         return new PutObjectResult();
     }
 
+    @Override
+    public InitiateMultipartUploadResult initiateMultipartUpload(InitiateMultipartUploadRequest initiateMultipartUploadRequest)
+    {
+        this.acl = initiateMultipartUploadRequest.getCannedACL();
+        InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+        result.setUploadId(MULTIPART_UPLOAD_ID);
+        return result;
+    }
+
+    @Override
+    public UploadPartResult uploadPart(UploadPartRequest uploadPartRequest)
+    {
+        if (uploadPartHttpCode != HTTP_OK) {
+            AmazonS3Exception exception = new AmazonS3Exception("Failing uploadPart call with " + uploadPartHttpCode);
+            exception.setStatusCode(uploadPartHttpCode);
+            throw exception;
+        }
+        byte[] data = uploadPartRequest.getFile() != null ? readFully(uploadPartRequest.getFile()) : readFully(uploadPartRequest.getInputStream());
+        if (data.length != uploadPartRequest.getPartSize()) {
+            throw new AmazonS3Exception("Part size does not match the uploaded data");
+        }
+        uploadedParts.put(uploadPartRequest.getPartNumber(), data);
+        UploadPartResult result = new UploadPartResult();
+        result.setPartNumber(uploadPartRequest.getPartNumber());
+        result.setETag("etag-" + uploadPartRequest.getPartNumber());
+        return result;
+    }
+
+    @Override
+    public CompleteMultipartUploadResult completeMultipartUpload(CompleteMultipartUploadRequest completeMultipartUploadRequest)
+    {
+        this.completedPartNumbers = completeMultipartUploadRequest.getPartETags().stream()
+                .map(PartETag::getPartNumber)
+                .collect(toImmutableList());
+        return new CompleteMultipartUploadResult();
+    }
+
+    @Override
+    public void abortMultipartUpload(AbortMultipartUploadRequest abortMultipartUploadRequest)
+    {
+        this.multipartUploadAborted = true;
+    }
+
     @Override
     public ObjectListing listObjects(ListObjectsRequest listObjectsRequest)
     {
@@ -144,4 +242,24 @@ public class MockAmazonS3
     public void shutdown()
     {
     }
+
+    private static byte[] readFully(InputStream input)
+    {
+        try {
+            return ByteStreams.toByteArray(input);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] readFully(File file)
+    {
+        try {
+            return Files.readAllBytes(file.toPath());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -62,7 +62,11 @@ public class TestHiveS3Config
                 .setPinS3ClientToCurrentRegion(false)
                 .setS3UserAgentPrefix("")
                 .setS3AclType(PrestoS3AclType.PRIVATE)
-                .setSkipGlacierObjects(false));
+                .setSkipGlacierObjects(false)
+                .setS3StreamingUploadEnabled(false)
+                .setS3StreamingPartSize(new DataSize(16, Unit.MEGABYTE))
+                .setS3StreamingMaxConcurrentPartUploads(4)
+                .setS3StreamingMaxInFlightSize(new DataSize(256, Unit.MEGABYTE)));
     }
 
     @Test
@@ -98,6 +102,10 @@ public class TestHiveS3Config
                 .put("hive.s3.user-agent-prefix", "user-agent-prefix")
                 .put("hive.s3.upload-acl-type", "PUBLIC_READ")
                 .put("hive.s3.skip-glacier-objects", "true")
+                .put("hive.s3.streaming.enabled", "true")
+                .put("hive.s3.streaming.part-size", "32MB")
+                .put("hive.s3.streaming.max-concurrent-part-uploads", "8")
+                .put("hive.s3.streaming.max-in-flight-size", "1GB")
                 .build();
 
         HiveS3Config expected = new HiveS3Config()
@@ -129,7 +137,11 @@ public class TestHiveS3Config
                 .setPinS3ClientToCurrentRegion(true)
                 .setS3UserAgentPrefix("user-agent-prefix")
                 .setS3AclType(PrestoS3AclType.PUBLIC_READ)
-                .setSkipGlacierObjects(true);
+                .setSkipGlacierObjects(true)
+                .setS3StreamingUploadEnabled(true)
+                .setS3StreamingPartSize(new DataSize(32, Unit.MEGABYTE))
+                .setS3StreamingMaxConcurrentPartUploads(8)
+                .setS3StreamingMaxInFlightSize(new DataSize(1, Unit.GIGABYTE));
 
         assertFullMapping(properties, expected);
     }
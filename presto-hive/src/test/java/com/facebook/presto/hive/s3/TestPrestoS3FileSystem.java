@@ -39,6 +39,7 @@ import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.StorageClass;
 import com.facebook.presto.hive.s3.PrestoS3FileSystem.UnrecoverableS3OperationException;
 import com.google.common.base.VerifyException;
+import com.google.common.collect.ImmutableList;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
@@ -53,6 +54,7 @@ import org.testng.annotations.Test;
 import javax.crypto.spec.SecretKeySpec;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.URI;
@@ -66,6 +68,7 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.facebook.airlift.testing.Assertions.assertInstanceOf;
+import static com.facebook.presto.hive.s3.PrestoS3StreamingUploadPool.getUploadPool;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_ACCESS_KEY;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_ACL_TYPE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_CREDENTIALS_PROVIDER;
@@ -82,12 +85,17 @@ import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SECRET_KEY;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SIGNER_TYPE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SKIP_GLACIER_OBJECTS;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STAGING_DIRECTORY;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_ENABLED;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_MAX_IN_FLIGHT_SIZE;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_PART_SIZE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USER_AGENT_PREFIX;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USER_AGENT_SUFFIX;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USE_INSTANCE_CREDENTIALS;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.io.MoreFiles.deleteRecursively;
 import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.lang.Math.min;
 import static java.net.HttpURLConnection.HTTP_FORBIDDEN;
 import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
@@ -95,7 +103,9 @@ import static java.nio.file.Files.createTempDirectory;
 import static java.nio.file.Files.createTempFile;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public class TestPrestoS3FileSystem
 {
@@ -634,6 +644,149 @@ public class TestPrestoS3FileSystem
         }
     }
 
+    @Test
+    public void testStreamingUpload()
+            throws Exception
+    {
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            fs.initialize(new URI("s3n://test-bucket/"), createStreamingUploadConfiguration(1024, 2, 4096));
+            fs.setS3Client(s3);
+            byte[] data = createTestData(2501);
+            try (FSDataOutputStream stream = fs.create(new Path("s3n://test-bucket/test"))) {
+                stream.write(data, 0, 2500);
+                stream.write(data[2500]);
+            }
+            assertEquals(s3.getCompletedPartNumbers(), ImmutableList.of(1, 2, 3));
+            assertEquals(s3.getUploadedParts().get(1).length, 1024);
+            assertEquals(s3.getUploadedParts().get(2).length, 1024);
+            assertEquals(s3.getUploadedParts().get(3).length, 453);
+            assertEquals(getMultipartUploadData(s3), data);
+            assertEquals(s3.getAcl(), CannedAccessControlList.Private);
+            assertFalse(s3.isMultipartUploadAborted());
+        }
+    }
+
+    @Test
+    public void testStreamingUploadInFlightLimit()
+            throws Exception
+    {
+        // the in-flight limit is smaller than a part, so some parts are uploaded by the writing thread
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            fs.initialize(new URI("s3n://test-bucket/"), createStreamingUploadConfiguration(1000, 4, 100));
+            fs.setS3Client(s3);
+            byte[] data = createTestData(10_500);
+            try (FSDataOutputStream first = fs.create(new Path("s3n://test-bucket/first"));
+                    FSDataOutputStream second = fs.create(new Path("s3n://test-bucket/second"))) {
+                for (int offset = 0; offset < data.length; offset += 700) {
+                    first.write(data, offset, min(700, data.length - offset));
+                }
+                second.write(new byte[10]);
+            }
+            assertEquals(s3.getCompletedPartNumbers(), ImmutableList.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11));
+            assertEquals(getMultipartUploadData(s3), data);
+            assertEquals(s3.getPutObjectData(), new byte[10]);
+        }
+    }
+
+    @Test
+    public void testStreamingUploadMemoryLimit()
+            throws Exception
+    {
+        // the buffer of the first stream leaves no memory for the second one, which stages its parts on disk
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            fs.initialize(new URI("s3n://test-bucket/"), createStreamingUploadConfiguration(1024, 2, 1024));
+            fs.setS3Client(s3);
+            byte[] smallData = createTestData(600);
+            byte[] data = createTestData(2500);
+            try (FSDataOutputStream first = fs.create(new Path("s3n://test-bucket/first"));
+                    FSDataOutputStream second = fs.create(new Path("s3n://test-bucket/second"))) {
+                first.write(smallData);
+                second.write(data);
+            }
+            assertEquals(s3.getCompletedPartNumbers(), ImmutableList.of(1, 2, 3));
+            assertEquals(getMultipartUploadData(s3), data);
+            assertEquals(s3.getPutObjectData(), smallData);
+
+            // only free buffers of the part size remain
+            PrestoS3StreamingUploadPool pool = getUploadPool(1024, 1024);
+            assertEquals(pool.getBufferedBytes(), pool.getFreeBufferCount() * 1024L);
+        }
+    }
+
+    @Test
+    public void testStreamingUploadSinglePart()
+            throws Exception
+    {
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            fs.initialize(new URI("s3n://test-bucket/"), createStreamingUploadConfiguration(1024, 2, 4096));
+            fs.setS3Client(s3);
+            byte[] data = createTestData(100);
+            try (FSDataOutputStream stream = fs.create(new Path("s3n://test-bucket/test"))) {
+                stream.write(data);
+            }
+            // data smaller than a part is uploaded with a single put
+            assertTrue(s3.getUploadedParts().isEmpty());
+            assertEquals(s3.getPutObjectData(), data);
+            assertEquals(s3.getAcl(), CannedAccessControlList.Private);
+        }
+    }
+
+    @Test
+    public void testStreamingUploadFailure()
+            throws Exception
+    {
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            s3.setUploadPartHttpErrorCode(HTTP_INTERNAL_ERROR);
+            fs.initialize(new URI("s3n://test-bucket/"), createStreamingUploadConfiguration(1024, 2, 4096));
+            fs.setS3Client(s3);
+            FSDataOutputStream stream = fs.create(new Path("s3n://test-bucket/test"));
+            try {
+                stream.write(new byte[4096]);
+                stream.close();
+                fail("expected exception");
+            }
+            catch (IOException e) {
+                assertTrue(e.getMessage().contains("Failing uploadPart call with " + HTTP_INTERNAL_ERROR), e.getMessage());
+            }
+            assertTrue(s3.isMultipartUploadAborted());
+            assertNull(s3.getCompletedPartNumbers());
+        }
+    }
+
+    private static Configuration createStreamingUploadConfiguration(int partSize, int maxConcurrentParts, long maxInFlightSize)
+    {
+        Configuration config = new Configuration();
+        config.setBoolean(S3_STREAMING_UPLOAD_ENABLED, true);
+        config.setLong(S3_STREAMING_UPLOAD_PART_SIZE, partSize);
+        config.setInt(S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS, maxConcurrentParts);
+        config.setLong(S3_STREAMING_UPLOAD_MAX_IN_FLIGHT_SIZE, maxInFlightSize);
+        return config;
+    }
+
+    private static byte[] createTestData(int length)
+    {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31 + i / 256);
+        }
+        return data;
+    }
+
+    private static byte[] getMultipartUploadData(MockAmazonS3 s3)
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (int partNumber : s3.getCompletedPartNumbers()) {
+            byte[] part = s3.getUploadedParts().get(partNumber);
+            output.write(part, 0, part.length);
+        }
+        return output.toByteArray();
+    }
+
     @Test
     public void testSkipHadoopFolderMarkerObjectsEnabled()
             throws Exception
@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.s3;
+
+import com.amazonaws.services.s3.model.PartETag;
+import com.facebook.presto.hive.s3.PrestoS3StreamingUploadPool.PartUpload;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static com.facebook.presto.hive.s3.PrestoS3StreamingUploadPool.getUploadPool;
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestPrestoS3StreamingUploadPool
+{
+    @Test
+    public void testInFlightLimit()
+            throws Exception
+    {
+        PrestoS3StreamingUploadPool pool = new PrestoS3StreamingUploadPool(16, 2);
+        CountDownLatch finishUploads = new CountDownLatch(1);
+
+        assertTrue(pool.tryReserve());
+        PartUpload firstUpload = pool.submit(pool.tryTakeBuffer(), () -> {
+            finishUploads.await();
+            return new PartETag(1, "first");
+        });
+        assertTrue(pool.tryReserve());
+        PartUpload secondUpload = pool.submit(pool.tryTakeBuffer(), () -> {
+            finishUploads.await();
+            return new PartETag(2, "second");
+        });
+        assertFalse(pool.tryReserve());
+        assertEquals(pool.getInFlightParts(), 2);
+
+        finishUploads.countDown();
+        assertEquals(firstUpload.get().getETag(), "first");
+        assertEquals(secondUpload.get().getETag(), "second");
+        assertEquals(pool.getInFlightParts(), 0);
+        assertEquals(pool.getFreeBufferCount(), 2);
+
+        // buffers of finished uploads are reused
+        byte[] reused = pool.tryTakeBuffer();
+        assertEquals(pool.getFreeBufferCount(), 1);
+        pool.returnBuffer(reused);
+        assertEquals(pool.getFreeBufferCount(), 2);
+
+        // no more buffers than in-flight parts are kept
+        assertEquals(pool.getBufferedBytes(), 32);
+    }
+
+    @Test
+    public void testMemoryLimit()
+            throws Exception
+    {
+        PrestoS3StreamingUploadPool pool = new PrestoS3StreamingUploadPool(16, 2);
+
+        // buffers that streams are filling count against the limit
+        assertTrue(pool.tryReserveMemory(8));
+        byte[] buffer = pool.tryTakeBuffer();
+        assertNotNull(buffer);
+        assertEquals(pool.getBufferedBytes(), 24);
+        assertFalse(pool.tryReserveMemory(9));
+        assertNull(pool.tryTakeBuffer());
+
+        // buffers smaller than a part are not kept
+        pool.returnBuffer(new byte[8]);
+        assertEquals(pool.getBufferedBytes(), 16);
+        assertEquals(pool.getFreeBufferCount(), 0);
+
+        // the buffer of a finished upload is kept for reuse, and dropped when a stream needs the memory
+        assertTrue(pool.tryReserve());
+        pool.submit(buffer, () -> new PartETag(1, "etag")).get();
+        assertEquals(pool.getFreeBufferCount(), 1);
+        assertEquals(pool.getBufferedBytes(), 16);
+        assertTrue(pool.tryReserveMemory(32));
+        assertEquals(pool.getFreeBufferCount(), 0);
+        assertEquals(pool.getBufferedBytes(), 32);
+    }
+
+    @Test
+    public void testCancelReleasesSlot()
+            throws Exception
+    {
+        PrestoS3StreamingUploadPool pool = new PrestoS3StreamingUploadPool(16, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finishUpload = new CountDownLatch(1);
+
+        assertTrue(pool.tryReserve());
+        PartUpload upload = pool.submit(pool.tryTakeBuffer(), () -> {
+            started.countDown();
+            awaitUninterruptibly(finishUpload);
+            return new PartETag(1, "etag");
+        });
+        started.await();
+        // a running upload keeps its slot until it stops using the buffer
+        upload.cancel();
+        assertFalse(pool.tryReserve());
+        finishUpload.countDown();
+        while (pool.getInFlightParts() > 0) {
+            Thread.sleep(10);
+        }
+        assertTrue(pool.tryReserve());
+        assertEquals(pool.getInFlightParts(), 1);
+    }
+
+    @Test
+    public void testSharedPools()
+    {
+        assertSame(getUploadPool(1024, 4096), getUploadPool(1024, 4096));
+        assertNotSame(getUploadPool(1024, 4096), getUploadPool(1024, 8192));
+        assertNotSame(getUploadPool(1024, 4096), getUploadPool(2048, 4096));
+        assertEquals(getUploadPool(1024, 100).getPartSize(), 1024);
+    }
+}
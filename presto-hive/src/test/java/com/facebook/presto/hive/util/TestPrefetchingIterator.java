@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.util;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.facebook.presto.hive.util.PrefetchingIterator.prefetch;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TestPrefetchingIterator
+{
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUpClass()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-prefetching-iterator-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDownClass()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test(timeOut = 10_000)
+    public void testAllElementsInOrder()
+    {
+        List<Integer> expected = IntStream.range(0, 1000).boxed().collect(toImmutableList());
+        assertEquals(ImmutableList.copyOf(prefetch(expected.iterator(), executor, 7, () -> {})), expected);
+        assertEquals(ImmutableList.copyOf(prefetch(expected.iterator(), directExecutor(), 7, () -> {})), expected);
+        assertEquals(ImmutableList.copyOf(prefetch(ImmutableList.of().iterator(), executor, 7, () -> {})), ImmutableList.of());
+    }
+
+    @Test(timeOut = 10_000)
+    public void testBufferIsBounded()
+            throws Exception
+    {
+        AtomicInteger fetched = new AtomicInteger();
+        Iterator<Integer> source = IntStream.range(0, 100)
+                .peek(value -> fetched.incrementAndGet())
+                .boxed()
+                .iterator();
+        CountDownLatch progress = new CountDownLatch(1);
+        PrefetchingIterator<Integer> iterator = prefetch(source, directExecutor(), 10, progress::countDown);
+
+        // the direct executor fetches until the buffer is full
+        assertTrue(iterator.isReady());
+        assertEquals(progress.getCount(), 0);
+        assertEquals(fetched.get(), 10);
+
+        // fetching resumes once half of the buffer is consumed
+        for (int i = 0; i < 4; i++) {
+            assertEquals(iterator.next().intValue(), i);
+        }
+        assertEquals(fetched.get(), 10);
+        assertEquals(iterator.next().intValue(), 4);
+        assertEquals(fetched.get(), 15);
+    }
+
+    @Test(timeOut = 10_000)
+    public void testNotReadyWhileSourceBlocks()
+            throws Exception
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch progress = new CountDownLatch(1);
+        Iterator<String> source = new AbstractIterator<String>()
+        {
+            private boolean done;
+
+            @Override
+            protected String computeNext()
+            {
+                if (done) {
+                    return endOfData();
+                }
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+                done = true;
+                return "value";
+            }
+        };
+        PrefetchingIterator<String> iterator = prefetch(source, executor, 10, progress::countDown);
+        assertFalse(iterator.isReady());
+
+        release.countDown();
+        progress.await();
+        assertTrue(iterator.isReady());
+        assertEquals(ImmutableList.copyOf(iterator), ImmutableList.of("value"));
+    }
+
+    @Test(timeOut = 10_000)
+    public void testFailureAfterBufferedElements()
+    {
+        Iterator<String> source = new AbstractIterator<String>()
+        {
+            private int position;
+
+            @Override
+            protected String computeNext()
+            {
+                if (position++ < 2) {
+                    return "value";
+                }
+                throw new IllegalStateException("listing failed");
+            }
+        };
+        PrefetchingIterator<String> iterator = prefetch(source, executor, 10, () -> {});
+        assertEquals(iterator.next(), "value");
+        assertEquals(iterator.next(), "value");
+        try {
+            iterator.hasNext();
+            fail("expected exception");
+        }
+        catch (IllegalStateException e) {
+            assertEquals(e.getMessage(), "listing failed");
+        }
+    }
+}
@@ -221,6 +221,7 @@ public final class SystemSessionProperties
     public static final String STREAMING_FOR_PARTIAL_AGGREGATION_ENABLED = "streaming_for_partial_aggregation_enabled";
     public static final String MAX_STAGE_COUNT_FOR_EAGER_SCHEDULING = "max_stage_count_for_eager_scheduling";
     public static final String HYPERLOGLOG_STANDARD_ERROR_WARNING_THRESHOLD = "hyperloglog_standard_error_warning_threshold";
+    public static final String PREFER_MERGE_JOIN = "prefer_merge_join";
 
     //TODO: Prestissimo related session properties that are temporarily put here. They will be relocated in the future
     public static final String PRESTISSIMO_SIMPLIFIED_EXPRESSION_EVALUATION_ENABLED = "simplified_expression_evaluation_enabled";
@@ -1247,6 +1248,11 @@ public final class SystemSessionProperties
                         HYPERLOGLOG_STANDARD_ERROR_WARNING_THRESHOLD,
                         "Threshold for obtaining precise results from aggregation functions",
                         featuresConfig.getHyperloglogStandardErrorWarningThreshold(),
+                        false),
+                booleanProperty(
+                        PREFER_MERGE_JOIN,
+                        "Use a merge join instead of a hash join when both inputs are bucketed and sorted on the join keys",
+                        featuresConfig.isPreferMergeJoin(),
                         false));
     }
 
@@ -2097,4 +2103,9 @@ public final class SystemSessionProperties
     {
         return session.getSystemProperty(HYPERLOGLOG_STANDARD_ERROR_WARNING_THRESHOLD, Double.class);
     }
+
+    public static boolean preferMergeJoin(Session session)
+    {
+        return session.getSystemProperty(PREFER_MERGE_JOIN, Boolean.class);
+    }
 }
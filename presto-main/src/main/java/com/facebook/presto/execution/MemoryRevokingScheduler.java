@@ -49,6 +49,7 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static com.facebook.airlift.concurrent.Threads.threadsNamed;
+import static com.facebook.presto.SystemSessionProperties.getQueryPriority;
 import static com.facebook.presto.execution.MemoryRevokingUtils.getMemoryPools;
 import static com.facebook.presto.sql.analyzer.FeaturesConfig.TaskSpillingStrategy.PER_TASK_MEMORY_THRESHOLD;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -61,8 +62,10 @@ import static java.util.concurrent.Executors.newSingleThreadExecutor;
 public class MemoryRevokingScheduler
 {
     private static final Logger log = Logger.get(MemoryRevokingScheduler.class);
+    private static final int DEFAULT_QUERY_PRIORITY = 1;
 
     private static final Ordering<SqlTask> ORDER_BY_CREATE_TIME = Ordering.natural().onResultOf(SqlTask::getTaskCreatedTime);
+    private static final Ordering<SqlTask> ORDER_BY_QUERY_PRIORITY = Ordering.natural().onResultOf(MemoryRevokingScheduler::getTaskQueryPriority);
 
     private final Function<QueryId, QueryContext> queryContextSupplier;
     private final Supplier<List<SqlTask>> currentTasksSupplier;
@@ -338,6 +341,10 @@ public class MemoryRevokingScheduler
                 }
                 sqlTasks.sort(Ordering.natural().reverse().onResultOf(task -> task == null ? 0L : taskRevocableReservations.getOrDefault(task.getTaskId(), 0L)));
                 break;
+            case ORDER_BY_QUERY_PRIORITY:
+                // Lower priority queries give their memory back first, so that high priority queries keep running in memory
+                sqlTasks.sort(ORDER_BY_QUERY_PRIORITY.compound(ORDER_BY_CREATE_TIME));
+                break;
             case PER_TASK_MEMORY_THRESHOLD:
                 throw new IllegalArgumentException("spilling strategy cannot be PER_TASK_MEMORY_THRESHOLD in MemoryRevokingScheduler");
             default:
@@ -345,6 +352,13 @@ public class MemoryRevokingScheduler
         }
     }
 
+    private static int getTaskQueryPriority(SqlTask sqlTask)
+    {
+        return sqlTask.getTaskContext()
+                .map(taskContext -> getQueryPriority(taskContext.getSession()))
+                .orElse(DEFAULT_QUERY_PRIORITY);
+    }
+
     private static ArrayList<SqlTask> findRunningTasksInMemoryPool(Collection<SqlTask> allCurrentTasks, MemoryPool memoryPool)
     {
         ArrayList<SqlTask> sqlTasks = new ArrayList<>();
@@ -75,6 +75,15 @@ import static com.google.common.util.concurrent.Futures.transformAsync;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
+// TODO: let clients fetch spooled segments directly (segment URIs in /v1/statement responses and a StatementClientV1 reader)
+/**
+ * Output buffer of the root stage that keeps pages in memory up to a threshold and writes the
+ * rest to {@link TempStorage}. Once the result has spilled, the in memory tail is written to
+ * storage as well when the task finishes, so a slow client does not pin worker memory.
+ * <p>
+ * The spooled pages are still read back by this buffer and served to the coordinator through
+ * the task results endpoint, so clients keep fetching through the coordinator.
+ */
 @SuppressWarnings("UnstableApiUsage")
 public class SpoolingOutputBuffer
         implements OutputBuffer
@@ -540,6 +549,12 @@ public class SpoolingOutputBuffer
             state.compareAndSet(NO_MORE_BUFFERS, FLUSHING);
             noMorePages.set(true);
 
+            // once a result has been spooled, also move the in memory tail into storage,
+            // so that a slow client does not pin worker memory until it fetches the last pages
+            if (totalStoragePagesAdded.get() > 0 && !pages.isEmpty()) {
+                flush();
+            }
+
             pendingRead = this.pendingRead;
             this.pendingRead = null;
 
@@ -56,7 +56,12 @@ public final class NodeAssignmentStats
 
     public long getTotalSplitsWeight(InternalNode node)
     {
-        PartitionedSplitsInfo nodeTotalSplits = nodeTotalSplitsInfo.computeIfAbsent(node, nodeTaskMap::getPartitionedSplitsOnNode);
+        // Avoids the per-invocation method reference allocation of computeIfAbsent since this is called for every candidate node of every split
+        PartitionedSplitsInfo nodeTotalSplits = nodeTotalSplitsInfo.get(node);
+        if (nodeTotalSplits == null) {
+            nodeTotalSplits = nodeTaskMap.getPartitionedSplitsOnNode(node);
+            nodeTotalSplitsInfo.put(node, nodeTotalSplits);
+        }
         PendingSplitInfo stageInfo = stageQueuedSplitInfo.get(node.getNodeIdentifier());
         if (stageInfo == null) {
             return nodeTotalSplits.getWeightSum();
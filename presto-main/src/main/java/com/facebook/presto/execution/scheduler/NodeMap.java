@@ -97,6 +97,7 @@ public class NodeMap
             case MODULAR_HASHING:
                 return new ModularHashingNodeProvider(activeNodes);
             case CONSISTENT_HASHING:
+            case BOUNDED_LOAD_CONSISTENT_HASHING:
                 return consistentHashingNodeProvider;
             default:
                 throw new IllegalArgumentException(format("Unknown NodeSelectionHashStrategy: %s", nodeSelectionHashStrategy));
@@ -18,12 +18,16 @@ import com.facebook.presto.Session;
 import com.facebook.presto.execution.NodeTaskMap;
 import com.facebook.presto.execution.QueryManager;
 import com.facebook.presto.execution.RemoteTask;
+import com.facebook.presto.execution.scheduler.nodeSelection.GeneralPoolNodeMemoryScorer;
+import com.facebook.presto.execution.scheduler.nodeSelection.MemoryAwareNodeSelector;
+import com.facebook.presto.execution.scheduler.nodeSelection.NodeMemoryScorer;
 import com.facebook.presto.execution.scheduler.nodeSelection.NodeSelectionStats;
 import com.facebook.presto.execution.scheduler.nodeSelection.NodeSelector;
 import com.facebook.presto.execution.scheduler.nodeSelection.SimpleNodeSelector;
 import com.facebook.presto.execution.scheduler.nodeSelection.SimpleTtlNodeSelector;
 import com.facebook.presto.execution.scheduler.nodeSelection.SimpleTtlNodeSelectorConfig;
 import com.facebook.presto.execution.scheduler.nodeSelection.TopologyAwareNodeSelector;
+import com.facebook.presto.memory.NodeMemoryInfoProvider;
 import com.facebook.presto.metadata.InternalNode;
 import com.facebook.presto.metadata.InternalNodeManager;
 import com.facebook.presto.metadata.Split;
@@ -53,6 +57,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.facebook.airlift.concurrent.MoreFutures.whenAnyCompleteCancelOthers;
@@ -60,7 +65,9 @@ import static com.facebook.presto.SystemSessionProperties.getMaxUnacknowledgedSp
 import static com.facebook.presto.SystemSessionProperties.getResourceAwareSchedulingStrategy;
 import static com.facebook.presto.execution.scheduler.NodeSchedulerConfig.NetworkTopologyType;
 import static com.facebook.presto.execution.scheduler.NodeSchedulerConfig.ResourceAwareSchedulingStrategy;
+import static com.facebook.presto.execution.scheduler.NodeSchedulerConfig.ResourceAwareSchedulingStrategy.MEMORY;
 import static com.facebook.presto.execution.scheduler.NodeSchedulerConfig.ResourceAwareSchedulingStrategy.TTL;
+import static com.facebook.presto.execution.scheduler.NodeSelectionHashStrategy.BOUNDED_LOAD_CONSISTENT_HASHING;
 import static com.facebook.presto.metadata.InternalNode.NodeStatus.ALIVE;
 import static com.facebook.presto.spi.NodeState.ACTIVE;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -94,8 +101,13 @@ public class NodeScheduler
     private final SimpleTtlNodeSelectorConfig simpleTtlNodeSelectorConfig;
     private final NodeSelectionHashStrategy nodeSelectionHashStrategy;
     private final int minVirtualNodeCount;
+    private final double boundedLoadFactor;
+    private final int boundedLoadVirtualNodesPerNode;
+    private final boolean batchSplitAssignmentEnabled;
+    private final NodeMemoryInfoProvider nodeMemoryInfoProvider;
+    private final NodeMemoryScorer nodeMemoryScorer;
+    private final double memoryPressureThreshold;
 
-    @Inject
     public NodeScheduler(
             NetworkTopology networkTopology,
             InternalNodeManager nodeManager,
@@ -105,6 +117,31 @@ public class NodeScheduler
             NodeTtlFetcherManager nodeTtlFetcherManager,
             QueryManager queryManager,
             SimpleTtlNodeSelectorConfig simpleTtlNodeSelectorConfig)
+    {
+        this(networkTopology,
+                nodeManager,
+                nodeSelectionStats,
+                config,
+                nodeTaskMap,
+                nodeTtlFetcherManager,
+                queryManager,
+                simpleTtlNodeSelectorConfig,
+                nodeIdentifier -> Optional.empty(),
+                new GeneralPoolNodeMemoryScorer());
+    }
+
+    @Inject
+    public NodeScheduler(
+            NetworkTopology networkTopology,
+            InternalNodeManager nodeManager,
+            NodeSelectionStats nodeSelectionStats,
+            NodeSchedulerConfig config,
+            NodeTaskMap nodeTaskMap,
+            NodeTtlFetcherManager nodeTtlFetcherManager,
+            QueryManager queryManager,
+            SimpleTtlNodeSelectorConfig simpleTtlNodeSelectorConfig,
+            NodeMemoryInfoProvider nodeMemoryInfoProvider,
+            NodeMemoryScorer nodeMemoryScorer)
     {
         this(new NetworkLocationCache(networkTopology),
                 networkTopology,
@@ -115,7 +152,9 @@ public class NodeScheduler
                 new Duration(5, SECONDS),
                 nodeTtlFetcherManager,
                 queryManager,
-                simpleTtlNodeSelectorConfig);
+                simpleTtlNodeSelectorConfig,
+                nodeMemoryInfoProvider,
+                nodeMemoryScorer);
     }
 
     public NodeScheduler(
@@ -129,6 +168,34 @@ public class NodeScheduler
             NodeTtlFetcherManager nodeTtlFetcherManager,
             QueryManager queryManager,
             SimpleTtlNodeSelectorConfig simpleTtlNodeSelectorConfig)
+    {
+        this(networkLocationCache,
+                networkTopology,
+                nodeManager,
+                nodeSelectionStats,
+                config,
+                nodeTaskMap,
+                nodeMapRefreshInterval,
+                nodeTtlFetcherManager,
+                queryManager,
+                simpleTtlNodeSelectorConfig,
+                nodeIdentifier -> Optional.empty(),
+                new GeneralPoolNodeMemoryScorer());
+    }
+
+    public NodeScheduler(
+            NetworkLocationCache networkLocationCache,
+            NetworkTopology networkTopology,
+            InternalNodeManager nodeManager,
+            NodeSelectionStats nodeSelectionStats,
+            NodeSchedulerConfig config,
+            NodeTaskMap nodeTaskMap,
+            Duration nodeMapRefreshInterval,
+            NodeTtlFetcherManager nodeTtlFetcherManager,
+            QueryManager queryManager,
+            SimpleTtlNodeSelectorConfig simpleTtlNodeSelectorConfig,
+            NodeMemoryInfoProvider nodeMemoryInfoProvider,
+            NodeMemoryScorer nodeMemoryScorer)
     {
         this.networkLocationCache = networkLocationCache;
         this.nodeManager = nodeManager;
@@ -160,6 +227,12 @@ public class NodeScheduler
         this.simpleTtlNodeSelectorConfig = requireNonNull(simpleTtlNodeSelectorConfig, "simpleTtlNodeSelectorConfig is null");
         this.nodeSelectionHashStrategy = config.getNodeSelectionHashStrategy();
         this.minVirtualNodeCount = config.getMinVirtualNodeCount();
+        this.boundedLoadFactor = config.getBoundedLoadFactor();
+        this.boundedLoadVirtualNodesPerNode = config.getBoundedLoadVirtualNodesPerNode();
+        this.batchSplitAssignmentEnabled = config.isBatchSplitAssignmentEnabled();
+        this.nodeMemoryInfoProvider = requireNonNull(nodeMemoryInfoProvider, "nodeMemoryInfoProvider is null");
+        this.nodeMemoryScorer = requireNonNull(nodeMemoryScorer, "nodeMemoryScorer is null");
+        this.memoryPressureThreshold = config.getMemoryPressureThreshold();
     }
 
     @PreDestroy
@@ -219,7 +292,9 @@ public class NodeScheduler
                 maxPendingSplitsWeightPerTask,
                 maxUnacknowledgedSplitsPerTask,
                 maxTasksPerStage,
-                nodeSelectionHashStrategy);
+                nodeSelectionHashStrategy,
+                boundedLoadFactor,
+                batchSplitAssignmentEnabled);
 
         if (resourceAwareSchedulingStrategy == TTL) {
             return new SimpleTtlNodeSelector(
@@ -237,6 +312,15 @@ public class NodeScheduler
                     session);
         }
 
+        if (resourceAwareSchedulingStrategy == MEMORY) {
+            return new MemoryAwareNodeSelector(
+                    simpleNodeSelector,
+                    nodeMemoryInfoProvider,
+                    nodeMemoryScorer,
+                    nodeSelectionStats,
+                    memoryPressureThreshold);
+        }
+
         return simpleNodeSelector;
     }
 
@@ -263,7 +347,15 @@ public class NodeScheduler
                     .map(InternalNode::getNodeIdentifier)
                     .collect(toImmutableSet());
 
-            int weight = (int) ceil(1.0 * minVirtualNodeCount / activeNodes.size());
+            int weight;
+            if (nodeSelectionHashStrategy == BOUNDED_LOAD_CONSISTENT_HASHING) {
+                // a fixed number of virtual nodes per node keeps the ring position of every other node
+                // when nodes join or leave, so only the splits of those nodes move
+                weight = boundedLoadVirtualNodesPerNode;
+            }
+            else {
+                weight = (int) ceil(1.0 * minVirtualNodeCount / activeNodes.size());
+            }
             ConsistentHashingNodeProvider consistentHashingNodeProvider = ConsistentHashingNodeProvider.create(activeNodes, weight);
 
             for (InternalNode node : allNodes) {
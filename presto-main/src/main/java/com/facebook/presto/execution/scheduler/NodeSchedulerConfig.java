@@ -18,6 +18,8 @@ import com.facebook.airlift.configuration.ConfigDescription;
 import com.facebook.airlift.configuration.DefunctConfig;
 import com.facebook.airlift.configuration.LegacyConfig;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
@@ -39,7 +41,11 @@ public class NodeSchedulerConfig
     private String networkTopology = NetworkTopologyType.LEGACY;
     private NodeSelectionHashStrategy nodeSelectionHashStrategy = NodeSelectionHashStrategy.MODULAR_HASHING;
     private int minVirtualNodeCount = 1000;
+    private double boundedLoadFactor = 1.25;
+    private int boundedLoadVirtualNodesPerNode = 100;
     private ResourceAwareSchedulingStrategy resourceAwareSchedulingStrategy = ResourceAwareSchedulingStrategy.RANDOM;
+    private boolean batchSplitAssignmentEnabled;
+    private double memoryPressureThreshold = 0.9;
 
     @NotNull
     public String getNetworkTopology()
@@ -126,7 +132,7 @@ public class NodeSchedulerConfig
     }
 
     @Config("node-scheduler.node-selection-hash-strategy")
-    @ConfigDescription("Hashing strategy used for node selection when scheduling splits to nodes. Options are MODULAR_HASHING, CONSISTENT_HASHING")
+    @ConfigDescription("Hashing strategy used for node selection when scheduling splits to nodes. Options are MODULAR_HASHING, CONSISTENT_HASHING, BOUNDED_LOAD_CONSISTENT_HASHING")
     public NodeSchedulerConfig setNodeSelectionHashStrategy(NodeSelectionHashStrategy nodeSelectionHashStrategy)
     {
         this.nodeSelectionHashStrategy = nodeSelectionHashStrategy;
@@ -148,6 +154,36 @@ public class NodeSchedulerConfig
         return this;
     }
 
+    @DecimalMin("1.0")
+    public double getBoundedLoadFactor()
+    {
+        return boundedLoadFactor;
+    }
+
+    @Config("node-scheduler.bounded-load-factor")
+    @ConfigDescription("When BOUNDED_LOAD_CONSISTENT_HASHING node selection hash strategy is used, a soft affinity split skips its preferred node " +
+            "if that would put the node above this multiple of the average load of the active nodes")
+    public NodeSchedulerConfig setBoundedLoadFactor(double boundedLoadFactor)
+    {
+        this.boundedLoadFactor = boundedLoadFactor;
+        return this;
+    }
+
+    @Min(1)
+    public int getBoundedLoadVirtualNodesPerNode()
+    {
+        return boundedLoadVirtualNodesPerNode;
+    }
+
+    @Config("node-scheduler.bounded-load-virtual-nodes-per-node")
+    @ConfigDescription("When BOUNDED_LOAD_CONSISTENT_HASHING node selection hash strategy is used, the number of virtual nodes of each node on the hashing ring. " +
+            "The count does not depend on the cluster size, so only the splits of the nodes that join or leave move to other nodes")
+    public NodeSchedulerConfig setBoundedLoadVirtualNodesPerNode(int boundedLoadVirtualNodesPerNode)
+    {
+        this.boundedLoadVirtualNodesPerNode = boundedLoadVirtualNodesPerNode;
+        return this;
+    }
+
     public ResourceAwareSchedulingStrategy getResourceAwareSchedulingStrategy()
     {
         return resourceAwareSchedulingStrategy;
@@ -160,9 +196,38 @@ public class NodeSchedulerConfig
         return this;
     }
 
+    public boolean isBatchSplitAssignmentEnabled()
+    {
+        return batchSplitAssignmentEnabled;
+    }
+
+    @Config("node-scheduler.batch-split-assignment-enabled")
+    @ConfigDescription("Place splits without node preference in a single pass over the nodes ordered by load, instead of sampling random candidates for each split")
+    public NodeSchedulerConfig setBatchSplitAssignmentEnabled(boolean batchSplitAssignmentEnabled)
+    {
+        this.batchSplitAssignmentEnabled = batchSplitAssignmentEnabled;
+        return this;
+    }
+
+    @DecimalMin(value = "0.0", inclusive = false)
+    @DecimalMax("1.0")
+    public double getMemoryPressureThreshold()
+    {
+        return memoryPressureThreshold;
+    }
+
+    @Config("node-scheduler.memory-pressure-threshold")
+    @ConfigDescription("When the MEMORY resource aware scheduling strategy is used, new tasks avoid nodes whose general pool reservation is above this fraction")
+    public NodeSchedulerConfig setMemoryPressureThreshold(double memoryPressureThreshold)
+    {
+        this.memoryPressureThreshold = memoryPressureThreshold;
+        return this;
+    }
+
     public enum ResourceAwareSchedulingStrategy
     {
         RANDOM,
-        TTL
+        TTL,
+        MEMORY
     }
 }
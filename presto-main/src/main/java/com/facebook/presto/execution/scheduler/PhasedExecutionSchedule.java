@@ -22,6 +22,7 @@ import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.InternalPlanVisitor;
 import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.MergeJoinNode;
 import com.facebook.presto.sql.planner.plan.PlanFragmentId;
 import com.facebook.presto.sql.planner.plan.RemoteSourceNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
@@ -214,6 +215,16 @@ public class PhasedExecutionSchedule
             return processJoin(node.getRight(), node.getLeft(), currentFragmentId);
         }
 
+        @Override
+        public Set<PlanFragmentId> visitMergeJoin(MergeJoinNode node, PlanFragmentId currentFragmentId)
+        {
+            // both sides of a merge join are consumed concurrently, so neither side may wait for the other
+            return ImmutableSet.<PlanFragmentId>builder()
+                    .addAll(node.getLeft().accept(this, currentFragmentId))
+                    .addAll(node.getRight().accept(this, currentFragmentId))
+                    .build();
+        }
+
         @Override
         public Set<PlanFragmentId> visitSemiJoin(SemiJoinNode node, PlanFragmentId currentFragmentId)
         {
@@ -0,0 +1,37 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.scheduler.nodeSelection;
+
+import com.facebook.presto.memory.MemoryInfo;
+import com.facebook.presto.spi.memory.MemoryPoolInfo;
+
+import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
+
+/**
+ * Scores nodes by the fraction of the general pool that is reserved, including revocable memory,
+ * since a full general pool is what blocks queries and eventually triggers the low memory killer.
+ */
+public class GeneralPoolNodeMemoryScorer
+        implements NodeMemoryScorer
+{
+    @Override
+    public double getMemoryPressure(MemoryInfo memoryInfo)
+    {
+        MemoryPoolInfo generalPool = memoryInfo.getPools().get(GENERAL_POOL);
+        if (generalPool == null || generalPool.getMaxBytes() <= 0) {
+            return 0;
+        }
+        return (double) (generalPool.getReservedBytes() + generalPool.getReservedRevocableBytes()) / generalPool.getMaxBytes();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.scheduler.nodeSelection;
+
+import com.facebook.presto.execution.RemoteTask;
+import com.facebook.presto.execution.scheduler.BucketNodeMap;
+import com.facebook.presto.execution.scheduler.SplitPlacementResult;
+import com.facebook.presto.memory.MemoryInfo;
+import com.facebook.presto.memory.NodeMemoryInfoProvider;
+import com.facebook.presto.metadata.InternalNode;
+import com.facebook.presto.metadata.Split;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.collect.Sets.union;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Places new tasks away from nodes whose memory pressure, as reported by the nodes themselves,
+ * is above the configured threshold. Nodes under pressure are only used when there are not enough other nodes.
+ * Splits for nodes that already run a task of the stage are assigned as usual.
+ * <p>
+ * A node selector is created for each stage, so every node is counted at most once as avoided by the stage,
+ * however many scheduling calls leave it out.
+ */
+public class MemoryAwareNodeSelector
+        implements NodeSelector
+{
+    private final SimpleNodeSelector simpleNodeSelector;
+    private final NodeMemoryInfoProvider nodeMemoryInfoProvider;
+    private final NodeMemoryScorer nodeMemoryScorer;
+    private final NodeSelectionStats nodeSelectionStats;
+    private final double memoryPressureThreshold;
+    private final Set<InternalNode> avoidedNodes = ConcurrentHashMap.newKeySet();
+
+    public MemoryAwareNodeSelector(
+            SimpleNodeSelector simpleNodeSelector,
+            NodeMemoryInfoProvider nodeMemoryInfoProvider,
+            NodeMemoryScorer nodeMemoryScorer,
+            NodeSelectionStats nodeSelectionStats,
+            double memoryPressureThreshold)
+    {
+        this.simpleNodeSelector = requireNonNull(simpleNodeSelector, "simpleNodeSelector is null");
+        this.nodeMemoryInfoProvider = requireNonNull(nodeMemoryInfoProvider, "nodeMemoryInfoProvider is null");
+        this.nodeMemoryScorer = requireNonNull(nodeMemoryScorer, "nodeMemoryScorer is null");
+        this.nodeSelectionStats = requireNonNull(nodeSelectionStats, "nodeSelectionStats is null");
+        checkArgument(memoryPressureThreshold > 0, "memoryPressureThreshold must be positive");
+        this.memoryPressureThreshold = memoryPressureThreshold;
+    }
+
+    @Override
+    public void lockDownNodes()
+    {
+        simpleNodeSelector.lockDownNodes();
+    }
+
+    @Override
+    public List<InternalNode> getActiveNodes()
+    {
+        return simpleNodeSelector.getActiveNodes();
+    }
+
+    @Override
+    public List<InternalNode> getAllNodes()
+    {
+        return simpleNodeSelector.getAllNodes();
+    }
+
+    @Override
+    public InternalNode selectCurrentNode()
+    {
+        return simpleNodeSelector.selectCurrentNode();
+    }
+
+    @Override
+    public List<InternalNode> selectRandomNodes(int limit, Set<InternalNode> excludedNodes)
+    {
+        Set<InternalNode> memoryPressuredNodes = getMemoryPressuredNodes();
+        List<InternalNode> selectedNodes = simpleNodeSelector.selectRandomNodes(limit, union(excludedNodes, memoryPressuredNodes));
+        if (selectedNodes.size() < limit && !memoryPressuredNodes.isEmpty()) {
+            // not enough nodes with memory headroom, so fall back to the nodes under pressure for the remainder
+            List<InternalNode> fallbackNodes = simpleNodeSelector.selectRandomNodes(limit - selectedNodes.size(), union(excludedNodes, ImmutableSet.copyOf(selectedNodes)));
+            selectedNodes = ImmutableList.<InternalNode>builder()
+                    .addAll(selectedNodes)
+                    .addAll(fallbackNodes)
+                    .build();
+        }
+
+        Set<InternalNode> usedNodes = union(excludedNodes, ImmutableSet.copyOf(selectedNodes));
+        recordAvoidedNodes(memoryPressuredNodes, usedNodes::contains);
+        return selectedNodes;
+    }
+
+    @Override
+    public SplitPlacementResult computeAssignments(Set<Split> splits, List<RemoteTask> existingTasks)
+    {
+        Set<InternalNode> memoryPressuredNodes = getMemoryPressuredNodes();
+        SplitPlacementResult result = simpleNodeSelector.computeAssignments(splits, existingTasks, memoryPressuredNodes);
+
+        Set<String> nodesWithTasks = existingTasks.stream()
+                .map(RemoteTask::getNodeId)
+                .collect(toImmutableSet());
+        recordAvoidedNodes(memoryPressuredNodes, node -> nodesWithTasks.contains(node.getNodeIdentifier()) || result.getAssignments().containsKey(node));
+        return result;
+    }
+
+    @Override
+    public SplitPlacementResult computeAssignments(Set<Split> splits, List<RemoteTask> existingTasks, BucketNodeMap bucketNodeMap)
+    {
+        return simpleNodeSelector.computeAssignments(splits, existingTasks, bucketNodeMap);
+    }
+
+    private Set<InternalNode> getMemoryPressuredNodes()
+    {
+        ImmutableSet.Builder<InternalNode> memoryPressuredNodes = ImmutableSet.builder();
+        for (InternalNode node : simpleNodeSelector.getActiveNodes()) {
+            Optional<MemoryInfo> memoryInfo = nodeMemoryInfoProvider.getMemoryInfo(node.getNodeIdentifier());
+            if (memoryInfo.isPresent() && nodeMemoryScorer.getMemoryPressure(memoryInfo.get()) >= memoryPressureThreshold) {
+                memoryPressuredNodes.add(node);
+            }
+        }
+        return memoryPressuredNodes.build();
+    }
+
+    private void recordAvoidedNodes(Set<InternalNode> memoryPressuredNodes, Predicate<InternalNode> isUsed)
+    {
+        for (InternalNode node : memoryPressuredNodes) {
+            if (!isUsed.test(node) && avoidedNodes.add(node)) {
+                nodeSelectionStats.incrementMemoryPressuredNodeAvoidedCount();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.scheduler.nodeSelection;
+
+import com.facebook.presto.memory.MemoryInfo;
+
+public interface NodeMemoryScorer
+{
+    /**
+     * Scores how close a node is to running out of memory, where 0 means the node is idle
+     * and 1 or more means new allocations on the node are expected to block.
+     */
+    double getMemoryPressure(MemoryInfo memoryInfo);
+}
@@ -32,6 +32,12 @@ public class NodeSelectionStats
 
     private final CounterStat preferredNonAliveNodeSkippedCount = new CounterStat();
 
+    private final CounterStat memoryPressuredNodeAvoidedCount = new CounterStat();
+
+    private final CounterStat softAffinityPreferredNodeSelectedCount = new CounterStat();
+    private final CounterStat softAffinityNonPreferredNodeSelectedCount = new CounterStat();
+    private final CounterStat overloadedPreferredNodeSkippedCount = new CounterStat();
+
     public void incrementPrimaryPreferredNodeSelectedCount()
     {
         primaryPreferredNodeSelectedCount.update(1);
@@ -67,6 +73,26 @@ public class NodeSelectionStats
         preferredNonAliveNodeSkippedCount.update(1);
     }
 
+    public void incrementMemoryPressuredNodeAvoidedCount()
+    {
+        memoryPressuredNodeAvoidedCount.update(1);
+    }
+
+    public void incrementSoftAffinityPreferredNodeSelectedCount()
+    {
+        softAffinityPreferredNodeSelectedCount.update(1);
+    }
+
+    public void incrementSoftAffinityNonPreferredNodeSelectedCount()
+    {
+        softAffinityNonPreferredNodeSelectedCount.update(1);
+    }
+
+    public void incrementOverloadedPreferredNodeSkippedCount()
+    {
+        overloadedPreferredNodeSkippedCount.update(1);
+    }
+
     @Managed
     @Nested
     public CounterStat getPrimaryPreferredNodeSelectedCount()
@@ -115,4 +141,44 @@ public class NodeSelectionStats
     {
         return bucketedNonAliveNodeReplacedCount;
     }
+
+    @Managed
+    @Nested
+    public CounterStat getMemoryPressuredNodeAvoidedCount()
+    {
+        return memoryPressuredNodeAvoidedCount;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getSoftAffinityPreferredNodeSelectedCount()
+    {
+        return softAffinityPreferredNodeSelectedCount;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getSoftAffinityNonPreferredNodeSelectedCount()
+    {
+        return softAffinityNonPreferredNodeSelectedCount;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getOverloadedPreferredNodeSkippedCount()
+    {
+        return overloadedPreferredNodeSkippedCount;
+    }
+
+    /**
+     * Fraction of soft affinity splits that were placed on one of their preferred nodes. Splits placed
+     * elsewhere miss the worker local cache, so this is an upper bound of the cache hit rate.
+     */
+    @Managed
+    public double getSoftAffinityHitRate()
+    {
+        long hits = softAffinityPreferredNodeSelectedCount.getTotalCount();
+        long total = hits + softAffinityNonPreferredNodeSelectedCount.getTotalCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
 }
@@ -34,16 +34,20 @@ import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import java.util.function.ToLongFunction;
 
 import static com.facebook.presto.execution.scheduler.NodeScheduler.calculateLowWatermark;
@@ -53,15 +57,22 @@ import static com.facebook.presto.execution.scheduler.NodeScheduler.selectDistri
 import static com.facebook.presto.execution.scheduler.NodeScheduler.selectExactNodes;
 import static com.facebook.presto.execution.scheduler.NodeScheduler.selectNodes;
 import static com.facebook.presto.execution.scheduler.NodeScheduler.toWhenHasSplitQueueSpaceFuture;
+import static com.facebook.presto.execution.scheduler.NodeSelectionHashStrategy.BOUNDED_LOAD_CONSISTENT_HASHING;
 import static com.facebook.presto.execution.scheduler.NodeSelectionHashStrategy.MODULAR_HASHING;
 import static com.facebook.presto.metadata.InternalNode.NodeStatus.DEAD;
 import static com.facebook.presto.spi.StandardErrorCode.NODE_SELECTION_NOT_SUPPORTED;
 import static com.facebook.presto.spi.StandardErrorCode.NO_NODES_AVAILABLE;
 import static com.facebook.presto.spi.schedule.NodeSelectionStrategy.HARD_AFFINITY;
+import static com.facebook.presto.spi.schedule.NodeSelectionStrategy.NO_PREFERENCE;
+import static com.facebook.presto.spi.schedule.NodeSelectionStrategy.SOFT_AFFINITY;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.collect.Sets.union;
+import static java.lang.Math.addExact;
+import static java.lang.Math.ceil;
 import static java.lang.String.format;
+import static java.util.Comparator.comparingLong;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -81,6 +92,8 @@ public class SimpleNodeSelector
     private final int maxUnacknowledgedSplitsPerTask;
     private final int maxTasksPerStage;
     private final NodeSelectionHashStrategy nodeSelectionHashStrategy;
+    private final double boundedLoadFactor;
+    private final boolean batchSplitAssignmentEnabled;
 
     public SimpleNodeSelector(
             InternalNodeManager nodeManager,
@@ -93,7 +106,9 @@ public class SimpleNodeSelector
             long maxPendingSplitsWeightPerTask,
             int maxUnacknowledgedSplitsPerTask,
             int maxTasksPerStage,
-            NodeSelectionHashStrategy nodeSelectionHashStrategy)
+            NodeSelectionHashStrategy nodeSelectionHashStrategy,
+            double boundedLoadFactor,
+            boolean batchSplitAssignmentEnabled)
     {
         this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
         this.nodeSelectionStats = requireNonNull(nodeSelectionStats, "nodeSelectionStats is null");
@@ -107,6 +122,9 @@ public class SimpleNodeSelector
         checkArgument(maxUnacknowledgedSplitsPerTask > 0, "maxUnacknowledgedSplitsPerTask must be > 0, found: %s", maxUnacknowledgedSplitsPerTask);
         this.maxTasksPerStage = maxTasksPerStage;
         this.nodeSelectionHashStrategy = requireNonNull(nodeSelectionHashStrategy, "nodeSelectionHashStrategy is null");
+        checkArgument(boundedLoadFactor >= 1.0, "boundedLoadFactor must be at least 1, found: %s", boundedLoadFactor);
+        this.boundedLoadFactor = boundedLoadFactor;
+        this.batchSplitAssignmentEnabled = batchSplitAssignmentEnabled;
     }
 
     @Override
@@ -142,20 +160,44 @@ public class SimpleNodeSelector
 
     @Override
     public SplitPlacementResult computeAssignments(Set<Split> splits, List<RemoteTask> existingTasks)
+    {
+        return computeAssignments(splits, existingTasks, ImmutableSet.of());
+    }
+
+    /**
+     * Same as {@link #computeAssignments(Set, List)}, but new tasks are not placed on the avoided nodes
+     * unless the stage has no task and no other node is available.
+     */
+    public SplitPlacementResult computeAssignments(Set<Split> splits, List<RemoteTask> existingTasks, Set<InternalNode> avoidedNodes)
     {
         Multimap<InternalNode, Split> assignment = HashMultimap.create();
         NodeMap nodeMap = this.nodeMap.get().get();
         NodeAssignmentStats assignmentStats = new NodeAssignmentStats(nodeTaskMap, nodeMap, existingTasks);
 
-        List<InternalNode> eligibleNodes = getEligibleNodes(maxTasksPerStage, nodeMap, existingTasks);
+        List<InternalNode> eligibleNodes = getEligibleNodes(maxTasksPerStage, nodeMap, existingTasks, avoidedNodes);
         NodeSelection randomNodeSelection = new RandomNodeSelection(eligibleNodes, minCandidates);
         Set<InternalNode> blockedExactNodes = new HashSet<>();
         boolean splitWaitingForAnyNode = false;
+        List<Split> noPreferenceSplits = new ArrayList<>();
 
         NodeProvider nodeProvider = nodeMap.getActiveNodeProvider(nodeSelectionHashStrategy);
 
+        // the load of the nodes on the hashing ring, for bounded-load consistent hashing
+        int ringNodeCount = nodeMap.getActiveNodes().size();
+        long ringSplitsWeight = 0;
+        if (nodeSelectionHashStrategy == BOUNDED_LOAD_CONSISTENT_HASHING) {
+            for (InternalNode node : nodeMap.getActiveNodes()) {
+                ringSplitsWeight = addExact(ringSplitsWeight, assignmentStats.getTotalSplitsWeight(node));
+            }
+        }
+
         OptionalInt preferredNodeCount = OptionalInt.empty();
         for (Split split : splits) {
+            if (batchSplitAssignmentEnabled && split.getNodeSelectionStrategy() == NO_PREFERENCE) {
+                noPreferenceSplits.add(split);
+                continue;
+            }
+
             List<InternalNode> candidateNodes;
             switch (split.getNodeSelectionStrategy()) {
                 case HARD_AFFINITY:
@@ -187,9 +229,22 @@ public class SimpleNodeSelector
             }
 
             SplitWeight splitWeight = split.getSplitWeight();
-            Optional<InternalNodeInfo> chosenNodeInfo = chooseLeastBusyNode(splitWeight, candidateNodes, assignmentStats::getTotalSplitsWeight, preferredNodeCount, maxSplitsWeightPerNode, assignmentStats);
+            boolean boundedLoad = nodeSelectionHashStrategy == BOUNDED_LOAD_CONSISTENT_HASHING && split.getNodeSelectionStrategy() == SOFT_AFFINITY;
+            Predicate<InternalNode> preferredNodeFilter = node -> true;
+            if (boundedLoad) {
+                long totalSplitsWeight = ringSplitsWeight;
+                preferredNodeFilter = node -> isWithinLoadBound(assignmentStats.getTotalSplitsWeight(node), totalSplitsWeight, ringNodeCount, splitWeight, boundedLoadFactor);
+            }
+            Optional<InternalNodeInfo> chosenNodeInfo = chooseLeastBusyNode(splitWeight, candidateNodes, assignmentStats::getTotalSplitsWeight, preferredNodeCount, preferredNodeFilter, maxSplitsWeightPerNode, assignmentStats);
             if (!chosenNodeInfo.isPresent()) {
-                chosenNodeInfo = chooseLeastBusyNode(splitWeight, candidateNodes, assignmentStats::getQueuedSplitsWeightForStage, preferredNodeCount, maxPendingSplitsWeightPerTask, assignmentStats);
+                chosenNodeInfo = chooseLeastBusyNode(splitWeight, candidateNodes, assignmentStats::getQueuedSplitsWeightForStage, preferredNodeCount, preferredNodeFilter, maxPendingSplitsWeightPerTask, assignmentStats);
+            }
+            // both passes see the same overloaded preferred nodes, so the split is counted once, before its weight is assigned
+            if (boundedLoad
+                    && !chosenNodeInfo.map(InternalNodeInfo::isCacheable).orElse(false)
+                    && preferredNodeCount.isPresent()
+                    && candidateNodes.stream().limit(preferredNodeCount.getAsInt()).anyMatch(preferredNodeFilter.negate())) {
+                nodeSelectionStats.incrementOverloadedPreferredNodeSkippedCount();
             }
 
             if (chosenNodeInfo.isPresent()) {
@@ -203,6 +258,15 @@ public class SimpleNodeSelector
                 InternalNode chosenNode = chosenNodeInfo.get().getInternalNode();
                 assignment.put(chosenNode, split);
                 assignmentStats.addAssignedSplit(chosenNode, splitWeight);
+                ringSplitsWeight = addExact(ringSplitsWeight, splitWeight.getRawValue());
+                if (split.getNodeSelectionStrategy() == SOFT_AFFINITY) {
+                    if (chosenNodeInfo.get().isCacheable()) {
+                        nodeSelectionStats.incrementSoftAffinityPreferredNodeSelectedCount();
+                    }
+                    else {
+                        nodeSelectionStats.incrementSoftAffinityNonPreferredNodeSelectedCount();
+                    }
+                }
             }
             else {
                 if (split.getNodeSelectionStrategy() != HARD_AFFINITY) {
@@ -215,6 +279,10 @@ public class SimpleNodeSelector
             }
         }
 
+        if (!noPreferenceSplits.isEmpty() && !assignSplitsByNodeLoad(noPreferenceSplits, eligibleNodes, assignmentStats, assignment)) {
+            splitWaitingForAnyNode = true;
+        }
+
         ListenableFuture<?> blocked;
         if (splitWaitingForAnyNode) {
             blocked = toWhenHasSplitQueueSpaceFuture(existingTasks, calculateLowWatermark(maxPendingSplitsWeightPerTask));
@@ -231,7 +299,88 @@ public class SimpleNodeSelector
         return selectDistributionNodes(nodeMap.get().get(), nodeTaskMap, maxSplitsWeightPerNode, maxPendingSplitsWeightPerTask, maxUnacknowledgedSplitsPerTask, splits, existingTasks, bucketNodeMap, nodeSelectionStats);
     }
 
+    /**
+     * Places splits without node preference in a single pass over the eligible nodes ordered by their current load,
+     * rather than sampling a random candidate list for every split.
+     *
+     * @return true if all splits were assigned
+     */
+    private boolean assignSplitsByNodeLoad(List<Split> splits, List<InternalNode> eligibleNodes, NodeAssignmentStats assignmentStats, Multimap<InternalNode, Split> assignment)
+    {
+        if (eligibleNodes.isEmpty()) {
+            log.debug("No nodes available to schedule %s splits", splits.size());
+            throw new PrestoException(NO_NODES_AVAILABLE, "No nodes available to run query");
+        }
+
+        // first fill nodes up to the node wide limit, then fall back to the per task queue limit for the remainder
+        List<Split> remainingSplits = assignSplitsByNodeLoad(splits, eligibleNodes, assignmentStats::getTotalSplitsWeight, maxSplitsWeightPerNode, assignmentStats, assignment);
+        if (!remainingSplits.isEmpty()) {
+            remainingSplits = assignSplitsByNodeLoad(remainingSplits, eligibleNodes, assignmentStats::getQueuedSplitsWeightForStage, maxPendingSplitsWeightPerTask, assignmentStats, assignment);
+        }
+        return remainingSplits.isEmpty();
+    }
+
+    private List<Split> assignSplitsByNodeLoad(
+            List<Split> splits,
+            List<InternalNode> eligibleNodes,
+            ToLongFunction<InternalNode> splitWeightProvider,
+            long maxSplitsWeight,
+            NodeAssignmentStats assignmentStats,
+            Multimap<InternalNode, Split> assignment)
+    {
+        PriorityQueue<NodeLoad> nodesByLoad = new PriorityQueue<>(eligibleNodes.size(), comparingLong(NodeLoad::getSplitsWeight));
+        for (InternalNode node : eligibleNodes) {
+            if (node.getNodeStatus() != DEAD && assignmentStats.getUnacknowledgedSplitCountForStage(node) < maxUnacknowledgedSplitsPerTask) {
+                nodesByLoad.add(new NodeLoad(node, splitWeightProvider.applyAsLong(node)));
+            }
+        }
+
+        List<Split> unassignedSplits = new ArrayList<>();
+        for (Split split : splits) {
+            SplitWeight splitWeight = split.getSplitWeight();
+            // if the least loaded node cannot take the split, no other node can either
+            NodeLoad leastLoaded = nodesByLoad.peek();
+            if (leastLoaded == null || !canAssignSplitBasedOnWeight(leastLoaded.getSplitsWeight(), maxSplitsWeight, splitWeight)) {
+                unassignedSplits.add(split);
+                continue;
+            }
+
+            nodesByLoad.poll();
+            InternalNode chosenNode = leastLoaded.getNode();
+            assignment.put(chosenNode, new Split(
+                    split.getConnectorId(),
+                    split.getTransactionHandle(),
+                    split.getConnectorSplit(),
+                    split.getLifespan(),
+                    new SplitContext(false)));
+            assignmentStats.addAssignedSplit(chosenNode, splitWeight);
+            nodeSelectionStats.incrementNonPreferredNodeSelectedCount();
+
+            if (assignmentStats.getUnacknowledgedSplitCountForStage(chosenNode) < maxUnacknowledgedSplitsPerTask) {
+                leastLoaded.addSplitWeight(splitWeight);
+                nodesByLoad.add(leastLoaded);
+            }
+        }
+        return unassignedSplits;
+    }
+
     protected Optional<InternalNodeInfo> chooseLeastBusyNode(SplitWeight splitWeight, List<InternalNode> candidateNodes, ToLongFunction<InternalNode> splitWeightProvider, OptionalInt preferredNodeCount, long maxSplitsWeight, NodeAssignmentStats assignmentStats)
+    {
+        return chooseLeastBusyNode(splitWeight, candidateNodes, splitWeightProvider, preferredNodeCount, node -> true, maxSplitsWeight, assignmentStats);
+    }
+
+    /**
+     * Same as {@link #chooseLeastBusyNode(SplitWeight, List, ToLongFunction, OptionalInt, long, NodeAssignmentStats)}, but
+     * preferred nodes rejected by {@code preferredNodeFilter} are only considered as regular candidates.
+     */
+    protected Optional<InternalNodeInfo> chooseLeastBusyNode(
+            SplitWeight splitWeight,
+            List<InternalNode> candidateNodes,
+            ToLongFunction<InternalNode> splitWeightProvider,
+            OptionalInt preferredNodeCount,
+            Predicate<InternalNode> preferredNodeFilter,
+            long maxSplitsWeight,
+            NodeAssignmentStats assignmentStats)
     {
         long minWeight = Long.MAX_VALUE;
         InternalNode chosenNode = null;
@@ -253,13 +402,15 @@ public class SimpleNodeSelector
 
             // choose the preferred node first as long as they're not busy
             if (preferredNodeCount.isPresent() && i < preferredNodeCount.getAsInt() && canAssignToNode) {
-                if (i == 0) {
-                    nodeSelectionStats.incrementPrimaryPreferredNodeSelectedCount();
-                }
-                else {
-                    nodeSelectionStats.incrementNonPrimaryPreferredNodeSelectedCount();
+                if (preferredNodeFilter.test(node)) {
+                    if (i == 0) {
+                        nodeSelectionStats.incrementPrimaryPreferredNodeSelectedCount();
+                    }
+                    else {
+                        nodeSelectionStats.incrementNonPrimaryPreferredNodeSelectedCount();
+                    }
+                    return Optional.of(new InternalNodeInfo(node, true));
                 }
-                return Optional.of(new InternalNodeInfo(node, true));
             }
             // fallback to choosing the least busy nodes
             if (canAssignToNode && currentWeight < minWeight) {
@@ -274,7 +425,22 @@ public class SimpleNodeSelector
         return Optional.of(new InternalNodeInfo(chosenNode, false));
     }
 
-    private List<InternalNode> getEligibleNodes(int limit, NodeMap nodeMap, List<RemoteTask> existingTasks)
+    /**
+     * Bounded-load consistent hashing: a node may only take a split while its load stays within
+     * {@code loadFactor} times the average load of the nodes on the ring, including the new split.
+     * The bound is rounded up to whole standard splits, so that a node can always take its share.
+     */
+    private static boolean isWithinLoadBound(long nodeSplitsWeight, long totalSplitsWeight, int nodeCount, SplitWeight splitWeight, double loadFactor)
+    {
+        if (nodeCount == 0) {
+            return true;
+        }
+        long standardSplitWeight = SplitWeight.standard().getRawValue();
+        double loadBound = ceil(loadFactor * (totalSplitsWeight + splitWeight.getRawValue()) / nodeCount / standardSplitWeight) * standardSplitWeight;
+        return nodeSplitsWeight + splitWeight.getRawValue() <= loadBound;
+    }
+
+    private List<InternalNode> getEligibleNodes(int limit, NodeMap nodeMap, List<RemoteTask> existingTasks, Set<InternalNode> avoidedNodes)
     {
         List<InternalNode> existingNodes = existingTasks.stream()
                 .map(remoteTask -> nodeMap.getActiveNodesByNodeId().get(remoteTask.getNodeId()))
@@ -286,10 +452,42 @@ public class SimpleNodeSelector
         int nodeCount = nodeMap.getActiveNodesByNodeId().size();
 
         if (alreadySelectedNodeCount < limit && alreadySelectedNodeCount < nodeCount) {
-            List<InternalNode> moreNodes = selectNodes(limit - alreadySelectedNodeCount, randomizedNodes(nodeMap, includeCoordinator, newHashSet(existingNodes)));
+            Set<InternalNode> excludedNodes = newHashSet(existingNodes);
+            List<InternalNode> moreNodes = selectNodes(limit - alreadySelectedNodeCount, randomizedNodes(nodeMap, includeCoordinator, union(excludedNodes, avoidedNodes)));
+            if (moreNodes.isEmpty() && existingNodes.isEmpty() && !avoidedNodes.isEmpty()) {
+                // every node is avoided, but the stage still needs somewhere to run
+                moreNodes = selectNodes(limit, randomizedNodes(nodeMap, includeCoordinator, excludedNodes));
+            }
             existingNodes.addAll(moreNodes);
         }
         verify(existingNodes.stream().allMatch(Objects::nonNull), "existingNodes list must not contain any nulls");
         return existingNodes;
     }
+
+    private static final class NodeLoad
+    {
+        private final InternalNode node;
+        private long splitsWeight;
+
+        private NodeLoad(InternalNode node, long splitsWeight)
+        {
+            this.node = requireNonNull(node, "node is null");
+            this.splitsWeight = splitsWeight;
+        }
+
+        public InternalNode getNode()
+        {
+            return node;
+        }
+
+        public long getSplitsWeight()
+        {
+            return splitsWeight;
+        }
+
+        public void addSplitWeight(SplitWeight splitWeight)
+        {
+            splitsWeight = addExact(splitsWeight, splitWeight.getRawValue());
+        }
+    }
 }
@@ -102,7 +102,7 @@ import static java.util.Objects.requireNonNull;
 import static org.weakref.jmx.ObjectNames.generatedNameOf;
 
 public class ClusterMemoryManager
-        implements ClusterMemoryPoolManager
+        implements ClusterMemoryPoolManager, NodeMemoryInfoProvider
 {
     private static final Logger log = Logger.get(ClusterMemoryManager.class);
 
@@ -132,6 +132,9 @@ public class ClusterMemoryManager
     @GuardedBy("this")
     private final Map<String, RemoteNodeMemory> nodes = new HashMap<>();
 
+    // snapshot of nodes for lock free lookups from the node scheduler
+    private volatile Map<String, RemoteNodeMemory> nodesSnapshot = ImmutableMap.of();
+
     @GuardedBy("this")
     private final Map<MemoryPoolId, List<Consumer<MemoryPoolInfo>>> changeListeners = new HashMap<>();
 
@@ -560,6 +563,8 @@ public class ClusterMemoryManager
             nodes.remove(nodeManager.getCurrentNode().getNodeIdentifier());
         }
 
+        nodesSnapshot = ImmutableMap.copyOf(nodes);
+
         // Schedule refresh
         for (RemoteNodeMemory node : nodes.values()) {
             node.asyncRefresh(assignments);
@@ -603,6 +608,16 @@ public class ClusterMemoryManager
         return memoryInfo;
     }
 
+    @Override
+    public Optional<MemoryInfo> getMemoryInfo(String nodeIdentifier)
+    {
+        RemoteNodeMemory node = nodesSnapshot.get(nodeIdentifier);
+        if (node == null) {
+            return Optional.empty();
+        }
+        return node.getInfo();
+    }
+
     @VisibleForTesting
     synchronized ClusterMemoryPoolInfo getClusterInfo(MemoryPoolId poolId)
     {
@@ -0,0 +1,493 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.PageBuilder;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.execution.Lifespan;
+import com.facebook.presto.memory.context.LocalMemoryContext;
+import com.facebook.presto.spi.plan.PlanNodeId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Inner equi-join of two inputs sorted ascending on the join keys. The left input is
+ * the input of this operator and the right input is read from the {@link MergeJoinSource}
+ * of the same lifespan. Only the current group of right rows with equal keys is retained.
+ * Rows with a null join key never match and are skipped.
+ */
+public class MergeJoinOperator
+        implements Operator, Closeable
+{
+    public static class MergeJoinOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final JoinBridgeManager<MergeJoinSource> mergeJoinSourceManager;
+        private final List<Type> leftTypes;
+        private final List<Integer> leftKeyChannels;
+        private final List<Integer> leftOutputChannels;
+        private final List<Type> rightTypes;
+        private final List<Integer> rightKeyChannels;
+        private final List<Integer> rightOutputChannels;
+        private boolean closed;
+
+        public MergeJoinOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                JoinBridgeManager<MergeJoinSource> mergeJoinSourceManager,
+                List<Type> leftTypes,
+                List<Integer> leftKeyChannels,
+                List<Integer> leftOutputChannels,
+                List<Type> rightTypes,
+                List<Integer> rightKeyChannels,
+                List<Integer> rightOutputChannels)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.mergeJoinSourceManager = requireNonNull(mergeJoinSourceManager, "mergeJoinSourceManager is null");
+            this.leftTypes = ImmutableList.copyOf(requireNonNull(leftTypes, "leftTypes is null"));
+            this.leftKeyChannels = ImmutableList.copyOf(requireNonNull(leftKeyChannels, "leftKeyChannels is null"));
+            this.leftOutputChannels = ImmutableList.copyOf(requireNonNull(leftOutputChannels, "leftOutputChannels is null"));
+            this.rightTypes = ImmutableList.copyOf(requireNonNull(rightTypes, "rightTypes is null"));
+            this.rightKeyChannels = ImmutableList.copyOf(requireNonNull(rightKeyChannels, "rightKeyChannels is null"));
+            this.rightOutputChannels = ImmutableList.copyOf(requireNonNull(rightOutputChannels, "rightOutputChannels is null"));
+            checkArgument(!leftKeyChannels.isEmpty(), "leftKeyChannels is empty");
+            checkArgument(leftKeyChannels.size() == rightKeyChannels.size(), "left and right key channels do not match");
+            this.mergeJoinSourceManager.incrementProbeFactoryCount();
+        }
+
+        private MergeJoinOperatorFactory(MergeJoinOperatorFactory other)
+        {
+            requireNonNull(other, "other is null");
+            this.operatorId = other.operatorId;
+            this.planNodeId = other.planNodeId;
+            this.mergeJoinSourceManager = other.mergeJoinSourceManager;
+            this.leftTypes = other.leftTypes;
+            this.leftKeyChannels = other.leftKeyChannels;
+            this.leftOutputChannels = other.leftOutputChannels;
+            this.rightTypes = other.rightTypes;
+            this.rightKeyChannels = other.rightKeyChannels;
+            this.rightOutputChannels = other.rightOutputChannels;
+
+            // closed is intentionally not copied
+            closed = false;
+
+            mergeJoinSourceManager.incrementProbeFactoryCount();
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            MergeJoinSource mergeJoinSource = mergeJoinSourceManager.getJoinBridge(driverContext.getLifespan());
+            mergeJoinSource.registerConsumer();
+
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MergeJoinOperator.class.getSimpleName());
+
+            mergeJoinSourceManager.probeOperatorCreated(driverContext.getLifespan());
+            return new MergeJoinOperator(
+                    operatorContext,
+                    mergeJoinSource,
+                    leftTypes,
+                    leftKeyChannels,
+                    leftOutputChannels,
+                    rightTypes,
+                    rightKeyChannels,
+                    rightOutputChannels,
+                    () -> mergeJoinSourceManager.probeOperatorClosed(driverContext.getLifespan()));
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            mergeJoinSourceManager.probeOperatorFactoryClosedForAllLifespans();
+        }
+
+        @Override
+        public void noMoreOperators(Lifespan lifespan)
+        {
+            mergeJoinSourceManager.probeOperatorFactoryClosed(lifespan);
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            return new MergeJoinOperatorFactory(this);
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final MergeJoinSource mergeJoinSource;
+    private final List<Type> leftTypes;
+    private final int[] leftKeyChannels;
+    private final int[] leftOutputChannels;
+    private final List<Type> rightTypes;
+    private final int[] rightKeyChannels;
+    private final int[] rightOutputChannels;
+    private final List<Type> keyTypes;
+    private final Runnable afterClose;
+    private final LocalMemoryContext localUserMemoryContext;
+    private final PageBuilder pageBuilder;
+
+    private Page leftPage;
+    private int leftPosition;
+
+    private Page rightPage;
+    private int rightPosition;
+    private boolean rightFinished;
+
+    // right rows with the same join key, the first row of the group is kept in groupKey
+    private final List<Page> rightGroup = new ArrayList<>();
+    private Page groupKey;
+    private int rightGroupStart;
+    private boolean rightGroupComplete;
+
+    // progress of joining the current left row with the right group
+    private int groupPageIndex;
+    private int groupPosition;
+
+    private ListenableFuture<?> blocked = NOT_BLOCKED;
+    private boolean finishing;
+    private boolean joinFinished;
+    private boolean closed;
+
+    private MergeJoinOperator(
+            OperatorContext operatorContext,
+            MergeJoinSource mergeJoinSource,
+            List<Type> leftTypes,
+            List<Integer> leftKeyChannels,
+            List<Integer> leftOutputChannels,
+            List<Type> rightTypes,
+            List<Integer> rightKeyChannels,
+            List<Integer> rightOutputChannels,
+            Runnable afterClose)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.mergeJoinSource = requireNonNull(mergeJoinSource, "mergeJoinSource is null");
+        this.leftTypes = requireNonNull(leftTypes, "leftTypes is null");
+        this.leftKeyChannels = Ints.toArray(leftKeyChannels);
+        this.leftOutputChannels = Ints.toArray(leftOutputChannels);
+        this.rightTypes = requireNonNull(rightTypes, "rightTypes is null");
+        this.rightKeyChannels = Ints.toArray(rightKeyChannels);
+        this.rightOutputChannels = Ints.toArray(rightOutputChannels);
+        this.keyTypes = leftKeyChannels.stream()
+                .map(leftTypes::get)
+                .collect(toImmutableList());
+        this.afterClose = requireNonNull(afterClose, "afterClose is null");
+        this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+
+        ImmutableList.Builder<Type> outputTypes = ImmutableList.builder();
+        for (int channel : this.leftOutputChannels) {
+            outputTypes.add(leftTypes.get(channel));
+        }
+        for (int channel : this.rightOutputChannels) {
+            outputTypes.add(rightTypes.get(channel));
+        }
+        this.pageBuilder = new PageBuilder(outputTypes.build());
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public void finish()
+    {
+        finishing = true;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        boolean finished = ((finishing && leftPage == null) || joinFinished) && pageBuilder.isEmpty();
+
+        if (finished) {
+            close();
+        }
+        return finished;
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (blocked.isDone()) {
+            blocked = NOT_BLOCKED;
+        }
+        return blocked;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finishing && !joinFinished && leftPage == null;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(!finishing, "Operator is finishing");
+        checkState(leftPage == null, "Current page has not been completely processed yet");
+
+        if (page.getPositionCount() > 0) {
+            leftPage = page;
+            leftPosition = 0;
+        }
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (leftPage != null && !joinFinished) {
+            processLeftPage();
+        }
+
+        if (pageBuilder.isFull() || (!pageBuilder.isEmpty() && (leftPage == null || joinFinished))) {
+            Page page = pageBuilder.build();
+            pageBuilder.reset();
+            return page;
+        }
+        return null;
+    }
+
+    private void processLeftPage()
+    {
+        while (!pageBuilder.isFull()) {
+            if (leftPosition == leftPage.getPositionCount()) {
+                leftPage = null;
+                return;
+            }
+            if (hasNullKey(leftPage, leftKeyChannels, leftPosition)) {
+                leftPosition++;
+                continue;
+            }
+
+            if (groupKey != null) {
+                if (!rightGroupComplete && !collectRightGroup()) {
+                    return;
+                }
+                int comparison = compare(leftPage, leftKeyChannels, leftPosition, groupKey, rightKeyChannels, 0);
+                if (comparison == 0) {
+                    if (appendMatches()) {
+                        leftPosition++;
+                    }
+                    continue;
+                }
+                if (comparison < 0) {
+                    leftPosition++;
+                    continue;
+                }
+                clearRightGroup();
+            }
+
+            if (!advanceRight()) {
+                if (rightFinished) {
+                    // no right rows left to match
+                    joinFinished = true;
+                    leftPage = null;
+                }
+                return;
+            }
+            if (compare(leftPage, leftKeyChannels, leftPosition, rightPage, rightKeyChannels, rightPosition) < 0) {
+                leftPosition++;
+                continue;
+            }
+
+            // start a new group at the current right row
+            groupKey = rightPage.getSingleValuePage(rightPosition);
+            rightGroupStart = rightPosition;
+            rightGroupComplete = false;
+        }
+    }
+
+    /**
+     * Skips the right rows that are less than the current left row.
+     * Returns false if the right input is blocked or finished.
+     */
+    private boolean advanceRight()
+    {
+        while (pollRightPageIfNecessary()) {
+            if (!hasNullKey(rightPage, rightKeyChannels, rightPosition)
+                    && compare(leftPage, leftKeyChannels, leftPosition, rightPage, rightKeyChannels, rightPosition) <= 0) {
+                return true;
+            }
+            rightPosition++;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the right rows equal to groupKey to the right group.
+     * Returns false if the right input is blocked before the end of the group is known.
+     */
+    private boolean collectRightGroup()
+    {
+        while (true) {
+            if (rightPage != null && rightPosition == rightPage.getPositionCount()) {
+                addToRightGroup(rightGroupStart, rightPosition);
+                rightPage = null;
+                rightGroupStart = 0;
+            }
+            if (!pollRightPageIfNecessary()) {
+                if (rightFinished) {
+                    completeRightGroup();
+                    return true;
+                }
+                return false;
+            }
+            if (hasNullKey(rightPage, rightKeyChannels, rightPosition)
+                    || compare(groupKey, rightKeyChannels, 0, rightPage, rightKeyChannels, rightPosition) != 0) {
+                addToRightGroup(rightGroupStart, rightPosition);
+                completeRightGroup();
+                return true;
+            }
+            rightPosition++;
+        }
+    }
+
+    private boolean pollRightPageIfNecessary()
+    {
+        while (rightPage == null || rightPosition == rightPage.getPositionCount()) {
+            Page page = mergeJoinSource.pollPage();
+            if (page == null) {
+                if (mergeJoinSource.isFinished()) {
+                    rightFinished = true;
+                }
+                else {
+                    blocked = mergeJoinSource.isBlocked();
+                }
+                rightPage = null;
+                return false;
+            }
+            rightPage = page;
+            rightPosition = 0;
+        }
+        return true;
+    }
+
+    private void addToRightGroup(int start, int end)
+    {
+        if (end > start) {
+            rightGroup.add(rightPage.getRegion(start, end - start));
+        }
+    }
+
+    private void completeRightGroup()
+    {
+        rightGroupComplete = true;
+        long retainedSize = 0;
+        for (Page page : rightGroup) {
+            retainedSize += page.getRetainedSizeInBytes();
+        }
+        localUserMemoryContext.setBytes(retainedSize);
+    }
+
+    private void clearRightGroup()
+    {
+        rightGroup.clear();
+        groupKey = null;
+        rightGroupComplete = false;
+        localUserMemoryContext.setBytes(0);
+    }
+
+    /**
+     * Appends the current left row joined with every row of the right group.
+     * Returns false if the page builder filled up before all rows were appended.
+     */
+    private boolean appendMatches()
+    {
+        while (groupPageIndex < rightGroup.size()) {
+            Page page = rightGroup.get(groupPageIndex);
+            while (groupPosition < page.getPositionCount()) {
+                if (pageBuilder.isFull()) {
+                    return false;
+                }
+                pageBuilder.declarePosition();
+                int outputChannel = 0;
+                for (int channel : leftOutputChannels) {
+                    leftTypes.get(channel).appendTo(leftPage.getBlock(channel), leftPosition, pageBuilder.getBlockBuilder(outputChannel));
+                    outputChannel++;
+                }
+                for (int channel : rightOutputChannels) {
+                    rightTypes.get(channel).appendTo(page.getBlock(channel), groupPosition, pageBuilder.getBlockBuilder(outputChannel));
+                    outputChannel++;
+                }
+                groupPosition++;
+            }
+            groupPageIndex++;
+            groupPosition = 0;
+        }
+        groupPageIndex = 0;
+        return true;
+    }
+
+    private int compare(Page left, int[] leftChannels, int leftPosition, Page right, int[] rightChannels, int rightPosition)
+    {
+        for (int i = 0; i < leftChannels.length; i++) {
+            int comparison = keyTypes.get(i).compareTo(left.getBlock(leftChannels[i]), leftPosition, right.getBlock(rightChannels[i]), rightPosition);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean hasNullKey(Page page, int[] keyChannels, int position)
+    {
+        for (int channel : keyChannels) {
+            Block block = page.getBlock(channel);
+            if (block.isNull(position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close()
+    {
+        leftPage = null;
+        rightPage = null;
+        rightGroup.clear();
+        groupKey = null;
+        localUserMemoryContext.setBytes(0);
+        // We don't want to release the source multiple times, since its reference counted
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // `afterClose` must be run last.
+        afterClose.run();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.memory.context.LocalMemoryContext;
+import com.facebook.presto.spi.plan.PlanNodeId;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Feeds the right input of a merge join into the {@link MergeJoinSource} of its lifespan.
+ */
+public class MergeJoinSinkOperator
+        implements Operator
+{
+    public static class MergeJoinSinkOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final JoinBridgeManager<MergeJoinSource> mergeJoinSourceManager;
+
+        private boolean closed;
+
+        public MergeJoinSinkOperatorFactory(int operatorId, PlanNodeId planNodeId, JoinBridgeManager<MergeJoinSource> mergeJoinSourceManager)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.mergeJoinSourceManager = requireNonNull(mergeJoinSourceManager, "mergeJoinSourceManager is null");
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MergeJoinSinkOperator.class.getSimpleName());
+            MergeJoinSource mergeJoinSource = mergeJoinSourceManager.getJoinBridge(driverContext.getLifespan());
+            // pages of several drivers would interleave and break the sort order
+            mergeJoinSource.registerProducer();
+            return new MergeJoinSinkOperator(operatorContext, mergeJoinSource);
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            throw new UnsupportedOperationException("Merge join sink can not be duplicated");
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final MergeJoinSource mergeJoinSource;
+    private final LocalMemoryContext systemMemoryContext;
+
+    private ListenableFuture<?> blocked = NOT_BLOCKED;
+    private boolean finished;
+
+    public MergeJoinSinkOperator(OperatorContext operatorContext, MergeJoinSource mergeJoinSource)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.mergeJoinSource = requireNonNull(mergeJoinSource, "mergeJoinSource is null");
+        this.systemMemoryContext = operatorContext.localSystemMemoryContext();
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (blocked.isDone()) {
+            blocked = NOT_BLOCKED;
+            systemMemoryContext.setBytes(mergeJoinSource.getBufferedBytes());
+        }
+        return blocked;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !isFinished() && isBlocked().isDone();
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(!finished, "Operator is already finished");
+
+        if (page.getPositionCount() == 0) {
+            return;
+        }
+        blocked = mergeJoinSource.addPage(page);
+        systemMemoryContext.setBytes(mergeJoinSource.getBufferedBytes());
+        operatorContext.recordOutput(page.getSizeInBytes(), page.getPositionCount());
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        return null;
+    }
+
+    @Override
+    public void finish()
+    {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        mergeJoinSource.setNoMorePages();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        // stop reading the right input once the join does not need it anymore
+        return finished || mergeJoinSource.isDestroyed();
+    }
+
+    @Override
+    public void close()
+    {
+        systemMemoryContext.setBytes(0);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.spi.PrestoException;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounded page queue that streams the right input of a merge join to the
+ * {@link MergeJoinOperator} of the same lifespan. The producer is blocked
+ * while more than {@code maxBufferedBytes} are queued.
+ */
+@ThreadSafe
+public final class MergeJoinSource
+        implements JoinBridge
+{
+    private static final ListenableFuture<?> NOT_FULL = Futures.immediateFuture(null);
+
+    private final long maxBufferedBytes;
+
+    @GuardedBy("this")
+    private final Queue<Page> pages = new ArrayDeque<>();
+    @GuardedBy("this")
+    private long bufferedBytes;
+    @GuardedBy("this")
+    private boolean producerRegistered;
+    @GuardedBy("this")
+    private boolean consumerRegistered;
+    @GuardedBy("this")
+    private boolean noMorePages;
+    @GuardedBy("this")
+    private boolean destroyed;
+    @GuardedBy("this")
+    private SettableFuture<?> notFull;
+    @GuardedBy("this")
+    private SettableFuture<?> notEmpty = SettableFuture.create();
+
+    public MergeJoinSource(long maxBufferedBytes)
+    {
+        checkArgument(maxBufferedBytes > 0, "maxBufferedBytes must be positive");
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    public synchronized void registerProducer()
+    {
+        if (producerRegistered) {
+            throw new PrestoException(NOT_SUPPORTED, "Merge join requires the right input of each bucket to be read by a single split");
+        }
+        producerRegistered = true;
+    }
+
+    public synchronized void registerConsumer()
+    {
+        if (consumerRegistered) {
+            throw new PrestoException(NOT_SUPPORTED, "Merge join requires the left input of each bucket to be read by a single split");
+        }
+        consumerRegistered = true;
+    }
+
+    /**
+     * Returns a future that completes when the producer may add more pages.
+     */
+    public ListenableFuture<?> addPage(Page page)
+    {
+        requireNonNull(page, "page is null");
+        SettableFuture<?> pageAdded;
+        ListenableFuture<?> result;
+        synchronized (this) {
+            checkState(!noMorePages, "No more pages already set");
+            if (destroyed) {
+                // the join no longer needs the right input
+                return NOT_FULL;
+            }
+            pages.add(page);
+            bufferedBytes += page.getRetainedSizeInBytes();
+            if (bufferedBytes >= maxBufferedBytes && notFull == null) {
+                notFull = SettableFuture.create();
+            }
+            result = notFull == null ? NOT_FULL : notFull;
+            pageAdded = notEmpty;
+        }
+        pageAdded.set(null);
+        return result;
+    }
+
+    public void setNoMorePages()
+    {
+        SettableFuture<?> finished;
+        synchronized (this) {
+            noMorePages = true;
+            finished = notEmpty;
+        }
+        finished.set(null);
+    }
+
+    /**
+     * Returns a future that completes when a page can be polled or the source is finished.
+     */
+    public synchronized ListenableFuture<?> isBlocked()
+    {
+        return notEmpty;
+    }
+
+    @Nullable
+    public Page pollPage()
+    {
+        SettableFuture<?> released = null;
+        Page page;
+        synchronized (this) {
+            page = pages.poll();
+            if (page != null) {
+                bufferedBytes -= page.getRetainedSizeInBytes();
+                if (bufferedBytes < maxBufferedBytes && notFull != null) {
+                    released = notFull;
+                    notFull = null;
+                }
+            }
+            if (pages.isEmpty() && !noMorePages && !destroyed && notEmpty.isDone()) {
+                notEmpty = SettableFuture.create();
+            }
+        }
+        if (released != null) {
+            released.set(null);
+        }
+        return page;
+    }
+
+    public synchronized boolean isFinished()
+    {
+        return noMorePages && pages.isEmpty();
+    }
+
+    /**
+     * Returns true if the join finished before consuming the whole right input.
+     */
+    public synchronized boolean isDestroyed()
+    {
+        return destroyed;
+    }
+
+    public synchronized long getBufferedBytes()
+    {
+        return bufferedBytes;
+    }
+
+    @Override
+    public OuterPositionIterator getOuterPositionIterator()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void destroy()
+    {
+        SettableFuture<?> released;
+        SettableFuture<?> finished;
+        synchronized (this) {
+            destroyed = true;
+            pages.clear();
+            bufferedBytes = 0;
+            released = notFull;
+            notFull = null;
+            finished = notEmpty;
+        }
+        if (released != null) {
+            released.set(null);
+        }
+        finished.set(null);
+    }
+
+    @Override
+    public ListenableFuture<?> whenBuildFinishes()
+    {
+        // the right input is streamed rather than built, so the source can be
+        // destroyed as soon as the join operators are done with it
+        return Futures.immediateFuture(null);
+    }
+}
@@ -81,6 +81,9 @@ public class MultiChannelGroupByHash
 
     private int nextGroupId;
     private DictionaryLookBack dictionaryLookBack;
+    // dictionary that is not processed by a look back yet and the number of positions that referenced it so far
+    private Block pendingDictionary;
+    private long pendingDictionaryUsageCount;
     private long hashCollisions;
     private double expectedHashCollisions;
 
@@ -217,7 +220,7 @@ public class MultiChannelGroupByHash
         if (isRunLengthEncoded(page)) {
             return new AddRunLengthEncodedPageWork(page);
         }
-        if (canProcessDictionary(page)) {
+        if (canProcessDictionary(page) && shouldProcessDictionary(page)) {
             return new AddDictionaryPageWork(page);
         }
 
@@ -250,7 +253,7 @@ public class MultiChannelGroupByHash
         if (isRunLengthEncoded(page)) {
             return new GetRunLengthEncodedGroupIdsWork(page);
         }
-        if (canProcessDictionary(page)) {
+        if (canProcessDictionary(page) && shouldProcessDictionary(page)) {
             return new GetDictionaryGroupIdsWork(page);
         }
 
@@ -520,6 +523,31 @@ public class MultiChannelGroupByHash
         return true;
     }
 
+    // The look back allocates an entry per dictionary position, so it is only created once the dictionary
+    // was referenced by at least as many positions as it has entries. Small dictionaries of low cardinality
+    // columns qualify on the first page, while large dictionaries that are referenced by a few positions
+    // only are processed position by position.
+    private boolean shouldProcessDictionary(Page page)
+    {
+        DictionaryBlock dictionaryBlock = (DictionaryBlock) page.getBlock(channels[0]);
+        Block dictionary = dictionaryBlock.getDictionary();
+        if (dictionaryLookBack != null && dictionaryLookBack.getDictionary() == dictionary) {
+            return true;
+        }
+
+        if (pendingDictionary != dictionary) {
+            pendingDictionary = dictionary;
+            pendingDictionaryUsageCount = 0;
+        }
+        pendingDictionaryUsageCount += dictionaryBlock.getPositionCount();
+        if (pendingDictionaryUsageCount < dictionary.getPositionCount()) {
+            return false;
+        }
+
+        pendingDictionary = null;
+        return true;
+    }
+
     private boolean isRunLengthEncoded(Page page)
     {
         for (int i = 0; i < channels.length; i++) {
@@ -39,6 +39,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
+import static com.facebook.presto.common.RuntimeMetricName.MEMORY_REVOKING_TIME_NANOS;
 import static com.facebook.presto.operator.BlockedReason.WAITING_FOR_MEMORY;
 import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -96,6 +97,8 @@ public class OperatorContext
 
     @GuardedBy("this")
     private boolean memoryRevokingRequested;
+    @GuardedBy("this")
+    private long memoryRevokingRequestedNanos;
 
     @Nullable
     @GuardedBy("this")
@@ -406,6 +409,7 @@ public class OperatorContext
         synchronized (this) {
             if (!isMemoryRevokingRequested() && operatorMemoryContext.getRevocableMemory() > 0) {
                 memoryRevokingRequested = true;
+                memoryRevokingRequestedNanos = System.nanoTime();
                 revokedMemory = operatorMemoryContext.getRevocableMemory();
                 listener = memoryRevocationRequestListener;
             }
@@ -418,6 +422,10 @@ public class OperatorContext
 
     public synchronized void resetMemoryRevokingRequested()
     {
+        if (memoryRevokingRequested) {
+            // Time between the revoke request and the operator returning its revocable memory
+            runtimeStats.addMetricValue(MEMORY_REVOKING_TIME_NANOS, System.nanoTime() - memoryRevokingRequestedNanos);
+        }
         memoryRevokingRequested = false;
     }
 
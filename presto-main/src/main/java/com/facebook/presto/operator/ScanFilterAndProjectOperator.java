@@ -19,6 +19,7 @@ import com.facebook.presto.common.RuntimeStats;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.LazyBlock;
 import com.facebook.presto.common.block.LazyBlockLoader;
+import com.facebook.presto.common.block.SelectiveLazyBlockLoader;
 import com.facebook.presto.common.function.SqlFunctionProperties;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.common.type.Type;
@@ -306,10 +307,10 @@ public class ScanFilterAndProjectOperator
         return result;
     }
 
-    private final class RecordingLazyBlockLoader
+    private class RecordingLazyBlockLoader
             implements LazyBlockLoader<LazyBlock>
     {
-        private LazyBlock delegateLazyBlock;
+        protected LazyBlock delegateLazyBlock;
 
         private RecordingLazyBlockLoader(LazyBlock delegateLazyBlock)
         {
@@ -328,6 +329,27 @@ public class ScanFilterAndProjectOperator
         }
     }
 
+    private final class SelectiveRecordingLazyBlockLoader
+            extends RecordingLazyBlockLoader
+            implements SelectiveLazyBlockLoader
+    {
+        private SelectiveRecordingLazyBlockLoader(LazyBlock delegateLazyBlock)
+        {
+            super(delegateLazyBlock);
+        }
+
+        @Override
+        public Block loadPositions(int[] positions, int offset, int length)
+        {
+            checkState(delegateLazyBlock != null, "delegateLazyBlock already loaded");
+            // the delegate decodes only the selected positions
+            Block loadedBlock = delegateLazyBlock.getPositionsLazily(positions, offset, length).getLoadedBlock();
+            delegateLazyBlock = null;
+            recordInputStats();
+            return loadedBlock;
+        }
+    }
+
     private void recordCursorInputStats(long positionCount)
     {
         checkState(cursor != null, "cursor is null");
@@ -373,7 +395,10 @@ public class ScanFilterAndProjectOperator
                 if (blocks == null) {
                     blocks = copyOfPageBlocks(page);
                 }
-                blocks[i] = new LazyBlock(page.getPositionCount(), new RecordingLazyBlockLoader((LazyBlock) block));
+                LazyBlock lazyBlock = (LazyBlock) block;
+                // keep selective loading available to the page processor
+                RecordingLazyBlockLoader loader = lazyBlock.isSelectivelyLoadable() ? new SelectiveRecordingLazyBlockLoader(lazyBlock) : new RecordingLazyBlockLoader(lazyBlock);
+                blocks[i] = new LazyBlock(page.getPositionCount(), loader);
             }
             else {
                 blockSizeSum += block.getSizeInBytes();
@@ -137,7 +137,9 @@ public class PageProcessor
             }
 
             if (selectedPositions.size() != page.getPositionCount()) {
-                return WorkProcessor.create(new ProjectSelectedPositions(properties, yieldSignal, memoryContext, page, selectedPositions));
+                // columns not loaded by the filter decode only the selected positions
+                Page projectedPage = hasSelectivelyLoadableBlock(page) ? loadSelectedPositionsOnly(page, selectedPositions) : page;
+                return WorkProcessor.create(new ProjectSelectedPositions(properties, yieldSignal, memoryContext, projectedPage, selectedPositions));
             }
         }
         else if (projections.isEmpty()) {
@@ -355,6 +357,54 @@ public class PageProcessor
         return (block instanceof LazyBlock) && !((LazyBlock) block).isLoaded();
     }
 
+    private static boolean hasSelectivelyLoadableBlock(Page page)
+    {
+        for (int channel = 0; channel < page.getChannelCount(); channel++) {
+            Block block = page.getBlock(channel);
+            if (block instanceof LazyBlock && ((LazyBlock) block).isSelectivelyLoadable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the blocks that can still be loaded selectively with blocks that decode only the selected
+     * positions. The other blocks, including the ones the filter already loaded, are left untouched.
+     */
+    private static Page loadSelectedPositionsOnly(Page page, SelectedPositions selectedPositions)
+    {
+        int[] positions;
+        int offset;
+        if (selectedPositions.isList()) {
+            positions = selectedPositions.getPositions();
+            offset = selectedPositions.getOffset();
+        }
+        else {
+            positions = IntStream.range(selectedPositions.getOffset(), selectedPositions.getOffset() + selectedPositions.size()).toArray();
+            offset = 0;
+        }
+
+        // the selected values are spread back to their positions; the others are never read and point to the first value
+        int[] ids = new int[page.getPositionCount()];
+        for (int i = 0; i < selectedPositions.size(); i++) {
+            ids[positions[offset + i]] = i;
+        }
+
+        Block[] blocks = new Block[page.getChannelCount()];
+        for (int channel = 0; channel < blocks.length; channel++) {
+            Block block = page.getBlock(channel);
+            if (block instanceof LazyBlock && ((LazyBlock) block).isSelectivelyLoadable()) {
+                Block selectedBlock = ((LazyBlock) block).getPositionsLazily(positions, offset, selectedPositions.size());
+                blocks[channel] = new LazyBlock(page.getPositionCount(), lazyBlock -> lazyBlock.setBlock(new DictionaryBlock(selectedBlock.getLoadedBlock(), ids)));
+            }
+            else {
+                blocks[channel] = block;
+            }
+        }
+        return new Page(page.getPositionCount(), blocks);
+    }
+
     @NotThreadSafe
     private static class DictionarySourceIdFunction
             implements Function<DictionaryBlock, DictionaryId>
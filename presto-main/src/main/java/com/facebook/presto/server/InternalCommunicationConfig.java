@@ -16,6 +16,7 @@ package com.facebook.presto.server;
 import com.facebook.airlift.configuration.Config;
 import com.facebook.airlift.configuration.ConfigDescription;
 import com.facebook.airlift.configuration.ConfigSecuritySensitive;
+import com.facebook.airlift.configuration.LegacyConfig;
 import com.facebook.drift.transport.netty.codec.Protocol;
 import io.airlift.units.DataSize;
 
@@ -158,7 +159,8 @@ public class InternalCommunicationConfig
         return binaryTransportEnabled;
     }
 
-    @Config("experimental.internal-communication.binary-transport-enabled")
+    @LegacyConfig("experimental.internal-communication.binary-transport-enabled")
+    @Config("internal-communication.binary-transport-enabled")
     @ConfigDescription("Enables smile encoding support for coordinator-to-worker communication")
     public InternalCommunicationConfig setBinaryTransportEnabled(boolean binaryTransportEnabled)
     {
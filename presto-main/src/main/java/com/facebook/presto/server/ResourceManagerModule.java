@@ -23,6 +23,7 @@ import com.facebook.presto.execution.QueryPreparer;
 import com.facebook.presto.execution.resourceGroups.NoOpResourceGroupManager;
 import com.facebook.presto.execution.resourceGroups.ResourceGroupManager;
 import com.facebook.presto.failureDetector.FailureDetectorModule;
+import com.facebook.presto.memory.NodeMemoryInfoProvider;
 import com.facebook.presto.resourcemanager.DistributedClusterStatsResource;
 import com.facebook.presto.resourcemanager.DistributedQueryInfoResource;
 import com.facebook.presto.resourcemanager.DistributedQueryResource;
@@ -41,6 +42,8 @@ import io.airlift.units.Duration;
 
 import javax.inject.Singleton;
 
+import java.util.Optional;
+
 import static com.facebook.airlift.configuration.ConditionalModule.installModuleIf;
 import static com.facebook.airlift.discovery.client.DiscoveryBinder.discoveryBinder;
 import static com.facebook.airlift.http.client.HttpClientBinder.httpClientBinder;
@@ -96,6 +99,7 @@ public class ResourceManagerModule
         driftServerBinder(binder).bindService(ResourceManagerServer.class);
 
         binder.bind(NodeResourceStatusProvider.class).toInstance(() -> true);
+        binder.bind(NodeMemoryInfoProvider.class).toInstance(nodeIdentifier -> Optional.empty());
 
         jaxrsBinder(binder).bind(DistributedQueryResource.class);
         jaxrsBinder(binder).bind(DistributedQueryInfoResource.class);
@@ -66,6 +66,8 @@ import com.facebook.presto.execution.scheduler.NetworkTopology;
 import com.facebook.presto.execution.scheduler.NodeScheduler;
 import com.facebook.presto.execution.scheduler.NodeSchedulerConfig;
 import com.facebook.presto.execution.scheduler.NodeSchedulerExporter;
+import com.facebook.presto.execution.scheduler.nodeSelection.GeneralPoolNodeMemoryScorer;
+import com.facebook.presto.execution.scheduler.nodeSelection.NodeMemoryScorer;
 import com.facebook.presto.execution.scheduler.nodeSelection.NodeSelectionStats;
 import com.facebook.presto.execution.scheduler.nodeSelection.SimpleTtlNodeSelectorConfig;
 import com.facebook.presto.index.IndexManager;
@@ -334,6 +336,7 @@ public class ServerMainModule
         configBinder(binder).bindConfig(SimpleTtlNodeSelectorConfig.class);
         binder.bind(NodeScheduler.class).in(Scopes.SINGLETON);
         binder.bind(NodeSelectionStats.class).in(Scopes.SINGLETON);
+        binder.bind(NodeMemoryScorer.class).to(GeneralPoolNodeMemoryScorer.class).in(Scopes.SINGLETON);
         newExporter(binder).export(NodeSelectionStats.class).withGeneratedName();
         binder.bind(NodeSchedulerExporter.class).in(Scopes.SINGLETON);
         binder.bind(NodeTaskMap.class).in(Scopes.SINGLETON);
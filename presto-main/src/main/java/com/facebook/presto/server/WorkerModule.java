@@ -18,6 +18,7 @@ import com.facebook.presto.execution.resourceGroups.NoOpResourceGroupManager;
 import com.facebook.presto.execution.resourceGroups.ResourceGroupManager;
 import com.facebook.presto.failureDetector.FailureDetector;
 import com.facebook.presto.failureDetector.NoOpFailureDetector;
+import com.facebook.presto.memory.NodeMemoryInfoProvider;
 import com.facebook.presto.transaction.NoOpTransactionManager;
 import com.facebook.presto.transaction.TransactionManager;
 import com.google.inject.Binder;
@@ -27,6 +28,8 @@ import com.google.inject.Scopes;
 
 import javax.inject.Singleton;
 
+import java.util.Optional;
+
 import static com.google.common.reflect.Reflection.newProxy;
 
 public class WorkerModule
@@ -55,6 +58,9 @@ public class WorkerModule
         binder.bind(NodeResourceStatusProvider.class).toInstance(newProxy(NodeResourceStatusProvider.class, (proxy, method, args) -> {
             return true;
         }));
+
+        // Workers do not track the memory of other nodes, and never schedule tasks
+        binder.bind(NodeMemoryInfoProvider.class).toInstance(nodeIdentifier -> Optional.empty());
     }
 
     @Provides
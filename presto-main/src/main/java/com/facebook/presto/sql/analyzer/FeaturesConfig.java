@@ -114,7 +114,7 @@ public class FeaturesConfig
     private boolean optimizeJoinsWithEmptySources;
     private boolean logFormattedQueryEnabled;
 
-    private boolean dictionaryAggregation;
+    private boolean dictionaryAggregation = true;
 
     private int re2JDfaStatesLimit = Integer.MAX_VALUE;
     private int re2JDfaRetries = 5;
@@ -221,6 +221,8 @@ public class FeaturesConfig
 
     private double hyperloglogStandardErrorWarningThreshold = 0.004;
 
+    private boolean preferMergeJoin;
+
     public enum PartitioningPrecisionStrategy
     {
         // Let Presto decide when to repartition
@@ -281,6 +283,7 @@ public class FeaturesConfig
         ORDER_BY_CREATE_TIME, // When spilling is triggered, revoke tasks in order of oldest to newest
         ORDER_BY_REVOCABLE_BYTES, // When spilling is triggered, revoke tasks by most allocated revocable memory to least allocated revocable memory
         PER_TASK_MEMORY_THRESHOLD, // Spill any task after it reaches the per task memory threshold defined by experimental.spiller.max-revocable-task-memory
+        ORDER_BY_QUERY_PRIORITY, // When spilling is triggered, revoke tasks of lower query_priority queries first, oldest to newest within the same priority
     }
 
     public enum SingleStreamSpillerChoice
@@ -2013,4 +2016,17 @@ public class FeaturesConfig
         this.hyperloglogStandardErrorWarningThreshold = hyperloglogStandardErrorWarningThreshold;
         return this;
     }
+
+    public boolean isPreferMergeJoin()
+    {
+        return preferMergeJoin;
+    }
+
+    @Config("optimizer.prefer-merge-join")
+    @ConfigDescription("Use a merge join instead of a hash join when both inputs are bucketed and sorted on the join keys")
+    public FeaturesConfig setPreferMergeJoin(boolean preferMergeJoin)
+    {
+        this.preferMergeJoin = preferMergeJoin;
+        return this;
+    }
 }
@@ -73,6 +73,9 @@ import com.facebook.presto.operator.LookupJoinOperators;
 import com.facebook.presto.operator.LookupOuterOperator.LookupOuterOperatorFactory;
 import com.facebook.presto.operator.LookupSourceFactory;
 import com.facebook.presto.operator.MarkDistinctOperator.MarkDistinctOperatorFactory;
+import com.facebook.presto.operator.MergeJoinOperator.MergeJoinOperatorFactory;
+import com.facebook.presto.operator.MergeJoinSinkOperator.MergeJoinSinkOperatorFactory;
+import com.facebook.presto.operator.MergeJoinSource;
 import com.facebook.presto.operator.MetadataDeleteOperator.MetadataDeleteOperatorFactory;
 import com.facebook.presto.operator.NestedLoopJoinBridge;
 import com.facebook.presto.operator.NestedLoopJoinPagesSupplier;
@@ -186,6 +189,7 @@ import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.InternalPlanVisitor;
 import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.MergeJoinNode;
 import com.facebook.presto.sql.planner.plan.MetadataDeleteNode;
 import com.facebook.presto.sql.planner.plan.OutputNode;
 import com.facebook.presto.sql.planner.plan.RemoteSourceNode;
@@ -1813,6 +1817,69 @@ public class LocalExecutionPlanner
             }
         }
 
+        @Override
+        public PhysicalOperation visitMergeJoin(MergeJoinNode node, LocalExecutionPlanContext context)
+        {
+            PhysicalOperation leftSource = node.getLeft().accept(this, context);
+
+            LocalExecutionPlanContext rightContext = context.createSubContext();
+            PhysicalOperation rightSource = node.getRight().accept(this, rightContext);
+
+            // both inputs must be read one lifespan (bucket) at a time to be sorted on the join keys
+            checkState(
+                    leftSource.getPipelineExecutionStrategy() == GROUPED_EXECUTION && rightSource.getPipelineExecutionStrategy() == GROUPED_EXECUTION,
+                    "Both sources of a merge join are expected to be GROUPED_EXECUTION");
+
+            JoinBridgeManager<MergeJoinSource> mergeJoinSourceManager = new JoinBridgeManager<>(
+                    false,
+                    leftSource.getPipelineExecutionStrategy(),
+                    rightSource.getPipelineExecutionStrategy(),
+                    () -> new MergeJoinSource(maxLocalExchangeBufferSize.toBytes()),
+                    rightSource.getTypes());
+
+            context.addDriverFactory(
+                    rightContext.isInputDriver(),
+                    false,
+                    ImmutableList.<OperatorFactory>builder()
+                            .addAll(rightSource.getOperatorFactories())
+                            .add(new MergeJoinSinkOperatorFactory(rightContext.getNextOperatorId(), node.getId(), mergeJoinSourceManager))
+                            .build(),
+                    rightContext.getDriverInstanceCount(),
+                    rightSource.getPipelineExecutionStrategy(),
+                    Optional.empty());
+
+            ImmutableList.Builder<Integer> leftOutputChannels = ImmutableList.builder();
+            ImmutableList.Builder<Integer> rightOutputChannels = ImmutableList.builder();
+            ImmutableMap.Builder<VariableReferenceExpression, Integer> outputMappings = ImmutableMap.builder();
+            int outputChannel = 0;
+            for (VariableReferenceExpression variable : node.getOutputVariables()) {
+                if (leftSource.getLayout().containsKey(variable)) {
+                    leftOutputChannels.add(leftSource.getLayout().get(variable));
+                    outputMappings.put(variable, outputChannel);
+                    outputChannel++;
+                }
+            }
+            for (VariableReferenceExpression variable : node.getOutputVariables()) {
+                if (!leftSource.getLayout().containsKey(variable)) {
+                    rightOutputChannels.add(rightSource.getLayout().get(variable));
+                    outputMappings.put(variable, outputChannel);
+                    outputChannel++;
+                }
+            }
+
+            OperatorFactory operatorFactory = new MergeJoinOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    mergeJoinSourceManager,
+                    leftSource.getTypes(),
+                    getChannelsForVariables(Lists.transform(node.getCriteria(), JoinNode.EquiJoinClause::getLeft), leftSource.getLayout()),
+                    leftOutputChannels.build(),
+                    rightSource.getTypes(),
+                    getChannelsForVariables(Lists.transform(node.getCriteria(), JoinNode.EquiJoinClause::getRight), rightSource.getLayout()),
+                    rightOutputChannels.build());
+            return new PhysicalOperation(operatorFactory, outputMappings.build(), context, leftSource);
+        }
+
         @Override
         public PhysicalOperation visitSpatialJoin(SpatialJoinNode node, LocalExecutionPlanContext context)
         {
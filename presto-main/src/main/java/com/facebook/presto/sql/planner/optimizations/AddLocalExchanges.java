@@ -43,6 +43,7 @@ import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.InternalPlanVisitor;
 import com.facebook.presto.sql.planner.plan.JoinNode;
 import com.facebook.presto.sql.planner.plan.LateralJoinNode;
+import com.facebook.presto.sql.planner.plan.MergeJoinNode;
 import com.facebook.presto.sql.planner.plan.OutputNode;
 import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
@@ -762,6 +763,16 @@ public class AddLocalExchanges
             return rebaseAndDeriveProperties(node, ImmutableList.of(probe, build));
         }
 
+        @Override
+        public PlanWithProperties visitMergeJoin(MergeJoinNode node, StreamPreferredProperties parentPreferences)
+        {
+            // a local exchange would interleave the sorted streams read from the table scans
+            PlanWithProperties left = planAndEnforce(node.getLeft(), any(), any());
+            PlanWithProperties right = planAndEnforce(node.getRight(), any(), any());
+
+            return rebaseAndDeriveProperties(node, ImmutableList.of(left, right));
+        }
+
         @Override
         public PlanWithProperties visitIndexJoin(IndexJoinNode node, StreamPreferredProperties parentPreferences)
         {
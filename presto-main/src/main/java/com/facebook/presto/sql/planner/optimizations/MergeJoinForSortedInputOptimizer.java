@@ -0,0 +1,260 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.VarcharType;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.TableLayout.TablePartitioning;
+import com.facebook.presto.spi.ConstantProperty;
+import com.facebook.presto.spi.LocalProperty;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.spi.WarningCollector;
+import com.facebook.presto.spi.plan.FilterNode;
+import com.facebook.presto.spi.plan.PlanNode;
+import com.facebook.presto.spi.plan.PlanNodeIdAllocator;
+import com.facebook.presto.spi.plan.ProjectNode;
+import com.facebook.presto.spi.plan.TableScanNode;
+import com.facebook.presto.spi.relation.VariableReferenceExpression;
+import com.facebook.presto.sql.parser.SqlParser;
+import com.facebook.presto.sql.planner.PlanVariableAllocator;
+import com.facebook.presto.sql.planner.TypeProvider;
+import com.facebook.presto.sql.planner.plan.ExchangeNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.MergeJoinNode;
+import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.SystemSessionProperties.isGroupedExecutionEnabled;
+import static com.facebook.presto.SystemSessionProperties.preferMergeJoin;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DateType.DATE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.SmallintType.SMALLINT;
+import static com.facebook.presto.common.type.TinyintType.TINYINT;
+import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.SimplePlanRewriter.rewriteWith;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Replaces a partitioned inner join of two bucketed tables with a {@link MergeJoinNode} when
+ * both tables are sorted on the join keys within each bucket. The join must run with grouped
+ * execution, so that every lifespan reads a single bucket of both tables, and each bucket must
+ * be read as a single stream, which the connector declares with stream partitioning on the sort columns.
+ */
+public class MergeJoinForSortedInputOptimizer
+        implements PlanOptimizer
+{
+    // types whose order in the engine is the same as the order written by the connector
+    private static final Set<Type> MERGE_JOIN_KEY_TYPES = ImmutableSet.of(BIGINT, INTEGER, SMALLINT, TINYINT, DATE);
+
+    private final Metadata metadata;
+    private final SqlParser parser;
+
+    public MergeJoinForSortedInputOptimizer(Metadata metadata, SqlParser parser)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.parser = requireNonNull(parser, "parser is null");
+    }
+
+    @Override
+    public PlanNode optimize(PlanNode plan, Session session, TypeProvider types, PlanVariableAllocator variableAllocator, PlanNodeIdAllocator idAllocator, WarningCollector warningCollector)
+    {
+        if (preferMergeJoin(session) && isGroupedExecutionEnabled(session)) {
+            return rewriteWith(new Rewriter(session, types), plan, true);
+        }
+        return plan;
+    }
+
+    /**
+     * The context tells whether the grouped execution of a merge join at the current node
+     * would be kept by the plan nodes above it, up to the remote exchange that ends the fragment.
+     */
+    private class Rewriter
+            extends SimplePlanRewriter<Boolean>
+    {
+        private final Session session;
+        private final TypeProvider types;
+
+        private Rewriter(Session session, TypeProvider types)
+        {
+            this.session = requireNonNull(session, "session is null");
+            this.types = requireNonNull(types, "types is null");
+        }
+
+        @Override
+        public PlanNode visitPlan(PlanNode node, RewriteContext<Boolean> context)
+        {
+            // a sibling of another input may not be capable of grouped execution
+            return context.defaultRewrite(node, context.get() && node.getSources().size() == 1);
+        }
+
+        @Override
+        public PlanNode visitExchange(ExchangeNode node, RewriteContext<Boolean> context)
+        {
+            return context.defaultRewrite(node, node.getScope().isRemote() || (context.get() && node.getSources().size() == 1));
+        }
+
+        @Override
+        public PlanNode visitJoin(JoinNode node, RewriteContext<Boolean> context)
+        {
+            if (context.get()) {
+                Optional<MergeJoinNode> mergeJoin = tryCreateMergeJoin(node);
+                if (mergeJoin.isPresent()) {
+                    return mergeJoin.get();
+                }
+            }
+
+            // the join keeps the grouped execution of the probe side unless it has to produce unmatched build rows
+            boolean probeEligible = context.get() && (node.getType() == INNER || node.getType() == JoinNode.Type.LEFT);
+            PlanNode left = context.rewrite(node.getLeft(), probeEligible);
+            PlanNode right = context.rewrite(node.getRight(), false);
+            if (left == node.getLeft() && right == node.getRight()) {
+                return node;
+            }
+            return node.replaceChildren(ImmutableList.of(left, right));
+        }
+
+        private Optional<MergeJoinNode> tryCreateMergeJoin(JoinNode node)
+        {
+            if (node.getType() != INNER
+                    || node.getCriteria().isEmpty()
+                    || node.getFilter().isPresent()
+                    || !node.getDynamicFilters().isEmpty()
+                    || !node.getDistributionType().equals(Optional.of(PARTITIONED))) {
+                return Optional.empty();
+            }
+
+            Optional<TableScanNode> leftScan = getTableScan(node.getLeft());
+            Optional<TableScanNode> rightScan = getTableScan(node.getRight());
+            if (!leftScan.isPresent() || !rightScan.isPresent()) {
+                return Optional.empty();
+            }
+            // every lifespan must read the same single bucket of both tables
+            Optional<TablePartitioning> leftPartitioning = metadata.getLayout(session, leftScan.get().getTable()).getTablePartitioning();
+            Optional<TablePartitioning> rightPartitioning = metadata.getLayout(session, rightScan.get().getTable()).getTablePartitioning();
+            if (!leftPartitioning.isPresent()
+                    || !rightPartitioning.isPresent()
+                    || !leftPartitioning.get().getPartitioningHandle().equals(rightPartitioning.get().getPartitioningHandle())) {
+                return Optional.empty();
+            }
+
+            Map<VariableReferenceExpression, JoinNode.EquiJoinClause> clauses = new HashMap<>();
+            Set<VariableReferenceExpression> rightKeys = new HashSet<>();
+            for (JoinNode.EquiJoinClause clause : node.getCriteria()) {
+                Type type = clause.getLeft().getType();
+                if (!type.equals(clause.getRight().getType()) || !(MERGE_JOIN_KEY_TYPES.contains(type) || type instanceof VarcharType)) {
+                    return Optional.empty();
+                }
+                if (clauses.put(clause.getLeft(), clause) != null || !rightKeys.add(clause.getRight())) {
+                    return Optional.empty();
+                }
+            }
+
+            // order the join keys by the sort order of the left input
+            List<LocalProperty<VariableReferenceExpression>> leftProperties = PropertyDerivations.derivePropertiesRecursively(node.getLeft(), metadata, session, types, parser).getLocalProperties();
+            List<VariableReferenceExpression> leftSortKeys = getAscendingSortPrefix(leftProperties, clauses.keySet());
+            if (leftSortKeys.size() != clauses.size()) {
+                return Optional.empty();
+            }
+            ImmutableList.Builder<JoinNode.EquiJoinClause> criteria = ImmutableList.builder();
+            List<VariableReferenceExpression> expectedRightSortKeys = new ArrayList<>();
+            for (VariableReferenceExpression leftKey : leftSortKeys) {
+                JoinNode.EquiJoinClause clause = clauses.get(leftKey);
+                criteria.add(clause);
+                expectedRightSortKeys.add(clause.getRight());
+            }
+            List<LocalProperty<VariableReferenceExpression>> rightProperties = PropertyDerivations.derivePropertiesRecursively(node.getRight(), metadata, session, types, parser).getLocalProperties();
+            if (!getAscendingSortPrefix(rightProperties, rightKeys).equals(expectedRightSortKeys)) {
+                return Optional.empty();
+            }
+
+            if (!isStreamPartitionedOnSortColumns(node.getLeft(), leftProperties) || !isStreamPartitionedOnSortColumns(node.getRight(), rightProperties)) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new MergeJoinNode(
+                    node.getSourceLocation(),
+                    node.getId(),
+                    INNER,
+                    node.getLeft(),
+                    node.getRight(),
+                    criteria.build(),
+                    node.getOutputVariables()));
+        }
+
+        /**
+         * Each stream of the input must contain a contiguous run of the sort order, which holds when
+         * the connector only splits the input on its sort columns, e.g. a single partition of a table.
+         * Connectors must not report this stream partitioning when a bucket can be read by more than
+         * one split, so such inputs keep the hash join.
+         */
+        private boolean isStreamPartitionedOnSortColumns(PlanNode node, List<LocalProperty<VariableReferenceExpression>> localProperties)
+        {
+            Optional<List<VariableReferenceExpression>> streamPartitioning = StreamPropertyDerivations.derivePropertiesRecursively(node, metadata, session, types, parser).getPartitioningColumns();
+            if (!streamPartitioning.isPresent()) {
+                return false;
+            }
+            Set<VariableReferenceExpression> sortColumns = localProperties.stream()
+                    .filter(SortingProperty.class::isInstance)
+                    .flatMap(property -> property.getColumns().stream())
+                    .collect(toImmutableSet());
+            return sortColumns.containsAll(streamPartitioning.get());
+        }
+    }
+
+    private static List<VariableReferenceExpression> getAscendingSortPrefix(List<LocalProperty<VariableReferenceExpression>> localProperties, Set<VariableReferenceExpression> keys)
+    {
+        ImmutableList.Builder<VariableReferenceExpression> sortKeys = ImmutableList.builder();
+        Set<VariableReferenceExpression> seen = new HashSet<>();
+        for (LocalProperty<VariableReferenceExpression> property : localProperties) {
+            if (property instanceof ConstantProperty) {
+                continue;
+            }
+            if (!(property instanceof SortingProperty)) {
+                break;
+            }
+            VariableReferenceExpression column = getOnlyElement(property.getColumns());
+            if (!keys.contains(column) || !((SortingProperty<?>) property).getOrder().isAscending() || !seen.add(column)) {
+                break;
+            }
+            sortKeys.add(column);
+        }
+        return sortKeys.build();
+    }
+
+    private static Optional<TableScanNode> getTableScan(PlanNode node)
+    {
+        while (node instanceof ProjectNode || node instanceof FilterNode) {
+            node = node.getSources().get(0);
+        }
+        if (node instanceof TableScanNode) {
+            return Optional.of((TableScanNode) node);
+        }
+        return Optional.empty();
+    }
+}
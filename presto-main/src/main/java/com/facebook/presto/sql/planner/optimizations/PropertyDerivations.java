@@ -54,6 +54,7 @@ import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.InternalPlanVisitor;
 import com.facebook.presto.sql.planner.plan.JoinNode;
 import com.facebook.presto.sql.planner.plan.LateralJoinNode;
+import com.facebook.presto.sql.planner.plan.MergeJoinNode;
 import com.facebook.presto.sql.planner.plan.OutputNode;
 import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SampleNode;
@@ -488,6 +489,22 @@ public class PropertyDerivations
             }
         }
 
+        @Override
+        public ActualProperties visitMergeJoin(MergeJoinNode node, List<ActualProperties> inputProperties)
+        {
+            // merge join is always an inner join that emits the matches in the order of the left input
+            ActualProperties leftProperties = inputProperties.get(0).translateVariable(column -> filterOrRewrite(node.getOutputVariables(), node.getCriteria(), column));
+            ActualProperties rightProperties = inputProperties.get(1).translateVariable(column -> filterOrRewrite(node.getOutputVariables(), node.getCriteria(), column));
+
+            Map<VariableReferenceExpression, ConstantExpression> constants = new HashMap<>();
+            constants.putAll(leftProperties.getConstants());
+            constants.putAll(rightProperties.getConstants());
+
+            return ActualProperties.builderFrom(leftProperties)
+                    .constants(constants)
+                    .build();
+        }
+
         @Override
         public ActualProperties visitIndexJoin(IndexJoinNode node, List<ActualProperties> inputProperties)
         {
@@ -45,6 +45,7 @@ import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.InternalPlanVisitor;
 import com.facebook.presto.sql.planner.plan.JoinNode;
 import com.facebook.presto.sql.planner.plan.LateralJoinNode;
+import com.facebook.presto.sql.planner.plan.MergeJoinNode;
 import com.facebook.presto.sql.planner.plan.OutputNode;
 import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SampleNode;
@@ -220,6 +221,12 @@ public final class StreamPropertyDerivations
             }
         }
 
+        @Override
+        public StreamProperties visitMergeJoin(MergeJoinNode node, List<StreamProperties> inputProperties)
+        {
+            return inputProperties.get(0).translate(column -> PropertyDerivations.filterOrRewrite(node.getOutputVariables(), node.getCriteria(), column));
+        }
+
         @Override
         public StreamProperties visitIndexJoin(IndexJoinNode node, List<StreamProperties> inputProperties)
         {
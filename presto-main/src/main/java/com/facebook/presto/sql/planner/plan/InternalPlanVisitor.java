@@ -60,6 +60,11 @@ public abstract class InternalPlanVisitor<R, C>
         return visitPlan(node, context);
     }
 
+    public R visitMergeJoin(MergeJoinNode node, C context)
+    {
+        return visitPlan(node, context);
+    }
+
     public R visitIndexJoin(IndexJoinNode node, C context)
     {
         return visitPlan(node, context);
@@ -16,6 +16,7 @@ package com.facebook.presto.execution;
 
 import com.facebook.airlift.stats.CounterStat;
 import com.facebook.airlift.stats.TestingGcMonitor;
+import com.facebook.presto.Session;
 import com.facebook.presto.common.block.BlockEncodingManager;
 import com.facebook.presto.execution.TestSqlTaskManager.MockExchangeClientSupplier;
 import com.facebook.presto.execution.buffer.OutputBuffers;
@@ -64,6 +65,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import static com.facebook.airlift.concurrent.Threads.threadsNamed;
 import static com.facebook.airlift.json.JsonCodec.listJsonCodec;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.SystemSessionProperties.QUERY_PRIORITY;
+import static com.facebook.presto.common.RuntimeMetricName.MEMORY_REVOKING_TIME_NANOS;
 import static com.facebook.presto.execution.SqlTask.createSqlTask;
 import static com.facebook.presto.execution.TaskManagerConfig.TaskPriorityTracking.TASK_FAIR;
 import static com.facebook.presto.execution.TaskTestUtils.PLAN_FRAGMENT;
@@ -76,6 +79,7 @@ import static com.facebook.presto.execution.buffer.OutputBuffers.BufferType.PART
 import static com.facebook.presto.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
 import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
 import static com.facebook.presto.sql.analyzer.FeaturesConfig.TaskSpillingStrategy.ORDER_BY_CREATE_TIME;
+import static com.facebook.presto.sql.analyzer.FeaturesConfig.TaskSpillingStrategy.ORDER_BY_QUERY_PRIORITY;
 import static com.facebook.presto.sql.analyzer.FeaturesConfig.TaskSpillingStrategy.ORDER_BY_REVOCABLE_BYTES;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
@@ -359,6 +363,48 @@ public class TestMemoryRevokingScheduler
         }
     }
 
+    @Test
+    public void testTaskRevokingOrderForQueryPriority()
+            throws Exception
+    {
+        SqlTask sqlTask1 = newSqlTask(new QueryId("high_priority_query"), memoryPool);
+        TestOperatorContext operatorContext1 = createTestingOperatorContexts(sqlTask1, "operator1", createSessionWithQueryPriority(2));
+
+        SqlTask sqlTask2 = newSqlTask(new QueryId("low_priority_query"), memoryPool);
+        TestOperatorContext operatorContext2 = createTestingOperatorContexts(sqlTask2, "operator2", createSessionWithQueryPriority(1));
+
+        allOperatorContexts = ImmutableSet.of(operatorContext1, operatorContext2);
+        List<SqlTask> tasks = ImmutableList.of(sqlTask1, sqlTask2);
+        MemoryRevokingScheduler scheduler = new MemoryRevokingScheduler(
+                singletonList(memoryPool),
+                () -> tasks,
+                queryContexts::get,
+                1.0,
+                1.0,
+                ORDER_BY_QUERY_PRIORITY,
+                false);
+        try {
+            scheduler.start();
+
+            scheduler.awaitAsynchronousCallbacksRun();
+            assertMemoryRevokingNotRequested();
+
+            operatorContext1.localRevocableMemoryContext().setBytes(11);
+            operatorContext2.localRevocableMemoryContext().setBytes(12);
+
+            scheduler.awaitAsynchronousCallbacksRun();
+            assertMemoryRevokingRequestedFor(operatorContext1, operatorContext2);
+            assertEquals(TestOperatorContext.firstOperator, "operator2"); // operator2 should revoke first even though it was created later, since its query has a lower priority
+
+            operatorContext2.resetMemoryRevokingRequested();
+            assertTrue(operatorContext2.getRuntimeStats().getMetrics().containsKey(MEMORY_REVOKING_TIME_NANOS));
+            assertFalse(operatorContext1.getRuntimeStats().getMetrics().containsKey(MEMORY_REVOKING_TIME_NANOS));
+        }
+        finally {
+            scheduler.stop();
+        }
+    }
+
     @Test
     public void testTaskThresholdRevokingScheduler()
             throws Exception
@@ -697,9 +743,14 @@ public class TestMemoryRevokingScheduler
     }
 
     private TestOperatorContext createTestingOperatorContexts(SqlTask sqlTask, String operatorName)
+    {
+        return createTestingOperatorContexts(sqlTask, operatorName, TEST_SESSION);
+    }
+
+    private TestOperatorContext createTestingOperatorContexts(SqlTask sqlTask, String operatorName, Session session)
     {
         // update task to update underlying taskHolderReference with taskExecution + create a new taskContext
-        sqlTask.updateTask(TEST_SESSION,
+        sqlTask.updateTask(session,
                 Optional.of(PLAN_FRAGMENT),
                 ImmutableList.of(new TaskSource(TABLE_SCAN_NODE_ID, ImmutableSet.of(SPLIT), false)),
                 createInitialEmptyOutputBuffers(PARTITIONED).withBuffer(OUT, 0).withNoMoreBufferIds(),
@@ -780,6 +831,13 @@ public class TestMemoryRevokingScheduler
         assertMemoryRevokingRequestedFor();
     }
 
+    private static Session createSessionWithQueryPriority(int queryPriority)
+    {
+        return Session.builder(TEST_SESSION)
+                .setSystemProperty(QUERY_PRIORITY, String.valueOf(queryPriority))
+                .build();
+    }
+
     private SqlTask newSqlTask(QueryId queryId, MemoryPool memoryPool)
     {
         QueryContext queryContext = getOrCreateQueryContext(queryId, memoryPool);
@@ -24,9 +24,11 @@ import com.facebook.presto.execution.scheduler.NetworkTopology;
 import com.facebook.presto.execution.scheduler.NodeScheduler;
 import com.facebook.presto.execution.scheduler.NodeSchedulerConfig;
 import com.facebook.presto.execution.scheduler.SplitPlacementResult;
+import com.facebook.presto.execution.scheduler.nodeSelection.GeneralPoolNodeMemoryScorer;
 import com.facebook.presto.execution.scheduler.nodeSelection.NodeSelectionStats;
 import com.facebook.presto.execution.scheduler.nodeSelection.NodeSelector;
 import com.facebook.presto.execution.scheduler.nodeSelection.SimpleTtlNodeSelectorConfig;
+import com.facebook.presto.memory.MemoryInfo;
 import com.facebook.presto.metadata.InMemoryNodeManager;
 import com.facebook.presto.metadata.InternalNode;
 import com.facebook.presto.metadata.Split;
@@ -38,6 +40,7 @@ import com.facebook.presto.spi.HostAddress;
 import com.facebook.presto.spi.NodeProvider;
 import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.spi.SplitWeight;
+import com.facebook.presto.spi.memory.MemoryPoolInfo;
 import com.facebook.presto.spi.plan.PlanNodeId;
 import com.facebook.presto.spi.schedule.NodeSelectionStrategy;
 import com.facebook.presto.spi.ttl.ConfidenceBasedTtlInfo;
@@ -90,10 +93,13 @@ import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
 import static com.facebook.presto.SystemSessionProperties.MAX_UNACKNOWLEDGED_SPLITS_PER_TASK;
 import static com.facebook.presto.SystemSessionProperties.RESOURCE_AWARE_SCHEDULING_STRATEGY;
 import static com.facebook.presto.execution.scheduler.NetworkLocation.ROOT_LOCATION;
+import static com.facebook.presto.execution.scheduler.NodeSelectionHashStrategy.BOUNDED_LOAD_CONSISTENT_HASHING;
 import static com.facebook.presto.execution.scheduler.NodeSelectionHashStrategy.CONSISTENT_HASHING;
+import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
 import static com.facebook.presto.spi.schedule.NodeSelectionStrategy.HARD_AFFINITY;
 import static com.facebook.presto.spi.schedule.NodeSelectionStrategy.NO_PREFERENCE;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.Executors.newCachedThreadPool;
@@ -525,6 +531,79 @@ public class TestNodeScheduler
         }
     }
 
+    @Test
+    public void testBatchSplitAssignment()
+    {
+        NodeScheduler nodeScheduler = new NodeScheduler(
+                new LegacyNetworkTopology(),
+                nodeManager,
+                new NodeSelectionStats(),
+                nodeSchedulerConfig.setBatchSplitAssignmentEnabled(true),
+                nodeTaskMap,
+                new ThrowingNodeTtlFetcherManager(),
+                new NoOpQueryManager(),
+                new SimpleTtlNodeSelectorConfig());
+        NodeSelector nodeSelector = nodeScheduler.createNodeSelector(session, CONNECTOR_ID);
+
+        // Splits are spread evenly, and the batch is capped by the per node limit
+        int nodeCount = nodeManager.getActiveConnectorNodes(CONNECTOR_ID).size();
+        Set<Split> splits = new HashSet<>();
+        for (int i = 0; i < nodeCount * 20 + 1; i++) {
+            splits.add(new Split(CONNECTOR_ID, TestingTransactionHandle.create(), new TestSplitRemote()));
+        }
+        SplitPlacementResult result = nodeSelector.computeAssignments(splits, ImmutableList.copyOf(taskMap.values()));
+        Multimap<InternalNode, Split> assignments = result.getAssignments();
+        assertEquals(assignments.entries().size(), nodeCount * 20);
+        for (InternalNode node : nodeManager.getActiveConnectorNodes(CONNECTOR_ID)) {
+            assertEquals(assignments.get(node).size(), 20);
+        }
+    }
+
+    @Test
+    public void testMemoryAwareScheduling()
+    {
+        InternalNode memoryPressuredNode = nodeManager.getActiveConnectorNodes(CONNECTOR_ID).stream()
+                .filter(node -> node.getNodeIdentifier().equals("other1"))
+                .findFirst()
+                .get();
+        MemoryInfo fullGeneralPool = new MemoryInfo(
+                new DataSize(1, GIGABYTE),
+                ImmutableMap.of(GENERAL_POOL, new MemoryPoolInfo(1000, 900, 50, ImmutableMap.of(), ImmutableMap.of(), ImmutableMap.of())));
+        NodeSelectionStats nodeSelectionStats = new NodeSelectionStats();
+        NodeScheduler nodeScheduler = new NodeScheduler(
+                new LegacyNetworkTopology(),
+                nodeManager,
+                nodeSelectionStats,
+                nodeSchedulerConfig,
+                nodeTaskMap,
+                new ThrowingNodeTtlFetcherManager(),
+                new NoOpQueryManager(),
+                new SimpleTtlNodeSelectorConfig(),
+                nodeIdentifier -> nodeIdentifier.equals(memoryPressuredNode.getNodeIdentifier()) ? Optional.of(fullGeneralPool) : Optional.empty(),
+                new GeneralPoolNodeMemoryScorer());
+        Session memoryAwareSession = TestingSession.testSessionBuilder()
+                .setSystemProperty(RESOURCE_AWARE_SCHEDULING_STRATEGY, NodeSchedulerConfig.ResourceAwareSchedulingStrategy.MEMORY.name())
+                .build();
+        NodeSelector nodeSelector = nodeScheduler.createNodeSelector(memoryAwareSession, CONNECTOR_ID);
+
+        Set<Split> splits = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            splits.add(new Split(CONNECTOR_ID, TestingTransactionHandle.create(), new TestSplitRemote()));
+        }
+        Multimap<InternalNode, Split> assignments = nodeSelector.computeAssignments(splits, ImmutableList.copyOf(taskMap.values())).getAssignments();
+        assertEquals(assignments.size(), 10);
+        assertFalse(assignments.containsKey(memoryPressuredNode));
+        assertEquals(nodeSelectionStats.getMemoryPressuredNodeAvoidedCount().getTotalCount(), 1);
+
+        // the node is counted once for the stage, however many scheduling calls avoid it
+        nodeSelector.computeAssignments(splits, ImmutableList.copyOf(taskMap.values()));
+        assertEquals(nodeSelectionStats.getMemoryPressuredNodeAvoidedCount().getTotalCount(), 1);
+
+        // the node under memory pressure is only picked once the other nodes are taken
+        assertFalse(nodeSelector.selectRandomNodes(2).contains(memoryPressuredNode));
+        assertTrue(nodeSelector.selectRandomNodes(3).contains(memoryPressuredNode));
+    }
+
     @Test
     public void testAffinityAssignmentNotSupported()
     {
@@ -726,6 +805,37 @@ public class TestNodeScheduler
         assertEquals(splitPlacementResult.getAssignments().get(node4).stream().map(Split::getConnectorSplit).map(ConnectorSplit::getSplitIdentifier).collect(toImmutableSet()), ImmutableSet.of(5, 6, 8));
     }
 
+    @Test
+    public void testAffinityAssignmentWithBoundedLoadConsistentHashing()
+    {
+        NodeTaskMap nodeTaskMap = new NodeTaskMap(finalizerService);
+        TestingTransactionHandle transactionHandle = TestingTransactionHandle.create();
+        NodeSchedulerConfig nodeSchedulerConfig = new NodeSchedulerConfig()
+                .setNodeSelectionHashStrategy(BOUNDED_LOAD_CONSISTENT_HASHING)
+                .setBoundedLoadFactor(1.0)
+                .setMaxSplitsPerNode(100)
+                .setIncludeCoordinator(false)
+                .setMaxPendingSplitsPerTask(100);
+
+        NodeSelectionStats nodeSelectionStats = new NodeSelectionStats();
+        NodeScheduler nodeScheduler = new NodeScheduler(new LegacyNetworkTopology(), nodeManager, nodeSelectionStats, nodeSchedulerConfig, nodeTaskMap, new ThrowingNodeTtlFetcherManager(), new NoOpQueryManager(), new SimpleTtlNodeSelectorConfig());
+        NodeSelector nodeSelector = nodeScheduler.createNodeSelector(session, CONNECTOR_ID, 3);
+
+        Set<Split> splits = new HashSet<>();
+        IntStream.range(0, 30).forEach(i -> splits.add(new Split(CONNECTOR_ID, transactionHandle, new TestAffinitySplitRemote(i))));
+
+        // with a load factor of 1 no node can take more than the average, so preferred nodes are skipped once they are full
+        SplitPlacementResult splitPlacementResult = nodeSelector.computeAssignments(splits, ImmutableList.of());
+        assertEquals(splitPlacementResult.getAssignments().keySet().size(), 3);
+        for (InternalNode node : splitPlacementResult.getAssignments().keySet()) {
+            assertEquals(splitPlacementResult.getAssignments().get(node).size(), 10);
+        }
+        assertEquals(nodeSelectionStats.getSoftAffinityPreferredNodeSelectedCount().getTotalCount() + nodeSelectionStats.getSoftAffinityNonPreferredNodeSelectedCount().getTotalCount(), 30);
+        assertEquals(nodeSelectionStats.getSoftAffinityNonPreferredNodeSelectedCount().getTotalCount(), nodeSelectionStats.getNonPreferredNodeSelectedCount().getTotalCount());
+        // every split that left its preferred node did so because of the load bound, and is counted once
+        assertEquals(nodeSelectionStats.getOverloadedPreferredNodeSkippedCount().getTotalCount(), nodeSelectionStats.getSoftAffinityNonPreferredNodeSelectedCount().getTotalCount());
+    }
+
     @Test
     public void testHardAffinityAssignment()
     {
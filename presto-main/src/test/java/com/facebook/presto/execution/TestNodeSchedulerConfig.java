@@ -18,8 +18,13 @@ import com.facebook.presto.execution.scheduler.NodeSchedulerConfig;
 import com.google.common.collect.ImmutableMap;
 import org.testng.annotations.Test;
 
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+
 import java.util.Map;
 
+import static com.facebook.airlift.testing.ValidationAssertions.assertFailsValidation;
+import static com.facebook.airlift.testing.ValidationAssertions.assertValidates;
 import static com.facebook.presto.execution.scheduler.NodeSchedulerConfig.NetworkTopologyType.LEGACY;
 import static com.facebook.presto.execution.scheduler.NodeSchedulerConfig.ResourceAwareSchedulingStrategy.RANDOM;
 import static com.facebook.presto.execution.scheduler.NodeSchedulerConfig.ResourceAwareSchedulingStrategy.TTL;
@@ -40,7 +45,11 @@ public class TestNodeSchedulerConfig
                 .setIncludeCoordinator(true)
                 .setNodeSelectionHashStrategy(MODULAR_HASHING)
                 .setMinVirtualNodeCount(1000)
-                .setResourceAwareSchedulingStrategy(RANDOM));
+                .setBoundedLoadFactor(1.25)
+                .setBoundedLoadVirtualNodesPerNode(100)
+                .setResourceAwareSchedulingStrategy(RANDOM)
+                .setBatchSplitAssignmentEnabled(false)
+                .setMemoryPressureThreshold(0.9));
     }
 
     @Test
@@ -55,7 +64,11 @@ public class TestNodeSchedulerConfig
                 .put("node-scheduler.max-splits-per-node", "101")
                 .put("node-scheduler.node-selection-hash-strategy", "CONSISTENT_HASHING")
                 .put("node-scheduler.consistent-hashing-min-virtual-node-count", "2000")
+                .put("node-scheduler.bounded-load-factor", "1.5")
+                .put("node-scheduler.bounded-load-virtual-nodes-per-node", "200")
                 .put("experimental.resource-aware-scheduling-strategy", "TTL")
+                .put("node-scheduler.batch-split-assignment-enabled", "true")
+                .put("node-scheduler.memory-pressure-threshold", "0.8")
                 .build();
 
         NodeSchedulerConfig expected = new NodeSchedulerConfig()
@@ -67,8 +80,20 @@ public class TestNodeSchedulerConfig
                 .setMinCandidates(11)
                 .setNodeSelectionHashStrategy(CONSISTENT_HASHING)
                 .setMinVirtualNodeCount(2000)
-                .setResourceAwareSchedulingStrategy(TTL);
+                .setBoundedLoadFactor(1.5)
+                .setBoundedLoadVirtualNodesPerNode(200)
+                .setResourceAwareSchedulingStrategy(TTL)
+                .setBatchSplitAssignmentEnabled(true)
+                .setMemoryPressureThreshold(0.8);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
+
+    @Test
+    public void testMemoryPressureThresholdValidation()
+    {
+        assertValidates(new NodeSchedulerConfig().setMemoryPressureThreshold(1.0));
+        assertFailsValidation(new NodeSchedulerConfig().setMemoryPressureThreshold(0.0), "memoryPressureThreshold", "must be greater than 0.0", DecimalMin.class);
+        assertFailsValidation(new NodeSchedulerConfig().setMemoryPressureThreshold(1.5), "memoryPressureThreshold", "must be less than or equal to 1.0", DecimalMax.class);
+    }
 }
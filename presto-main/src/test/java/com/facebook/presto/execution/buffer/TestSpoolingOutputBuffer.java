@@ -549,6 +549,46 @@ public class TestSpoolingOutputBuffer
         assertTrue(buffer.isFinished());
     }
 
+    @Test
+    public void testSpoolInMemoryPagesOnNoMorePages()
+    {
+        SpoolingOutputBuffer buffer = createSpoolingOutputBuffer();
+
+        // add three pages into a file and two pages in memory
+        List<Page> pages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            addPage(buffer, createPage(i));
+            pages.add(createPage(i));
+        }
+        assertTrue(buffer.getUtilization() > 0);
+
+        // the in memory pages are moved to storage since the result was already spooled
+        buffer.setNoMorePages();
+        assertEquals(buffer.getUtilization(), 0.0);
+        compareTotalBuffered(buffer, 5);
+
+        assertBufferResultEquals(TYPES, getBufferResult(buffer, BUFFER_ID, 0, sizeOfPages(5), MAX_WAIT), createBufferResult(TASK_INSTANCE_ID, 0, pages));
+        assertBufferResultEquals(TYPES, getBufferResult(buffer, BUFFER_ID, 5, sizeOfPages(1), NO_WAIT), emptyResults(TASK_INSTANCE_ID, 5, true));
+        compareTotalBuffered(buffer, 0);
+    }
+
+    @Test
+    public void testSmallResultStaysInMemoryOnNoMorePages()
+    {
+        SpoolingOutputBuffer buffer = createSpoolingOutputBuffer();
+
+        // add two pages in memory
+        for (int i = 0; i < 2; i++) {
+            addPage(buffer, createPage(i));
+        }
+
+        // nothing was spooled, so the pages are served from memory
+        buffer.setNoMorePages();
+        assertTrue(buffer.getUtilization() > 0);
+
+        assertBufferResultEquals(TYPES, getBufferResult(buffer, BUFFER_ID, 0, sizeOfPages(2), MAX_WAIT), bufferResult(0, createPage(0), createPage(1)));
+    }
+
     private SpoolingOutputBuffer createSpoolingOutputBuffer()
     {
         TaskId taskId = new TaskId(queryIdGenerator.createNextQueryId().toString(), 0, 0, 0);
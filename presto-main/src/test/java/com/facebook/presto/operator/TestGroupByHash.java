@@ -47,6 +47,7 @@ import static com.facebook.presto.common.type.VarcharType.VARCHAR;
 import static com.facebook.presto.operator.GroupByHash.createGroupByHash;
 import static com.facebook.presto.type.TypeUtils.getHashBlock;
 import static com.google.common.math.DoubleMath.log2;
+import static java.lang.Math.min;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
@@ -137,6 +138,34 @@ public class TestGroupByHash
         }
     }
 
+    @Test
+    public void testGetGroupIdsWithSharedDictionary()
+    {
+        // the dictionary is larger than a page, so the first pages are not processed by the dictionary look back
+        int dictionaryLength = 100;
+        int pageLength = 40;
+        Block dictionary = createStringSequenceBlock(0, dictionaryLength);
+        Block hashDictionary = getHashBlock(ImmutableList.of(VARCHAR), dictionary);
+        GroupByHash groupByHash = createGroupByHash(ImmutableList.of(VARCHAR), new int[] {0}, Optional.of(1), 100, true, JOIN_COMPILER, () -> true);
+
+        for (int pageIndex = 0; pageIndex < 10; pageIndex++) {
+            int[] ids = new int[pageLength];
+            for (int i = 0; i < pageLength; i++) {
+                ids[i] = (pageIndex * pageLength + i) % dictionaryLength;
+            }
+            DictionaryId dictionaryId = randomDictionaryId();
+            Page page = new Page(new DictionaryBlock(pageLength, dictionary, ids, dictionaryId), new DictionaryBlock(pageLength, hashDictionary, ids, dictionaryId));
+
+            Work<GroupByIdBlock> work = groupByHash.getGroupIds(page);
+            assertTrue(work.process());
+            GroupByIdBlock groupIds = work.getResult();
+            assertEquals(groupIds.getGroupCount(), min((pageIndex + 1) * pageLength, dictionaryLength));
+            for (int i = 0; i < pageLength; i++) {
+                assertEquals(groupIds.getGroupId(i), ids[i]);
+            }
+        }
+    }
+
     @Test
     public void testTypes()
     {
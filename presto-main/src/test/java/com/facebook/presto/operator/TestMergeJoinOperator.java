@@ -0,0 +1,223 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.RowPagesBuilder;
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.operator.MergeJoinOperator.MergeJoinOperatorFactory;
+import com.facebook.presto.operator.MergeJoinSinkOperator.MergeJoinSinkOperatorFactory;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.plan.PlanNodeId;
+import com.facebook.presto.testing.MaterializedResult;
+import com.facebook.presto.testing.TestingTaskContext;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEquals;
+import static com.facebook.presto.operator.PipelineExecutionStrategy.UNGROUPED_EXECUTION;
+import static com.facebook.presto.operator.ValuesOperator.ValuesOperatorFactory;
+import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestMergeJoinOperator
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR);
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-executor-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testMergeJoin()
+    {
+        TaskContext taskContext = createTaskContext();
+
+        // right, with a group of equal keys spanning two pages
+        RowPagesBuilder rightPages = rowPagesBuilder(TYPES)
+                .row(null, "v")
+                .row(0L, "x")
+                .row(2L, "y")
+                .row(2L, "z")
+                .pageBreak()
+                .row(2L, "w")
+                .row(4L, "u")
+                .row(6L, "t")
+                .row(7L, "s");
+        MergeJoinOperatorFactory joinOperatorFactory = newJoinOperatorFactoryWithCompletedRightInput(taskContext, rightPages);
+
+        // left
+        List<Page> leftInput = rowPagesBuilder(TYPES)
+                .row(null, "d")
+                .row(1L, "a")
+                .row(2L, "b")
+                .row(2L, "c")
+                .row(4L, "e")
+                .pageBreak()
+                .row(4L, "f")
+                .row(5L, "g")
+                .row(7L, "h")
+                .build();
+
+        MaterializedResult expected = resultBuilder(taskContext.getSession(), BIGINT, VARCHAR, VARCHAR)
+                .row(2L, "b", "y")
+                .row(2L, "b", "z")
+                .row(2L, "b", "w")
+                .row(2L, "c", "y")
+                .row(2L, "c", "z")
+                .row(2L, "c", "w")
+                .row(4L, "e", "u")
+                .row(4L, "f", "u")
+                .row(7L, "h", "s")
+                .build();
+
+        assertOperatorEquals(joinOperatorFactory, taskContext.addPipelineContext(0, true, true, false).addDriverContext(), leftInput, expected);
+    }
+
+    @Test
+    public void testRightInputExhaustedFirst()
+    {
+        TaskContext taskContext = createTaskContext();
+
+        RowPagesBuilder rightPages = rowPagesBuilder(TYPES)
+                .row(1L, "x");
+        MergeJoinOperatorFactory joinOperatorFactory = newJoinOperatorFactoryWithCompletedRightInput(taskContext, rightPages);
+
+        List<Page> leftInput = rowPagesBuilder(TYPES)
+                .row(1L, "a")
+                .row(2L, "b")
+                .pageBreak()
+                .row(3L, "c")
+                .build();
+
+        MaterializedResult expected = resultBuilder(taskContext.getSession(), BIGINT, VARCHAR, VARCHAR)
+                .row(1L, "a", "x")
+                .build();
+
+        assertOperatorEquals(joinOperatorFactory, taskContext.addPipelineContext(0, true, true, false).addDriverContext(), leftInput, expected);
+    }
+
+    @Test
+    public void testEmptyRightInput()
+    {
+        TaskContext taskContext = createTaskContext();
+
+        MergeJoinOperatorFactory joinOperatorFactory = newJoinOperatorFactoryWithCompletedRightInput(taskContext, rowPagesBuilder(TYPES));
+
+        List<Page> leftInput = rowPagesBuilder(TYPES)
+                .row(1L, "a")
+                .build();
+
+        MaterializedResult expected = resultBuilder(taskContext.getSession(), BIGINT, VARCHAR, VARCHAR).build();
+
+        assertOperatorEquals(joinOperatorFactory, taskContext.addPipelineContext(0, true, true, false).addDriverContext(), leftInput, expected);
+    }
+
+    @Test(expectedExceptions = PrestoException.class, expectedExceptionsMessageRegExp = "Merge join requires the right input of each bucket to be read by a single split")
+    public void testMultipleRightDriversPerLifespan()
+    {
+        TaskContext taskContext = createTaskContext();
+        JoinBridgeManager<MergeJoinSource> mergeJoinSourceManager = newMergeJoinSourceManager();
+        newJoinOperatorFactory(mergeJoinSourceManager);
+        MergeJoinSinkOperatorFactory sinkOperatorFactory = new MergeJoinSinkOperatorFactory(1, new PlanNodeId("test"), mergeJoinSourceManager);
+
+        PipelineContext pipelineContext = taskContext.addPipelineContext(0, true, true, false);
+        sinkOperatorFactory.createOperator(pipelineContext.addDriverContext());
+        sinkOperatorFactory.createOperator(pipelineContext.addDriverContext());
+    }
+
+    private TaskContext createTaskContext()
+    {
+        return TestingTaskContext.createTaskContext(executor, scheduledExecutor, TEST_SESSION);
+    }
+
+    private static MergeJoinOperatorFactory newJoinOperatorFactoryWithCompletedRightInput(TaskContext taskContext, RowPagesBuilder rightPages)
+    {
+        DriverContext driverContext = taskContext.addPipelineContext(0, true, true, false).addDriverContext();
+
+        ValuesOperatorFactory valuesOperatorFactory = new ValuesOperatorFactory(0, new PlanNodeId("test"), rightPages.build());
+
+        JoinBridgeManager<MergeJoinSource> mergeJoinSourceManager = newMergeJoinSourceManager();
+        MergeJoinOperatorFactory joinOperatorFactory = newJoinOperatorFactory(mergeJoinSourceManager);
+        MergeJoinSinkOperatorFactory sinkOperatorFactory = new MergeJoinSinkOperatorFactory(1, new PlanNodeId("test"), mergeJoinSourceManager);
+
+        Operator valuesOperator = valuesOperatorFactory.createOperator(driverContext);
+        Operator sinkOperator = sinkOperatorFactory.createOperator(driverContext);
+        Driver driver = Driver.createDriver(
+                driverContext,
+                valuesOperator,
+                sinkOperator);
+
+        valuesOperatorFactory.noMoreOperators();
+        sinkOperatorFactory.noMoreOperators();
+
+        while (!driver.isFinished()) {
+            driver.process();
+        }
+        assertTrue(sinkOperator.isFinished());
+
+        return joinOperatorFactory;
+    }
+
+    private static JoinBridgeManager<MergeJoinSource> newMergeJoinSourceManager()
+    {
+        return new JoinBridgeManager<>(
+                false,
+                UNGROUPED_EXECUTION,
+                UNGROUPED_EXECUTION,
+                () -> new MergeJoinSource(1024 * 1024),
+                TYPES);
+    }
+
+    private static MergeJoinOperatorFactory newJoinOperatorFactory(JoinBridgeManager<MergeJoinSource> mergeJoinSourceManager)
+    {
+        return new MergeJoinOperatorFactory(
+                2,
+                new PlanNodeId("test"),
+                mergeJoinSourceManager,
+                TYPES,
+                ImmutableList.of(0),
+                ImmutableList.of(0, 1),
+                TYPES,
+                ImmutableList.of(0),
+                ImmutableList.of(1));
+    }
+}
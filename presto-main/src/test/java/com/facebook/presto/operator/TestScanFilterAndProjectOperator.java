@@ -19,6 +19,7 @@ import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.LazyBlock;
 import com.facebook.presto.common.block.LazyBlockLoader;
+import com.facebook.presto.common.block.SelectiveLazyBlockLoader;
 import com.facebook.presto.metadata.FunctionAndTypeManager;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.MetadataManager;
@@ -26,10 +27,12 @@ import com.facebook.presto.metadata.Split;
 import com.facebook.presto.metadata.SqlScalarFunction;
 import com.facebook.presto.operator.index.PageRecordSet;
 import com.facebook.presto.operator.project.CursorProcessor;
+import com.facebook.presto.operator.project.InputPageProjection;
 import com.facebook.presto.operator.project.PageProcessor;
 import com.facebook.presto.operator.project.PageProjectionWithOutputs;
 import com.facebook.presto.operator.project.TestPageProcessor.LazyPagePageProjection;
 import com.facebook.presto.operator.project.TestPageProcessor.SelectAllFilter;
+import com.facebook.presto.operator.project.TestPageProcessor.TestingPageFilter;
 import com.facebook.presto.operator.scalar.AbstractTestFunctions;
 import com.facebook.presto.spi.ConnectorId;
 import com.facebook.presto.spi.ConnectorPageSource;
@@ -50,12 +53,15 @@ import com.google.common.collect.Iterators;
 import io.airlift.units.DataSize;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
 import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
@@ -69,6 +75,7 @@ import static com.facebook.presto.metadata.MetadataManager.createTestMetadataMan
 import static com.facebook.presto.operator.OperatorAssertion.toMaterializedResult;
 import static com.facebook.presto.operator.PageAssertions.assertPageEquals;
 import static com.facebook.presto.operator.project.PageProcessor.MAX_BATCH_SIZE;
+import static com.facebook.presto.operator.project.SelectedPositions.positionsList;
 import static com.facebook.presto.sql.analyzer.TypeSignatureProvider.fromTypes;
 import static com.facebook.presto.sql.relational.Expressions.call;
 import static com.facebook.presto.sql.relational.Expressions.constant;
@@ -231,6 +238,62 @@ public class TestScanFilterAndProjectOperator
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void testPageSourceSelectiveLazyLoad()
+    {
+        int[] selectedPositions = IntStream.range(0, 50).map(position -> position * 2 + 1).toArray();
+        Block inputBlock = BlockAssertions.createLongSequenceBlock(0, 100);
+        // column 1 must only be decoded at the positions selected by the filter
+        List<int[]> loadedPositions = new ArrayList<>();
+        Page input = new Page(100, inputBlock, new LazyBlock(100, new SelectiveLazyBlockLoader()
+        {
+            @Override
+            public void load(LazyBlock lazyBlock)
+            {
+                throw new AssertionError("Lazy block should not be loaded in full");
+            }
+
+            @Override
+            public Block loadPositions(int[] positions, int offset, int length)
+            {
+                loadedPositions.add(Arrays.copyOfRange(positions, offset, offset + length));
+                return inputBlock.getPositions(positions, offset, length);
+            }
+        }));
+        DriverContext driverContext = newDriverContext();
+
+        List<RowExpression> projections = ImmutableList.of(field(1, BIGINT));
+        Supplier<CursorProcessor> cursorProcessor = expressionCompiler.compileCursorProcessor(driverContext.getSession().getSqlFunctionProperties(), Optional.empty(), projections, "key");
+        PageProcessor pageProcessor = new PageProcessor(
+                Optional.of(new TestingPageFilter(positionsList(selectedPositions, 0, selectedPositions.length))),
+                ImmutableList.of(new PageProjectionWithOutputs(new InputPageProjection(1), new int[] {0})));
+
+        ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory factory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                new PlanNodeId("0"),
+                (session, split, table, columns) -> new SinglePagePageSource(input),
+                cursorProcessor,
+                () -> pageProcessor,
+                TESTING_TABLE_HANDLE,
+                ImmutableList.of(),
+                ImmutableList.of(BIGINT, BIGINT),
+                Optional.empty(),
+                new DataSize(0, BYTE),
+                0);
+
+        SourceOperator operator = factory.createOperator(driverContext);
+        operator.addSplit(new Split(new ConnectorId("test"), TestingTransactionHandle.create(), TestingSplit.createLocalSplit()));
+        operator.noMoreSplits();
+
+        MaterializedResult expected = toMaterializedResult(driverContext.getSession(), ImmutableList.of(BIGINT), ImmutableList.of(new Page(inputBlock.getPositions(selectedPositions, 0, selectedPositions.length))));
+        MaterializedResult actual = toMaterializedResult(driverContext.getSession(), ImmutableList.of(BIGINT), toPages(operator));
+
+        assertEquals(actual, expected);
+        assertEquals(loadedPositions.size(), 1);
+        assertEquals(loadedPositions.get(0), selectedPositions);
+    }
+
     @Test
     public void testPageSourceLazyBlock()
     {
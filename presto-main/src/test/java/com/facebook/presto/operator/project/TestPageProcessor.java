@@ -18,6 +18,7 @@ import com.facebook.presto.block.BlockAssertions;
 import com.facebook.presto.common.Page;
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.LazyBlock;
+import com.facebook.presto.common.block.SelectiveLazyBlockLoader;
 import com.facebook.presto.common.block.VariableWidthBlock;
 import com.facebook.presto.common.function.SqlFunctionProperties;
 import com.facebook.presto.common.type.ArrayType;
@@ -251,6 +252,43 @@ public class TestPageProcessor
         assertPageEquals(ImmutableList.of(BIGINT), outputPages.get(0).orElse(null), new Page(createLongSequenceBlock(0, 100)));
     }
 
+    @Test
+    public void testPartialFilterSelectiveLazyLoad()
+    {
+        int[] selectedPositions = IntStream.range(0, 50).map(position -> position * 2 + 1).toArray();
+        PageProcessor pageProcessor = new PageProcessor(
+                Optional.of(new TestingPageFilter(positionsList(selectedPositions, 0, selectedPositions.length))),
+                ImmutableList.of(createInputPageProjectionWithOutputs(1, BIGINT, 0), createInputPageProjectionWithOutputs(1, BIGINT, 1)),
+                OptionalInt.of(MAX_BATCH_SIZE));
+
+        // channel 1 must be loaded only at the selected positions, and only once
+        int[] loadCount = new int[1];
+        Block block = createLongSequenceBlock(0, 100);
+        Page inputPage = new Page(createLongSequenceBlock(0, 100), new LazyBlock(100, new SelectiveLazyBlockLoader()
+        {
+            @Override
+            public void load(LazyBlock lazyBlock)
+            {
+                throw new AssertionError("Lazy block should not be loaded in full");
+            }
+
+            @Override
+            public Block loadPositions(int[] positions, int offset, int length)
+            {
+                loadCount[0]++;
+                return block.getPositions(positions, offset, length);
+            }
+        }));
+
+        Iterator<Optional<Page>> output = processAndAssertRetainedPageSize(pageProcessor, inputPage);
+
+        List<Optional<Page>> outputPages = ImmutableList.copyOf(output);
+        assertEquals(outputPages.size(), 1);
+        Block expected = block.getPositions(selectedPositions, 0, selectedPositions.length);
+        assertPageEquals(ImmutableList.of(BIGINT, BIGINT), outputPages.get(0).orElse(null), new Page(expected, expected));
+        assertEquals(loadCount[0], 1);
+    }
+
     @Test
     public void testBatchedOutput()
     {
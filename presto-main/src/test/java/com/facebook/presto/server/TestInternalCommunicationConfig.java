@@ -63,7 +63,7 @@ public class TestInternalCommunicationConfig
                 .put("internal-communication.https.excluded-cipher", "")
                 .put("internal-communication.kerberos.enabled", "true")
                 .put("internal-communication.kerberos.use-canonical-hostname", "false")
-                .put("experimental.internal-communication.binary-transport-enabled", "true")
+                .put("internal-communication.binary-transport-enabled", "true")
                 .put("experimental.internal-communication.max-task-update-size", "512MB")
                 .put("internal-communication.task-communication-protocol", "THRIFT")
                 .put("internal-communication.server-info-communication-protocol", "THRIFT")
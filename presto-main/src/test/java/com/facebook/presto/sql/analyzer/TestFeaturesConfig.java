@@ -82,7 +82,7 @@ public class TestFeaturesConfig
                 .setOptimizeMetadataQueriesCallThreshold(100)
                 .setOptimizeHashGeneration(true)
                 .setPushTableWriteThroughUnion(true)
-                .setDictionaryAggregation(false)
+                .setDictionaryAggregation(true)
                 .setAggregationPartitioningMergingStrategy(LEGACY)
                 .setLegacyArrayAgg(false)
                 .setGroupByUsesEqualTo(false)
@@ -191,7 +191,8 @@ public class TestFeaturesConfig
                 .setHashBasedDistinctLimitThreshold(10000)
                 .setStreamingForPartialAggregationEnabled(false)
                 .setMaxStageCountForEagerScheduling(25)
-                .setHyperloglogStandardErrorWarningThreshold(0.004));
+                .setHyperloglogStandardErrorWarningThreshold(0.004)
+                .setPreferMergeJoin(false));
     }
 
     @Test
@@ -246,7 +247,7 @@ public class TestFeaturesConfig
                 .put("optimizer.optimize-hash-generation", "false")
                 .put("optimizer.optimize-mixed-distinct-aggregations", "true")
                 .put("optimizer.push-table-write-through-union", "false")
-                .put("optimizer.dictionary-aggregation", "true")
+                .put("optimizer.dictionary-aggregation", "false")
                 .put("optimizer.push-aggregation-through-join", "false")
                 .put("optimizer.aggregation-partition-merging", "top_down")
                 .put("regex-library", "RE2J")
@@ -334,6 +335,7 @@ public class TestFeaturesConfig
                 .put("streaming-for-partial-aggregation-enabled", "true")
                 .put("execution-policy.max-stage-count-for-eager-scheduling", "123")
                 .put("hyperloglog-standard-error-warning-threshold", "0.02")
+                .put("optimizer.prefer-merge-join", "true")
                 .build();
 
         FeaturesConfig expected = new FeaturesConfig()
@@ -376,7 +378,7 @@ public class TestFeaturesConfig
                 .setOptimizeHashGeneration(false)
                 .setOptimizeMixedDistinctAggregations(true)
                 .setPushTableWriteThroughUnion(false)
-                .setDictionaryAggregation(true)
+                .setDictionaryAggregation(false)
                 .setAggregationPartitioningMergingStrategy(TOP_DOWN)
                 .setPushAggregationThroughJoin(false)
                 .setLegacyArrayAgg(true)
@@ -473,7 +475,8 @@ public class TestFeaturesConfig
                 .setHashBasedDistinctLimitThreshold(500)
                 .setStreamingForPartialAggregationEnabled(true)
                 .setMaxStageCountForEagerScheduling(123)
-                .setHyperloglogStandardErrorWarningThreshold(0.02);
+                .setHyperloglogStandardErrorWarningThreshold(0.02)
+                .setPreferMergeJoin(true);
         assertFullMapping(properties, expected);
     }
 
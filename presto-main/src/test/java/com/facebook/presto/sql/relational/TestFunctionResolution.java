@@ -65,5 +65,10 @@ public class TestFunctionResolution
         // subscript
         assertTrue(standardFunctionResolution.isSubscriptFunction(standardFunctionResolution.subscriptFunction(new ArrayType(DOUBLE), BIGINT)));
         assertFalse(standardFunctionResolution.isBetweenFunction(standardFunctionResolution.subscriptFunction(new ArrayType(DOUBLE), BIGINT)));
+
+        // sum
+        assertTrue(standardFunctionResolution.isSumFunction(standardFunctionResolution.sumFunction(BIGINT)));
+        assertFalse(standardFunctionResolution.isSumFunction(standardFunctionResolution.maxFunction(BIGINT)));
+        assertFalse(standardFunctionResolution.isMaxFunction(standardFunctionResolution.sumFunction(BIGINT)));
     }
 }
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.orc;
 
+import com.facebook.presto.common.io.ParallelRangeReader;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.BasicSliceInput;
 import io.airlift.slice.ChunkedSliceInput;
@@ -30,6 +31,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Supplier;
 
+import static com.facebook.presto.common.io.ParallelRangeReader.SEQUENTIAL_RANGE_READER;
 import static com.facebook.presto.orc.OrcDataSourceUtils.getDiskRangeSlice;
 import static com.facebook.presto.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -46,10 +48,28 @@ public abstract class AbstractOrcDataSource
     private final DataSize maxBufferSize;
     private final DataSize streamBufferSize;
     private final boolean lazyReadSmallRanges;
+    private final ParallelRangeReader parallelRangeReader;
     private long readTimeNanos;
     private long readBytes;
 
     public AbstractOrcDataSource(OrcDataSourceId id, long size, DataSize maxMergeDistance, DataSize maxBufferSize, DataSize streamBufferSize, boolean lazyReadSmallRanges)
+    {
+        this(id, size, maxMergeDistance, maxBufferSize, streamBufferSize, lazyReadSmallRanges, SEQUENTIAL_RANGE_READER);
+    }
+
+    /**
+     * @param parallelRangeReader reads the merged small ranges of a request. They are fetched in parallel only
+     * when it allows more than one concurrent read and {@code lazyReadSmallRanges} is false, because lazily read
+     * ranges are loaded one at a time on first access. {@link #readInternal} must then support concurrent calls.
+     */
+    public AbstractOrcDataSource(
+            OrcDataSourceId id,
+            long size,
+            DataSize maxMergeDistance,
+            DataSize maxBufferSize,
+            DataSize streamBufferSize,
+            boolean lazyReadSmallRanges,
+            ParallelRangeReader parallelRangeReader)
     {
         this.id = requireNonNull(id, "id is null");
 
@@ -60,6 +80,7 @@ public abstract class AbstractOrcDataSource
         this.maxBufferSize = requireNonNull(maxBufferSize, "maxBufferSize is null");
         this.streamBufferSize = requireNonNull(streamBufferSize, "streamBufferSize is null");
         this.lazyReadSmallRanges = lazyReadSmallRanges;
+        this.parallelRangeReader = requireNonNull(parallelRangeReader, "parallelRangeReader is null");
     }
 
     protected abstract void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
@@ -168,14 +189,7 @@ public abstract class AbstractOrcDataSource
             }
         }
         else {
-            Map<DiskRange, byte[]> buffers = new LinkedHashMap<>();
-            for (DiskRange mergedRange : mergedRanges) {
-                // read full range in one request
-                byte[] buffer = new byte[mergedRange.getLength()];
-                readFully(mergedRange.getOffset(), buffer);
-                buffers.put(mergedRange, buffer);
-            }
-
+            Map<DiskRange, byte[]> buffers = readMergedDiskRanges(mergedRanges);
             for (Entry<K, DiskRange> entry : diskRanges.entrySet()) {
                 slices.put(entry.getKey(), new OrcDataSourceInput(getDiskRangeSlice(entry.getValue(), buffers).getInput(), entry.getValue().getLength()));
             }
@@ -186,6 +200,41 @@ public abstract class AbstractOrcDataSource
         return sliceStreams;
     }
 
+    private Map<DiskRange, byte[]> readMergedDiskRanges(Iterable<DiskRange> mergedRanges)
+            throws IOException
+    {
+        Map<DiskRange, byte[]> buffers = new LinkedHashMap<>();
+        for (DiskRange mergedRange : mergedRanges) {
+            buffers.put(mergedRange, new byte[mergedRange.getLength()]);
+        }
+
+        if (parallelRangeReader.getMaxConcurrentReads() == 1 || buffers.size() == 1) {
+            for (Entry<DiskRange, byte[]> entry : buffers.entrySet()) {
+                // read full range in one request
+                readFully(entry.getKey().getOffset(), entry.getValue());
+            }
+            return buffers;
+        }
+
+        long[] positions = new long[buffers.size()];
+        byte[][] rangeBuffers = new byte[buffers.size()][];
+        long length = 0;
+        int range = 0;
+        for (Entry<DiskRange, byte[]> entry : buffers.entrySet()) {
+            positions[range] = entry.getKey().getOffset();
+            rangeBuffers[range] = entry.getValue();
+            length += entry.getValue().length;
+            range++;
+        }
+
+        // the reads are issued concurrently, so account for them once from this thread
+        long start = System.nanoTime();
+        parallelRangeReader.readFully(positions, rangeBuffers, this::readInternal);
+        readTimeNanos += System.nanoTime() - start;
+        readBytes += length;
+        return buffers;
+    }
+
     private <K> Map<K, OrcDataSourceInput> readLargeDiskRanges(Map<K, DiskRange> diskRanges)
     {
         if (diskRanges.isEmpty()) {
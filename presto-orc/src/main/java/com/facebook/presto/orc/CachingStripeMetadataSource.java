@@ -37,6 +37,7 @@ import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.BLOOM_FILTER;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.BLOOM_FILTER_UTF8;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.ROW_INDEX;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static java.lang.Math.toIntExact;
@@ -148,7 +149,7 @@ public class CachingStripeMetadataSource
 
     private static boolean isCachedStream(StreamKind streamKind)
     {
-        // BLOOM_FILTER and ROW_INDEX are on the critical path to generate a stripe. Other stream kinds could be lazily read.
-        return streamKind == BLOOM_FILTER || streamKind == ROW_INDEX;
+        // BLOOM_FILTER, BLOOM_FILTER_UTF8 and ROW_INDEX are on the critical path to generate a stripe. Other stream kinds could be lazily read.
+        return streamKind == BLOOM_FILTER || streamKind == BLOOM_FILTER_UTF8 || streamKind == ROW_INDEX;
     }
 }
@@ -0,0 +1,188 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.airlift.log.Logger;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import sun.misc.Unsafe;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads a local file through a read only memory mapping. The disk ranges are returned as
+ * slices over the mapping, so the data is not copied to heap buffers. The mapped size is
+ * reported to the memory context while the data source is open, and the mapping is released
+ * when the data source is closed. Slices returned by {@link #readFully(Map)} must not be
+ * used after that, which holds for the ORC readers: they copy the values into the blocks
+ * they return and close the data source only after the last read.
+ */
+public class MemoryMappedOrcDataSource
+        implements OrcDataSource
+{
+    private static final Logger log = Logger.get(MemoryMappedOrcDataSource.class);
+
+    private final OrcDataSourceId id;
+    private final long size;
+    private final OrcLocalMemoryContext memoryContext;
+    private MappedByteBuffer buffer;
+    private Slice data;
+    private long readTimeNanos;
+    private long readBytes;
+
+    public MemoryMappedOrcDataSource(File path, OrcAggregatedMemoryContext systemMemoryContext)
+            throws IOException
+    {
+        requireNonNull(path, "path is null");
+        requireNonNull(systemMemoryContext, "systemMemoryContext is null");
+        this.id = new OrcDataSourceId(path.getPath());
+        try (RandomAccessFile file = new RandomAccessFile(path, "r");
+                FileChannel channel = file.getChannel()) {
+            this.size = channel.size();
+            this.buffer = channel.map(READ_ONLY, 0, size);
+        }
+        this.data = Slices.wrappedBuffer(buffer);
+        this.memoryContext = systemMemoryContext.newOrcLocalMemoryContext(MemoryMappedOrcDataSource.class.getSimpleName());
+        memoryContext.setBytes(size);
+    }
+
+    /**
+     * Files larger than this can not be mapped into a single slice.
+     */
+    public static boolean canMap(File path)
+    {
+        return path.length() <= Integer.MAX_VALUE;
+    }
+
+    @Override
+    public OrcDataSourceId getId()
+    {
+        return id;
+    }
+
+    @Override
+    public long getReadBytes()
+    {
+        return readBytes;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos;
+    }
+
+    @Override
+    public long getSize()
+    {
+        return size;
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer)
+            throws IOException
+    {
+        readFully(position, buffer, 0, buffer.length);
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
+            throws IOException
+    {
+        checkState(data != null, "data source is closed");
+        long start = System.nanoTime();
+
+        data.getBytes(toIntExact(position), buffer, bufferOffset, bufferLength);
+
+        readTimeNanos += System.nanoTime() - start;
+        readBytes += bufferLength;
+    }
+
+    @Override
+    public <K> Map<K, OrcDataSourceInput> readFully(Map<K, DiskRange> diskRanges)
+    {
+        requireNonNull(diskRanges, "diskRanges is null");
+        checkState(data != null, "data source is closed");
+
+        ImmutableMap.Builder<K, OrcDataSourceInput> slices = ImmutableMap.builder();
+        for (Entry<K, DiskRange> entry : diskRanges.entrySet()) {
+            DiskRange diskRange = entry.getValue();
+            Slice slice = data.slice(toIntExact(diskRange.getOffset()), diskRange.getLength());
+            // the mapped pages are accounted for in the memory context of the data source
+            slices.put(entry.getKey(), new OrcDataSourceInput(slice.getInput(), 0));
+            readBytes += diskRange.getLength();
+        }
+        return slices.build();
+    }
+
+    @Override
+    public void close()
+    {
+        if (buffer == null) {
+            return;
+        }
+        data = null;
+        unmap(buffer);
+        buffer = null;
+        memoryContext.close();
+    }
+
+    @Override
+    public String toString()
+    {
+        return id.toString();
+    }
+
+    private static void unmap(MappedByteBuffer buffer)
+    {
+        try {
+            Method invokeCleaner;
+            try {
+                invokeCleaner = Unsafe.class.getMethod("invokeCleaner", ByteBuffer.class);
+            }
+            catch (NoSuchMethodException e) {
+                // Java 8 has no Unsafe.invokeCleaner, run the cleaner of the buffer directly
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                Method clean = cleaner.getClass().getMethod("clean");
+                clean.setAccessible(true);
+                clean.invoke(cleaner);
+                return;
+            }
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            invokeCleaner.invoke(field.get(null), buffer);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            // the mapping is released by the garbage collector instead
+            log.debug(e, "Failed to unmap memory mapped ORC data source");
+        }
+    }
+}
@@ -134,6 +134,18 @@ public class OrcBatchRecordReader
         return block;
     }
 
+    /**
+     * Reads only the given positions of the current batch for a column. The values of the
+     * other positions are skipped by the stream readers that support it.
+     */
+    public Block readBlock(int columnIndex, int[] positions, int offset, int length)
+            throws IOException
+    {
+        Block block = getStreamReaders()[columnIndex].readBlock(positions, offset, length);
+        updateMaxCombinedBytesPerRow(columnIndex, block);
+        return block;
+    }
+
     private void validateWritePageChecksum(int batchSize)
             throws IOException
     {
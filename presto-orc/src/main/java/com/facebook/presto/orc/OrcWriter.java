@@ -37,8 +37,10 @@ import com.facebook.presto.orc.metadata.statistics.ColumnStatistics;
 import com.facebook.presto.orc.metadata.statistics.StripeStatistics;
 import com.facebook.presto.orc.proto.DwrfProto;
 import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.orc.writer.BloomFilterColumnWriter;
 import com.facebook.presto.orc.writer.ColumnWriter;
 import com.facebook.presto.orc.writer.CompressionBufferPool;
+import com.facebook.presto.orc.writer.CompressionBufferPool.ConcurrentCompressionBufferPool;
 import com.facebook.presto.orc.writer.CompressionBufferPool.LastUsedCompressionBufferPool;
 import com.facebook.presto.orc.writer.DictionaryColumnWriter;
 import com.facebook.presto.orc.writer.StreamLayout;
@@ -66,8 +68,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -81,9 +88,11 @@ import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind
 import static com.facebook.presto.orc.metadata.DwrfMetadataWriter.toFileStatistics;
 import static com.facebook.presto.orc.metadata.DwrfMetadataWriter.toStripeEncryptionGroup;
 import static com.facebook.presto.orc.metadata.PostScript.MAGIC;
+import static com.facebook.presto.orc.writer.BloomFilterColumnWriter.isBloomFilterSupported;
 import static com.facebook.presto.orc.writer.ColumnWriters.createColumnWriter;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
@@ -92,6 +101,8 @@ import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.lang.Integer.min;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.CompletableFuture.runAsync;
 import static java.util.stream.Collectors.toList;
 
 public class OrcWriter
@@ -132,6 +143,8 @@ public class OrcWriter
     @Nullable
     private final OrcWriteValidation.OrcWriteValidationBuilder validationBuilder;
     private final CompressionBufferPool compressionBufferPool;
+    private final int columnEncodingParallelism;
+    private final Optional<Executor> columnEncodingExecutor;
 
     private int stripeRowCount;
     private int rowGroupRowCount;
@@ -199,7 +212,11 @@ public class OrcWriter
         this.dataSink = requireNonNull(dataSink, "dataSink is null");
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
         this.orcEncoding = requireNonNull(orcEncoding, "orcEncoding is null");
-        this.compressionBufferPool = new LastUsedCompressionBufferPool();
+
+        // the DWRF encryptors are shared by the columns of a group, so encrypted files are always encoded on the calling thread
+        this.columnEncodingParallelism = requireNonNull(encryption, "encryption is null").isPresent() ? 1 : min(options.getColumnEncodingParallelism(), types.size());
+        this.columnEncodingExecutor = options.getColumnEncodingExecutor();
+        this.compressionBufferPool = columnEncodingParallelism > 1 ? new ConcurrentCompressionBufferPool() : new LastUsedCompressionBufferPool();
 
         requireNonNull(compressionKind, "compressionKind is null");
         this.columnWriterOptions = ColumnWriterOptions.builder()
@@ -280,6 +297,10 @@ public class OrcWriter
             this.dwrfStripeCacheWriter = Optional.empty();
         }
 
+        // bloom filters are written as BLOOM_FILTER_UTF8 index streams, which only exist in ORC
+        Set<String> bloomFilterColumns = options.getBloomFilterColumns();
+        checkArgument(bloomFilterColumns.isEmpty() || metadataWriter.supportsBloomFilters(), "%s does not support bloom filters", orcEncoding);
+
         // create column writers
         OrcType rootType = orcTypes.get(0);
         checkArgument(rootType.getFieldCount() == types.size());
@@ -297,6 +318,16 @@ public class OrcWriter
                     hiveStorageTimeZone,
                     dwrfEncryptionInfo,
                     orcEncoding.createMetadataWriter());
+            if (bloomFilterColumns.contains(columnNames.get(fieldId)) && isBloomFilterSupported(fieldType)) {
+                columnWriter = new BloomFilterColumnWriter(
+                        fieldColumnIndex,
+                        fieldType,
+                        columnWriter,
+                        columnWriterOptions,
+                        orcEncoding.createMetadataWriter(),
+                        rowGroupMaxRowCount,
+                        options.getBloomFilterFpp());
+            }
             columnWriters.add(columnWriter);
 
             if (columnWriter instanceof DictionaryColumnWriter) {
@@ -418,10 +449,20 @@ public class OrcWriter
 
         // write chunks
         bufferedBytes = 0;
-        for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
-            ColumnWriter writer = columnWriters.get(channel);
-            stripeRawSize += writer.writeBlock(chunk.getBlock(channel));
-            bufferedBytes += writer.getBufferedBytes();
+        if (columnEncodingParallelism > 1) {
+            long[] rawSizes = new long[chunk.getChannelCount()];
+            forEachColumnWriterInParallel(channel -> rawSizes[channel] = columnWriters.get(channel).writeBlock(chunk.getBlock(channel)));
+            for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
+                stripeRawSize += rawSizes[channel];
+                bufferedBytes += columnWriters.get(channel).getBufferedBytes();
+            }
+        }
+        else {
+            for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
+                ColumnWriter writer = columnWriters.get(channel);
+                stripeRawSize += writer.writeBlock(chunk.getBlock(channel));
+                bufferedBytes += writer.getBufferedBytes();
+            }
         }
 
         // update stats
@@ -504,7 +545,53 @@ public class OrcWriter
             dictionaryCompressionOptimizer.finalOptimize(bufferedBytes);
         }
 
-        columnWriters.forEach(ColumnWriter::close);
+        // closing a writer compresses its remaining buffered data
+        if (columnEncodingParallelism > 1) {
+            forEachColumnWriterInParallel(channel -> columnWriters.get(channel).close());
+        }
+        else {
+            columnWriters.forEach(ColumnWriter::close);
+        }
+    }
+
+    /**
+     * Spreads the top level column writers over {@code columnEncodingParallelism} groups, one of
+     * which is processed by the calling thread. Returns once all groups are done, so no writer is
+     * used by another thread afterwards.
+     */
+    private void forEachColumnWriterInParallel(IntConsumer action)
+    {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(columnEncodingParallelism - 1);
+        for (int group = 1; group < columnEncodingParallelism; group++) {
+            int firstChannel = group;
+            futures.add(runAsync(() -> forEachColumnWriterInGroup(action, firstChannel), columnEncodingExecutor.get()));
+        }
+
+        try {
+            forEachColumnWriterInGroup(action, 0);
+        }
+        finally {
+            allOf(futures.toArray(new CompletableFuture[0]))
+                    .handle((result, throwable) -> null)
+                    .join();
+        }
+
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            }
+            catch (CompletionException e) {
+                throwIfUnchecked(e.getCause());
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    private void forEachColumnWriterInGroup(IntConsumer action, int firstChannel)
+    {
+        for (int channel = firstChannel; channel < columnWriters.size(); channel += columnEncodingParallelism) {
+            action.accept(channel);
+        }
     }
 
     /**
@@ -16,10 +16,13 @@ package com.facebook.presto.orc;
 import com.facebook.presto.orc.metadata.DwrfStripeCacheMode;
 import com.facebook.presto.orc.writer.StreamLayoutFactory;
 import com.facebook.presto.orc.writer.StreamLayoutFactory.ColumnSizeLayoutFactory;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static com.facebook.presto.orc.metadata.DwrfStripeCacheMode.INDEX_AND_FOOTER;
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -41,6 +44,7 @@ public class OrcWriterOptions
     public static final DataSize DEFAULT_DWRF_STRIPE_CACHE_MAX_SIZE = new DataSize(8, MEGABYTE);
     public static final DwrfStripeCacheMode DEFAULT_DWRF_STRIPE_CACHE_MODE = INDEX_AND_FOOTER;
     public static final int DEFAULT_PRESERVE_DIRECT_ENCODING_STRIPE_COUNT = 0;
+    public static final double DEFAULT_BLOOM_FILTER_FPP = 0.05;
 
     private final OrcWriterFlushPolicy flushPolicy;
     private final int rowGroupMaxRowCount;
@@ -62,6 +66,10 @@ public class OrcWriterOptions
     private final boolean ignoreDictionaryRowGroupSizes;
     private final Optional<DwrfStripeCacheOptions> dwrfWriterOptions;
     private final int preserveDirectEncodingStripeCount;
+    private final Set<String> bloomFilterColumns;
+    private final double bloomFilterFpp;
+    private final int columnEncodingParallelism;
+    private final Optional<Executor> columnEncodingExecutor;
 
     private OrcWriterOptions(
             OrcWriterFlushPolicy flushPolicy,
@@ -79,7 +87,11 @@ public class OrcWriterOptions
             boolean stringDictionaryEncodingEnabled,
             Optional<DwrfStripeCacheOptions> dwrfWriterOptions,
             boolean ignoreDictionaryRowGroupSizes,
-            int preserveDirectEncodingStripeCount)
+            int preserveDirectEncodingStripeCount,
+            Set<String> bloomFilterColumns,
+            double bloomFilterFpp,
+            int columnEncodingParallelism,
+            Optional<Executor> columnEncodingExecutor)
     {
         requireNonNull(flushPolicy, "flushPolicy is null");
         checkArgument(rowGroupMaxRowCount >= 1, "rowGroupMaxRowCount must be at least 1");
@@ -91,6 +103,11 @@ public class OrcWriterOptions
         requireNonNull(compressionLevel, "compressionLevel is null");
         requireNonNull(streamLayoutFactory, "streamLayoutFactory is null");
         requireNonNull(dwrfWriterOptions, "dwrfWriterOptions is null");
+        requireNonNull(bloomFilterColumns, "bloomFilterColumns is null");
+        checkArgument(bloomFilterFpp > 0.0 && bloomFilterFpp < 1.0, "bloomFilterFpp must be between 0 and 1");
+        checkArgument(columnEncodingParallelism >= 1, "columnEncodingParallelism must be at least 1");
+        requireNonNull(columnEncodingExecutor, "columnEncodingExecutor is null");
+        checkArgument(columnEncodingParallelism == 1 || columnEncodingExecutor.isPresent(), "columnEncodingExecutor is required when columnEncodingParallelism is greater than 1");
 
         this.flushPolicy = flushPolicy;
         this.rowGroupMaxRowCount = rowGroupMaxRowCount;
@@ -108,6 +125,10 @@ public class OrcWriterOptions
         this.dwrfWriterOptions = dwrfWriterOptions;
         this.ignoreDictionaryRowGroupSizes = ignoreDictionaryRowGroupSizes;
         this.preserveDirectEncodingStripeCount = preserveDirectEncodingStripeCount;
+        this.bloomFilterColumns = ImmutableSet.copyOf(bloomFilterColumns);
+        this.bloomFilterFpp = bloomFilterFpp;
+        this.columnEncodingParallelism = columnEncodingParallelism;
+        this.columnEncodingExecutor = columnEncodingExecutor;
     }
 
     public OrcWriterFlushPolicy getFlushPolicy()
@@ -190,6 +211,29 @@ public class OrcWriterOptions
         return preserveDirectEncodingStripeCount;
     }
 
+    public Set<String> getBloomFilterColumns()
+    {
+        return bloomFilterColumns;
+    }
+
+    public double getBloomFilterFpp()
+    {
+        return bloomFilterFpp;
+    }
+
+    /**
+     * Maximum number of threads that encode the columns of a chunk concurrently.
+     */
+    public int getColumnEncodingParallelism()
+    {
+        return columnEncodingParallelism;
+    }
+
+    public Optional<Executor> getColumnEncodingExecutor()
+    {
+        return columnEncodingExecutor;
+    }
+
     @Override
     public String toString()
     {
@@ -210,6 +254,9 @@ public class OrcWriterOptions
                 .add("dwrfWriterOptions", dwrfWriterOptions)
                 .add("ignoreDictionaryRowGroupSizes", ignoreDictionaryRowGroupSizes)
                 .add("preserveDirectEncodingStripeCount", preserveDirectEncodingStripeCount)
+                .add("bloomFilterColumns", bloomFilterColumns)
+                .add("bloomFilterFpp", bloomFilterFpp)
+                .add("columnEncodingParallelism", columnEncodingParallelism)
                 .toString();
     }
 
@@ -243,6 +290,10 @@ public class OrcWriterOptions
         private DataSize dwrfStripeCacheMaxSize = DEFAULT_DWRF_STRIPE_CACHE_MAX_SIZE;
         private boolean ignoreDictionaryRowGroupSizes;
         private int preserveDirectEncodingStripeCount = DEFAULT_PRESERVE_DIRECT_ENCODING_STRIPE_COUNT;
+        private Set<String> bloomFilterColumns = ImmutableSet.of();
+        private double bloomFilterFpp = DEFAULT_BLOOM_FILTER_FPP;
+        private int columnEncodingParallelism = 1;
+        private Optional<Executor> columnEncodingExecutor = Optional.empty();
 
         public Builder withFlushPolicy(OrcWriterFlushPolicy flushPolicy)
         {
@@ -354,6 +405,32 @@ public class OrcWriterOptions
             return this;
         }
 
+        public Builder withBloomFilterColumns(Set<String> bloomFilterColumns)
+        {
+            this.bloomFilterColumns = ImmutableSet.copyOf(requireNonNull(bloomFilterColumns, "bloomFilterColumns is null"));
+            return this;
+        }
+
+        public Builder withBloomFilterFpp(double bloomFilterFpp)
+        {
+            checkArgument(bloomFilterFpp > 0.0 && bloomFilterFpp < 1.0, "bloomFilterFpp must be between 0 and 1");
+            this.bloomFilterFpp = bloomFilterFpp;
+            return this;
+        }
+
+        public Builder withColumnEncodingParallelism(int columnEncodingParallelism)
+        {
+            checkArgument(columnEncodingParallelism >= 1, "columnEncodingParallelism must be at least 1");
+            this.columnEncodingParallelism = columnEncodingParallelism;
+            return this;
+        }
+
+        public Builder withColumnEncodingExecutor(Optional<Executor> columnEncodingExecutor)
+        {
+            this.columnEncodingExecutor = requireNonNull(columnEncodingExecutor, "columnEncodingExecutor is null");
+            return this;
+        }
+
         public OrcWriterOptions build()
         {
             Optional<DwrfStripeCacheOptions> dwrfWriterOptions;
@@ -380,7 +457,11 @@ public class OrcWriterOptions
                     stringDictionaryEncodingEnabled,
                     dwrfWriterOptions,
                     ignoreDictionaryRowGroupSizes,
-                    preserveDirectEncodingStripeCount);
+                    preserveDirectEncodingStripeCount,
+                    bloomFilterColumns,
+                    bloomFilterFpp,
+                    columnEncodingParallelism,
+                    columnEncodingExecutor);
         }
     }
 }
@@ -70,6 +70,7 @@ import static com.facebook.presto.orc.metadata.DwrfMetadataReader.toStripeEncryp
 import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.STRUCT;
 import static com.facebook.presto.orc.metadata.Stream.StreamArea.INDEX;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.BLOOM_FILTER;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.BLOOM_FILTER_UTF8;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.DICTIONARY_DATA;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.LENGTH;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.ROW_INDEX;
@@ -494,16 +495,17 @@ public class StripeReader
     private Map<Integer, List<HiveBloomFilter>> readBloomFilterIndexes(Map<StreamId, Stream> streams, Map<StreamId, OrcInputStream> streamsData)
             throws IOException
     {
-        ImmutableMap.Builder<Integer, List<HiveBloomFilter>> bloomFilters = ImmutableMap.builder();
+        Map<Integer, List<HiveBloomFilter>> bloomFilters = new HashMap<>();
         for (Entry<StreamId, Stream> entry : streams.entrySet()) {
             Stream stream = entry.getValue();
-            if (stream.getStreamKind() == BLOOM_FILTER) {
+            int column = entry.getKey().getColumn();
+            // prefer the UTF-8 bloom filter when a writer produced both kinds for a column
+            if (stream.getStreamKind() == BLOOM_FILTER_UTF8 || (stream.getStreamKind() == BLOOM_FILTER && !bloomFilters.containsKey(column))) {
                 OrcInputStream inputStream = streamsData.get(entry.getKey());
-                bloomFilters.put(entry.getKey().getColumn(), metadataReader.readBloomFilterIndexes(inputStream));
+                bloomFilters.put(column, metadataReader.readBloomFilterIndexes(inputStream));
             }
-            // TODO: add support for BLOOM_FILTER_UTF8
         }
-        return bloomFilters.build();
+        return ImmutableMap.copyOf(bloomFilters);
     }
 
     private Map<StreamId, List<RowGroupIndex>> readColumnIndexes(Map<StreamId, Stream> streams, Map<StreamId, OrcInputStream> streamsData, StripeId stripeId)
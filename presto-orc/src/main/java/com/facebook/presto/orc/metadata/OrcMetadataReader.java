@@ -68,6 +68,7 @@ import static com.facebook.presto.orc.metadata.statistics.ShortDecimalStatistics
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
 import static io.airlift.slice.SliceUtf8.lengthOfCodePoint;
 import static io.airlift.slice.SliceUtf8.tryGetCodePointAt;
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
@@ -243,11 +244,28 @@ public class OrcMetadataReader
         List<OrcProto.BloomFilter> bloomFilterList = bloomFilter.getBloomFilterList();
         ImmutableList.Builder<HiveBloomFilter> builder = ImmutableList.builder();
         for (OrcProto.BloomFilter orcBloomFilter : bloomFilterList) {
-            builder.add(new HiveBloomFilter(orcBloomFilter.getBitsetList(), orcBloomFilter.getBitsetCount() * 64, orcBloomFilter.getNumHashFunctions()));
+            if (orcBloomFilter.hasUtf8Bitset()) {
+                List<Long> bitSet = toBitSet(orcBloomFilter.getUtf8Bitset());
+                builder.add(new HiveBloomFilter(bitSet, bitSet.size() * 64, orcBloomFilter.getNumHashFunctions()));
+            }
+            else {
+                builder.add(new HiveBloomFilter(orcBloomFilter.getBitsetList(), orcBloomFilter.getBitsetCount() * 64, orcBloomFilter.getNumHashFunctions()));
+            }
         }
         return builder.build();
     }
 
+    private static List<Long> toBitSet(ByteString utf8Bitset)
+    {
+        // BLOOM_FILTER_UTF8 streams store the bit set as little endian longs
+        Slice bits = byteStringToSlice(utf8Bitset);
+        ImmutableList.Builder<Long> bitSet = ImmutableList.builder();
+        for (int offset = 0; offset + SIZE_OF_LONG <= bits.length(); offset += SIZE_OF_LONG) {
+            bitSet.add(bits.getLong(offset));
+        }
+        return bitSet.build();
+    }
+
     private static RowGroupIndex toRowGroupIndex(HiveWriterVersion hiveWriterVersion, RowIndexEntry rowIndexEntry, HiveBloomFilter bloomFilter)
     {
         List<Long> positionsList = rowIndexEntry.getPositionsList();
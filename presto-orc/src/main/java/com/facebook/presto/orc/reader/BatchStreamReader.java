@@ -23,5 +23,16 @@ public interface BatchStreamReader
     Block readBlock()
             throws IOException;
 
+    /**
+     * Reads the next batch like {@link #readBlock()}, but returns only the values at the
+     * given positions of the batch. Readers that can skip over values without decoding
+     * them override this.
+     */
+    default Block readBlock(int[] positions, int offset, int length)
+            throws IOException
+    {
+        return readBlock().getPositions(positions, offset, length);
+    }
+
     void prepareNextRead(int batchSize);
 }
@@ -78,23 +78,7 @@ public class DoubleBatchStreamReader
     public Block readBlock()
             throws IOException
     {
-        if (!rowGroupOpen) {
-            openRowGroup();
-        }
-
-        if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the data reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (dataStream == null) {
-                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
-                }
-                dataStream.skip(readOffset);
-            }
-        }
+        seekToNextBatch();
 
         if (dataStream == null && presentStream != null) {
             presentStream.skip(nextBatchSize);
@@ -128,6 +112,76 @@ public class DoubleBatchStreamReader
         return builder.build();
     }
 
+    @Override
+    public Block readBlock(int[] positions, int offset, int length)
+            throws IOException
+    {
+        seekToNextBatch();
+
+        if (dataStream == null) {
+            if (presentStream == null) {
+                throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
+            }
+            presentStream.skip(nextBatchSize);
+            readOffset = 0;
+            nextBatchSize = 0;
+            return RunLengthEncodedBlock.create(DOUBLE, null, length);
+        }
+
+        // only the selected values are decoded, the values in between are skipped
+        BlockBuilder builder = DOUBLE.createBlockBuilder(null, length);
+        int nextPosition = 0;
+        for (int i = 0; i < length; i++) {
+            int position = positions[offset + i];
+            skipValues(position - nextPosition);
+            if (presentStream == null || presentStream.nextBit()) {
+                DOUBLE.writeDouble(builder, dataStream.next());
+            }
+            else {
+                builder.appendNull();
+            }
+            nextPosition = position + 1;
+        }
+        skipValues(nextBatchSize - nextPosition);
+
+        readOffset = 0;
+        nextBatchSize = 0;
+
+        return builder.build();
+    }
+
+    private void seekToNextBatch()
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        if (readOffset > 0) {
+            if (presentStream != null) {
+                // skip ahead the present bit reader, but count the set bits
+                // and use this as the skip size for the data reader
+                readOffset = presentStream.countBitsSet(readOffset);
+            }
+            if (readOffset > 0) {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
+                }
+                dataStream.skip(readOffset);
+            }
+        }
+    }
+
+    private void skipValues(int positionCount)
+            throws IOException
+    {
+        int valueCount = positionCount;
+        if (presentStream != null) {
+            valueCount = presentStream.countBitsSet(positionCount);
+        }
+        dataStream.skip(valueCount);
+    }
+
     private void openRowGroup()
             throws IOException
     {
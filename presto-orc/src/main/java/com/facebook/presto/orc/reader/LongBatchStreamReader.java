@@ -65,6 +65,13 @@ public class LongBatchStreamReader
         return currentReader.readBlock();
     }
 
+    @Override
+    public Block readBlock(int[] positions, int offset, int length)
+            throws IOException
+    {
+        return currentReader.readBlock(positions, offset, length);
+    }
+
     @Override
     public void startStripe(Stripe stripe)
             throws IOException
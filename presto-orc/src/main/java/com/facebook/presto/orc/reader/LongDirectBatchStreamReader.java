@@ -100,23 +100,7 @@ public class LongDirectBatchStreamReader
     public Block readBlock()
             throws IOException
     {
-        if (!rowGroupOpen) {
-            openRowGroup();
-        }
-
-        if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the data reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (dataStream == null) {
-                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is missing");
-                }
-                dataStream.skip(readOffset);
-            }
-        }
+        seekToNextBatch();
 
         Block block;
         if (dataStream == null) {
@@ -148,6 +132,108 @@ public class LongDirectBatchStreamReader
         return block;
     }
 
+    @Override
+    public Block readBlock(int[] positions, int offset, int length)
+            throws IOException
+    {
+        seekToNextBatch();
+
+        Block block;
+        if (dataStream == null) {
+            if (presentStream == null) {
+                throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is null but present stream is missing");
+            }
+            presentStream.skip(nextBatchSize);
+            block = RunLengthEncodedBlock.create(type, null, length);
+        }
+        else {
+            // only the selected values are decoded, the values in between are skipped
+            long[] values = new long[length];
+            boolean[] isNull = presentStream == null ? null : new boolean[length];
+            int nextPosition = 0;
+            for (int i = 0; i < length; i++) {
+                int position = positions[offset + i];
+                skipValues(position - nextPosition);
+                if (presentStream == null || presentStream.nextBit()) {
+                    values[i] = dataStream.next();
+                }
+                else {
+                    isNull[i] = true;
+                }
+                nextPosition = position + 1;
+            }
+            skipValues(nextBatchSize - nextPosition);
+            block = createBlock(length, Optional.ofNullable(isNull), values);
+        }
+        readOffset = 0;
+        nextBatchSize = 0;
+
+        return block;
+    }
+
+    private void seekToNextBatch()
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        if (readOffset > 0) {
+            if (presentStream != null) {
+                // skip ahead the present bit reader, but count the set bits
+                // and use this as the skip size for the data reader
+                readOffset = presentStream.countBitsSet(readOffset);
+            }
+            if (readOffset > 0) {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is missing");
+                }
+                dataStream.skip(readOffset);
+            }
+        }
+    }
+
+    private void skipValues(int positionCount)
+            throws IOException
+    {
+        verify(dataStream != null);
+        int valueCount = positionCount;
+        if (presentStream != null) {
+            valueCount = presentStream.countBitsSet(positionCount);
+        }
+        dataStream.skip(valueCount);
+    }
+
+    private Block createBlock(int positionCount, Optional<boolean[]> isNull, long[] values)
+            throws OrcCorruptionException
+    {
+        if (type instanceof BigintType) {
+            return new LongArrayBlock(positionCount, isNull, values);
+        }
+
+        int bits = type instanceof SmallintType ? Short.SIZE : Integer.SIZE;
+        long minValue = -1L << (bits - 1);
+        long maxValue = ~minValue;
+        for (int i = 0; i < positionCount; i++) {
+            if (values[i] < minValue || values[i] > maxValue) {
+                throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Decoded value out of range for a %sbit number", bits);
+            }
+        }
+
+        if (type instanceof SmallintType) {
+            short[] shortValues = new short[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                shortValues[i] = (short) values[i];
+            }
+            return new ShortArrayBlock(positionCount, isNull, shortValues);
+        }
+        int[] intValues = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            intValues[i] = (int) values[i];
+        }
+        return new IntArrayBlock(positionCount, isNull, intValues);
+    }
+
     private Block readNonNullBlock()
             throws IOException
     {
@@ -17,6 +17,7 @@ import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.BlockLease;
 import com.facebook.presto.common.block.ClosingBlockLease;
 import com.facebook.presto.common.block.DictionaryBlock;
+import com.facebook.presto.common.block.DictionaryId;
 import com.facebook.presto.common.block.RunLengthEncodedBlock;
 import com.facebook.presto.common.block.VariableWidthBlock;
 import com.facebook.presto.common.predicate.TupleDomainFilter;
@@ -45,6 +46,7 @@ import java.util.Optional;
 import static com.facebook.presto.common.array.Arrays.ExpansionFactor.MEDIUM;
 import static com.facebook.presto.common.array.Arrays.ExpansionOption.PRESERVE;
 import static com.facebook.presto.common.array.Arrays.ensureCapacity;
+import static com.facebook.presto.common.block.DictionaryId.randomDictionaryId;
 import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.CHAR;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.DATA;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.DICTIONARY_DATA;
@@ -103,6 +105,8 @@ public class SliceDictionarySelectiveReader
     private int readOffset;
 
     private VariableWidthBlock dictionary = new VariableWidthBlock(1, wrappedBuffer(EMPTY_DICTIONARY_DATA), EMPTY_DICTIONARY_OFFSETS, Optional.of(new boolean[] {true}));
+    // shared by all blocks of the current dictionary, so that the engine can reuse per dictionary results across batches
+    private DictionaryId dictionaryId = randomDictionaryId();
 
     private InputStreamSource<BooleanInputStream> presentStreamSource = missingStreamSource(BooleanInputStream.class);
     private BooleanInputStream presentStream;
@@ -415,7 +419,7 @@ public class SliceDictionarySelectiveReader
         wrapDictionaryIfNecessary();
 
         int[] valuesCopy = Arrays.copyOf(values, positionCount);
-        return new DictionaryBlock(positionCount, dictionary, valuesCopy);
+        return new DictionaryBlock(positionCount, dictionary, valuesCopy, dictionaryId);
     }
 
     @Override
@@ -433,7 +437,7 @@ public class SliceDictionarySelectiveReader
             compactValues(positions, positionCount);
         }
         wrapDictionaryIfNecessary();
-        return newLease(new DictionaryBlock(positionCount, dictionary, values));
+        return newLease(new DictionaryBlock(positionCount, dictionary, values, dictionaryId));
     }
 
     private void wrapDictionaryIfNecessary()
@@ -448,6 +452,7 @@ public class SliceDictionarySelectiveReader
         byte[] dictionaryDataCopy = Arrays.copyOf(dictionaryData, dictionaryOffsetVector[currentDictionarySize]);
         int[] dictionaryOffsetVectorCopy = Arrays.copyOf(dictionaryOffsetVector, currentDictionarySize + 1);
         dictionary = new VariableWidthBlock(currentDictionarySize, wrappedBuffer(dictionaryDataCopy), dictionaryOffsetVectorCopy, Optional.of(isNullVector));
+        dictionaryId = randomDictionaryId();
 
         dictionaryWrapped = true;
     }
@@ -16,6 +16,7 @@ package com.facebook.presto.orc.stream;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -29,6 +30,8 @@ public final class LongBitPacker
 {
     // ORC uses no more than 9 bits to store run lengths (https://orc.apache.org/docs/run-length.html#direct)
     private static final int MAX_BUFFERED_POSITIONS = 512;
+    // a value starts at most 7 bits into the first byte of its 64 bit window
+    private static final int MAX_WINDOW_BIT_SIZE = Long.SIZE - 7;
 
     // We use this temp buffer to work around poor read performance of single bytes from Slice.
     // Benchmarks show that reading from this byte[] is ~3x faster, even after accounting for the
@@ -76,7 +79,40 @@ public final class LongBitPacker
                 unpack64(buffer, offset, len, input);
                 break;
             default:
-                unpackGeneric(buffer, offset, len, bitSize, input);
+                if (bitSize <= MAX_WINDOW_BIT_SIZE) {
+                    unpackWindowed(buffer, offset, len, bitSize, input);
+                }
+                else {
+                    unpackGeneric(buffer, offset, len, bitSize, input);
+                }
+        }
+    }
+
+    /**
+     * Unpacks values of any width that fits into a 64 bit big endian window starting at the
+     * byte of the first bit of the value. All bytes of the run are read in one call and every
+     * value is extracted with one load and two shifts.
+     */
+    private void unpackWindowed(long[] buffer, int offset, int len, int bitSize, InputStream input)
+            throws IOException
+    {
+        int blockReadableBytes = (len * bitSize + 7) / 8;
+        for (int i = 0; i < blockReadableBytes; ) {
+            int read = input.read(tmp, i, blockReadableBytes - i);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of bit packed run");
+            }
+            i += read;
+        }
+
+        // It's safe to read 8-bytes at a time, because slice is a view over tmp,
+        // which has 8 bytes of buffer space for every position
+        long bitOffset = 0;
+        int shift = Long.SIZE - bitSize;
+        for (int i = offset; i < offset + len; i++) {
+            long window = Long.reverseBytes(getLongUnchecked(slice, (int) (bitOffset >>> 3)));
+            buffer[i] = (window << (bitOffset & 7)) >>> shift;
+            bitOffset += bitSize;
         }
     }
 
@@ -75,6 +75,10 @@ public class LongInputStreamDwrf
     public void next(long[] values, int items)
             throws IOException
     {
+        if (!usesVInt) {
+            input.readDwrfLongs(orcTypeKind, values, items);
+            return;
+        }
         for (int i = 0; i < items; i++) {
             values[i] = next();
         }
@@ -290,6 +290,57 @@ public final class OrcInputStream
         }
     }
 
+    /**
+     * Reads fixed width DWRF longs straight from the decompressed buffer. Only values that
+     * span two compression chunks are assembled byte by byte.
+     */
+    public void readDwrfLongs(OrcTypeKind type, long[] values, int items)
+            throws IOException
+    {
+        int size;
+        switch (type) {
+            case SHORT:
+                size = SIZE_OF_SHORT;
+                break;
+            case INT:
+                size = SIZE_OF_INT;
+                break;
+            case LONG:
+                size = SIZE_OF_LONG;
+                break;
+            default:
+                throw new IllegalStateException();
+        }
+
+        int offset = 0;
+        while (offset < items) {
+            if (available() < size) {
+                values[offset++] = readDwrfLong(type);
+                continue;
+            }
+
+            int count = Math.min(items - offset, available() / size);
+            switch (type) {
+                case SHORT:
+                    for (int i = 0; i < count; i++) {
+                        values[offset + i] = 0xFFFF & ByteArrays.getShort(buffer, position + i * SIZE_OF_SHORT);
+                    }
+                    break;
+                case INT:
+                    for (int i = 0; i < count; i++) {
+                        values[offset + i] = ByteArrays.getInt(buffer, position + i * SIZE_OF_INT);
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < count; i++) {
+                        values[offset + i] = ByteArrays.getLong(buffer, position + i * SIZE_OF_LONG);
+                    }
+            }
+            position += count * size;
+            offset += count;
+        }
+    }
+
     public void skipDwrfLong(OrcTypeKind type, long items)
             throws IOException
     {
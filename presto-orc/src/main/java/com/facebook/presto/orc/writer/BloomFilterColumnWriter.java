@@ -0,0 +1,221 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.VarbinaryType;
+import com.facebook.presto.common.type.VarcharType;
+import com.facebook.presto.orc.ColumnWriterOptions;
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.CompressedMetadataWriter;
+import com.facebook.presto.orc.metadata.MetadataWriter;
+import com.facebook.presto.orc.metadata.Stream;
+import com.facebook.presto.orc.metadata.statistics.BloomFilter;
+import com.facebook.presto.orc.metadata.statistics.ColumnStatistics;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.SmallintType.SMALLINT;
+import static com.facebook.presto.common.type.TinyintType.TINYINT;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.BLOOM_FILTER_UTF8;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Wraps the writer of a primitive column and additionally builds one bloom filter
+ * per row group, which is written as a BLOOM_FILTER_UTF8 index stream next to the
+ * row index of the wrapped writer. The values are hashed exactly the way
+ * {@link com.facebook.presto.orc.TupleDomainOrcPredicate} probes them.
+ */
+public class BloomFilterColumnWriter
+        implements ColumnWriter
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BloomFilterColumnWriter.class).instanceSize();
+
+    private final int column;
+    private final Type type;
+    private final ColumnWriter delegate;
+    private final CompressedMetadataWriter metadataWriter;
+    private final long expectedEntries;
+    private final double fpp;
+
+    private final List<BloomFilter> rowGroupBloomFilters = new ArrayList<>();
+    private BloomFilter bloomFilter;
+    private boolean closed;
+
+    public BloomFilterColumnWriter(
+            int column,
+            Type type,
+            ColumnWriter delegate,
+            ColumnWriterOptions columnWriterOptions,
+            MetadataWriter metadataWriter,
+            long expectedEntries,
+            double fpp)
+    {
+        checkArgument(column >= 0, "column is negative");
+        checkArgument(isBloomFilterSupported(type), "Bloom filters are not supported for type %s", type);
+        checkArgument(expectedEntries > 0, "expectedEntries must be positive");
+        checkArgument(fpp > 0.0 && fpp < 1.0, "fpp must be between 0 and 1");
+        requireNonNull(columnWriterOptions, "columnWriterOptions is null");
+        requireNonNull(metadataWriter, "metadataWriter is null");
+        this.column = column;
+        this.type = type;
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.metadataWriter = new CompressedMetadataWriter(metadataWriter, columnWriterOptions, Optional.empty());
+        this.expectedEntries = expectedEntries;
+        this.fpp = fpp;
+    }
+
+    public static boolean isBloomFilterSupported(Type type)
+    {
+        return type == TINYINT || type == SMALLINT || type == INTEGER || type == BIGINT || type == DOUBLE ||
+                type instanceof VarcharType || type instanceof VarbinaryType;
+    }
+
+    @Override
+    public List<ColumnWriter> getNestedColumnWriters()
+    {
+        return ImmutableList.<ColumnWriter>builder()
+                .add(delegate)
+                .addAll(delegate.getNestedColumnWriters())
+                .build();
+    }
+
+    @Override
+    public Map<Integer, ColumnEncoding> getColumnEncodings()
+    {
+        return delegate.getColumnEncodings();
+    }
+
+    @Override
+    public void beginRowGroup()
+    {
+        bloomFilter = new BloomFilter(expectedEntries, fpp);
+        delegate.beginRowGroup();
+    }
+
+    @Override
+    public long writeBlock(Block block)
+    {
+        checkState(!closed);
+        checkState(bloomFilter != null, "row group is not started");
+
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                continue;
+            }
+            if (type == DOUBLE) {
+                bloomFilter.addDouble(type.getDouble(block, position));
+            }
+            else if (type instanceof VarcharType || type instanceof VarbinaryType) {
+                Slice value = type.getSlice(block, position);
+                bloomFilter.add(value.getBytes());
+            }
+            else {
+                bloomFilter.addLong(type.getLong(block, position));
+            }
+        }
+        return delegate.writeBlock(block);
+    }
+
+    @Override
+    public Map<Integer, ColumnStatistics> finishRowGroup()
+    {
+        checkState(!closed);
+        checkState(bloomFilter != null, "row group is not started");
+
+        rowGroupBloomFilters.add(bloomFilter);
+        bloomFilter = null;
+        return delegate.finishRowGroup();
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        delegate.close();
+    }
+
+    @Override
+    public Map<Integer, ColumnStatistics> getColumnStripeStatistics()
+    {
+        return delegate.getColumnStripeStatistics();
+    }
+
+    @Override
+    public List<StreamDataOutput> getIndexStreams()
+            throws IOException
+    {
+        checkState(closed);
+
+        Slice slice = metadataWriter.writeBloomFilters(rowGroupBloomFilters);
+        Stream stream = new Stream(column, BLOOM_FILTER_UTF8, slice.length(), false);
+        return ImmutableList.<StreamDataOutput>builder()
+                .addAll(delegate.getIndexStreams())
+                .add(new StreamDataOutput(slice, stream))
+                .build();
+    }
+
+    @Override
+    public List<StreamDataOutput> getDataStreams()
+    {
+        return delegate.getDataStreams();
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        long bufferedBytes = delegate.getBufferedBytes();
+        for (BloomFilter rowGroupBloomFilter : rowGroupBloomFilters) {
+            bufferedBytes += rowGroupBloomFilter.sizeInBytes();
+        }
+        return bufferedBytes;
+    }
+
+    @Override
+    public long getRetainedBytes()
+    {
+        long retainedBytes = INSTANCE_SIZE + delegate.getRetainedBytes();
+        if (bloomFilter != null) {
+            retainedBytes += sizeOf(bloomFilter.getBitSet());
+        }
+        for (BloomFilter rowGroupBloomFilter : rowGroupBloomFilters) {
+            retainedBytes += sizeOf(rowGroupBloomFilter.getBitSet());
+        }
+        return retainedBytes;
+    }
+
+    @Override
+    public void reset()
+    {
+        closed = false;
+        rowGroupBloomFilters.clear();
+        bloomFilter = null;
+        delegate.reset();
+    }
+}
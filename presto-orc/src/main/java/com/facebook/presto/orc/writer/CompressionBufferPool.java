@@ -15,7 +15,12 @@ package com.facebook.presto.orc.writer;
 
 import org.openjdk.jol.info.ClassLayout;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static io.airlift.slice.SizeOf.sizeOf;
 import static java.util.Objects.requireNonNull;
@@ -59,4 +64,45 @@ public interface CompressionBufferPool
             return INSTANCE_SIZE + sizeOf(lastUsed);
         }
     }
+
+    /**
+     * Pool for column writers that encode concurrently. Every concurrent
+     * writer keeps at most one buffer in the pool.
+     */
+    @ThreadSafe
+    class ConcurrentCompressionBufferPool
+            implements CompressionBufferPool
+    {
+        private static final int INSTANCE_SIZE = ClassLayout.parseClass(ConcurrentCompressionBufferPool.class).instanceSize();
+
+        @GuardedBy("this")
+        private final List<byte[]> buffers = new ArrayList<>();
+
+        @Override
+        public synchronized byte[] checkOut(int length)
+        {
+            for (int i = buffers.size() - 1; i >= 0; i--) {
+                if (buffers.get(i).length >= length) {
+                    return buffers.remove(i);
+                }
+            }
+            return new byte[length];
+        }
+
+        @Override
+        public synchronized void checkIn(byte[] buffer)
+        {
+            buffers.add(requireNonNull(buffer, "buffer is null"));
+        }
+
+        @Override
+        public synchronized long getRetainedBytes()
+        {
+            long retainedBytes = INSTANCE_SIZE;
+            for (byte[] buffer : buffers) {
+                retainedBytes += sizeOf(buffer);
+            }
+            return retainedBytes;
+        }
+    }
 }
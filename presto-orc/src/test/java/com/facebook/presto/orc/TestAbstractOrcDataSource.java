@@ -0,0 +1,143 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.common.io.ParallelRangeReader;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
+import io.airlift.units.DataSize;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.facebook.presto.common.io.ParallelRangeReader.SEQUENTIAL_RANGE_READER;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestAbstractOrcDataSource
+{
+    private static final int RANGE_COUNT = 3;
+
+    private final ExecutorService executor = newCachedThreadPool();
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReadMergedRangesInParallel()
+            throws Exception
+    {
+        // every read waits until all ranges are being read, so this only finishes if they are read concurrently
+        CountDownLatch allReadsStarted = new CountDownLatch(RANGE_COUNT);
+        TestingDataSource dataSource = new TestingDataSource(new ParallelRangeReader(executor, RANGE_COUNT), allReadsStarted);
+
+        assertReadRanges(dataSource);
+        assertEquals(dataSource.getMaxConcurrentReads(), RANGE_COUNT);
+    }
+
+    @Test
+    public void testReadMergedRangesSequentially()
+            throws Exception
+    {
+        TestingDataSource dataSource = new TestingDataSource(SEQUENTIAL_RANGE_READER, new CountDownLatch(0));
+
+        assertReadRanges(dataSource);
+        assertEquals(dataSource.getMaxConcurrentReads(), 1);
+    }
+
+    private static void assertReadRanges(TestingDataSource dataSource)
+            throws IOException
+    {
+        // the ranges are too far apart to be merged, so each one is a separate read
+        Map<String, OrcDataSourceInput> inputs = dataSource.readFully(ImmutableMap.of(
+                "first", new DiskRange(0, 100),
+                "second", new DiskRange(1_000, 200),
+                "third", new DiskRange(5_000, 300)));
+
+        assertRange(inputs.get("first"), 0, 100);
+        assertRange(inputs.get("second"), 1_000, 200);
+        assertRange(inputs.get("third"), 5_000, 300);
+        assertEquals(dataSource.getReadBytes(), 600);
+        assertTrue(dataSource.getReadTimeNanos() > 0);
+    }
+
+    private static void assertRange(OrcDataSourceInput input, int offset, int length)
+    {
+        Slice slice = input.getInput().readSlice(length);
+        for (int i = 0; i < length; i++) {
+            assertEquals(slice.getByte(i), (byte) (offset + i));
+        }
+    }
+
+    private static class TestingDataSource
+            extends AbstractOrcDataSource
+    {
+        private final CountDownLatch allReadsStarted;
+        private final AtomicInteger concurrentReads = new AtomicInteger();
+        private final AtomicInteger maxConcurrentReads = new AtomicInteger();
+
+        public TestingDataSource(ParallelRangeReader parallelRangeReader, CountDownLatch allReadsStarted)
+        {
+            super(
+                    new OrcDataSourceId("test"),
+                    10_000,
+                    new DataSize(10, BYTE),
+                    new DataSize(1, MEGABYTE),
+                    new DataSize(1, MEGABYTE),
+                    false,
+                    parallelRangeReader);
+            this.allReadsStarted = allReadsStarted;
+        }
+
+        public int getMaxConcurrentReads()
+        {
+            return maxConcurrentReads.get();
+        }
+
+        @Override
+        protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
+                throws IOException
+        {
+            maxConcurrentReads.accumulateAndGet(concurrentReads.incrementAndGet(), Math::max);
+            try {
+                allReadsStarted.countDown();
+                if (!allReadsStarted.await(10, SECONDS)) {
+                    throw new IOException("Ranges were not read concurrently");
+                }
+                for (int i = 0; i < bufferLength; i++) {
+                    buffer[bufferOffset + i] = (byte) (position + i);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            finally {
+                concurrentReads.decrementAndGet();
+            }
+        }
+    }
+}
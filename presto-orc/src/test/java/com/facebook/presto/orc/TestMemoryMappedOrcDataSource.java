@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+public class TestMemoryMappedOrcDataSource
+{
+    @Test
+    public void testRead()
+            throws Exception
+    {
+        byte[] data = new byte[10_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        try (TempFile tempFile = new TempFile()) {
+            Files.write(tempFile.getFile().toPath(), data);
+
+            OrcAggregatedMemoryContext memoryContext = new TestingHiveOrcAggregatedMemoryContext();
+            MemoryMappedOrcDataSource dataSource = new MemoryMappedOrcDataSource(tempFile.getFile(), memoryContext);
+            try {
+                assertEquals(dataSource.getSize(), data.length);
+                assertEquals(memoryContext.getBytes(), data.length);
+
+                byte[] buffer = new byte[100];
+                dataSource.readFully(1_000, buffer, 10, 50);
+                for (int i = 0; i < 50; i++) {
+                    assertEquals(buffer[10 + i], data[1_000 + i]);
+                }
+
+                Map<String, OrcDataSourceInput> inputs = dataSource.readFully(ImmutableMap.of(
+                        "first", new DiskRange(0, 10),
+                        "last", new DiskRange(9_000, 1_000)));
+                assertRange(inputs.get("first"), data, 0, 10);
+                assertRange(inputs.get("last"), data, 9_000, 1_000);
+                assertEquals(dataSource.getReadBytes(), 1_060);
+            }
+            finally {
+                dataSource.close();
+            }
+
+            // the mapping is released on close
+            assertEquals(memoryContext.getBytes(), 0);
+            assertThrows(IllegalStateException.class, () -> dataSource.readFully(0, new byte[10]));
+            assertThrows(IllegalStateException.class, () -> dataSource.readFully(ImmutableMap.of("first", new DiskRange(0, 10))));
+            // closing twice is a no-op
+            dataSource.close();
+        }
+    }
+
+    private static void assertRange(OrcDataSourceInput input, byte[] data, int offset, int length)
+    {
+        assertEquals(input.getRetainedSizeInBytes(), 0);
+        Slice slice = input.getInput().readSlice(length);
+        for (int i = 0; i < length; i++) {
+            assertEquals(slice.getByte(i), data[offset + i]);
+        }
+    }
+}
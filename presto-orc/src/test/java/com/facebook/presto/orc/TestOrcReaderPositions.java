@@ -19,6 +19,7 @@ import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.function.SqlFunctionProperties;
 import com.facebook.presto.common.predicate.FilterFunction;
 import com.facebook.presto.common.relation.Predicate;
+import com.facebook.presto.common.type.Type;
 import com.facebook.presto.orc.cache.StorageOrcFileTailSource;
 import com.facebook.presto.orc.metadata.CompressionKind;
 import com.facebook.presto.orc.metadata.Footer;
@@ -52,9 +53,14 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
 import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.SmallintType.SMALLINT;
 import static com.facebook.presto.common.type.VarcharType.VARCHAR;
 import static com.facebook.presto.orc.DwrfEncryptionProvider.NO_ENCRYPTION;
 import static com.facebook.presto.orc.NoopOrcAggregatedMemoryContext.NOOP_ORC_AGGREGATED_MEMORY_CONTEXT;
@@ -68,8 +74,10 @@ import static com.facebook.presto.orc.OrcTester.createCustomOrcRecordReader;
 import static com.facebook.presto.orc.OrcTester.createCustomOrcSelectiveRecordReader;
 import static com.facebook.presto.orc.OrcTester.createOrcRecordWriter;
 import static com.facebook.presto.orc.OrcTester.createSettableStructObjectInspector;
+import static com.facebook.presto.orc.OrcTester.writeOrcColumnPresto;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.hadoop.hive.ql.io.orc.CompressionKind.SNAPPY;
 import static org.testng.Assert.assertEquals;
@@ -446,6 +454,89 @@ public class TestOrcReaderPositions
         }
     }
 
+    @Test
+    public void testReadSelectedPositions()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            int rowCount = 25_000;
+            createSequentialFile(tempFile.getFile(), rowCount);
+
+            try (OrcBatchRecordReader reader = createCustomOrcRecordReader(tempFile, ORC, OrcPredicate.TRUE, BIGINT, MAX_BATCH_SIZE, false, false)) {
+                int batchCount = 0;
+                for (int batchSize = reader.nextBatch(); batchSize > 0; batchSize = reader.nextBatch()) {
+                    batchCount++;
+                    if (batchCount % 3 == 0) {
+                        // leave some batches unread
+                        continue;
+                    }
+
+                    int[] positions = IntStream.range(0, batchSize)
+                            .filter(position -> position % 7 == 1 || position == batchSize - 1)
+                            .toArray();
+                    long filePosition = reader.getFilePosition();
+                    Block block = reader.readBlock(0, positions, 0, positions.length);
+                    assertEquals(block.getPositionCount(), positions.length);
+                    for (int i = 0; i < positions.length; i++) {
+                        assertEquals(BIGINT.getLong(block, i), filePosition + positions[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadSelectedPositionsWithNulls()
+            throws Exception
+    {
+        int rowCount = 25_000;
+        assertReadSelectedPositions(BIGINT, createValues(rowCount, position -> (long) position));
+        assertReadSelectedPositions(INTEGER, createValues(rowCount, position -> position));
+        assertReadSelectedPositions(SMALLINT, createValues(rowCount, position -> (short) position));
+        assertReadSelectedPositions(DOUBLE, createValues(rowCount, position -> position * 0.5));
+        assertReadSelectedPositions(VARCHAR, createValues(rowCount, String::valueOf));
+        assertReadSelectedPositions(BIGINT, createValues(rowCount, position -> null));
+    }
+
+    private static List<Object> createValues(int count, IntFunction<Object> value)
+    {
+        List<Object> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(i % 5 == 3 ? null : value.apply(i));
+        }
+        return values;
+    }
+
+    private static void assertReadSelectedPositions(Type type, List<?> values)
+            throws Exception
+    {
+        SqlFunctionProperties properties = new TestingConnectorSession(ImmutableList.of()).getSqlFunctionProperties();
+        try (TempFile tempFile = new TempFile()) {
+            writeOrcColumnPresto(tempFile.getFile(), ORC_12, CompressionKind.NONE, type, values);
+
+            try (OrcBatchRecordReader reader = createCustomOrcRecordReader(tempFile, ORC, OrcPredicate.TRUE, type, MAX_BATCH_SIZE, false, false)) {
+                int batchCount = 0;
+                for (int batchSize = reader.nextBatch(); batchSize > 0; batchSize = reader.nextBatch()) {
+                    batchCount++;
+                    if (batchCount % 3 == 0) {
+                        // leave some batches unread
+                        continue;
+                    }
+
+                    int[] positions = IntStream.range(0, batchSize)
+                            .filter(position -> position % 4 != 0)
+                            .toArray();
+                    int filePosition = toIntExact(reader.getFilePosition());
+                    Block block = reader.readBlock(0, positions, 1, positions.length - 1);
+                    assertEquals(block.getPositionCount(), positions.length - 1);
+                    for (int i = 0; i < block.getPositionCount(); i++) {
+                        assertEquals(type.getObjectValue(properties, block, i), values.get(filePosition + positions[i + 1]));
+                    }
+                }
+            }
+        }
+    }
+
     @Test
     public void testReadUserMetadata()
             throws Exception
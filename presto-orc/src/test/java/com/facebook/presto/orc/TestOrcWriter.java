@@ -19,6 +19,8 @@ import com.facebook.presto.common.block.BlockBuilder;
 import com.facebook.presto.common.io.DataOutput;
 import com.facebook.presto.common.io.DataSink;
 import com.facebook.presto.common.io.OutputStreamDataSink;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.orc.OrcTester.Format;
 import com.facebook.presto.orc.OrcWriteValidation.OrcWriteValidationMode;
 import com.facebook.presto.orc.metadata.CompressionKind;
 import com.facebook.presto.orc.metadata.Stream;
@@ -35,18 +37,27 @@ import org.testng.annotations.Test;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static com.facebook.airlift.testing.Assertions.assertGreaterThanOrEqual;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
 import static com.facebook.presto.common.type.VarcharType.VARCHAR;
 import static com.facebook.presto.orc.DwrfEncryptionProvider.NO_ENCRYPTION;
 import static com.facebook.presto.orc.OrcEncoding.DWRF;
 import static com.facebook.presto.orc.OrcEncoding.ORC;
+import static com.facebook.presto.orc.OrcTester.Format.ORC_12;
 import static com.facebook.presto.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static com.facebook.presto.orc.OrcTester.assertFileContentsPresto;
+import static com.facebook.presto.orc.OrcTester.writeOrcColumnsPresto;
 import static com.facebook.presto.orc.StripeReader.isIndexStream;
 import static com.facebook.presto.orc.TestingOrcPredicate.ORC_ROW_GROUP_SIZE;
 import static com.facebook.presto.orc.TestingOrcPredicate.ORC_STRIPE_SIZE;
@@ -54,6 +65,8 @@ import static com.facebook.presto.orc.metadata.CompressionKind.NONE;
 import static com.facebook.presto.orc.metadata.CompressionKind.ZLIB;
 import static com.facebook.presto.orc.metadata.CompressionKind.ZSTD;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 
 public class TestOrcWriter
@@ -184,6 +197,77 @@ public class TestOrcWriter
         }
     }
 
+    @DataProvider(name = "columnEncodingFormats")
+    public static Object[][] columnEncodingFormats()
+    {
+        return new Object[][] {{ORC_12, ZLIB}, {Format.DWRF, ZSTD}};
+    }
+
+    @Test(dataProvider = "columnEncodingFormats")
+    public void testParallelColumnEncoding(Format format, CompressionKind kind)
+            throws Exception
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR, DOUBLE, BIGINT, VARCHAR);
+        int rowCount = 30_000;
+        List<List<?>> values = new ArrayList<>();
+        for (Type type : types) {
+            List<Object> columnValues = new ArrayList<>(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                if (row % (values.size() + 7) == 0) {
+                    columnValues.add(null);
+                }
+                else if (type == BIGINT) {
+                    columnValues.add((long) row * (values.size() + 1));
+                }
+                else if (type == DOUBLE) {
+                    columnValues.add(row * 0.5);
+                }
+                else {
+                    // few distinct values in the first string column, so it is dictionary encoded
+                    columnValues.add("value" + (values.size() == 1 ? row % 100 : row));
+                }
+            }
+            values.add(columnValues);
+        }
+
+        ExecutorService executor = newFixedThreadPool(2);
+        try (TempFile serialFile = new TempFile(); TempFile parallelFile = new TempFile()) {
+            writeOrcColumnsPresto(serialFile.getFile(), format, kind, Optional.empty(), types, values, columnEncodingOptions(1, Optional.empty()), new OrcWriterStats());
+            // the writers of the five columns are spread over three groups, two of them encoded by the executor
+            writeOrcColumnsPresto(parallelFile.getFile(), format, kind, Optional.empty(), types, values, columnEncodingOptions(3, Optional.of(executor)), new OrcWriterStats());
+
+            assertEquals(OrcTester.getStripes(parallelFile.getFile(), format.getOrcEncoding()).size(), 3);
+            assertEquals(Files.readAllBytes(parallelFile.getFile().toPath()), Files.readAllBytes(serialFile.getFile().toPath()));
+            assertFileContentsPresto(
+                    types,
+                    parallelFile.getFile(),
+                    values,
+                    format.getOrcEncoding(),
+                    OrcPredicate.TRUE,
+                    Optional.empty(),
+                    ImmutableList.of(),
+                    ImmutableMap.of(),
+                    ImmutableMap.of());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static OrcWriterOptions columnEncodingOptions(int columnEncodingParallelism, Optional<Executor> columnEncodingExecutor)
+    {
+        return OrcWriterOptions.builder()
+                .withFlushPolicy(DefaultOrcWriterFlushPolicy.builder()
+                        .withStripeMinSize(new DataSize(0, MEGABYTE))
+                        .withStripeMaxSize(new DataSize(32, MEGABYTE))
+                        .withStripeMaxRowCount(10_000)
+                        .build())
+                .withRowGroupMaxRowCount(ORC_ROW_GROUP_SIZE)
+                .withColumnEncodingParallelism(columnEncodingParallelism)
+                .withColumnEncodingExecutor(columnEncodingExecutor)
+                .build();
+    }
+
     @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Dummy exception from mocked instance")
     public void testVerifyNoIllegalStateException()
             throws IOException
@@ -17,13 +17,17 @@ import com.facebook.presto.orc.metadata.DwrfStripeCacheMode;
 import com.facebook.presto.orc.writer.StreamLayoutFactory;
 import com.facebook.presto.orc.writer.StreamLayoutFactory.ColumnSizeLayoutFactory;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import org.testng.annotations.Test;
 
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static com.facebook.presto.orc.metadata.DwrfStripeCacheMode.INDEX_AND_FOOTER;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
@@ -76,6 +80,10 @@ public class TestOrcWriterOptions
         boolean stringDictionarySortingEnabled = false;
         boolean stringDictionaryEncodingEnabled = false;
         int preserveDirectEncodingStripeCount = 10;
+        Set<String> bloomFilterColumns = ImmutableSet.of("col_1", "col_2");
+        double bloomFilterFpp = 0.01;
+        int columnEncodingParallelism = 4;
+        Optional<Executor> columnEncodingExecutor = Optional.of(directExecutor());
 
         OrcWriterOptions.Builder builder = OrcWriterOptions.builder()
                 .withFlushPolicy(DefaultOrcWriterFlushPolicy.builder()
@@ -95,7 +103,11 @@ public class TestOrcWriterOptions
                 .withIntegerDictionaryEncodingEnabled(integerDictionaryEncodingEnabled)
                 .withStringDictionarySortingEnabled(stringDictionarySortingEnabled)
                 .withStringDictionaryEncodingEnabled(stringDictionaryEncodingEnabled)
-                .withPreserveDirectEncodingStripeCount(preserveDirectEncodingStripeCount);
+                .withPreserveDirectEncodingStripeCount(preserveDirectEncodingStripeCount)
+                .withBloomFilterColumns(bloomFilterColumns)
+                .withBloomFilterFpp(bloomFilterFpp)
+                .withColumnEncodingParallelism(columnEncodingParallelism)
+                .withColumnEncodingExecutor(columnEncodingExecutor);
 
         OrcWriterOptions options = builder.build();
 
@@ -116,6 +128,10 @@ public class TestOrcWriterOptions
         assertEquals(stringDictionaryEncodingEnabled, options.isStringDictionaryEncodingEnabled());
         assertEquals(Optional.empty(), options.getDwrfStripeCacheOptions());
         assertEquals(preserveDirectEncodingStripeCount, options.getPreserveDirectEncodingStripeCount());
+        assertEquals(bloomFilterColumns, options.getBloomFilterColumns());
+        assertEquals(bloomFilterFpp, options.getBloomFilterFpp());
+        assertEquals(columnEncodingParallelism, options.getColumnEncodingParallelism());
+        assertEquals(columnEncodingExecutor, options.getColumnEncodingExecutor());
     }
 
     @Test
@@ -169,7 +185,7 @@ public class TestOrcWriterOptions
                 "compressionLevel=OptionalInt[5], streamLayoutFactory=ColumnSizeLayoutFactory{}, integerDictionaryEncodingEnabled=false, " +
                 "stringDictionarySortingEnabled=true, stringDictionaryEncodingEnabled=true, " +
                 "dwrfWriterOptions=Optional[DwrfStripeCacheOptions{stripeCacheMode=INDEX_AND_FOOTER, stripeCacheMaxSize=4MB}], " +
-                "ignoreDictionaryRowGroupSizes=false, preserveDirectEncodingStripeCount=0}";
+                "ignoreDictionaryRowGroupSizes=false, preserveDirectEncodingStripeCount=0, bloomFilterColumns=[], bloomFilterFpp=0.05, columnEncodingParallelism=1}";
         assertEquals(expectedString, writerOptions.toString());
     }
 }
@@ -20,6 +20,7 @@ import com.facebook.presto.common.type.Type;
 import com.facebook.presto.orc.cache.StorageOrcFileTailSource;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import org.testng.annotations.Test;
 
@@ -39,11 +40,14 @@ import static com.facebook.presto.orc.DwrfEncryptionProvider.NO_ENCRYPTION;
 import static com.facebook.presto.orc.NoopOrcAggregatedMemoryContext.NOOP_ORC_AGGREGATED_MEMORY_CONTEXT;
 import static com.facebook.presto.orc.OrcPredicate.TRUE;
 import static com.facebook.presto.orc.OrcReader.MAX_BATCH_SIZE;
+import static com.facebook.presto.orc.OrcTester.Format.DWRF;
 import static com.facebook.presto.orc.OrcTester.Format.ORC_12;
 import static com.facebook.presto.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
 import static com.facebook.presto.orc.OrcTester.writeOrcColumnHive;
+import static com.facebook.presto.orc.OrcTester.writeOrcColumnsPresto;
 import static com.facebook.presto.orc.TupleDomainOrcPredicate.ColumnReference;
 import static com.facebook.presto.orc.metadata.CompressionKind.SNAPPY;
+import static com.facebook.presto.orc.metadata.CompressionKind.ZSTD;
 import static com.google.common.collect.Iterables.cycle;
 import static com.google.common.collect.Iterables.limit;
 import static com.google.common.collect.Lists.newArrayList;
@@ -72,6 +76,18 @@ public class TestReadBloomFilter
         // Bloom filters are not supported for DECIMAL, FLOAT, DATE, TIMESTAMP, and CHAR
     }
 
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "DWRF does not support bloom filters")
+    public void testDwrfBloomFilterColumns()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            OrcWriterOptions writerOptions = OrcWriterOptions.builder()
+                    .withBloomFilterColumns(ImmutableSet.of("test"))
+                    .build();
+            writeOrcColumnsPresto(tempFile.getFile(), DWRF, ZSTD, Optional.empty(), ImmutableList.of(BIGINT), ImmutableList.of(ImmutableList.of(1L)), writerOptions, new OrcWriterStats());
+        }
+    }
+
     private static <T> void testType(Type type, List<T> uniqueValues, T inBloomFilter, T notInBloomFilter)
             throws Exception
     {
@@ -79,33 +95,46 @@ public class TestReadBloomFilter
 
         try (TempFile tempFile = new TempFile()) {
             writeOrcColumnHive(tempFile.getFile(), ORC_12, SNAPPY, type, writeValues);
+            assertBloomFilterPruning(tempFile, type, inBloomFilter, notInBloomFilter);
+        }
+
+        try (TempFile tempFile = new TempFile()) {
+            OrcWriterOptions writerOptions = OrcWriterOptions.builder()
+                    .withBloomFilterColumns(ImmutableSet.of("test"))
+                    .build();
+            writeOrcColumnsPresto(tempFile.getFile(), ORC_12, SNAPPY, Optional.empty(), ImmutableList.of(type), ImmutableList.of(writeValues), writerOptions, new OrcWriterStats());
+            assertBloomFilterPruning(tempFile, type, inBloomFilter, notInBloomFilter);
+        }
+    }
 
-            // no predicate
-            try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.empty(), true)) {
-                assertEquals(recordReader.nextBatch(), MAX_BATCH_SIZE);
-            }
+    private static <T> void assertBloomFilterPruning(TempFile tempFile, Type type, T inBloomFilter, T notInBloomFilter)
+            throws Exception
+    {
+        // no predicate
+        try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.empty(), true)) {
+            assertEquals(recordReader.nextBatch(), MAX_BATCH_SIZE);
+        }
 
-            try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.empty(), false)) {
-                assertEquals(recordReader.nextBatch(), MAX_BATCH_SIZE);
-            }
+        try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.empty(), false)) {
+            assertEquals(recordReader.nextBatch(), MAX_BATCH_SIZE);
+        }
 
-            // predicate for non-matching value
-            try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.of(notInBloomFilter), true)) {
-                assertEquals(recordReader.nextBatch(), -1);
-            }
+        // predicate for non-matching value
+        try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.of(notInBloomFilter), true)) {
+            assertEquals(recordReader.nextBatch(), -1);
+        }
 
-            try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.of(notInBloomFilter), false)) {
-                assertEquals(recordReader.nextBatch(), MAX_BATCH_SIZE);
-            }
+        try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.of(notInBloomFilter), false)) {
+            assertEquals(recordReader.nextBatch(), MAX_BATCH_SIZE);
+        }
 
-            // predicate for matching value
-            try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.of(inBloomFilter), true)) {
-                assertEquals(recordReader.nextBatch(), MAX_BATCH_SIZE);
-            }
+        // predicate for matching value
+        try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.of(inBloomFilter), true)) {
+            assertEquals(recordReader.nextBatch(), MAX_BATCH_SIZE);
+        }
 
-            try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.of(inBloomFilter), false)) {
-                assertEquals(recordReader.nextBatch(), MAX_BATCH_SIZE);
-            }
+        try (OrcBatchRecordReader recordReader = createCustomOrcRecordReader(tempFile, type, Optional.of(inBloomFilter), false)) {
+            assertEquals(recordReader.nextBatch(), MAX_BATCH_SIZE);
         }
     }
 
@@ -16,6 +16,8 @@ package com.facebook.presto.orc.stream;
 import com.facebook.presto.orc.OrcCorruptionException;
 import com.facebook.presto.orc.TestingHiveOrcAggregatedMemoryContext;
 import com.facebook.presto.orc.checkpoint.LongStreamCheckpoint;
+import com.facebook.presto.orc.metadata.OrcType.OrcTypeKind;
+import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import org.testng.annotations.Test;
 
@@ -24,8 +26,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.INT;
 import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.LONG;
+import static com.facebook.presto.orc.metadata.OrcType.OrcTypeKind.SHORT;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.DATA;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static java.lang.String.format;
+import static org.testng.Assert.assertEquals;
 
 public class TestLongStreamDwrf
         extends AbstractTestValueStream<Long, LongStreamCheckpoint, LongOutputStreamDwrf, LongInputStreamDwrf>
@@ -45,6 +52,70 @@ public class TestLongStreamDwrf
         testWriteValue(groups);
     }
 
+    @Test
+    public void testReadFixedWidth()
+            throws IOException
+    {
+        long[] expected = new long[1000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (i % 2 == 0 ? 1 : -1) * (long) i * i * i * i * i * i;
+        }
+        assertReadFixedWidth(LONG, expected);
+
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (i % 2 == 0 ? 1 : -1) * i * 100_003;
+        }
+        assertReadFixedWidth(INT, expected);
+
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i * 61;
+        }
+        assertReadFixedWidth(SHORT, expected);
+    }
+
+    private static void assertReadFixedWidth(OrcTypeKind type, long[] expected)
+            throws IOException
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(expected.length * SIZE_OF_LONG);
+        for (long value : expected) {
+            if (type == SHORT) {
+                output.writeShort((short) value);
+            }
+            else if (type == INT) {
+                output.writeInt((int) value);
+            }
+            else {
+                output.writeLong(value);
+            }
+        }
+        Slice slice = output.slice();
+
+        TestingHiveOrcAggregatedMemoryContext aggregatedMemoryContext = new TestingHiveOrcAggregatedMemoryContext();
+        OrcInputStream input = new OrcInputStream(
+                ORC_DATA_SOURCE_ID,
+                new SharedBuffer(aggregatedMemoryContext.newOrcLocalMemoryContext("sharedDecompressionBuffer")),
+                slice.getInput(),
+                Optional.empty(),
+                Optional.empty(),
+                aggregatedMemoryContext,
+                slice.getRetainedSize());
+        LongInputStreamDwrf valueStream = new LongInputStreamDwrf(input, type, true, false);
+
+        // mix single value reads, skips and bulk reads
+        long[] actual = new long[expected.length];
+        actual[0] = valueStream.next();
+        valueStream.skip(1);
+        long[] remaining = new long[expected.length - 2];
+        valueStream.next(remaining, remaining.length);
+        System.arraycopy(remaining, 0, actual, 2, remaining.length);
+
+        for (int i = 0; i < expected.length; i++) {
+            if (i != 1) {
+                assertEquals(actual[i], expected[i], format("type = %s, index = %s", type, i));
+            }
+        }
+    }
+
     @Override
     protected LongOutputStreamDwrf createValueOutputStream()
     {
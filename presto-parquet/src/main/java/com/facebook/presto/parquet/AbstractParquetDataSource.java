@@ -13,18 +13,34 @@
  */
 package com.facebook.presto.parquet;
 
+import com.facebook.presto.common.io.ParallelRangeReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static com.facebook.presto.common.io.ParallelRangeReader.SEQUENTIAL_RANGE_READER;
 import static java.util.Objects.requireNonNull;
 
 public abstract class AbstractParquetDataSource
         implements ParquetDataSource
 {
     private final ParquetDataSourceId id;
+    private final ParallelRangeReader parallelRangeReader;
     private long readTimeNanos;
     private long readBytes;
 
     public AbstractParquetDataSource(ParquetDataSourceId id)
+    {
+        this(id, SEQUENTIAL_RANGE_READER);
+    }
+
+    /**
+     * When the range reader allows more than one concurrent read, {@link #readInternal} must support concurrent calls.
+     */
+    public AbstractParquetDataSource(ParquetDataSourceId id, ParallelRangeReader parallelRangeReader)
     {
         this.id = requireNonNull(id, "id is null");
+        this.parallelRangeReader = requireNonNull(parallelRangeReader, "parallelRangeReader is null");
     }
 
     @Override
@@ -63,5 +79,26 @@ public abstract class AbstractParquetDataSource
         readTimeNanos += currentReadTimeNanos;
     }
 
+    @Override
+    public final void readFully(long[] positions, byte[][] buffers)
+    {
+        if (parallelRangeReader.getMaxConcurrentReads() == 1 || positions.length <= 1) {
+            ParquetDataSource.super.readFully(positions, buffers);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            parallelRangeReader.readFully(positions, buffers, this::readInternal);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        readTimeNanos += System.nanoTime() - start;
+        for (byte[] buffer : buffers) {
+            readBytes += buffer.length;
+        }
+    }
+
     protected abstract void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength);
 }
@@ -25,6 +25,10 @@ import com.facebook.presto.parquet.batchreader.Int64FlatBatchReader;
 import com.facebook.presto.parquet.batchreader.Int64NestedBatchReader;
 import com.facebook.presto.parquet.batchreader.Int64TimestampMicrosFlatBatchReader;
 import com.facebook.presto.parquet.batchreader.Int64TimestampMicrosNestedBatchReader;
+import com.facebook.presto.parquet.batchreader.LongDecimalFlatBatchReader;
+import com.facebook.presto.parquet.batchreader.LongDecimalNestedBatchReader;
+import com.facebook.presto.parquet.batchreader.ShortDecimalFlatBatchReader;
+import com.facebook.presto.parquet.batchreader.ShortDecimalNestedBatchReader;
 import com.facebook.presto.parquet.batchreader.TimestampFlatBatchReader;
 import com.facebook.presto.parquet.batchreader.TimestampNestedBatchReader;
 import com.facebook.presto.parquet.reader.AbstractColumnReader;
@@ -45,7 +49,6 @@ import java.util.Optional;
 import static com.facebook.presto.parquet.ParquetTypeUtils.createDecimalType;
 import static com.facebook.presto.parquet.ParquetTypeUtils.isTimeStampMicrosType;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
-import static org.apache.parquet.schema.OriginalType.DECIMAL;
 import static org.apache.parquet.schema.OriginalType.TIMESTAMP_MICROS;
 
 public class ColumnReaderFactory
@@ -56,9 +59,15 @@ public class ColumnReaderFactory
 
     public static ColumnReader createReader(RichColumnDescriptor descriptor, boolean batchReadEnabled)
     {
-        // decimal is not supported in batch readers
-        if (batchReadEnabled && descriptor.getPrimitiveType().getOriginalType() != DECIMAL) {
+        if (batchReadEnabled) {
             final boolean isNested = descriptor.getPath().length > 1;
+            Optional<Type> decimalType = createDecimalType(descriptor);
+            if (decimalType.isPresent()) {
+                if (((DecimalType) decimalType.get()).isShort()) {
+                    return isNested ? new ShortDecimalNestedBatchReader(descriptor) : new ShortDecimalFlatBatchReader(descriptor);
+                }
+                return isNested ? new LongDecimalNestedBatchReader(descriptor) : new LongDecimalFlatBatchReader(descriptor);
+            }
             switch (descriptor.getPrimitiveType().getPrimitiveTypeName()) {
                 case BOOLEAN:
                     return isNested ? new BooleanNestedBatchReader(descriptor) : new BooleanFlatBatchReader(descriptor);
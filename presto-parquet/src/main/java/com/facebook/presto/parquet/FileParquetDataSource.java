@@ -28,6 +28,7 @@
 
 package com.facebook.presto.parquet;
 
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.internal.column.columnindex.ColumnIndex;
 import org.apache.parquet.internal.column.columnindex.OffsetIndex;
@@ -81,4 +82,10 @@ public class FileParquetDataSource
     {
         throw new UnsupportedOperationException();
     }
+
+    @Override
+    public Optional<BloomFilter> readBloomFilter(ColumnChunkMetaData column) throws IOException
+    {
+        return Optional.empty();
+    }
 }
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.parquet;
 
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.internal.column.columnindex.ColumnIndex;
 import org.apache.parquet.internal.column.columnindex.OffsetIndex;
@@ -34,10 +35,23 @@ public interface ParquetDataSource
 
     void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength);
 
+    /**
+     * Reads {@code buffers[i].length} bytes at {@code positions[i]} into {@code buffers[i]}
+     * for every range. Implementations may read the ranges in parallel.
+     */
+    default void readFully(long[] positions, byte[][] buffers)
+    {
+        for (int i = 0; i < positions.length; i++) {
+            readFully(positions[i], buffers[i]);
+        }
+    }
+
     Optional<ColumnIndex> readColumnIndex(ColumnChunkMetaData column) throws IOException;
 
     Optional<OffsetIndex> readOffsetIndex(ColumnChunkMetaData column) throws IOException;
 
+    Optional<BloomFilter> readBloomFilter(ColumnChunkMetaData column) throws IOException;
+
     @Override
     default void close()
             throws IOException
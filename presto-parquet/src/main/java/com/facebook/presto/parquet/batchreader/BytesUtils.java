@@ -15,6 +15,8 @@ package com.facebook.presto.parquet.batchreader;
 
 public class BytesUtils
 {
+    private static final long SIGN_LONG_MASK = 1L << 63;
+
     private BytesUtils()
     {
     }
@@ -50,6 +52,64 @@ public class BytesUtils
                 ((long) (ch0 & 255) << 0);
     }
 
+    /**
+     * Decodes the big-endian two's complement unscaled value of a short decimal.
+     */
+    public static long getShortDecimalValue(byte[] byteBuffer, int offset, int length)
+    {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (byteBuffer[i] & 255);
+        }
+        if (length > 0 && length < 8) {
+            int shift = 64 - 8 * length;
+            value = (value << shift) >> shift;
+        }
+        return value;
+    }
+
+    /**
+     * Decodes the big-endian two's complement unscaled value of a long decimal into
+     * {@code values[2 * index]} and {@code values[2 * index + 1]} using the sign-magnitude
+     * representation of {@link com.facebook.presto.common.type.UnscaledDecimal128Arithmetic}.
+     */
+    public static void getLongDecimalValue(byte[] byteBuffer, int offset, int length, long[] values, int index)
+    {
+        int end = offset + length;
+        int lowStart = Math.max(offset, end - 8);
+        int highStart = Math.max(offset, end - 16);
+
+        long low = 0;
+        for (int i = lowStart; i < end; i++) {
+            low = (low << 8) | (byteBuffer[i] & 255);
+        }
+        long high = 0;
+        for (int i = highStart; i < lowStart; i++) {
+            high = (high << 8) | (byteBuffer[i] & 255);
+        }
+
+        boolean negative = length > 0 && byteBuffer[offset] < 0;
+        if (negative) {
+            if (length < 8) {
+                low |= -1L << (8 * length);
+            }
+            if (length <= 8) {
+                high = -1L;
+            }
+            else if (length < 16) {
+                high |= -1L << (8 * (length - 8));
+            }
+
+            // negate the 128-bit two's complement value to get its magnitude
+            low = -low;
+            high = ~high + (low == 0 ? 1 : 0);
+            high |= SIGN_LONG_MASK;
+        }
+
+        values[2 * index] = low;
+        values[2 * index + 1] = high;
+    }
+
     public static void unpack8Values(byte inByte, byte[] out, int outPos)
     {
         out[0 + outPos] = (byte) (inByte & 1);
@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.parquet.batchreader.decoders;
+
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.BinaryValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.BinaryValuesDecoder.ValueBuffer;
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.ShortDecimalValuesDecoder;
+
+import java.io.IOException;
+
+import static com.facebook.presto.parquet.batchreader.BytesUtils.getShortDecimalValue;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Short decimal values stored as big-endian two's complement BINARY or FIXED_LEN_BYTE_ARRAY values.
+ */
+public class BinaryShortDecimalValuesDecoder
+        implements ShortDecimalValuesDecoder
+{
+    private final BinaryValuesDecoder delegate;
+
+    private byte[] byteBuffer = new byte[0];
+    private int[] offsets = new int[0];
+
+    public BinaryShortDecimalValuesDecoder(BinaryValuesDecoder delegate)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+    }
+
+    @Override
+    public void readNext(long[] values, int offset, int length)
+            throws IOException
+    {
+        ValueBuffer valueBuffer = delegate.readNext(length);
+        if (byteBuffer.length < valueBuffer.getBufferSize()) {
+            byteBuffer = new byte[valueBuffer.getBufferSize()];
+        }
+        if (offsets.length < length + 1) {
+            offsets = new int[length + 1];
+        }
+        delegate.readIntoBuffer(byteBuffer, 0, offsets, 0, valueBuffer);
+
+        for (int i = 0; i < length; i++) {
+            values[offset + i] = getShortDecimalValue(byteBuffer, offsets[i], offsets[i + 1] - offsets[i]);
+        }
+    }
+
+    @Override
+    public void skip(int length)
+            throws IOException
+    {
+        delegate.skip(length);
+    }
+}
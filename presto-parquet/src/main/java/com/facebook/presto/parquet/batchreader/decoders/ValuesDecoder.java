@@ -74,6 +74,30 @@ public interface ValuesDecoder
                 throws IOException;
     }
 
+    interface ShortDecimalValuesDecoder
+            extends ValuesDecoder
+    {
+        void readNext(long[] values, int offset, int length)
+                throws IOException;
+
+        void skip(int length)
+                throws IOException;
+    }
+
+    interface LongDecimalValuesDecoder
+            extends ValuesDecoder
+    {
+        /**
+         * Reads {@code length} values into {@code values} starting at position {@code offset}.
+         * Each value takes two longs laid out as in {@link com.facebook.presto.common.block.Int128ArrayBlock}.
+         */
+        void readNext(long[] values, int offset, int length)
+                throws IOException;
+
+        void skip(int length)
+                throws IOException;
+    }
+
     interface BooleanValuesDecoder
             extends ValuesDecoder
     {
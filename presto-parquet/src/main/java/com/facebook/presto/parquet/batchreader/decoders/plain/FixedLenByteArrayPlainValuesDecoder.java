@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.parquet.batchreader.decoders.plain;
+
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.BinaryValuesDecoder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+public class FixedLenByteArrayPlainValuesDecoder
+        implements BinaryValuesDecoder
+{
+    private final byte[] buffer;
+    private final int bufEnd;
+    private final int typeLength;
+
+    private int bufOffset;
+
+    public FixedLenByteArrayPlainValuesDecoder(byte[] buffer, int bufOffset, int bufLength, int typeLength)
+    {
+        checkArgument(typeLength > 0, "Invalid byte array length: %s", typeLength);
+        this.buffer = buffer;
+        this.bufEnd = bufOffset + bufLength;
+        this.bufOffset = bufOffset;
+        this.typeLength = typeLength;
+    }
+
+    @Override
+    public ValueBuffer readNext(int length)
+    {
+        checkState(bufOffset + length * typeLength <= bufEnd, "Invalid read size request");
+        ValueBuffer valueBuffer = new FixedLenValueBuffer(bufOffset, length, length * typeLength);
+        bufOffset += length * typeLength;
+        return valueBuffer;
+    }
+
+    @Override
+    public int readIntoBuffer(byte[] byteBuffer, int bufferIndex, int[] offsets, int offsetIndex, ValueBuffer valueBuffer)
+    {
+        checkArgument(byteBuffer.length - bufferIndex >= valueBuffer.getBufferSize(), "not enough space in the input buffer");
+
+        FixedLenValueBuffer fixedLenValueBuffer = (FixedLenValueBuffer) valueBuffer;
+        System.arraycopy(buffer, fixedLenValueBuffer.getSourceOffset(), byteBuffer, bufferIndex, fixedLenValueBuffer.getBufferSize());
+        for (int i = 0; i < fixedLenValueBuffer.getValueCount(); i++) {
+            offsets[offsetIndex++] = bufferIndex;
+            bufferIndex += typeLength;
+        }
+        offsets[offsetIndex] = bufferIndex;
+        return bufferIndex;
+    }
+
+    @Override
+    public void skip(int length)
+    {
+        checkState(bufOffset + length * typeLength <= bufEnd, "Invalid read size request");
+        bufOffset += length * typeLength;
+    }
+
+    public static class FixedLenValueBuffer
+            implements ValueBuffer
+    {
+        private final int sourceOffset;
+        private final int valueCount;
+        private final int bufferSize;
+
+        public FixedLenValueBuffer(int sourceOffset, int valueCount, int bufferSize)
+        {
+            this.sourceOffset = sourceOffset;
+            this.valueCount = valueCount;
+            this.bufferSize = bufferSize;
+        }
+
+        @Override
+        public int getBufferSize()
+        {
+            return bufferSize;
+        }
+
+        public int getSourceOffset()
+        {
+            return sourceOffset;
+        }
+
+        public int getValueCount()
+        {
+            return valueCount;
+        }
+    }
+}
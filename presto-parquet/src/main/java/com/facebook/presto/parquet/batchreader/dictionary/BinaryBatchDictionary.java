@@ -20,6 +20,8 @@ import com.facebook.presto.parquet.dictionary.Dictionary;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 
+import java.util.OptionalInt;
+
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
@@ -29,40 +31,63 @@ public final class BinaryBatchDictionary
     private final byte[] pageBuffer;
     private final int dictionarySize;
     private final int[] offsets;
+    private final int[] lengths;
 
     public BinaryBatchDictionary(DictionaryPage dictionaryPage)
+    {
+        this(dictionaryPage, OptionalInt.empty());
+    }
+
+    /**
+     * @param length the length of every value for FIXED_LEN_BYTE_ARRAY columns, or empty if each value is prefixed with its length
+     */
+    public BinaryBatchDictionary(DictionaryPage dictionaryPage, OptionalInt length)
     {
         super(dictionaryPage.getEncoding());
         requireNonNull(dictionaryPage, "dictionaryPage is null");
+        requireNonNull(length, "length is null");
         checkArgument(dictionaryPage.getDictionarySize() >= 0, "Dictionary size should be greater than or equal to zero");
 
         this.dictionarySize = dictionaryPage.getDictionarySize();
         this.pageBuffer = requireNonNull(dictionaryPage.getSlice(), "dictionary slice is null").getBytes();
 
-        // initialize the offsets array
+        // initialize the offsets and lengths arrays
         IntList offsetList = new IntArrayList();
+        IntList lengthList = new IntArrayList();
         int offset = 0;
-        while (offset < pageBuffer.length) {
-            int length = BytesUtils.getInt(pageBuffer, offset);
-            offsetList.add(offset);
-            offset += (4 + length);
+        if (!length.isPresent()) {
+            while (offset < pageBuffer.length) {
+                int valueLength = BytesUtils.getInt(pageBuffer, offset);
+                offsetList.add(offset + 4);
+                lengthList.add(valueLength);
+                offset += (4 + valueLength);
+            }
+        }
+        else {
+            int valueLength = length.getAsInt();
+            checkArgument(valueLength > 0, "Invalid byte array length: %s", valueLength);
+            while (offset < pageBuffer.length) {
+                offsetList.add(offset);
+                lengthList.add(valueLength);
+                offset += valueLength;
+            }
         }
-        offsetList.add(offset);
         this.offsets = offsetList.toIntArray();
+        this.lengths = lengthList.toIntArray();
 
-        checkArgument(offsets.length - 1 == dictionarySize, "Dictionary size and number of entries don't match");
+        checkArgument(offsets.length == dictionarySize, "Dictionary size and number of entries don't match");
     }
 
     public int getLength(int dictionaryId)
     {
         checkArgument(dictionaryId >= 0 && dictionaryId < dictionarySize, "invalid dictionary id: %s", dictionaryId);
-        return offsets[dictionaryId + 1] - (offsets[dictionaryId] + 4);
+        return lengths[dictionaryId];
     }
 
     public int copyTo(byte[] byteBuffer, int offset, int dictionaryId)
     {
-        int length = offsets[dictionaryId + 1] - (offsets[dictionaryId] + 4);
-        System.arraycopy(pageBuffer, offsets[dictionaryId] + 4, byteBuffer, offset, length);
+        int length = lengths[dictionaryId];
+        System.arraycopy(pageBuffer, offsets[dictionaryId], byteBuffer, offset, length);
         return length;
     }
 }
@@ -21,6 +21,8 @@ import com.facebook.presto.spi.PrestoException;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.io.ParquetDecodingException;
 
+import java.util.OptionalInt;
+
 import static com.facebook.presto.parquet.ParquetErrorCode.PARQUET_UNSUPPORTED_ENCODING;
 
 public class Dictionaries
@@ -44,6 +46,7 @@ public class Dictionaries
                 case BINARY:
                     return new BinaryBatchDictionary(dictionaryPage);
                 case FIXED_LEN_BYTE_ARRAY:
+                    return new BinaryBatchDictionary(dictionaryPage, OptionalInt.of(columnDescriptor.getPrimitiveType().getTypeLength()));
                 case BOOLEAN:
                 default:
                     break;
@@ -18,8 +18,11 @@ import com.facebook.presto.parquet.ParquetDataSource;
 import com.facebook.presto.parquet.ParquetDataSourceId;
 import com.google.common.cache.Cache;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
 import static com.google.common.base.Throwables.throwIfInstanceOf;
@@ -29,11 +32,21 @@ public class CachingParquetMetadataSource
         implements ParquetMetadataSource
 {
     private final Cache<ParquetDataSourceId, ParquetFileMetadata> cache;
+    private final Optional<Cache<BloomFilterCacheKey, Optional<BloomFilter>>> bloomFilterCache;
     private final ParquetMetadataSource delegate;
 
     public CachingParquetMetadataSource(Cache<ParquetDataSourceId, ParquetFileMetadata> cache, ParquetMetadataSource delegate)
+    {
+        this(cache, Optional.empty(), delegate);
+    }
+
+    public CachingParquetMetadataSource(
+            Cache<ParquetDataSourceId, ParquetFileMetadata> cache,
+            Optional<Cache<BloomFilterCacheKey, Optional<BloomFilter>>> bloomFilterCache,
+            ParquetMetadataSource delegate)
     {
         this.cache = requireNonNull(cache, "cache is null");
+        this.bloomFilterCache = requireNonNull(bloomFilterCache, "bloomFilterCache is null");
         this.delegate = requireNonNull(delegate, "delegate is null");
     }
 
@@ -52,4 +65,21 @@ public class CachingParquetMetadataSource
             throw new IOException("Unexpected error in parquet metadata reading after cache miss", e.getCause());
         }
     }
+
+    @Override
+    public Optional<BloomFilter> getBloomFilter(ParquetDataSource parquetDataSource, ColumnChunkMetaData column, boolean cacheable)
+            throws IOException
+    {
+        try {
+            if (cacheable && bloomFilterCache.isPresent()) {
+                BloomFilterCacheKey key = new BloomFilterCacheKey(parquetDataSource.getId(), column.getBloomFilterOffset());
+                return bloomFilterCache.get().get(key, () -> delegate.getBloomFilter(parquetDataSource, column, cacheable));
+            }
+            return delegate.getBloomFilter(parquetDataSource, column, cacheable);
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            throwIfInstanceOf(e.getCause(), IOException.class);
+            throw new IOException("Unexpected error in parquet bloom filter reading after cache miss", e.getCause());
+        }
+    }
 }
@@ -147,6 +147,9 @@ public final class MetadataReader
                             metaData.total_uncompressed_size);
                     column.setColumnIndexReference(toColumnIndexReference(columnChunk));
                     column.setOffsetIndexReference(toOffsetIndexReference(columnChunk));
+                    if (metaData.isSetBloom_filter_offset()) {
+                        column.setBloomFilterOffset(metaData.getBloom_filter_offset());
+                    }
                     blockMetaData.addColumn(column);
                 }
                 blockMetaData.setPath(filePath);
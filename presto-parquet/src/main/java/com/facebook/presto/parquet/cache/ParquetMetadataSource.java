@@ -14,11 +14,20 @@
 package com.facebook.presto.parquet.cache;
 
 import com.facebook.presto.parquet.ParquetDataSource;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 
 import java.io.IOException;
+import java.util.Optional;
 
 public interface ParquetMetadataSource
 {
     ParquetFileMetadata getParquetMetadata(ParquetDataSource parquetDataSource, long fileSize, boolean cacheable)
             throws IOException;
+
+    default Optional<BloomFilter> getBloomFilter(ParquetDataSource parquetDataSource, ColumnChunkMetaData column, boolean cacheable)
+            throws IOException
+    {
+        return parquetDataSource.readBloomFilter(column);
+    }
 }
@@ -17,6 +17,7 @@ import com.facebook.presto.parquet.ParquetCorruptionException;
 import com.facebook.presto.parquet.ParquetDataSourceId;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
 import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
 
 import java.util.Map;
@@ -44,6 +45,12 @@ public interface Predicate
         {
             return true;
         }
+
+        @Override
+        public boolean matches(ColumnDescriptor column, BloomFilter bloomFilter)
+        {
+            return true;
+        }
     };
 
     /**
@@ -74,4 +81,13 @@ public interface Predicate
      * @param columnIndexStore column index (statistics) store
      */
     boolean matches(long numberOfRows, Optional<ColumnIndexStore> columnIndexStore);
+
+    /**
+     * Should the Parquet Reader process a file section with the specified bloom filter. Like the
+     * dictionary check, this only considers a single column and is safe to check repeatedly.
+     *
+     * @param column the column the bloom filter was written for
+     * @param bloomFilter split block bloom filter of the column chunk
+     */
+    boolean matches(ColumnDescriptor column, BloomFilter bloomFilter);
 }
@@ -20,6 +20,7 @@ import com.facebook.presto.parquet.ParquetCorruptionException;
 import com.facebook.presto.parquet.ParquetDataSource;
 import com.facebook.presto.parquet.ParquetEncoding;
 import com.facebook.presto.parquet.RichColumnDescriptor;
+import com.facebook.presto.parquet.cache.ParquetMetadataSource;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -30,6 +31,7 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.EncodingStats;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
 import org.apache.parquet.format.DictionaryPageHeader;
 import org.apache.parquet.format.PageHeader;
 import org.apache.parquet.format.PageType;
@@ -42,6 +44,7 @@ import org.apache.parquet.schema.MessageType;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -87,6 +90,21 @@ public final class PredicateUtils
 
     public static boolean predicateMatches(Predicate parquetPredicate, BlockMetaData block, ParquetDataSource dataSource, Map<List<String>, RichColumnDescriptor> descriptorsByPath, TupleDomain<ColumnDescriptor> parquetTupleDomain, Optional<ColumnIndexStore> columnIndexStore, boolean readColumnIndex)
             throws ParquetCorruptionException
+    {
+        return predicateMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain, columnIndexStore, readColumnIndex, Optional.empty(), false);
+    }
+
+    public static boolean predicateMatches(
+            Predicate parquetPredicate,
+            BlockMetaData block,
+            ParquetDataSource dataSource,
+            Map<List<String>, RichColumnDescriptor> descriptorsByPath,
+            TupleDomain<ColumnDescriptor> parquetTupleDomain,
+            Optional<ColumnIndexStore> columnIndexStore,
+            boolean readColumnIndex,
+            Optional<ParquetMetadataSource> bloomFilterSource,
+            boolean cacheable)
+            throws ParquetCorruptionException
     {
         Map<ColumnDescriptor, Statistics<?>> columnStatistics = getStatistics(block, descriptorsByPath);
         if (!parquetPredicate.matches(block.getRowCount(), columnStatistics, dataSource.getId())) {
@@ -98,7 +116,12 @@ public final class PredicateUtils
             return false;
         }
 
-        return dictionaryPredicatesMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain);
+        if (!dictionaryPredicatesMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain)) {
+            return false;
+        }
+
+        // Bloom filters are only read for row groups the cheaper checks above could not eliminate.
+        return !bloomFilterSource.isPresent() || bloomFilterPredicatesMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain, bloomFilterSource.get(), cacheable);
     }
 
     private static Map<ColumnDescriptor, Statistics<?>> getStatistics(BlockMetaData blockMetadata, Map<List<String>, RichColumnDescriptor> descriptorsByPath)
@@ -124,7 +147,7 @@ public final class PredicateUtils
                 if (isOnlyDictionaryEncodingPages(columnMetaData) && isColumnPredicate(descriptor, parquetTupleDomain)) {
                     byte[] buffer = new byte[toIntExact(columnMetaData.getTotalSize())];
                     dataSource.readFully(columnMetaData.getStartingPos(), buffer);
-                    //  Early abort, predicate already filters block so no more dictionaries need be read
+                    // Early abort, predicate already filters block so no more dictionaries need be read
                     if (!parquetPredicate.matches(new DictionaryDescriptor(descriptor, readDictionaryPage(buffer, columnMetaData.getCodec())))) {
                         return false;
                     }
@@ -134,6 +157,34 @@ public final class PredicateUtils
         return true;
     }
 
+    private static boolean bloomFilterPredicatesMatch(
+            Predicate parquetPredicate,
+            BlockMetaData blockMetadata,
+            ParquetDataSource dataSource,
+            Map<List<String>, RichColumnDescriptor> descriptorsByPath,
+            TupleDomain<ColumnDescriptor> parquetTupleDomain,
+            ParquetMetadataSource bloomFilterSource,
+            boolean cacheable)
+    {
+        for (ColumnChunkMetaData columnMetaData : blockMetadata.getColumns()) {
+            RichColumnDescriptor descriptor = descriptorsByPath.get(Arrays.asList(columnMetaData.getPath().toArray()));
+            if (descriptor != null && columnMetaData.getBloomFilterOffset() >= 0 && isColumnPredicate(descriptor, parquetTupleDomain)) {
+                Optional<BloomFilter> bloomFilter;
+                try {
+                    bloomFilter = bloomFilterSource.getBloomFilter(dataSource, columnMetaData, cacheable);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                // Early abort, predicate already filters block so no more bloom filters need be read
+                if (bloomFilter.isPresent() && !parquetPredicate.matches(descriptor, bloomFilter.get())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     private static Optional<DictionaryPage> readDictionaryPage(byte[] data, CompressionCodecName codecName)
     {
         try {
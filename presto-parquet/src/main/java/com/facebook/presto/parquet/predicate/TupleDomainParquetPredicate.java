@@ -17,6 +17,7 @@ import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.common.predicate.Range;
 import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.common.predicate.ValueSet;
+import com.facebook.presto.common.type.DecimalType;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.parquet.DictionaryPage;
 import com.facebook.presto.parquet.ParquetCorruptionException;
@@ -30,6 +31,7 @@ import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
 import org.apache.parquet.filter2.predicate.FilterApi;
 import org.apache.parquet.filter2.predicate.FilterPredicate;
 import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
@@ -37,30 +39,39 @@ import org.apache.parquet.hadoop.metadata.ColumnPath;
 import org.apache.parquet.internal.column.columnindex.ColumnIndex;
 import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
 import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.DecimalMetadata;
 import org.apache.parquet.schema.PrimitiveType;
 import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 import java.io.Serializable;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.function.Function;
 
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.common.type.DateType.DATE;
+import static com.facebook.presto.common.type.Decimals.decodeUnscaledValue;
 import static com.facebook.presto.common.type.DoubleType.DOUBLE;
 import static com.facebook.presto.common.type.IntegerType.INTEGER;
 import static com.facebook.presto.common.type.RealType.REAL;
 import static com.facebook.presto.common.type.SmallintType.SMALLINT;
 import static com.facebook.presto.common.type.TinyintType.TINYINT;
+import static com.facebook.presto.common.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.common.type.Varchars.isVarcharType;
 import static com.facebook.presto.parquet.predicate.PredicateUtils.isStatisticsOverflow;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Float.floatToRawIntBits;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.util.Objects.requireNonNull;
@@ -175,6 +186,131 @@ public class TupleDomainParquetPredicate
         return true;
     }
 
+    @Override
+    public boolean matches(ColumnDescriptor column, BloomFilter bloomFilter)
+    {
+        requireNonNull(bloomFilter, "bloomFilter is null");
+        if (effectivePredicate.isNone()) {
+            return false;
+        }
+
+        Map<ColumnDescriptor, Domain> effectivePredicateDomains = effectivePredicate.getDomains()
+                .orElseThrow(() -> new IllegalStateException("Effective predicate other than none should have domains"));
+
+        Domain effectivePredicateDomain = effectivePredicateDomains.get(column);
+        // bloom filters don't track nulls, so a predicate accepting nulls can't be decided here
+        if (effectivePredicateDomain == null || effectivePredicateDomain.isNullAllowed()) {
+            return true;
+        }
+
+        Optional<Collection<Object>> discreteValues = extractDiscreteValues(effectivePredicateDomain.getValues());
+        if (!discreteValues.isPresent()) {
+            return true;
+        }
+
+        // the hash methods of the parquet bloom filter use shared scratch buffers
+        synchronized (bloomFilter) {
+            for (Object value : discreteValues.get()) {
+                OptionalLong hash = getBloomFilterHash(bloomFilter, column.getPrimitiveType(), effectivePredicateDomain.getType(), value);
+                if (!hash.isPresent() || bloomFilter.findHash(hash.getAsLong())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @VisibleForTesting
+    public static Optional<Collection<Object>> extractDiscreteValues(ValueSet valueSet)
+    {
+        return valueSet.getValuesProcessor().transform(
+                ranges -> {
+                    ImmutableList.Builder<Object> discreteValues = ImmutableList.builder();
+                    for (Range range : ranges.getOrderedRanges()) {
+                        if (!range.isSingleValue()) {
+                            return Optional.empty();
+                        }
+                        discreteValues.add(range.getSingleValue());
+                    }
+                    return Optional.of(discreteValues.build());
+                },
+                discreteValues -> Optional.of(discreteValues.getValues()),
+                allOrNone -> allOrNone.isAll() ? Optional.empty() : Optional.of(ImmutableList.of()));
+    }
+
+    // returns the hash the parquet writer would have added for the value, or empty if it is unknown
+    private static OptionalLong getBloomFilterHash(BloomFilter bloomFilter, PrimitiveType primitiveType, Type type, Object value)
+    {
+        PrimitiveTypeName primitiveTypeName = primitiveType.getPrimitiveTypeName();
+        if (primitiveTypeName == INT32 && (type == TINYINT || type == SMALLINT || type == INTEGER || type == DATE)) {
+            return OptionalLong.of(bloomFilter.hash(toIntExact((long) value)));
+        }
+        if (primitiveTypeName == INT64 && type == BIGINT) {
+            return OptionalLong.of(bloomFilter.hash((long) value));
+        }
+        if (primitiveTypeName == BINARY && (isVarcharType(type) || type == VARBINARY)) {
+            return OptionalLong.of(bloomFilter.hash(Binary.fromConstantByteBuffer(((Slice) value).toByteBuffer())));
+        }
+        // the writer hashes the raw bits, and zero and NaN have more than one bit pattern
+        if (primitiveTypeName == FLOAT && type == REAL) {
+            float floatValue = intBitsToFloat(toIntExact((long) value));
+            if (floatValue == 0 || Float.isNaN(floatValue)) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(bloomFilter.hash(floatValue));
+        }
+        if (primitiveTypeName == PrimitiveTypeName.DOUBLE && type == DOUBLE) {
+            double doubleValue = (double) value;
+            if (doubleValue == 0 || Double.isNaN(doubleValue)) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(bloomFilter.hash(doubleValue));
+        }
+        if (type instanceof DecimalType) {
+            return getDecimalBloomFilterHash(bloomFilter, primitiveType, (DecimalType) type, value);
+        }
+        // timestamps are not checked: micros are truncated to millis on read, so one value stands for many
+        // stored values, and INT96 values may have been adjusted to the writer's time zone
+        return OptionalLong.empty();
+    }
+
+    private static OptionalLong getDecimalBloomFilterHash(BloomFilter bloomFilter, PrimitiveType primitiveType, DecimalType type, Object value)
+    {
+        // unscaled values can only be compared when the file uses the scale of the predicate
+        DecimalMetadata decimalMetadata = primitiveType.getDecimalMetadata();
+        if (decimalMetadata == null || decimalMetadata.getScale() != type.getScale()) {
+            return OptionalLong.empty();
+        }
+
+        BigInteger unscaledValue = type.isShort() ? BigInteger.valueOf((long) value) : decodeUnscaledValue((Slice) value);
+        switch (primitiveType.getPrimitiveTypeName()) {
+            case INT32:
+                if (unscaledValue.bitLength() >= Integer.SIZE) {
+                    return OptionalLong.empty();
+                }
+                return OptionalLong.of(bloomFilter.hash(unscaledValue.intValue()));
+            case INT64:
+                if (unscaledValue.bitLength() >= Long.SIZE) {
+                    return OptionalLong.empty();
+                }
+                return OptionalLong.of(bloomFilter.hash(unscaledValue.longValue()));
+            case FIXED_LEN_BYTE_ARRAY:
+                // big endian two's complement, sign extended to the width of the column
+                byte[] bytes = unscaledValue.toByteArray();
+                int length = primitiveType.getTypeLength();
+                if (bytes.length > length) {
+                    return OptionalLong.empty();
+                }
+                byte[] fixedLengthBytes = new byte[length];
+                Arrays.fill(fixedLengthBytes, 0, length - bytes.length, unscaledValue.signum() < 0 ? (byte) -1 : 0);
+                System.arraycopy(bytes, 0, fixedLengthBytes, length - bytes.length, bytes.length);
+                return OptionalLong.of(bloomFilter.hash(Binary.fromConstantByteArray(fixedLengthBytes)));
+            default:
+                // BINARY decimals are not padded to a known width
+                return OptionalLong.empty();
+        }
+    }
+
     private static boolean effectivePredicateMatches(Domain effectivePredicateDomain, DictionaryDescriptor dictionary)
     {
         return !effectivePredicateDomain.intersect(getDomain(effectivePredicateDomain.getType(), dictionary)).isNone();
@@ -301,10 +301,13 @@ public class ParquetReader
                 List<OffsetRange> offsetRanges = ColumnIndexFilterUtils.calculateOffsetRanges(filteredOffsetIndex, metadata, offsetIndex.getOffset(0), startingPosition);
                 List<OffsetRange> consecutiveRanges = concatRanges(offsetRanges);
                 List<ByteBuffer> buffers = allocateBlocks(consecutiveRanges);
+                long[] positions = new long[consecutiveRanges.size()];
+                byte[][] rangeBuffers = new byte[consecutiveRanges.size()][];
                 for (int i = 0; i < consecutiveRanges.size(); i++) {
-                    ByteBuffer buffer = buffers.get(i);
-                    dataSource.readFully(startingPosition + consecutiveRanges.get(i).getOffset(), buffer.array());
+                    positions[i] = startingPosition + consecutiveRanges.get(i).getOffset();
+                    rangeBuffers[i] = buffers.get(i).array();
                 }
+                dataSource.readFully(positions, rangeBuffers);
                 PageReader pageReader = createPageReader(buffers, totalSize, metadata, columnDescriptor, filteredOffsetIndex);
                 columnReader.init(pageReader, field, currentGroupRowRanges);
 
@@ -23,10 +23,12 @@ import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
 import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
 import org.apache.parquet.format.ColumnMetaData;
 import org.apache.parquet.format.FileMetaData;
 import org.apache.parquet.format.RowGroup;
 import org.apache.parquet.format.Util;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.schema.MessageType;
 import org.openjdk.jol.info.ClassLayout;
@@ -35,6 +37,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
+import java.util.Optional;
 
 import static com.facebook.presto.parquet.writer.ParquetDataOutput.createDataOutput;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -98,7 +101,7 @@ public class ParquetWriter
                 .withPageSize(writerOption.getMaxPageSize())
                 .build();
         CompressionCodecName compressionCodecName = getCompressionCodecName(compressionCodecClass);
-        this.columnWriters = ParquetWriters.getColumnWriters(messageType, parquetSchemaConverter.getPrimitiveTypes(), parquetProperties, compressionCodecName);
+        this.columnWriters = ParquetWriters.getColumnWriters(messageType, parquetSchemaConverter.getPrimitiveTypes(), parquetProperties, compressionCodecName, writerOption);
 
         this.chunkMaxLogicalBytes = max(1, CHUNK_MAX_BYTES / 2);
     }
@@ -215,13 +218,39 @@ public class ParquetWriter
         List<ColumnMetaData> metadatas = bufferDataList.stream()
                 .map(BufferData::getMetaData)
                 .collect(toImmutableList());
-        updateRowGroups(updateColumnMetadataOffset(metadatas, stripeStartOffset));
+        List<ColumnMetaData> columnMetaData = updateColumnMetadataOffset(metadatas, stripeStartOffset);
+
+        // bloom filters are written after all pages of the row group
+        long bloomFilterOffset = stripeStartOffset + columnMetaData.stream().mapToLong(ColumnMetaData::getTotal_compressed_size).sum();
+        ImmutableList.Builder<Slice> bloomFilters = ImmutableList.builder();
+        for (int i = 0; i < bufferDataList.size(); i++) {
+            Optional<BloomFilter> bloomFilter = bufferDataList.get(i).getBloomFilter();
+            if (bloomFilter.isPresent()) {
+                Slice serializedBloomFilter = serializeBloomFilter(bloomFilter.get());
+                columnMetaData.get(i).setBloom_filter_offset(bloomFilterOffset);
+                bloomFilterOffset += serializedBloomFilter.length();
+                bloomFilters.add(serializedBloomFilter);
+            }
+        }
+        updateRowGroups(columnMetaData);
 
         // flush pages
         bufferDataList.stream()
                 .map(BufferData::getData)
                 .flatMap(List::stream)
                 .forEach(data -> data.writeData(outputStream));
+
+        // flush bloom filters
+        bloomFilters.build().forEach(bloomFilter -> createDataOutput(bloomFilter).writeData(outputStream));
+    }
+
+    private static Slice serializeBloomFilter(BloomFilter bloomFilter)
+            throws IOException
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(bloomFilter.getBitsetSize() + 32);
+        Util.writeBloomFilterHeader(ParquetMetadataConverter.toBloomFilterHeader(bloomFilter), output);
+        bloomFilter.writeTo(output);
+        return output.slice();
     }
 
     private void writeFooter()
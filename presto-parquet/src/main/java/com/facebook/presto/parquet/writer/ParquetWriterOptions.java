@@ -13,8 +13,12 @@
  */
 package com.facebook.presto.parquet.writer;
 
+import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
@@ -22,6 +26,7 @@ public class ParquetWriterOptions
 {
     private static final DataSize DEFAULT_MAX_ROW_GROUP_SIZE = DataSize.valueOf("128MB");
     private static final DataSize DEFAULT_MAX_PAGE_SIZE = DataSize.valueOf("1MB");
+    private static final double DEFAULT_BLOOM_FILTER_FPP = 0.01;
 
     public static ParquetWriterOptions.Builder builder()
     {
@@ -30,11 +35,16 @@ public class ParquetWriterOptions
 
     private final int maxRowGroupSize;
     private final int maxPageSize;
+    private final Set<String> bloomFilterColumns;
+    private final double bloomFilterFpp;
 
-    private ParquetWriterOptions(DataSize maxRowGroupSize, DataSize maxPageSize)
+    private ParquetWriterOptions(DataSize maxRowGroupSize, DataSize maxPageSize, Set<String> bloomFilterColumns, double bloomFilterFpp)
     {
         this.maxRowGroupSize = toIntExact(requireNonNull(maxRowGroupSize, "maxRowGroupSize is null").toBytes());
         this.maxPageSize = toIntExact(requireNonNull(maxPageSize, "maxPageSize is null").toBytes());
+        this.bloomFilterColumns = ImmutableSet.copyOf(requireNonNull(bloomFilterColumns, "bloomFilterColumns is null"));
+        checkArgument(bloomFilterFpp > 0.0 && bloomFilterFpp < 1.0, "bloomFilterFpp must be between 0 and 1 exclusive");
+        this.bloomFilterFpp = bloomFilterFpp;
     }
 
     public int getMaxRowGroupSize()
@@ -47,10 +57,22 @@ public class ParquetWriterOptions
         return maxPageSize;
     }
 
+    public Set<String> getBloomFilterColumns()
+    {
+        return bloomFilterColumns;
+    }
+
+    public double getBloomFilterFpp()
+    {
+        return bloomFilterFpp;
+    }
+
     public static class Builder
     {
         private DataSize maxBlockSize = DEFAULT_MAX_ROW_GROUP_SIZE;
         private DataSize maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+        private Set<String> bloomFilterColumns = ImmutableSet.of();
+        private double bloomFilterFpp = DEFAULT_BLOOM_FILTER_FPP;
 
         public Builder setMaxBlockSize(DataSize maxBlockSize)
         {
@@ -64,9 +86,21 @@ public class ParquetWriterOptions
             return this;
         }
 
+        public Builder setBloomFilterColumns(Set<String> bloomFilterColumns)
+        {
+            this.bloomFilterColumns = bloomFilterColumns;
+            return this;
+        }
+
+        public Builder setBloomFilterFpp(double bloomFilterFpp)
+        {
+            this.bloomFilterFpp = bloomFilterFpp;
+            return this;
+        }
+
         public ParquetWriterOptions build()
         {
-            return new ParquetWriterOptions(maxBlockSize, maxPageSize);
+            return new ParquetWriterOptions(maxBlockSize, maxPageSize, bloomFilterColumns, bloomFilterFpp);
         }
     }
 }
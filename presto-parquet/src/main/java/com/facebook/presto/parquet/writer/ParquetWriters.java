@@ -19,6 +19,7 @@ import com.facebook.presto.common.type.Type;
 import com.facebook.presto.common.type.VarbinaryType;
 import com.facebook.presto.common.type.VarcharType;
 import com.facebook.presto.parquet.writer.valuewriter.BigintValueWriter;
+import com.facebook.presto.parquet.writer.valuewriter.BloomFilterValuesWriter;
 import com.facebook.presto.parquet.writer.valuewriter.BooleanValueWriter;
 import com.facebook.presto.parquet.writer.valuewriter.CharValueWriter;
 import com.facebook.presto.parquet.writer.valuewriter.DateValueWriter;
@@ -29,6 +30,7 @@ import com.facebook.presto.parquet.writer.valuewriter.PrimitiveValueWriter;
 import com.facebook.presto.parquet.writer.valuewriter.RealValueWriter;
 import com.facebook.presto.spi.PrestoException;
 import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.values.ValuesWriter;
@@ -40,6 +42,7 @@ import org.apache.parquet.schema.PrimitiveType;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
@@ -51,16 +54,19 @@ import static com.facebook.presto.common.type.SmallintType.SMALLINT;
 import static com.facebook.presto.common.type.TimestampType.TIMESTAMP;
 import static com.facebook.presto.common.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
 class ParquetWriters
 {
+    private static final int MAX_BLOOM_FILTER_BYTES = toIntExact(DataSize.valueOf("1MB").toBytes());
+
     private ParquetWriters() {}
 
-    static List<ColumnWriter> getColumnWriters(MessageType messageType, Map<List<String>, Type> prestoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName)
+    static List<ColumnWriter> getColumnWriters(MessageType messageType, Map<List<String>, Type> prestoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName, ParquetWriterOptions writerOptions)
     {
-        WriterBuilder writeBuilder = new WriterBuilder(messageType, prestoTypes, parquetProperties, compressionCodecName);
+        WriterBuilder writeBuilder = new WriterBuilder(messageType, prestoTypes, parquetProperties, compressionCodecName, writerOptions);
         ParquetTypeVisitor.visit(messageType, writeBuilder);
         return writeBuilder.build();
     }
@@ -72,14 +78,16 @@ class ParquetWriters
         private final Map<List<String>, Type> prestoTypes;
         private final ParquetProperties parquetProperties;
         private final CompressionCodecName compressionCodecName;
+        private final ParquetWriterOptions writerOptions;
         private final ImmutableList.Builder<ColumnWriter> builder = ImmutableList.builder();
 
-        WriterBuilder(MessageType messageType, Map<List<String>, Type> prestoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName)
+        WriterBuilder(MessageType messageType, Map<List<String>, Type> prestoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName, ParquetWriterOptions writerOptions)
         {
             this.type = requireNonNull(messageType, "messageType is null");
             this.prestoTypes = requireNonNull(prestoTypes, "prestoTypes is null");
             this.parquetProperties = requireNonNull(parquetProperties, "parquetProperties is null");
             this.compressionCodecName = requireNonNull(compressionCodecName, "compressionCodecName is null");
+            this.writerOptions = requireNonNull(writerOptions, "writerOptions is null");
         }
 
         List<ColumnWriter> build()
@@ -129,9 +137,17 @@ class ParquetWriters
             int fieldRepetitionLevel = type.getMaxRepetitionLevel(path);
             ColumnDescriptor columnDescriptor = new ColumnDescriptor(path, primitive, fieldRepetitionLevel, fieldDefinitionLevel);
             Type prestoType = requireNonNull(prestoTypes.get(ImmutableList.copyOf(path)), " presto type is null");
+            ValuesWriter valuesWriter = parquetProperties.newValuesWriter(columnDescriptor);
+            Optional<BloomFilterValuesWriter> bloomFilterWriter = Optional.empty();
+            // bloom filters are only written for top level columns
+            if (path.length == 1 && writerOptions.getBloomFilterColumns().contains(path[0]) && !BOOLEAN.equals(prestoType)) {
+                bloomFilterWriter = Optional.of(new BloomFilterValuesWriter(valuesWriter, writerOptions.getBloomFilterFpp(), MAX_BLOOM_FILTER_BYTES));
+                valuesWriter = bloomFilterWriter.get();
+            }
             return new PrimitiveColumnWriter(prestoType,
                     columnDescriptor,
-                    getValueWriter(parquetProperties.newValuesWriter(columnDescriptor), prestoType, columnDescriptor.getPrimitiveType()),
+                    getValueWriter(valuesWriter, prestoType, columnDescriptor.getPrimitiveType()),
+                    bloomFilterWriter,
                     parquetProperties.newDefinitionLevelEncoder(columnDescriptor),
                     parquetProperties.newRepetitionLevelEncoder(columnDescriptor),
                     compressionCodecName,
@@ -18,6 +18,7 @@ import com.facebook.presto.parquet.writer.levels.DefinitionLevelIterable;
 import com.facebook.presto.parquet.writer.levels.DefinitionLevelIterables;
 import com.facebook.presto.parquet.writer.levels.RepetitionLevelIterable;
 import com.facebook.presto.parquet.writer.levels.RepetitionLevelIterables;
+import com.facebook.presto.parquet.writer.valuewriter.BloomFilterValuesWriter;
 import com.facebook.presto.parquet.writer.valuewriter.PrimitiveValueWriter;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slices;
@@ -39,6 +40,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.facebook.presto.parquet.writer.ParquetCompressor.getCompressor;
@@ -58,6 +60,7 @@ public class PrimitiveColumnWriter
     private final CompressionCodecName compressionCodec;
 
     private final PrimitiveValueWriter primitiveValueWriter;
+    private final Optional<BloomFilterValuesWriter> bloomFilterWriter;
     private final RunLengthBitPackingHybridEncoder definitionLevelEncoder;
     private final RunLengthBitPackingHybridEncoder repetitionLevelEncoder;
 
@@ -87,7 +90,15 @@ public class PrimitiveColumnWriter
 
     private final int pageSizeThreshold;
 
-    public PrimitiveColumnWriter(Type type, ColumnDescriptor columnDescriptor, PrimitiveValueWriter primitiveValueWriter, RunLengthBitPackingHybridEncoder definitionLevelEncoder, RunLengthBitPackingHybridEncoder repetitionLevelEncoder, CompressionCodecName compressionCodecName, int pageSizeThreshold)
+    public PrimitiveColumnWriter(
+            Type type,
+            ColumnDescriptor columnDescriptor,
+            PrimitiveValueWriter primitiveValueWriter,
+            Optional<BloomFilterValuesWriter> bloomFilterWriter,
+            RunLengthBitPackingHybridEncoder definitionLevelEncoder,
+            RunLengthBitPackingHybridEncoder repetitionLevelEncoder,
+            CompressionCodecName compressionCodecName,
+            int pageSizeThreshold)
     {
         this.type = requireNonNull(type, "type is null");
         this.columnDescriptor = requireNonNull(columnDescriptor, "columnDescriptor is null");
@@ -96,6 +107,7 @@ public class PrimitiveColumnWriter
         this.definitionLevelEncoder = requireNonNull(definitionLevelEncoder, "definitionLevelEncoder is null");
         this.repetitionLevelEncoder = requireNonNull(repetitionLevelEncoder, "repetitionLevelEncoder is null");
         this.primitiveValueWriter = requireNonNull(primitiveValueWriter, "primitiveValueWriter is null");
+        this.bloomFilterWriter = requireNonNull(bloomFilterWriter, "bloomFilterWriter is null");
         this.encodings = new HashSet<>();
         this.compressionCodec = requireNonNull(compressionCodecName, "compressionCodecName is null");
         this.compressor = getCompressor(compressionCodecName);
@@ -160,7 +172,7 @@ public class PrimitiveColumnWriter
             throws IOException
     {
         checkState(closed);
-        return ImmutableList.of(new BufferData(getDataStreams(), getColumnMetaData()));
+        return ImmutableList.of(new BufferData(getDataStreams(), getColumnMetaData(), bloomFilterWriter.flatMap(BloomFilterValuesWriter::getBloomFilter)));
     }
 
     // Returns ColumnMetaData that offset is invalid
@@ -320,6 +332,7 @@ public class PrimitiveColumnWriter
         totalRows = 0;
         encodings.clear();
         this.columnStatistics = Statistics.createStats(columnDescriptor.getPrimitiveType());
+        bloomFilterWriter.ifPresent(BloomFilterValuesWriter::resetBloomFilter);
 
         getDataStreamsCalled = false;
     }
@@ -0,0 +1,212 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.parquet.writer.valuewriter;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.io.api.Binary;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static it.unimi.dsi.fastutil.Hash.DEFAULT_LOAD_FACTOR;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Passes values through to the delegate writer and collects their hashes, so that a split block
+ * bloom filter sized for the actual number of distinct values can be built for each row group.
+ * Once a row group has more distinct hashes than fit in about {@code maxBloomFilterBytes} of memory,
+ * they are moved to a filter of the maximum size and the remaining values are inserted directly.
+ */
+public class BloomFilterValuesWriter
+        extends ValuesWriter
+{
+    private final ValuesWriter valuesWriter;
+    private final double fpp;
+    private final int maxBloomFilterBytes;
+    private final int maxCollectedHashes;
+    // only used to compute hashes, the bitset is never written to
+    private final BlockSplitBloomFilter hasher = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+    private final LongOpenHashSet hashes = new LongOpenHashSet();
+    // set once the row group has more than maxCollectedHashes distinct hashes
+    private BlockSplitBloomFilter bloomFilter;
+
+    public BloomFilterValuesWriter(ValuesWriter valuesWriter, double fpp, int maxBloomFilterBytes)
+    {
+        checkArgument(fpp > 0.0 && fpp < 1.0, "fpp must be between 0 and 1 exclusive");
+        checkArgument(maxBloomFilterBytes >= BlockSplitBloomFilter.LOWER_BOUND_BYTES, "maxBloomFilterBytes is too small");
+        this.valuesWriter = requireNonNull(valuesWriter, "valuesWriter is null");
+        this.fpp = fpp;
+        this.maxBloomFilterBytes = maxBloomFilterBytes;
+        // the open hash set keeps its load factor below 0.75 with a power of two table, so this many hashes take at most maxBloomFilterBytes
+        this.maxCollectedHashes = maxBloomFilterBytes / Long.BYTES / 2;
+    }
+
+    @Override
+    public void writeInteger(int value)
+    {
+        valuesWriter.writeInteger(value);
+        addHash(hasher.hash(value));
+    }
+
+    @Override
+    public void writeLong(long value)
+    {
+        valuesWriter.writeLong(value);
+        addHash(hasher.hash(value));
+    }
+
+    @Override
+    public void writeFloat(float value)
+    {
+        valuesWriter.writeFloat(value);
+        addHash(hasher.hash(value));
+    }
+
+    @Override
+    public void writeDouble(double value)
+    {
+        valuesWriter.writeDouble(value);
+        addHash(hasher.hash(value));
+    }
+
+    @Override
+    public void writeBytes(Binary value)
+    {
+        valuesWriter.writeBytes(value);
+        addHash(hasher.hash(value));
+    }
+
+    @Override
+    public void writeBoolean(boolean value)
+    {
+        // bloom filters are not useful for booleans
+        valuesWriter.writeBoolean(value);
+    }
+
+    /**
+     * Returns the bloom filter of all values written since the last {@link #resetBloomFilter()},
+     * or empty if there were none.
+     */
+    public Optional<BloomFilter> getBloomFilter()
+    {
+        if (bloomFilter != null) {
+            return Optional.of(bloomFilter);
+        }
+        if (hashes.isEmpty()) {
+            return Optional.empty();
+        }
+        long numBytes = BlockSplitBloomFilter.optimalNumOfBits(hashes.size(), fpp) / 8;
+        return Optional.of(buildBloomFilter(toIntExact(min(max(numBytes, BlockSplitBloomFilter.LOWER_BOUND_BYTES), maxBloomFilterBytes))));
+    }
+
+    public void resetBloomFilter()
+    {
+        hashes.clear();
+        hashes.trim();
+        bloomFilter = null;
+    }
+
+    private void addHash(long hash)
+    {
+        if (bloomFilter != null) {
+            bloomFilter.insertHash(hash);
+            return;
+        }
+        hashes.add(hash);
+        if (hashes.size() > maxCollectedHashes) {
+            bloomFilter = buildBloomFilter(maxBloomFilterBytes);
+            hashes.clear();
+            hashes.trim();
+        }
+    }
+
+    private BlockSplitBloomFilter buildBloomFilter(int numBytes)
+    {
+        BlockSplitBloomFilter filter = new BlockSplitBloomFilter(numBytes);
+        LongIterator iterator = hashes.iterator();
+        while (iterator.hasNext()) {
+            filter.insertHash(iterator.nextLong());
+        }
+        return filter;
+    }
+
+    @Override
+    public long getBufferedSize()
+    {
+        return valuesWriter.getBufferedSize();
+    }
+
+    @Override
+    public BytesInput getBytes()
+    {
+        return valuesWriter.getBytes();
+    }
+
+    @Override
+    public Encoding getEncoding()
+    {
+        return valuesWriter.getEncoding();
+    }
+
+    @Override
+    public void reset()
+    {
+        // called for every page, the hashes are kept until the row group is flushed
+        valuesWriter.reset();
+    }
+
+    @Override
+    public void close()
+    {
+        valuesWriter.close();
+    }
+
+    @Override
+    public DictionaryPage toDictPageAndClose()
+    {
+        return valuesWriter.toDictPageAndClose();
+    }
+
+    @Override
+    public void resetDictionary()
+    {
+        valuesWriter.resetDictionary();
+    }
+
+    @Override
+    public long getAllocatedSize()
+    {
+        if (bloomFilter != null) {
+            return valuesWriter.getAllocatedSize() + bloomFilter.getBitsetSize();
+        }
+        return valuesWriter.getAllocatedSize() + (long) HashCommon.arraySize(hashes.size(), DEFAULT_LOAD_FACTOR) * Long.BYTES;
+    }
+
+    @Override
+    public String memUsageString(String prefix)
+    {
+        return valuesWriter.memUsageString(prefix);
+    }
+}
@@ -15,7 +15,9 @@ package com.facebook.presto.parquet;
 
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.type.ArrayType;
+import com.facebook.presto.common.type.DecimalType;
 import com.facebook.presto.common.type.RowType;
+import com.facebook.presto.common.type.SqlDecimal;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.common.type.VarcharType;
 import com.facebook.presto.parquet.cache.MetadataReader;
@@ -45,6 +47,7 @@ import org.openjdk.jmh.runner.options.VerboseMode;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -53,6 +56,7 @@ import java.util.concurrent.TimeUnit;
 
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.common.type.DecimalType.createDecimalType;
 import static com.facebook.presto.common.type.IntegerType.INTEGER;
 import static com.facebook.presto.common.type.TimestampType.TIMESTAMP;
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
@@ -145,6 +149,20 @@ public class BenchmarkParquetReader
         return read(data);
     }
 
+    @Benchmark
+    public Object readShortDecimalWithNull(ShortDecimalWithNullBenchmarkData data)
+            throws Throwable
+    {
+        return read(data);
+    }
+
+    @Benchmark
+    public Object readLongDecimalWithNull(LongDecimalWithNullBenchmarkData data)
+            throws Throwable
+    {
+        return read(data);
+    }
+
     @Benchmark
     public Object readInt96NoNull(Int96NoNullBenchmarkData data)
             throws Throwable
@@ -450,6 +468,62 @@ public class BenchmarkParquetReader
         }
     }
 
+    @State(Scope.Thread)
+    public static class ShortDecimalWithNullBenchmarkData
+            extends BenchmarkData
+    {
+        private static final DecimalType SHORT_DECIMAL = createDecimalType(12, 2);
+
+        @Override
+        protected List<?> generateValues()
+        {
+            List<SqlDecimal> values = new ArrayList<>();
+            for (int i = 0; i < ROWS; ++i) {
+                if (random.nextBoolean()) {
+                    values.add(new SqlDecimal(BigInteger.valueOf(random.nextLong() % 1_000_000_000_000L), SHORT_DECIMAL.getPrecision(), SHORT_DECIMAL.getScale()));
+                }
+                else {
+                    values.add(null);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        protected Type getType()
+        {
+            return SHORT_DECIMAL;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LongDecimalWithNullBenchmarkData
+            extends BenchmarkData
+    {
+        private static final DecimalType LONG_DECIMAL = createDecimalType(38, 2);
+
+        @Override
+        protected List<?> generateValues()
+        {
+            List<SqlDecimal> values = new ArrayList<>();
+            for (int i = 0; i < ROWS; ++i) {
+                if (random.nextBoolean()) {
+                    values.add(new SqlDecimal(new BigInteger(120, random).subtract(BigInteger.ONE.shiftLeft(119)), LONG_DECIMAL.getPrecision(), LONG_DECIMAL.getScale()));
+                }
+                else {
+                    values.add(null);
+                }
+            }
+            return values;
+        }
+
+        @Override
+        protected Type getType()
+        {
+            return LONG_DECIMAL;
+        }
+    }
+
     @State(Scope.Thread)
     public static class Int96NoNullBenchmarkData
             extends BenchmarkData
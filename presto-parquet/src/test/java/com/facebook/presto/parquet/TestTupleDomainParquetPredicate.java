@@ -31,11 +31,17 @@ import org.apache.parquet.column.statistics.FloatStatistics;
 import org.apache.parquet.column.statistics.IntStatistics;
 import org.apache.parquet.column.statistics.LongStatistics;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 
@@ -47,10 +53,13 @@ import static com.facebook.presto.common.predicate.TupleDomain.withColumnDomains
 import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.common.type.DateType.DATE;
+import static com.facebook.presto.common.type.DecimalType.createDecimalType;
+import static com.facebook.presto.common.type.Decimals.encodeUnscaledValue;
 import static com.facebook.presto.common.type.DoubleType.DOUBLE;
 import static com.facebook.presto.common.type.IntegerType.INTEGER;
 import static com.facebook.presto.common.type.RealType.REAL;
 import static com.facebook.presto.common.type.SmallintType.SMALLINT;
+import static com.facebook.presto.common.type.TimestampType.TIMESTAMP;
 import static com.facebook.presto.common.type.TinyintType.TINYINT;
 import static com.facebook.presto.common.type.VarcharType.createUnboundedVarcharType;
 import static com.facebook.presto.common.type.VarcharType.createVarcharType;
@@ -63,12 +72,16 @@ import static java.lang.Float.floatToRawIntBits;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.apache.parquet.column.statistics.Statistics.getStatsBasedOnType;
+import static org.apache.parquet.schema.OriginalType.DECIMAL;
+import static org.apache.parquet.schema.OriginalType.TIMESTAMP_MICROS;
 import static org.apache.parquet.schema.OriginalType.UTF8;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FLOAT;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT96;
 import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
 import static org.apache.parquet.schema.Type.Repetition.REQUIRED;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -354,6 +367,172 @@ public class TestTupleDomainParquetPredicate
         assertTrue(parquetPredicate.matches(new DictionaryDescriptor(column, Optional.of(page))));
     }
 
+    @Test
+    public void testBigintMatchesWithBloomFilter()
+    {
+        RichColumnDescriptor column = new RichColumnDescriptor(
+                new ColumnDescriptor(new String[] {"path"}, INT64, 0, 0),
+                new PrimitiveType(OPTIONAL, INT64, "Test column"));
+        TupleDomainParquetPredicate parquetPredicate = new TupleDomainParquetPredicate(
+                withColumnDomains(ImmutableMap.of(column, Domain.create(ValueSet.of(BIGINT, 42L, 404L), false))),
+                singletonList(column));
+
+        BloomFilter bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(404L));
+        assertTrue(parquetPredicate.matches(column, bloomFilter));
+
+        bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(43L));
+        assertFalse(parquetPredicate.matches(column, bloomFilter));
+
+        // ranges can't be checked against a bloom filter
+        TupleDomainParquetPredicate rangePredicate = new TupleDomainParquetPredicate(
+                withColumnDomains(ImmutableMap.of(column, create(ValueSet.ofRanges(range(BIGINT, 40L, true, 42L, true)), false))),
+                singletonList(column));
+        assertTrue(rangePredicate.matches(column, bloomFilter));
+
+        // bloom filters don't contain nulls
+        TupleDomainParquetPredicate nullablePredicate = new TupleDomainParquetPredicate(
+                withColumnDomains(ImmutableMap.of(column, Domain.create(ValueSet.of(BIGINT, 42L), true))),
+                singletonList(column));
+        assertTrue(nullablePredicate.matches(column, bloomFilter));
+    }
+
+    @Test
+    public void testVarcharMatchesWithBloomFilter()
+    {
+        ColumnDescriptor columnDescriptor = new ColumnDescriptor(new String[] {"path"}, new PrimitiveType(OPTIONAL, BINARY, 0, ""), 0, 0);
+        RichColumnDescriptor column = new RichColumnDescriptor(columnDescriptor, new PrimitiveType(OPTIONAL, BINARY, "Test column"));
+        TupleDomainParquetPredicate parquetPredicate = new TupleDomainParquetPredicate(
+                getEffectivePredicate(column, createVarcharType(255), utf8Slice("presto")),
+                singletonList(column));
+
+        BloomFilter bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(Binary.fromString("presto")));
+        assertTrue(parquetPredicate.matches(column, bloomFilter));
+
+        bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(Binary.fromString("parquet")));
+        assertFalse(parquetPredicate.matches(column, bloomFilter));
+    }
+
+    @Test
+    public void testRealMatchesWithBloomFilter()
+    {
+        RichColumnDescriptor column = createBloomFilterColumn(Types.optional(FLOAT).named("Test column"));
+        TupleDomainParquetPredicate parquetPredicate = createBloomFilterPredicate(column, REAL, (long) floatToRawIntBits(4.2f));
+
+        BloomFilter bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(4.2f));
+        assertTrue(parquetPredicate.matches(column, bloomFilter));
+
+        bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(4.3f));
+        assertFalse(parquetPredicate.matches(column, bloomFilter));
+
+        // zero and NaN have more than one bit pattern, so the filter is not used for them
+        assertTrue(createBloomFilterPredicate(column, REAL, (long) floatToRawIntBits(0.0f)).matches(column, bloomFilter));
+        assertTrue(createBloomFilterPredicate(column, REAL, (long) floatToRawIntBits(-0.0f)).matches(column, bloomFilter));
+        assertTrue(createBloomFilterPredicate(column, REAL, (long) floatToRawIntBits(NaN)).matches(column, bloomFilter));
+    }
+
+    @Test
+    public void testDoubleMatchesWithBloomFilter()
+    {
+        RichColumnDescriptor column = createBloomFilterColumn(Types.optional(PrimitiveTypeName.DOUBLE).named("Test column"));
+        TupleDomainParquetPredicate parquetPredicate = createBloomFilterPredicate(column, DOUBLE, 4.2);
+
+        BloomFilter bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(4.2));
+        assertTrue(parquetPredicate.matches(column, bloomFilter));
+
+        bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(4.3));
+        assertFalse(parquetPredicate.matches(column, bloomFilter));
+
+        assertTrue(createBloomFilterPredicate(column, DOUBLE, 0.0).matches(column, bloomFilter));
+        assertTrue(createBloomFilterPredicate(column, DOUBLE, -0.0).matches(column, bloomFilter));
+        assertTrue(createBloomFilterPredicate(column, DOUBLE, Double.NaN).matches(column, bloomFilter));
+    }
+
+    @Test
+    public void testShortDecimalMatchesWithBloomFilter()
+    {
+        RichColumnDescriptor int32Column = createBloomFilterColumn(Types.optional(INT32).as(DECIMAL).precision(9).scale(2).named("Test column"));
+        TupleDomainParquetPredicate int32Predicate = createBloomFilterPredicate(int32Column, createDecimalType(9, 2), -12345L);
+
+        BloomFilter bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(-12345));
+        assertTrue(int32Predicate.matches(int32Column, bloomFilter));
+
+        bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(12345));
+        assertFalse(int32Predicate.matches(int32Column, bloomFilter));
+
+        RichColumnDescriptor int64Column = createBloomFilterColumn(Types.optional(INT64).as(DECIMAL).precision(18).scale(2).named("Test column"));
+        TupleDomainParquetPredicate int64Predicate = createBloomFilterPredicate(int64Column, createDecimalType(18, 2), 12345678901L);
+
+        bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(12345678901L));
+        assertTrue(int64Predicate.matches(int64Column, bloomFilter));
+
+        bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(12345678902L));
+        assertFalse(int64Predicate.matches(int64Column, bloomFilter));
+
+        // unscaled values of a different scale are not comparable
+        assertTrue(createBloomFilterPredicate(int64Column, createDecimalType(18, 3), 12345678901L).matches(int64Column, bloomFilter));
+    }
+
+    @Test
+    public void testLongDecimalMatchesWithBloomFilter()
+    {
+        RichColumnDescriptor column = createBloomFilterColumn(Types.optional(FIXED_LEN_BYTE_ARRAY).length(16).as(DECIMAL).precision(38).scale(2).named("Test column"));
+        TupleDomainParquetPredicate parquetPredicate = createBloomFilterPredicate(column, createDecimalType(38, 2), encodeUnscaledValue(BigInteger.valueOf(-2)));
+
+        byte[] negativeTwo = new byte[16];
+        Arrays.fill(negativeTwo, (byte) 0xFF);
+        negativeTwo[15] = (byte) 0xFE;
+        BloomFilter bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(Binary.fromConstantByteArray(negativeTwo)));
+        assertTrue(parquetPredicate.matches(column, bloomFilter));
+
+        byte[] positiveTwo = new byte[16];
+        positiveTwo[15] = 2;
+        bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(Binary.fromConstantByteArray(positiveTwo)));
+        assertFalse(parquetPredicate.matches(column, bloomFilter));
+
+        // BINARY decimals are not padded to a known width
+        RichColumnDescriptor binaryColumn = createBloomFilterColumn(Types.optional(BINARY).as(DECIMAL).precision(38).scale(2).named("Test column"));
+        assertTrue(createBloomFilterPredicate(binaryColumn, createDecimalType(38, 2), encodeUnscaledValue(BigInteger.valueOf(-2))).matches(binaryColumn, bloomFilter));
+    }
+
+    @Test
+    public void testTimestampDoesNotUseBloomFilter()
+    {
+        RichColumnDescriptor column = createBloomFilterColumn(Types.optional(INT64).as(TIMESTAMP_MICROS).named("Test column"));
+        TupleDomainParquetPredicate parquetPredicate = createBloomFilterPredicate(column, TIMESTAMP, 1000L);
+
+        // a millisecond value stands for every stored microsecond value that truncates to it
+        BloomFilter bloomFilter = new BlockSplitBloomFilter(BlockSplitBloomFilter.LOWER_BOUND_BYTES);
+        bloomFilter.insertHash(bloomFilter.hash(1_000_001L));
+        assertTrue(parquetPredicate.matches(column, bloomFilter));
+
+        RichColumnDescriptor int96Column = createBloomFilterColumn(Types.optional(INT96).named("Test column"));
+        assertTrue(createBloomFilterPredicate(int96Column, TIMESTAMP, 1000L).matches(int96Column, bloomFilter));
+    }
+
+    private static RichColumnDescriptor createBloomFilterColumn(PrimitiveType primitiveType)
+    {
+        return new RichColumnDescriptor(new ColumnDescriptor(new String[] {"path"}, primitiveType, 0, 0), primitiveType);
+    }
+
+    private static TupleDomainParquetPredicate createBloomFilterPredicate(RichColumnDescriptor column, Type type, Object value)
+    {
+        return new TupleDomainParquetPredicate(withColumnDomains(ImmutableMap.of(column, singleValue(type, value))), singletonList(column));
+    }
+
     private TupleDomain<ColumnDescriptor> getEffectivePredicate(RichColumnDescriptor column, VarcharType type, Slice value)
     {
         ColumnDescriptor predicateColumn = new ColumnDescriptor(column.getPath(), column.getType(), 0, 0);
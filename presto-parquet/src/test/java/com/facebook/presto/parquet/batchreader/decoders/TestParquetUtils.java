@@ -26,9 +26,11 @@ import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
 import org.apache.parquet.io.api.Binary;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
@@ -156,6 +158,23 @@ public class TestParquetUtils
         }
     }
 
+    public static byte[] generateFixedLenByteArrayDecimalPage(int valueCount, int typeLength, Random random, List<Object> addedValues)
+    {
+        byte[] page = new byte[valueCount * typeLength];
+        for (int i = 0; i < valueCount; i++) {
+            BigInteger value = new BigInteger(typeLength * 8 - 1, random);
+            if (random.nextBoolean()) {
+                value = value.negate();
+            }
+            byte[] valueBytes = value.toByteArray();
+            int valueOffset = (i + 1) * typeLength - valueBytes.length;
+            Arrays.fill(page, i * typeLength, valueOffset, (byte) (value.signum() < 0 ? -1 : 0));
+            System.arraycopy(valueBytes, 0, page, valueOffset, valueBytes.length);
+            addedValues.add(value);
+        }
+        return page;
+    }
+
     public static byte[] generateDictionaryIdPage2048(int maxValue, Random random, List<Integer> addedValues)
     {
         RunLengthBitPackingHybridEncoder encoder = getDictionaryDataPageEncoder(maxValue);
@@ -19,9 +19,12 @@ import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.BooleanVal
 import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.Int32ValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.Int64TimestampMicrosValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.Int64ValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.LongDecimalValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.ShortDecimalValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.ValuesDecoder.TimestampValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.BinaryPlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.BooleanPlainValuesDecoder;
+import com.facebook.presto.parquet.batchreader.decoders.plain.FixedLenByteArrayPlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.Int32PlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.Int64PlainValuesDecoder;
 import com.facebook.presto.parquet.batchreader.decoders.plain.Int64TimestampMicrosPlainValuesDecoder;
@@ -41,15 +44,19 @@ import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.OptionalInt;
 import java.util.Random;
 import java.util.stream.Collectors;
 
+import static com.facebook.presto.common.type.Decimals.decodeUnscaledValue;
 import static com.facebook.presto.parquet.ParquetEncoding.PLAIN_DICTIONARY;
 import static com.facebook.presto.parquet.batchreader.decoders.TestParquetUtils.generateDictionaryIdPage2048;
+import static com.facebook.presto.parquet.batchreader.decoders.TestParquetUtils.generateFixedLenByteArrayDecimalPage;
 import static com.facebook.presto.parquet.batchreader.decoders.TestParquetUtils.generatePlainValuesPage;
 import static java.lang.Math.min;
 import static org.apache.parquet.bytes.BytesUtils.UTF8;
@@ -118,6 +125,11 @@ public class TestValuesDecoders
         return new BooleanRLEValuesDecoder(ByteBuffer.wrap(pageBytes));
     }
 
+    private static BinaryValuesDecoder fixedLenByteArrayPlain(byte[] pageBytes, int typeLength)
+    {
+        return new FixedLenByteArrayPlainValuesDecoder(pageBytes, 0, pageBytes.length, typeLength);
+    }
+
     private static void int32BatchReadWithSkipHelper(int batchSize, int skipSize, int valueCount, Int32ValuesDecoder decoder, List<Object> expectedValues)
             throws IOException
     {
@@ -258,6 +270,53 @@ public class TestValuesDecoders
         }
     }
 
+    private static void shortDecimalBatchReadWithSkipHelper(int batchSize, int skipSize, int valueCount, ShortDecimalValuesDecoder decoder, List<Object> expectedValues)
+            throws IOException
+    {
+        long[] actualValues = new long[valueCount];
+        int inputOffset = 0;
+        int outputOffset = 0;
+        while (inputOffset < valueCount) {
+            int readBatchSize = min(batchSize, valueCount - inputOffset);
+            decoder.readNext(actualValues, outputOffset, readBatchSize);
+
+            for (int i = 0; i < readBatchSize; i++) {
+                assertEquals(actualValues[outputOffset + i], ((Number) expectedValues.get(inputOffset + i)).longValue());
+            }
+
+            inputOffset += readBatchSize;
+            outputOffset += readBatchSize;
+
+            int skipBatchSize = min(skipSize, valueCount - inputOffset);
+            decoder.skip(skipBatchSize);
+            inputOffset += skipBatchSize;
+        }
+    }
+
+    private static void longDecimalBatchReadWithSkipHelper(int batchSize, int skipSize, int valueCount, LongDecimalValuesDecoder decoder, List<Object> expectedValues)
+            throws IOException
+    {
+        long[] actualValues = new long[2 * valueCount];
+        int inputOffset = 0;
+        int outputOffset = 0;
+        while (inputOffset < valueCount) {
+            int readBatchSize = min(batchSize, valueCount - inputOffset);
+            decoder.readNext(actualValues, outputOffset, readBatchSize);
+
+            for (int i = 0; i < readBatchSize; i++) {
+                BigInteger actual = decodeUnscaledValue(Slices.wrappedLongArray(actualValues, 2 * (outputOffset + i), 2));
+                assertEquals(actual, expectedValues.get(inputOffset + i));
+            }
+
+            inputOffset += readBatchSize;
+            outputOffset += readBatchSize;
+
+            int skipBatchSize = min(skipSize, valueCount - inputOffset);
+            decoder.skip(skipBatchSize);
+            inputOffset += skipBatchSize;
+        }
+    }
+
     @Test
     public void testInt32Plain()
             throws IOException
@@ -515,4 +574,80 @@ public class TestValuesDecoders
         booleanBatchReadWithSkipHelper(89, 29, valueCount, booleanRLE(dataPage), expectedValues);
         booleanBatchReadWithSkipHelper(1024, 1024, valueCount, booleanRLE(dataPage), expectedValues);
     }
+
+    @Test
+    public void testShortDecimalInt32Plain()
+            throws IOException
+    {
+        int valueCount = 2048;
+        List<Object> expectedValues = new ArrayList<>();
+
+        byte[] pageBytes = generatePlainValuesPage(valueCount, 32, new Random(89), expectedValues);
+
+        shortDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, new Int32ShortDecimalValuesDecoder(int32Plain(pageBytes)), expectedValues);
+        shortDecimalBatchReadWithSkipHelper(89, 0, valueCount, new Int32ShortDecimalValuesDecoder(int32Plain(pageBytes)), expectedValues);
+        shortDecimalBatchReadWithSkipHelper(89, 29, valueCount, new Int32ShortDecimalValuesDecoder(int32Plain(pageBytes)), expectedValues);
+        shortDecimalBatchReadWithSkipHelper(1024, 1024, valueCount, new Int32ShortDecimalValuesDecoder(int32Plain(pageBytes)), expectedValues);
+    }
+
+    @Test
+    public void testShortDecimalFixedLenByteArrayPlain()
+            throws IOException
+    {
+        int valueCount = 2048;
+        for (int typeLength : new int[] {1, 5, 8}) {
+            List<Object> expectedValues = new ArrayList<>();
+
+            byte[] pageBytes = generateFixedLenByteArrayDecimalPage(valueCount, typeLength, new Random(113), expectedValues);
+
+            shortDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, new BinaryShortDecimalValuesDecoder(fixedLenByteArrayPlain(pageBytes, typeLength)), expectedValues);
+            shortDecimalBatchReadWithSkipHelper(89, 0, valueCount, new BinaryShortDecimalValuesDecoder(fixedLenByteArrayPlain(pageBytes, typeLength)), expectedValues);
+            shortDecimalBatchReadWithSkipHelper(89, 29, valueCount, new BinaryShortDecimalValuesDecoder(fixedLenByteArrayPlain(pageBytes, typeLength)), expectedValues);
+            shortDecimalBatchReadWithSkipHelper(1024, 1024, valueCount, new BinaryShortDecimalValuesDecoder(fixedLenByteArrayPlain(pageBytes, typeLength)), expectedValues);
+        }
+    }
+
+    @Test
+    public void testLongDecimalFixedLenByteArrayPlain()
+            throws IOException
+    {
+        int valueCount = 2048;
+        for (int typeLength : new int[] {3, 8, 11, 16}) {
+            List<Object> expectedValues = new ArrayList<>();
+
+            byte[] pageBytes = generateFixedLenByteArrayDecimalPage(valueCount, typeLength, new Random(113), expectedValues);
+
+            longDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, new BinaryLongDecimalValuesDecoder(fixedLenByteArrayPlain(pageBytes, typeLength)), expectedValues);
+            longDecimalBatchReadWithSkipHelper(89, 0, valueCount, new BinaryLongDecimalValuesDecoder(fixedLenByteArrayPlain(pageBytes, typeLength)), expectedValues);
+            longDecimalBatchReadWithSkipHelper(89, 29, valueCount, new BinaryLongDecimalValuesDecoder(fixedLenByteArrayPlain(pageBytes, typeLength)), expectedValues);
+            longDecimalBatchReadWithSkipHelper(1024, 1024, valueCount, new BinaryLongDecimalValuesDecoder(fixedLenByteArrayPlain(pageBytes, typeLength)), expectedValues);
+        }
+    }
+
+    @Test
+    public void testLongDecimalFixedLenByteArrayRLEDictionary()
+            throws IOException
+    {
+        Random random = new Random(83);
+        int valueCount = 2048;
+        int dictionarySize = 29;
+        int typeLength = 16;
+        List<Object> dictionary = new ArrayList<>();
+        List<Integer> dictionaryIds = new ArrayList<>();
+
+        byte[] dictionaryPage = generateFixedLenByteArrayDecimalPage(dictionarySize, typeLength, random, dictionary);
+        byte[] dataPage = generateDictionaryIdPage2048(dictionarySize - 1, random, dictionaryIds);
+
+        List<Object> expectedValues = new ArrayList<>();
+        for (Integer dictionaryId : dictionaryIds) {
+            expectedValues.add(dictionary.get(dictionaryId));
+        }
+
+        BinaryBatchDictionary binaryDictionary = new BinaryBatchDictionary(new DictionaryPage(Slices.wrappedBuffer(dictionaryPage), dictionarySize, PLAIN_DICTIONARY), OptionalInt.of(typeLength));
+
+        longDecimalBatchReadWithSkipHelper(valueCount, 0, valueCount, new BinaryLongDecimalValuesDecoder(binaryDictionary(dataPage, dictionarySize, binaryDictionary)), expectedValues);
+        longDecimalBatchReadWithSkipHelper(89, 0, valueCount, new BinaryLongDecimalValuesDecoder(binaryDictionary(dataPage, dictionarySize, binaryDictionary)), expectedValues);
+        longDecimalBatchReadWithSkipHelper(89, 29, valueCount, new BinaryLongDecimalValuesDecoder(binaryDictionary(dataPage, dictionarySize, binaryDictionary)), expectedValues);
+        longDecimalBatchReadWithSkipHelper(1024, 1024, valueCount, new BinaryLongDecimalValuesDecoder(binaryDictionary(dataPage, dictionarySize, binaryDictionary)), expectedValues);
+    }
 }
@@ -41,6 +41,7 @@ public class RaptorSessionProperties
     private static final String READER_LAZY_READ_SMALL_RANGES = "reader_lazy_read_small_ranges";
     private static final String ONE_SPLIT_PER_BUCKET_THRESHOLD = "one_split_per_bucket_threshold";
     private static final String ORC_ZSTD_JNI_DECOMPRESSION_ENABLED = "orc_ztd_jni_decompression_enabled";
+    private static final String READER_MEMORY_MAPPED_READS_ENABLED = "reader_memory_mapped_reads_enabled";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -88,6 +89,11 @@ public class RaptorSessionProperties
                         "use JNI based std decompression for reading ORC files",
                         config.isZstdJniDecompressionEnabled(),
                         true),
+                booleanProperty(
+                        READER_MEMORY_MAPPED_READS_ENABLED,
+                        "Experimental: Reader: Read local shards through a memory mapping",
+                        config.isOrcMemoryMappedReadsEnabled(),
+                        false),
                 dataSizeSessionProperty(
                         WRITER_MAX_BUFFER_SIZE,
                         "Raptor page writer max logical buffer size",
@@ -145,6 +151,11 @@ public class RaptorSessionProperties
         return session.getProperty(ORC_ZSTD_JNI_DECOMPRESSION_ENABLED, Boolean.class);
     }
 
+    public static boolean isReaderMemoryMappedReadsEnabled(ConnectorSession session)
+    {
+        return session.getProperty(READER_MEMORY_MAPPED_READS_ENABLED, Boolean.class);
+    }
+
     public static PropertyMetadata<DataSize> dataSizeSessionProperty(String name, String description, DataSize defaultValue, boolean hidden)
     {
         return new PropertyMetadata<>(
@@ -20,6 +20,8 @@ import com.facebook.presto.cache.ForCachingFileSystem;
 import com.facebook.presto.cache.NoOpCacheManager;
 import com.facebook.presto.cache.filemerge.FileMergeCacheConfig;
 import com.facebook.presto.cache.filemerge.FileMergeCacheManager;
+import com.facebook.presto.cache.tiered.TieredCacheConfig;
+import com.facebook.presto.cache.tiered.TieredCacheManager;
 import com.facebook.presto.raptor.storage.OrcDataEnvironment;
 import com.facebook.presto.raptor.storage.StorageManagerConfig;
 import com.facebook.presto.raptor.storage.StorageService;
@@ -34,6 +36,7 @@ import javax.inject.Singleton;
 import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
 import static com.facebook.airlift.configuration.ConfigBinder.configBinder;
 import static com.facebook.presto.cache.CacheType.FILE_MERGE;
+import static com.facebook.presto.cache.CacheType.TIERED;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.weakref.jmx.guice.ExportBinder.newExporter;
 
@@ -48,6 +51,7 @@ public class HdfsModule
 
         configBinder(binder).bindConfig(CacheConfig.class);
         configBinder(binder).bindConfig(FileMergeCacheConfig.class);
+        configBinder(binder).bindConfig(TieredCacheConfig.class);
         binder.bind(CacheStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(CacheStats.class).withGeneratedName();
 
@@ -67,16 +71,23 @@ public class HdfsModule
 
     @Singleton
     @Provides
-    public CacheManager createCacheManager(CacheConfig cacheConfig, FileMergeCacheConfig fileMergeCacheConfig, CacheStats cacheStats)
+    public CacheManager createCacheManager(CacheConfig cacheConfig, FileMergeCacheConfig fileMergeCacheConfig, TieredCacheConfig tieredCacheConfig, CacheStats cacheStats)
     {
-        if (cacheConfig.isCachingEnabled() && cacheConfig.getCacheType() == FILE_MERGE) {
-            return new FileMergeCacheManager(
+        if (!cacheConfig.isCachingEnabled()) {
+            return new NoOpCacheManager();
+        }
+        if (cacheConfig.getCacheType() == FILE_MERGE || cacheConfig.getCacheType() == TIERED) {
+            FileMergeCacheManager fileMergeCacheManager = new FileMergeCacheManager(
                     cacheConfig,
                     fileMergeCacheConfig,
                     cacheStats,
                     newScheduledThreadPool(5, daemonThreadsNamed("raptor-cache-flusher-%s")),
                     newScheduledThreadPool(1, daemonThreadsNamed("raptor-cache-remover-%s")),
                     newScheduledThreadPool(1, daemonThreadsNamed("hive-cache-size-calculator-%s")));
+            if (cacheConfig.getCacheType() == TIERED) {
+                return new TieredCacheManager(tieredCacheConfig, fileMergeCacheManager, cacheStats);
+            }
+            return fileMergeCacheManager;
         }
         return new NoOpCacheManager();
     }
@@ -16,6 +16,7 @@ package com.facebook.presto.raptor.filesystem;
 import com.facebook.presto.common.io.DataSink;
 import com.facebook.presto.common.io.OutputStreamDataSink;
 import com.facebook.presto.hive.HdfsContext;
+import com.facebook.presto.orc.OrcAggregatedMemoryContext;
 import com.facebook.presto.orc.OrcDataSource;
 import com.facebook.presto.orc.OrcDataSourceId;
 import com.facebook.presto.raptor.storage.OrcDataEnvironment;
@@ -56,7 +57,7 @@ public class HdfsOrcDataEnvironment
     }
 
     @Override
-    public OrcDataSource createOrcDataSource(FileSystem fileSystem, Path path, ReaderAttributes readerAttributes)
+    public OrcDataSource createOrcDataSource(FileSystem fileSystem, Path path, ReaderAttributes readerAttributes, OrcAggregatedMemoryContext systemMemoryContext)
             throws IOException
     {
         return new HdfsOrcDataSource(
@@ -17,6 +17,8 @@ import com.facebook.presto.common.io.DataSink;
 import com.facebook.presto.common.io.OutputStreamDataSink;
 import com.facebook.presto.hive.HdfsContext;
 import com.facebook.presto.orc.FileOrcDataSource;
+import com.facebook.presto.orc.MemoryMappedOrcDataSource;
+import com.facebook.presto.orc.OrcAggregatedMemoryContext;
 import com.facebook.presto.orc.OrcDataSource;
 import com.facebook.presto.raptor.storage.OrcDataEnvironment;
 import com.facebook.presto.raptor.storage.ReaderAttributes;
@@ -28,6 +30,7 @@ import org.apache.hadoop.fs.RawLocalFileSystem;
 
 import javax.inject.Inject;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Optional;
@@ -63,11 +66,15 @@ public class LocalOrcDataEnvironment
     }
 
     @Override
-    public OrcDataSource createOrcDataSource(FileSystem ignore, Path path, ReaderAttributes readerAttributes)
+    public OrcDataSource createOrcDataSource(FileSystem ignore, Path path, ReaderAttributes readerAttributes, OrcAggregatedMemoryContext systemMemoryContext)
             throws IOException
     {
+        File file = localFileSystem.pathToFile(path);
+        if (readerAttributes.isMemoryMappedReadsEnabled() && MemoryMappedOrcDataSource.canMap(file)) {
+            return new MemoryMappedOrcDataSource(file, systemMemoryContext);
+        }
         return new FileOrcDataSource(
-                localFileSystem.pathToFile(path),
+                file,
                 readerAttributes.getMaxMergeDistance(),
                 readerAttributes.getMaxReadSize(),
                 readerAttributes.getStreamBufferSize(),
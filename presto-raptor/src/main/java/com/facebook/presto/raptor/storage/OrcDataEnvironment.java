@@ -15,6 +15,7 @@ package com.facebook.presto.raptor.storage;
 
 import com.facebook.presto.common.io.DataSink;
 import com.facebook.presto.hive.HdfsContext;
+import com.facebook.presto.orc.OrcAggregatedMemoryContext;
 import com.facebook.presto.orc.OrcDataSource;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -25,7 +26,7 @@ public interface OrcDataEnvironment
 {
     FileSystem getFileSystem(HdfsContext context);
 
-    OrcDataSource createOrcDataSource(FileSystem fileSystem, Path path, ReaderAttributes readerAttributes)
+    OrcDataSource createOrcDataSource(FileSystem fileSystem, Path path, ReaderAttributes readerAttributes, OrcAggregatedMemoryContext systemMemoryContext)
             throws IOException;
 
     DataSink createOrcDataSink(FileSystem fileSystem, Path path)
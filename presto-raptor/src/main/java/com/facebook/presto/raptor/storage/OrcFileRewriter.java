@@ -106,7 +106,7 @@ public final class OrcFileRewriter
             throws IOException
     {
         try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(FileSystem.class.getClassLoader());
-                OrcDataSource dataSource = orcDataEnvironment.createOrcDataSource(fileSystem, input, readerAttributes)) {
+                OrcDataSource dataSource = orcDataEnvironment.createOrcDataSource(fileSystem, input, readerAttributes, new RaptorOrcAggregatedMemoryContext())) {
             OrcReader reader = new OrcReader(
                     dataSource,
                     ORC,
@@ -261,14 +261,16 @@ public class OrcPageSource
             }
 
             checkState(batchId == expectedBatchId);
+            // the data source may have released the file data, for example unmapped it, when the page source was closed
+            checkState(!closed, "Page source is closed");
 
             try {
-                Block block = recordReader.readBlock(columnIndex);
                 if (rowsToKeep.keepAll()) {
-                    lazyBlock.setBlock(block);
+                    lazyBlock.setBlock(recordReader.readBlock(columnIndex));
                 }
                 else {
-                    lazyBlock.setBlock(block.getPositions(rowsToKeep.elements(), 0, rowsToKeep.size()));
+                    // skip decoding the deleted rows
+                    lazyBlock.setBlock(recordReader.readBlock(columnIndex, rowsToKeep.elements(), 0, rowsToKeep.size()));
                 }
             }
             catch (IOException e) {
@@ -285,9 +285,8 @@ public class OrcStorageManager
             Optional<Map<String, Type>> allColumnTypes)
     {
         FileSystem fileSystem = orcDataEnvironment.getFileSystem(hdfsContext);
-        OrcDataSource dataSource = openShard(fileSystem, shardUuid, readerAttributes);
-
         OrcAggregatedMemoryContext systemMemoryUsage = new RaptorOrcAggregatedMemoryContext();
+        OrcDataSource dataSource = openShard(fileSystem, shardUuid, readerAttributes, systemMemoryUsage);
 
         try {
             OrcReader reader = new OrcReader(
@@ -380,8 +379,8 @@ public class OrcStorageManager
             return Optional.empty();
         }
 
-        try (OrcDataSource dataSource = openShard(fileSystem, deltaShardUuid.get(), defaultReaderAttributes)) {
-            OrcAggregatedMemoryContext systemMemoryUsage = new RaptorOrcAggregatedMemoryContext();
+        OrcAggregatedMemoryContext systemMemoryUsage = new RaptorOrcAggregatedMemoryContext();
+        try (OrcDataSource dataSource = openShard(fileSystem, deltaShardUuid.get(), defaultReaderAttributes, systemMemoryUsage)) {
             OrcReader reader = new OrcReader(
                     dataSource,
                     ORC,
@@ -500,6 +499,11 @@ public class OrcStorageManager
 
     @VisibleForTesting
     OrcDataSource openShard(FileSystem fileSystem, UUID shardUuid, ReaderAttributes readerAttributes)
+    {
+        return openShard(fileSystem, shardUuid, readerAttributes, new RaptorOrcAggregatedMemoryContext());
+    }
+
+    private OrcDataSource openShard(FileSystem fileSystem, UUID shardUuid, ReaderAttributes readerAttributes, OrcAggregatedMemoryContext systemMemoryContext)
     {
         Path file = storageService.getStorageFile(shardUuid);
 
@@ -532,7 +536,7 @@ public class OrcStorageManager
         }
 
         try {
-            return orcDataEnvironment.createOrcDataSource(fileSystem, file, readerAttributes);
+            return orcDataEnvironment.createOrcDataSource(fileSystem, file, readerAttributes, systemMemoryContext);
         }
         catch (IOException e) {
             throw new PrestoException(RAPTOR_ERROR, "Failed to open shard file: " + file, e);
@@ -551,7 +555,7 @@ public class OrcStorageManager
 
     private List<ColumnStats> computeShardStats(FileSystem fileSystem, Path file)
     {
-        try (OrcDataSource dataSource = orcDataEnvironment.createOrcDataSource(fileSystem, file, defaultReaderAttributes)) {
+        try (OrcDataSource dataSource = orcDataEnvironment.createOrcDataSource(fileSystem, file, defaultReaderAttributes, new RaptorOrcAggregatedMemoryContext())) {
             OrcReader reader = new OrcReader(
                     dataSource,
                     ORC,
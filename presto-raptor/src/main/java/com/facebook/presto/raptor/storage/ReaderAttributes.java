@@ -29,14 +29,15 @@ public class ReaderAttributes
     private final DataSize streamBufferSize;
     private final boolean lazyReadSmallRanges;
     private final boolean zstdJniDecompressionEnabled;
+    private final boolean memoryMappedReadsEnabled;
 
     @Inject
     public ReaderAttributes(StorageManagerConfig config)
     {
-        this(config.getOrcMaxMergeDistance(), config.getOrcMaxReadSize(), config.getOrcStreamBufferSize(), config.getOrcTinyStripeThreshold(), config.isOrcLazyReadSmallRanges(), config.isZstdJniDecompressionEnabled());
+        this(config.getOrcMaxMergeDistance(), config.getOrcMaxReadSize(), config.getOrcStreamBufferSize(), config.getOrcTinyStripeThreshold(), config.isOrcLazyReadSmallRanges(), config.isZstdJniDecompressionEnabled(), config.isOrcMemoryMappedReadsEnabled());
     }
 
-    public ReaderAttributes(DataSize maxMergeDistance, DataSize maxReadSize, DataSize streamBufferSize, DataSize tinyStripeThreshold, boolean lazyReadSmallRanges, boolean zstdJniDecompressionEnabled)
+    public ReaderAttributes(DataSize maxMergeDistance, DataSize maxReadSize, DataSize streamBufferSize, DataSize tinyStripeThreshold, boolean lazyReadSmallRanges, boolean zstdJniDecompressionEnabled, boolean memoryMappedReadsEnabled)
     {
         this.maxMergeDistance = requireNonNull(maxMergeDistance, "maxMergeDistance is null");
         this.maxReadSize = requireNonNull(maxReadSize, "maxReadSize is null");
@@ -44,6 +45,7 @@ public class ReaderAttributes
         this.streamBufferSize = requireNonNull(streamBufferSize, "streamBufferSize is null");
         this.lazyReadSmallRanges = lazyReadSmallRanges;
         this.zstdJniDecompressionEnabled = zstdJniDecompressionEnabled;
+        this.memoryMappedReadsEnabled = memoryMappedReadsEnabled;
     }
 
     public DataSize getMaxMergeDistance()
@@ -76,6 +78,11 @@ public class ReaderAttributes
         return zstdJniDecompressionEnabled;
     }
 
+    public boolean isMemoryMappedReadsEnabled()
+    {
+        return memoryMappedReadsEnabled;
+    }
+
     public static ReaderAttributes from(ConnectorSession session)
     {
         return new ReaderAttributes(
@@ -84,6 +91,7 @@ public class ReaderAttributes
                 RaptorSessionProperties.getReaderStreamBufferSize(session),
                 RaptorSessionProperties.getReaderTinyStripeThreshold(session),
                 RaptorSessionProperties.isReaderLazyReadSmallRanges(session),
-                RaptorSessionProperties.isZstdJniDecompressionEnabled(session));
+                RaptorSessionProperties.isZstdJniDecompressionEnabled(session),
+                RaptorSessionProperties.isReaderMemoryMappedReadsEnabled(session));
     }
 }
@@ -74,6 +74,7 @@ public class StorageManagerConfig
     private String shardDayBoundaryTimeZone = TimeZoneKey.UTC_KEY.getId();
     private int maxAllowedFilesPerWriter = Integer.MAX_VALUE;
     private boolean zstdJniDecompressionEnabled;
+    private boolean orcMemoryMappedReadsEnabled;
 
     @NotNull
     public URI getDataDirectory()
@@ -461,4 +462,17 @@ public class StorageManagerConfig
         this.zstdJniDecompressionEnabled = zstdJniDecompressionEnabled;
         return this;
     }
+
+    public boolean isOrcMemoryMappedReadsEnabled()
+    {
+        return orcMemoryMappedReadsEnabled;
+    }
+
+    @Config("storage.orc.memory-mapped-reads-enabled")
+    @ConfigDescription("Read local shards smaller than 2GB through a memory mapping instead of copying them to heap buffers")
+    public StorageManagerConfig setOrcMemoryMappedReadsEnabled(boolean orcMemoryMappedReadsEnabled)
+    {
+        this.orcMemoryMappedReadsEnabled = orcMemoryMappedReadsEnabled;
+        return this;
+    }
 }
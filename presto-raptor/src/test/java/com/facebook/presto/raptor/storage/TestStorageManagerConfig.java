@@ -73,6 +73,7 @@ public class TestStorageManagerConfig
                 .setOneSplitPerBucketThreshold(0)
                 .setShardDayBoundaryTimeZone(TimeZoneKey.UTC_KEY.getId())
                 .setZstdJniDecompressionEnabled(false)
+                .setOrcMemoryMappedReadsEnabled(false)
                 .setMaxAllowedFilesPerWriter(Integer.MAX_VALUE));
     }
 
@@ -109,6 +110,7 @@ public class TestStorageManagerConfig
                 .put("storage.shard-day-boundary-time-zone", "PST")
                 .put("storage.max-allowed-files-per-writer", "50")
                 .put("storage.zstd-jni-decompression-enabled", "true")
+                .put("storage.orc.memory-mapped-reads-enabled", "true")
                 .build();
 
         StorageManagerConfig expected = new StorageManagerConfig()
@@ -139,7 +141,8 @@ public class TestStorageManagerConfig
                 .setOneSplitPerBucketThreshold(4)
                 .setShardDayBoundaryTimeZone("PST")
                 .setMaxAllowedFilesPerWriter(50)
-                .setZstdJniDecompressionEnabled(true);
+                .setZstdJniDecompressionEnabled(true)
+                .setOrcMemoryMappedReadsEnabled(true);
 
         assertFullMapping(properties, expected);
     }
@@ -72,6 +72,10 @@ public interface StandardFunctionResolution
 
     FunctionHandle minFunction(Type valueType);
 
+    boolean isSumFunction(FunctionHandle functionHandle);
+
+    FunctionHandle sumFunction(Type valueType);
+
     boolean isApproximateCountDistinctFunction(FunctionHandle functionHandle);
 
     FunctionHandle approximateCountDistinctFunction(Type valueType);
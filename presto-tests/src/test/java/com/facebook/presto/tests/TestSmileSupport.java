@@ -24,7 +24,7 @@ public class TestSmileSupport
     {
         // run TPCH Q6 with smile enabled to smoke test smile support
         try (DistributedQueryRunner queryRunner = TpchQueryRunnerBuilder.builder()
-                .setSingleExtraProperty("experimental.internal-communication.binary-transport-enabled", "true")
+                .setSingleExtraProperty("internal-communication.binary-transport-enabled", "true")
                 .build()) {
             queryRunner.execute("SELECT sum(l.extendedprice * l.discount) AS revenue " +
                     "FROM lineitem l WHERE" +